@@ -0,0 +1,250 @@
+package org.usfirst.frc.team1318.robot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.usfirst.frc.team1318.robot.climber.ClimberController;
+import org.usfirst.frc.team1318.robot.common.ActuatorOutputs;
+import org.usfirst.frc.team1318.robot.common.IController;
+import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.SensorSnapshot;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IAnalogInput;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ICANTalon;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ICompressor;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IDigitalInput;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IDoubleSolenoid;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IEncoder;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IJoystick;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IMotor;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IPowerDistributionPanel;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IRelay;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ISolenoid;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
+import org.usfirst.frc.team1318.robot.compressor.CompressorController;
+import org.usfirst.frc.team1318.robot.driver.ButtonMap;
+import org.usfirst.frc.team1318.robot.driver.IButtonMap;
+import org.usfirst.frc.team1318.robot.drivetrain.DriveTrainController;
+import org.usfirst.frc.team1318.robot.general.PositionManager;
+import org.usfirst.frc.team1318.robot.general.PowerManager;
+import org.usfirst.frc.team1318.robot.intake.IntakeController;
+import org.usfirst.frc.team1318.robot.shooter.ShooterController;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Injector;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import com.google.inject.name.Names;
+
+/**
+ * Module for benchmarking the robot loop off-robot, binding the same things as the RobotModule
+ * but using in-memory fake hardware.  The fakes are exposed so that benchmarks can drive sensor and joystick values.
+ * Like the RobotModule, sensors are read through the SensorSnapshot and actuators are written through the ActuatorOutputs,
+ * so benchmarks should call read and flush around each update.
+ *
+ */
+public class BenchmarkModule extends AbstractModule
+{
+    public final IDashboardLogger logger;
+    public final FakeHardware.Timer timer;
+    public final FakeHardware.Joystick driverJoystick;
+    public final FakeHardware.Joystick coDriverJoystick;
+    public final FakeHardware.PowerDistributionPanel pdp;
+    public final FakeHardware.Encoder leftEncoder;
+    public final FakeHardware.Encoder rightEncoder;
+    public final FakeHardware.CANTalon shooter;
+
+    public BenchmarkModule()
+    {
+        this(new NullDashboardLogger());
+    }
+
+    public BenchmarkModule(IDashboardLogger logger)
+    {
+        this.logger = logger;
+        this.timer = new FakeHardware.Timer();
+        this.driverJoystick = new FakeHardware.Joystick();
+        this.coDriverJoystick = new FakeHardware.Joystick();
+        this.pdp = new FakeHardware.PowerDistributionPanel();
+        this.leftEncoder = new FakeHardware.Encoder();
+        this.rightEncoder = new FakeHardware.Encoder();
+        this.shooter = new FakeHardware.CANTalon();
+    }
+
+    @Override
+    protected void configure()
+    {
+        this.bind(IDashboardLogger.class).toInstance(this.logger);
+        this.bind(ITimer.class).toInstance(this.timer);
+        this.bind(IButtonMap.class).to(ButtonMap.class);
+        this.bind(IJoystick.class).annotatedWith(Names.named("USER_DRIVER_JOYSTICK")).toInstance(this.driverJoystick);
+        this.bind(IJoystick.class).annotatedWith(Names.named("USER_CODRIVER_JOYSTICK")).toInstance(this.coDriverJoystick);
+        this.bind(ICompressor.class).toInstance(new FakeHardware.Compressor());
+        this.bind(IRelay.class).annotatedWith(Names.named("SHOOTER_TARGETING_LIGHT")).toInstance(new FakeHardware.Relay());
+
+        this.bind(IDigitalInput.class).annotatedWith(Names.named("AUTO_SIDE_OF_FIELD")).toInstance(new FakeHardware.DigitalInput());
+        this.bind(IDigitalInput.class).annotatedWith(Names.named("AUTO_DIP_SWITCH_A")).toInstance(new FakeHardware.DigitalInput());
+        this.bind(IDigitalInput.class).annotatedWith(Names.named("AUTO_DIP_SWITCH_B")).toInstance(new FakeHardware.DigitalInput());
+    }
+
+    /**
+     * The controllers from the RobotModule, except for the VisionManager (which requires real cameras)
+     */
+    @Singleton
+    @Provides
+    public ControllerManager getControllerManager(Injector injector, IDashboardLogger logger)
+    {
+        List<IController> controllerList = new ArrayList<>();
+        controllerList.add(injector.getInstance(PowerManager.class));
+        controllerList.add(injector.getInstance(PositionManager.class));
+        controllerList.add(injector.getInstance(CompressorController.class));
+        controllerList.add(injector.getInstance(DriveTrainController.class));
+        controllerList.add(injector.getInstance(ClimberController.class));
+        controllerList.add(injector.getInstance(IntakeController.class));
+        controllerList.add(injector.getInstance(ShooterController.class));
+        return new ControllerManager(logger, controllerList);
+    }
+
+    @Singleton
+    @Provides
+    public IPowerDistributionPanel getPowerManagerPdp(SensorSnapshot sensorSnapshot)
+    {
+        return sensorSnapshot.register(this.pdp);
+    }
+
+    @Singleton
+    @Provides
+    @Named("VISION_GEAR_LIGHT")
+    public ISolenoid getVisionGearLight(ActuatorOutputs actuatorOutputs)
+    {
+        return actuatorOutputs.registerSolenoid(new FakeHardware.Solenoid());
+    }
+
+    @Singleton
+    @Provides
+    @Named("VISION_SHOOTER_LIGHT")
+    public ISolenoid getVisionShooterLight(ActuatorOutputs actuatorOutputs)
+    {
+        return actuatorOutputs.registerSolenoid(new FakeHardware.Solenoid());
+    }
+
+    @Singleton
+    @Provides
+    @Named("DRIVETRAIN_LEFTMOTOR")
+    public IMotor getDriveTrainLeftMotor(ActuatorOutputs actuatorOutputs)
+    {
+        return actuatorOutputs.registerMotor(new FakeHardware.Motor());
+    }
+
+    @Singleton
+    @Provides
+    @Named("DRIVETRAIN_RIGHTMOTOR")
+    public IMotor getDriveTrainRightMotor(ActuatorOutputs actuatorOutputs)
+    {
+        return actuatorOutputs.registerMotor(new FakeHardware.Motor());
+    }
+
+    @Singleton
+    @Provides
+    @Named("DRIVETRAIN_LEFTENCODER")
+    public IEncoder getDriveTrainLeftEncoder(SensorSnapshot sensorSnapshot)
+    {
+        return sensorSnapshot.register(this.leftEncoder);
+    }
+
+    @Singleton
+    @Provides
+    @Named("DRIVETRAIN_RIGHTENCODER")
+    public IEncoder getDriveTrainRightEncoder(SensorSnapshot sensorSnapshot)
+    {
+        return sensorSnapshot.register(this.rightEncoder);
+    }
+
+    @Singleton
+    @Provides
+    @Named("INTAKE_MOTOR")
+    public IMotor getIntakeMotor(ActuatorOutputs actuatorOutputs)
+    {
+        return actuatorOutputs.registerMotor(new FakeHardware.Motor());
+    }
+
+    @Singleton
+    @Provides
+    @Named("INTAKE_ARM_SOLENOID")
+    public IDoubleSolenoid getIntakeExtender(ActuatorOutputs actuatorOutputs)
+    {
+        return actuatorOutputs.registerDoubleSolenoid(new FakeHardware.DoubleSolenoid());
+    }
+
+    @Singleton
+    @Provides
+    @Named("INTAKE_CONVEYOR_SOLENOID")
+    public IDoubleSolenoid getIntakeGearExtender(ActuatorOutputs actuatorOutputs)
+    {
+        return actuatorOutputs.registerDoubleSolenoid(new FakeHardware.DoubleSolenoid());
+    }
+
+    @Singleton
+    @Provides
+    @Named("INTAKE_GEAR_THROUGH_BEAM_SENSOR")
+    public IAnalogInput getThroughBeamSensor(SensorSnapshot sensorSnapshot)
+    {
+        return sensorSnapshot.register(new FakeHardware.AnalogInput());
+    }
+
+    @Singleton
+    @Provides
+    @Named("INTAKE_GEAR_INDICATOR_LIGHT")
+    public ISolenoid getGearIndicator(ActuatorOutputs actuatorOutputs)
+    {
+        return actuatorOutputs.registerSolenoid(new FakeHardware.Solenoid());
+    }
+
+    @Singleton
+    @Provides
+    @Named("INTAKE_MOUTH_SOLENOID")
+    public IDoubleSolenoid getIntakeMouthExtender(ActuatorOutputs actuatorOutputs)
+    {
+        return actuatorOutputs.registerDoubleSolenoid(new FakeHardware.DoubleSolenoid());
+    }
+
+    @Singleton
+    @Provides
+    @Named("CLIMBER_MOTOR")
+    public IMotor getCimberClimber(ActuatorOutputs actuatorOutputs)
+    {
+        return actuatorOutputs.registerMotor(new FakeHardware.Motor());
+    }
+
+    @Singleton
+    @Provides
+    @Named("SHOOTER_HOOD")
+    public IDoubleSolenoid getShooterHood(ActuatorOutputs actuatorOutputs)
+    {
+        return actuatorOutputs.registerDoubleSolenoid(new FakeHardware.DoubleSolenoid());
+    }
+
+    @Singleton
+    @Provides
+    @Named("SHOOTER_FEEDER")
+    public IMotor getShooterFeeder(ActuatorOutputs actuatorOutputs)
+    {
+        return actuatorOutputs.registerMotor(new FakeHardware.Motor());
+    }
+
+    @Singleton
+    @Provides
+    @Named("SHOOTER_READY_LIGHT")
+    public ISolenoid getShooterReadyLight(ActuatorOutputs actuatorOutputs)
+    {
+        return actuatorOutputs.registerSolenoid(new FakeHardware.Solenoid());
+    }
+
+    @Singleton
+    @Provides
+    @Named("SHOOTER_SHOOTER")
+    public ICANTalon getOneMotorMotor(ActuatorOutputs actuatorOutputs, SensorSnapshot sensorSnapshot)
+    {
+        return sensorSnapshot.register(actuatorOutputs.registerTalon(this.shooter));
+    }
+}
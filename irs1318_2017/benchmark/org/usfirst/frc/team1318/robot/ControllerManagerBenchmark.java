@@ -0,0 +1,80 @@
+package org.usfirst.frc.team1318.robot;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.usfirst.frc.team1318.robot.common.ActuatorOutputs;
+import org.usfirst.frc.team1318.robot.common.SensorSnapshot;
+import org.usfirst.frc.team1318.robot.driver.user.UserDriver;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import edu.wpi.first.wpilibj.Joystick.AxisType;
+
+/**
+ * Benchmark for running each of the controllers (except vision) once, as happens every robot loop,
+ * including reading the sensors and writing the actuators.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ControllerManagerBenchmark
+{
+    private BenchmarkModule module;
+    private SensorSnapshot sensorSnapshot;
+    private ActuatorOutputs actuatorOutputs;
+    private UserDriver driver;
+    private ControllerManager controllers;
+
+    @Setup
+    public void setup()
+    {
+        this.module = new BenchmarkModule();
+        Injector injector = Guice.createInjector(this.module);
+        this.driver = injector.getInstance(UserDriver.class);
+        this.controllers = injector.getInstance(ControllerManager.class);
+        this.sensorSnapshot = injector.getInstance(SensorSnapshot.class);
+        this.actuatorOutputs = injector.getInstance(ActuatorOutputs.class);
+        this.controllers.setDriver(this.driver);
+
+        this.module.driverJoystick.axes[AxisType.kX.ordinal()] = 0.3;
+        this.module.driverJoystick.axes[AxisType.kY.ordinal()] = -0.8;
+        this.sensorSnapshot.read();
+        this.driver.sampleInputs();
+        this.driver.update();
+    }
+
+    @Benchmark
+    public void update()
+    {
+        // advance time and the encoders as if the robot were driving forward
+        this.module.timer.time += 0.02;
+        this.module.leftEncoder.distance += 0.5;
+        this.module.leftEncoder.ticks += 10;
+        this.module.rightEncoder.distance += 0.5;
+        this.module.rightEncoder.ticks += 10;
+
+        this.sensorSnapshot.read();
+        this.controllers.update();
+        this.actuatorOutputs.flush();
+    }
+
+    @Benchmark
+    public void driverAndControllersUpdate()
+    {
+        this.module.timer.time += 0.02;
+        this.sensorSnapshot.read();
+        this.driver.sampleInputs();
+        this.driver.update();
+        this.controllers.update();
+        this.actuatorOutputs.flush();
+    }
+}
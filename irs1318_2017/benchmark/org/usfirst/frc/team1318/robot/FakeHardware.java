@@ -0,0 +1,280 @@
+package org.usfirst.frc.team1318.robot;
+
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.CANTalonControlMode;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.DoubleSolenoidValue;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IAnalogInput;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ICANTalon;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ICompressor;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IDigitalInput;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IDoubleSolenoid;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IEncoder;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IJoystick;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IMotor;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IPowerDistributionPanel;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IRelay;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ISolenoid;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.RelayDirection;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.RelayValue;
+
+import edu.wpi.first.wpilibj.Joystick.AxisType;
+
+/**
+ * Minimal in-memory implementations of the wpilibmocks hardware interfaces for use within benchmarks.
+ * These are used instead of Mockito mocks so that the mocking framework doesn't skew timing or allocation results.
+ *
+ */
+public class FakeHardware
+{
+    public static class Motor implements IMotor
+    {
+        public double power;
+
+        @Override
+        public void set(double power)
+        {
+            this.power = power;
+        }
+    }
+
+    public static class CANTalon extends Motor implements ICANTalon
+    {
+        public int ticks;
+        public double speed;
+        public double error;
+
+        @Override
+        public void changeControlMode(CANTalonControlMode mode)
+        {
+        }
+
+        @Override
+        public void setPIDF(double p, double i, double d, double f)
+        {
+        }
+
+        @Override
+        public void setPIDF(double p, double i, double d, double f, int izone, double closeLoopRampRate, int profile)
+        {
+        }
+
+        @Override
+        public void reverseOutput(boolean flip)
+        {
+        }
+
+        @Override
+        public void reverseSensor(boolean flip)
+        {
+        }
+
+        @Override
+        public void enableBrakeMode(boolean brake)
+        {
+        }
+
+        @Override
+        public void reset()
+        {
+            this.ticks = 0;
+        }
+
+        @Override
+        public int getTicks()
+        {
+            return this.ticks;
+        }
+
+        @Override
+        public double getSpeed()
+        {
+            return this.speed;
+        }
+
+        @Override
+        public double getError()
+        {
+            return this.error;
+        }
+    }
+
+    public static class Encoder implements IEncoder
+    {
+        public double rate;
+        public double distance;
+        public int ticks;
+
+        @Override
+        public double getRate()
+        {
+            return this.rate;
+        }
+
+        @Override
+        public double getDistance()
+        {
+            return this.distance;
+        }
+
+        @Override
+        public int get()
+        {
+            return this.ticks;
+        }
+
+        @Override
+        public void setDistancePerPulse(double distancePerPulse)
+        {
+        }
+
+        @Override
+        public void reset()
+        {
+            this.distance = 0.0;
+            this.ticks = 0;
+        }
+    }
+
+    public static class Joystick implements IJoystick
+    {
+        public final double[] axes = new double[AxisType.values().length];
+        public final boolean[] buttons = new boolean[32];
+        public int pov = -1;
+
+        @Override
+        public double getAxis(AxisType relevantAxis)
+        {
+            return this.axes[relevantAxis.ordinal()];
+        }
+
+        @Override
+        public int getPOV()
+        {
+            return this.pov;
+        }
+
+        @Override
+        public boolean getRawButton(int value)
+        {
+            return this.buttons[value];
+        }
+    }
+
+    public static class Timer implements ITimer
+    {
+        public double time;
+
+        @Override
+        public void start()
+        {
+        }
+
+        @Override
+        public void stop()
+        {
+        }
+
+        @Override
+        public double get()
+        {
+            return this.time;
+        }
+
+        @Override
+        public void reset()
+        {
+            this.time = 0.0;
+        }
+    }
+
+    public static class AnalogInput implements IAnalogInput
+    {
+        public double voltage;
+
+        @Override
+        public double getVoltage()
+        {
+            return this.voltage;
+        }
+    }
+
+    public static class DigitalInput implements IDigitalInput
+    {
+        public boolean value;
+
+        @Override
+        public boolean get()
+        {
+            return this.value;
+        }
+    }
+
+    public static class Solenoid implements ISolenoid
+    {
+        public boolean on;
+
+        @Override
+        public void set(boolean on)
+        {
+            this.on = on;
+        }
+    }
+
+    public static class DoubleSolenoid implements IDoubleSolenoid
+    {
+        public DoubleSolenoidValue value = DoubleSolenoidValue.kOff;
+
+        @Override
+        public void set(DoubleSolenoidValue value)
+        {
+            this.value = value;
+        }
+    }
+
+    public static class Relay implements IRelay
+    {
+        public RelayValue value;
+
+        @Override
+        public void set(RelayValue value)
+        {
+            this.value = value;
+        }
+
+        @Override
+        public void setDirection(RelayDirection direction)
+        {
+        }
+    }
+
+    public static class Compressor implements ICompressor
+    {
+        @Override
+        public void start()
+        {
+        }
+
+        @Override
+        public void stop()
+        {
+        }
+    }
+
+    public static class PowerDistributionPanel implements IPowerDistributionPanel
+    {
+        public double batteryVoltage = 12.5;
+        public final double[] currents = new double[16];
+
+        @Override
+        public double getBatteryVoltage()
+        {
+            return this.batteryVoltage;
+        }
+
+        @Override
+        public double getCurrent(int pdpChannel)
+        {
+            return this.currents[pdpChannel];
+        }
+    }
+}
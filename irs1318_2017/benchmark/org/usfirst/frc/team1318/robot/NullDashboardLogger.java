@@ -0,0 +1,92 @@
+package org.usfirst.frc.team1318.robot;
+
+import org.opencv.core.Point;
+import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.LoggingKey;
+import org.usfirst.frc.team1318.robot.common.MultiLogger;
+
+/**
+ * Logger that discards everything, so that benchmarks of the robot loop measure the loop and not the logger.
+ * Keys are still registered through a real (empty) logger so that callers receive valid keys.
+ *
+ */
+public class NullDashboardLogger implements IDashboardLogger
+{
+    private final IDashboardLogger keyRegistrar = new MultiLogger();
+
+    @Override
+    public LoggingKey registerKey(String component, String key)
+    {
+        return this.keyRegistrar.registerKey(component, key);
+    }
+
+    @Override
+    public void logBoolean(String component, String key, boolean value)
+    {
+    }
+
+    @Override
+    public void logNumber(String component, String key, double value)
+    {
+    }
+
+    @Override
+    public void logNumber(String component, String key, Double value)
+    {
+    }
+
+    @Override
+    public void logInteger(String component, String key, int value)
+    {
+    }
+
+    @Override
+    public void logInteger(String component, String key, int value, String formatString)
+    {
+    }
+
+    @Override
+    public void logPoint(String component, String key, Point value)
+    {
+    }
+
+    @Override
+    public void logString(String component, String key, String value)
+    {
+    }
+
+    @Override
+    public void logBoolean(LoggingKey key, boolean value)
+    {
+    }
+
+    @Override
+    public void logNumber(LoggingKey key, double value)
+    {
+    }
+
+    @Override
+    public void logNumber(LoggingKey key, Double value)
+    {
+    }
+
+    @Override
+    public void logInteger(LoggingKey key, int value)
+    {
+    }
+
+    @Override
+    public void logPoint(LoggingKey key, Point value)
+    {
+    }
+
+    @Override
+    public void logString(LoggingKey key, String value)
+    {
+    }
+
+    @Override
+    public void flush()
+    {
+    }
+}
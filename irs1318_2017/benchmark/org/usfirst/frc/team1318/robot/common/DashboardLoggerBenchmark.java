@@ -0,0 +1,111 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.usfirst.frc.team1318.robot.FakeHardware;
+
+/**
+ * Benchmark for logging one robot loop's worth of values and flushing, for each of the IDashboardLogger implementations.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DashboardLoggerBenchmark
+{
+    private static final int NumberKeyCount = 32;
+
+    @Param({ "SmartDashboard", "CSV", "Binary" })
+    public String loggerType;
+
+    private IDashboardLogger logger;
+    private File file;
+    private FakeHardware.Timer timer;
+
+    private LoggingKey[] numberKeys;
+    private LoggingKey stateKey;
+    private LoggingKey indicatorKey;
+    private double value;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        String[] schema = new String[DashboardLoggerBenchmark.NumberKeyCount + 2];
+        for (int i = 0; i < DashboardLoggerBenchmark.NumberKeyCount; i++)
+        {
+            schema[i] = "bench.number" + i;
+        }
+
+        schema[DashboardLoggerBenchmark.NumberKeyCount] = "bench.state";
+        schema[DashboardLoggerBenchmark.NumberKeyCount + 1] = "bench.indicator";
+
+        this.timer = new FakeHardware.Timer();
+        if ("CSV".equals(this.loggerType))
+        {
+            this.file = File.createTempFile("bench", ".csv");
+            this.logger = new CSVLogger(this.file.getPath(), schema);
+        }
+        else if ("Binary".equals(this.loggerType))
+        {
+            this.file = File.createTempFile("bench", ".bin");
+            this.logger = new BinaryLogger(this.file.getPath(), schema, this.timer);
+        }
+        else
+        {
+            this.logger = new SmartDashboardLogger();
+        }
+
+        this.numberKeys = new LoggingKey[DashboardLoggerBenchmark.NumberKeyCount];
+        for (int i = 0; i < DashboardLoggerBenchmark.NumberKeyCount; i++)
+        {
+            this.numberKeys[i] = this.logger.registerKey("bench", "number" + i);
+        }
+
+        this.stateKey = this.logger.registerKey("bench", "state");
+        this.indicatorKey = this.logger.registerKey("bench", "indicator");
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        if (this.logger instanceof CSVLogger)
+        {
+            ((CSVLogger)this.logger).close();
+        }
+        else if (this.logger instanceof BinaryLogger)
+        {
+            ((BinaryLogger)this.logger).close();
+        }
+
+        if (this.file != null)
+        {
+            this.file.delete();
+        }
+    }
+
+    @Benchmark
+    public void logAndFlush()
+    {
+        this.value += 0.01;
+        this.timer.time += 0.02;
+        for (LoggingKey numberKey : this.numberKeys)
+        {
+            this.logger.logNumber(numberKey, this.value);
+        }
+
+        this.logger.logString(this.stateKey, "Teleop");
+        this.logger.logBoolean(this.indicatorKey, this.value > 0.5);
+        this.logger.flush();
+    }
+}
@@ -0,0 +1,83 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.usfirst.frc.team1318.robot.FakeHardware;
+import org.usfirst.frc.team1318.robot.NullDashboardLogger;
+
+/**
+ * Benchmark for the PIDHandler's velocity and position calculations, for switching a handler between modes, and for
+ * updating a pair of handlers together through a shared PIDBank.
+ * Run with the GC profiler (as benchmark.xml does) to check that none of these allocate (gc.alloc.rate.norm of ~0 B/op).
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PIDHandlerBenchmark
+{
+    private FakeHardware.Timer timer;
+    private PIDHandler velocityHandler;
+    private PIDHandler positionHandler;
+    private PIDBank bank;
+    private PIDHandler leftBankHandler;
+    private PIDHandler rightBankHandler;
+    private double measuredValue;
+
+    @Setup
+    public void setup()
+    {
+        this.timer = new FakeHardware.Timer();
+        this.velocityHandler = new PIDHandler(0.02, 0.0, 0.0, 0.4, 100.0, -1.0, 1.0, "pid", new NullDashboardLogger(), this.timer);
+        this.positionHandler = new PIDHandler(0.35, 0.0, 0.0, 0.0, 1.0, -0.6, 0.6, this.timer);
+        this.bank = new PIDBank(this.timer);
+        this.leftBankHandler = new PIDHandler(this.bank, 0.02, 0.0, 0.0, 0.4, 100.0, -1.0, 1.0, "left", new NullDashboardLogger());
+        this.rightBankHandler = new PIDHandler(this.bank, 0.02, 0.0, 0.0, 0.4, 100.0, -1.0, 1.0, "right", new NullDashboardLogger());
+        this.measuredValue = 0.0;
+    }
+
+    @Benchmark
+    public double calculateVelocity()
+    {
+        this.timer.time += 0.02;
+        this.measuredValue += 25.0;
+        return this.velocityHandler.calculateVelocity(0.5, this.measuredValue);
+    }
+
+    @Benchmark
+    public double calculatePosition()
+    {
+        this.timer.time += 0.02;
+        this.measuredValue += 0.1;
+        return this.positionHandler.calculatePosition(100.0, this.measuredValue);
+    }
+
+    @Benchmark
+    public double configureAndCalculate()
+    {
+        // switch modes (as the drivetrain does when toggling positional mode), then calculate in the new mode
+        this.positionHandler.configure(0.35, 0.0, 0.0, 0.0, 1.0, -0.6, 0.6);
+        this.timer.time += 0.02;
+        this.measuredValue += 0.1;
+        return this.positionHandler.calculatePosition(100.0, this.measuredValue);
+    }
+
+    @Benchmark
+    public double updateBank()
+    {
+        // both sides of the drivetrain, calculated together from one timestamp
+        this.timer.time += 0.02;
+        this.measuredValue += 25.0;
+        this.leftBankHandler.setVelocityInput(0.5, this.measuredValue);
+        this.rightBankHandler.setVelocityInput(0.5, this.measuredValue);
+        this.bank.update();
+        return this.leftBankHandler.getCurrentOutput() + this.rightBankHandler.getCurrentOutput();
+    }
+}
@@ -0,0 +1,57 @@
+package org.usfirst.frc.team1318.robot.driver.user;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.usfirst.frc.team1318.robot.BenchmarkModule;
+import org.usfirst.frc.team1318.robot.driver.UserInputDeviceButton;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import edu.wpi.first.wpilibj.Joystick.AxisType;
+
+/**
+ * Benchmark for processing joystick input into operation and macro states in the UserDriver.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserDriverBenchmark
+{
+    @Param({ "Idle", "Driving" })
+    public String input;
+
+    private BenchmarkModule module;
+    private UserDriver driver;
+
+    @Setup
+    public void setup()
+    {
+        this.module = new BenchmarkModule();
+        Injector injector = Guice.createInjector(this.module);
+        this.driver = injector.getInstance(UserDriver.class);
+
+        if ("Driving".equals(this.input))
+        {
+            this.module.driverJoystick.axes[AxisType.kX.ordinal()] = 0.3;
+            this.module.driverJoystick.axes[AxisType.kY.ordinal()] = -0.8;
+            this.module.driverJoystick.buttons[UserInputDeviceButton.JOYSTICK_STICK_TRIGGER_BUTTON.Value] = true;
+        }
+    }
+
+    @Benchmark
+    public void update()
+    {
+        this.driver.sampleInputs();
+        this.driver.update();
+    }
+}
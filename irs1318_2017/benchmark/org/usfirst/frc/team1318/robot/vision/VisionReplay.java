@@ -0,0 +1,345 @@
+package org.usfirst.frc.team1318.robot.vision;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.videoio.VideoCapture;
+import org.usfirst.frc.team1318.robot.FakeHardware;
+import org.usfirst.frc.team1318.robot.vision.pipelines.HSVCenterPipeline;
+import org.usfirst.frc.team1318.robot.vision.pipelines.HSVGearCenterPipeline;
+import org.usfirst.frc.team1318.robot.vision.pipelines.HSVShooterCenterPipeline;
+import org.usfirst.frc.team1318.robot.vision.pipelines.ICentroidVisionPipeline;
+
+/**
+ * Replays recorded frames (a directory of images, such as the frames saved with DEBUG_SAVE_FRAMES, or a video file)
+ * through a vision pipeline off-robot, writing the results and per-stage timings for each frame as CSV and then
+ * printing a summary of the throughput.  The CSV output from before and after a change to a pipeline can be compared
+ * to make sure that the change didn't affect what the pipeline detects.
+ *
+ * Usage:
+ *   VisionReplay (gear|shooter|center) (frame directory|video file) [output CSV file]
+ *
+ * Requires the desktop OpenCV native library to be on java.library.path (see benchmark.xml).
+ *
+ */
+public class VisionReplay
+{
+    private static final double NanosPerMilli = 1000000.0;
+    private static final double NanosPerSecond = 1000000000.0;
+
+    private final ICentroidVisionPipeline pipeline;
+    private final FakeHardware.Timer timer;
+    private final PrintStream output;
+
+    private final long[] totalStageNanos;
+    private final long[] maxStageNanos;
+    private long totalFrameNanos;
+    private long maxFrameNanos;
+    private int frameCount;
+    private int detectedCount;
+
+    /**
+     * Initializes a new instance of the VisionReplay class.
+     * @param pipelineName name of the pipeline to replay frames through (gear, shooter or center)
+     * @param output to write the CSV results to
+     */
+    public VisionReplay(String pipelineName, PrintStream output)
+    {
+        this.timer = new FakeHardware.Timer();
+        this.pipeline = VisionReplay.createPipeline(pipelineName, this.timer);
+        this.pipeline.setActivation(true);
+        this.output = output;
+
+        this.totalStageNanos = new long[VisionStage.values().length];
+        this.maxStageNanos = new long[VisionStage.values().length];
+        this.totalFrameNanos = 0L;
+        this.maxFrameNanos = 0L;
+        this.frameCount = 0;
+        this.detectedCount = 0;
+    }
+
+    public static void main(String[] args) throws FileNotFoundException
+    {
+        if (args.length < 2)
+        {
+            System.err.println("Usage: VisionReplay (gear|shooter|center) (frame directory|video file) [output CSV file]");
+            System.exit(1);
+        }
+
+        System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
+
+        PrintStream output = System.out;
+        if (args.length > 2)
+        {
+            output = new PrintStream(args[2]);
+        }
+
+        VisionReplay replay = new VisionReplay(args[0], output);
+        File input = new File(args[1]);
+        if (input.isDirectory())
+        {
+            replay.replayDirectory(input);
+        }
+        else
+        {
+            replay.replayVideo(input);
+        }
+
+        if (output != System.out)
+        {
+            output.close();
+        }
+
+        replay.printSummary(System.err);
+    }
+
+    /**
+     * Replay all of the images within a directory, in order of the frame number within their name
+     * @param directory containing the images
+     */
+    public void replayDirectory(File directory)
+    {
+        File[] files = directory.listFiles();
+        if (files == null)
+        {
+            throw new RuntimeException("Unable to list files in " + directory);
+        }
+
+        List<File> frames = new ArrayList<File>();
+        for (File file : files)
+        {
+            String name = file.getName().toLowerCase(Locale.ROOT);
+            boolean isImage = name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".png") || name.endsWith(".bmp");
+
+            // skip the outputs of the HSV filter that are saved alongside the input frames
+            if (isImage && !name.contains("hsvfiltered"))
+            {
+                frames.add(file);
+            }
+        }
+
+        frames.sort(new Comparator<File>()
+        {
+            @Override
+            public int compare(File o1, File o2)
+            {
+                long number1 = VisionReplay.getFrameNumber(o1.getName());
+                long number2 = VisionReplay.getFrameNumber(o2.getName());
+                if (number1 != number2)
+                {
+                    return Long.compare(number1, number2);
+                }
+
+                return o1.getName().compareTo(o2.getName());
+            }
+        });
+
+        this.writeHeader();
+        for (File file : frames)
+        {
+            Mat frame = Imgcodecs.imread(file.getPath());
+            if (frame.empty())
+            {
+                System.err.println("Unable to read " + file);
+                continue;
+            }
+
+            this.replayFrame(frame, file.getName());
+            frame.release();
+        }
+    }
+
+    /**
+     * Replay all of the frames within a video file
+     * @param video file
+     */
+    public void replayVideo(File video)
+    {
+        VideoCapture capture = new VideoCapture(video.getPath());
+        if (!capture.isOpened())
+        {
+            throw new RuntimeException("Unable to open " + video);
+        }
+
+        this.writeHeader();
+        Mat frame = new Mat();
+        int index = 0;
+        while (capture.read(frame))
+        {
+            this.replayFrame(frame, video.getName() + "#" + index);
+            index++;
+        }
+
+        frame.release();
+        capture.release();
+    }
+
+    /**
+     * Process a single frame through the pipeline and write out its results
+     * @param frame to process
+     * @param source describing where the frame came from
+     */
+    private void replayFrame(Mat frame, String source)
+    {
+        // pretend that the frames are arriving at the camera's frame rate
+        this.timer.time = this.frameCount / (double)VisionConstants.LIFECAM_CAMERA_FPS;
+
+        long startNanos = System.nanoTime();
+        this.pipeline.process(frame);
+        long frameNanos = System.nanoTime() - startNanos;
+
+        VisionStageTimings stageTimings = this.pipeline.getStageTimings();
+        for (VisionStage stage : VisionStage.values())
+        {
+            long stageNanos = stageTimings.getStageNanos(stage);
+            this.totalStageNanos[stage.ordinal()] += stageNanos;
+            this.maxStageNanos[stage.ordinal()] = Math.max(this.maxStageNanos[stage.ordinal()], stageNanos);
+        }
+
+        this.totalFrameNanos += frameNanos;
+        this.maxFrameNanos = Math.max(this.maxFrameNanos, frameNanos);
+
+        Point center = this.pipeline.getCenter();
+        if (center != null)
+        {
+            this.detectedCount++;
+        }
+
+        StringBuilder line = new StringBuilder();
+        line.append(this.frameCount).append(',').append(source);
+        line.append(',').append(center == null ? "" : VisionReplay.format(center.x));
+        line.append(',').append(center == null ? "" : VisionReplay.format(center.y));
+        line.append(',').append(VisionReplay.format(this.pipeline.getMeasuredAngleX()));
+        line.append(',').append(VisionReplay.format(this.pipeline.getDesiredAngleX()));
+        line.append(',').append(VisionReplay.format(this.pipeline.getRobotDistance()));
+        for (VisionStage stage : VisionStage.values())
+        {
+            line.append(',').append(VisionReplay.format(stageTimings.getStageNanos(stage) / VisionReplay.NanosPerMilli));
+        }
+
+        line.append(',').append(VisionReplay.format(frameNanos / VisionReplay.NanosPerMilli));
+        this.output.println(line);
+
+        this.frameCount++;
+    }
+
+    /**
+     * Write the CSV header
+     */
+    private void writeHeader()
+    {
+        StringBuilder header = new StringBuilder("frame,source,centerX,centerY,measuredAngle,desiredAngle,distance");
+        for (VisionStage stage : VisionStage.values())
+        {
+            header.append(',').append(stage.toString().toLowerCase(Locale.ROOT)).append("Ms");
+        }
+
+        header.append(",totalMs");
+        this.output.println(header);
+    }
+
+    /**
+     * Print a summary of the throughput and per-stage timings across all of the replayed frames
+     * @param summary to print to
+     */
+    public void printSummary(PrintStream summary)
+    {
+        if (this.frameCount == 0)
+        {
+            summary.println("No frames were replayed");
+            return;
+        }
+
+        summary.println(String.format(
+            "%d frames, target found in %d, %.1f frames per second",
+            this.frameCount,
+            this.detectedCount,
+            this.frameCount / (this.totalFrameNanos / VisionReplay.NanosPerSecond)));
+
+        for (VisionStage stage : VisionStage.values())
+        {
+            summary.println(String.format(
+                "  %-12s mean %7.3f ms, max %7.3f ms",
+                stage.toString(),
+                this.totalStageNanos[stage.ordinal()] / VisionReplay.NanosPerMilli / this.frameCount,
+                this.maxStageNanos[stage.ordinal()] / VisionReplay.NanosPerMilli));
+        }
+
+        summary.println(String.format(
+            "  %-12s mean %7.3f ms, max %7.3f ms",
+            "Total",
+            this.totalFrameNanos / VisionReplay.NanosPerMilli / this.frameCount,
+            this.maxFrameNanos / VisionReplay.NanosPerMilli));
+    }
+
+    /**
+     * Create the pipeline to replay frames through, without any debug output
+     * @param pipelineName name of the pipeline
+     * @param timer for the pipeline to use
+     * @return pipeline
+     */
+    private static ICentroidVisionPipeline createPipeline(String pipelineName, FakeHardware.Timer timer)
+    {
+        switch (pipelineName.toLowerCase(Locale.ROOT))
+        {
+            case "gear":
+                return new HSVGearCenterPipeline(timer, VisionConstants.SHOULD_UNDISTORT, false);
+
+            case "shooter":
+                return new HSVShooterCenterPipeline(timer, VisionConstants.SHOULD_UNDISTORT, false);
+
+            case "center":
+                return new HSVCenterPipeline(timer, VisionConstants.SHOULD_UNDISTORT, false);
+
+            default:
+                throw new IllegalArgumentException("Unknown pipeline " + pipelineName + ", expected one of " + Arrays.toString(new String[] { "gear", "shooter", "center" }));
+        }
+    }
+
+    /**
+     * Gets the frame number from the name of a saved frame (e.g. 40 from "image40-1.undistorted.jpg")
+     * @param name of the file
+     * @return first number within the name, or -1 if there isn't one
+     */
+    private static long getFrameNumber(String name)
+    {
+        int start = 0;
+        while (start < name.length() && !Character.isDigit(name.charAt(start)))
+        {
+            start++;
+        }
+
+        int end = start;
+        while (end < name.length() && end - start < 18 && Character.isDigit(name.charAt(end)))
+        {
+            end++;
+        }
+
+        if (start == end)
+        {
+            return -1;
+        }
+
+        return Long.parseLong(name.substring(start, end));
+    }
+
+    private static String format(Double value)
+    {
+        if (value == null)
+        {
+            return "";
+        }
+
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+}
@@ -0,0 +1,82 @@
+package org.usfirst.frc.team1318.robot.vision.helpers;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.usfirst.frc.team1318.robot.vision.VisionConstants;
+
+/**
+ * Benchmark for HSV filtering a camera frame, using cvtColor + inRange or using the BGR lookup table,
+ * either for the whole frame or for the region of interest around the previous detection of the target.
+ * Requires the desktop OpenCV native library to be on java.library.path (see benchmark.xml).
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HSVFilterBenchmark
+{
+    @Param({ "CvtColorInRange", "LookupTable" })
+    public String filterType;
+
+    private MatPool matPool;
+    private HSVFilter filter;
+    private Mat frame;
+    private Rect region;
+
+    @Setup
+    public void setup()
+    {
+        System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
+
+        // noisy frame with a bright green target, roughly like what the lifecam sees with the ring light on
+        byte[] pixels = new byte[VisionConstants.LIFECAM_CAMERA_RESOLUTION_X * VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y * 3];
+        new Random(1318).nextBytes(pixels);
+        this.frame = new Mat(VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y, VisionConstants.LIFECAM_CAMERA_RESOLUTION_X, CvType.CV_8UC3);
+        this.frame.put(0, 0, pixels);
+        this.frame.submat(60, 180, 100, 140).setTo(new Scalar(40, 255, 40));
+
+        // the target padded by half of its size on each side, as the ROI tracking does after a detection
+        this.region = new Rect(80, 0, 80, 240);
+
+        this.matPool = new MatPool(VisionConstants.LIFECAM_CAMERA_RESOLUTION_X, VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y);
+        this.filter = new HSVFilter(
+            VisionConstants.LIFECAM_HSV_FILTER_LOW,
+            VisionConstants.LIFECAM_HSV_FILTER_HIGH,
+            this.matPool,
+            "LookupTable".equals(this.filterType));
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        this.frame.release();
+        this.matPool.release();
+    }
+
+    @Benchmark
+    public Mat filterFrame()
+    {
+        return this.filter.filterHSV(this.frame);
+    }
+
+    @Benchmark
+    public Mat filterRegion()
+    {
+        return this.filter.filterHSV(this.frame, this.region);
+    }
+}
@@ -1,27 +1,147 @@
 package org.usfirst.frc.team1318.robot;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.usfirst.frc.team1318.robot.common.IController;
+import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.LoggingKey;
+import org.usfirst.frc.team1318.robot.common.TimingHistogram;
 import org.usfirst.frc.team1318.robot.driver.Driver;
 
+/**
+ * Runs each controller at its own rate within the robot loop.
+ * Each controller's update period is rounded to a whole number of loops, and controllers with the same number of loops
+ * form a rate group.  Faster groups are updated first each loop, and the controllers in slower groups are staggered across
+ * the loops in their period so that they don't all land on the same loop.  When the loop's controllers have already used
+ * their share of the loop, due controllers in slower groups are put off until a later loop (but never by more than their period).
+ *
+ */
 public class ControllerManager implements IController
 {
+    private static final String LogName = "timing";
+
     public final List<IController> controllerList;
+    private final TimingHistogram[] controllerTimings;
+
+    // loops between updates and the next loop to update, for each controller
+    private final int[] updateLoops;
+    private final long[] nextUpdateLoops;
+
+    // controller indexes from the fastest rate group to the slowest, and the rate group of each controller
+    private final int[] updateOrder;
+    private final int[] controllerGroups;
+
+    // time used by each rate group within the current loop, or -1 if the group didn't run
+    private final TimingHistogram[] groupTimings;
+    private final long[] groupNanos;
+
+    private final IDashboardLogger logger;
+    private final LoggingKey deferredLogKey;
+    private final long slowBudgetNanos;
 
-    public ControllerManager(List<IController> controllerList)
+    private long loop;
+    private int deferredUpdates;
+
+    public ControllerManager(IDashboardLogger logger, List<IController> controllerList)
     {
         this.controllerList = controllerList;
+        this.logger = logger;
+
+        double loopPeriod = TuningConstants.EFFECTIVE_CONTROL_LOOP_PERIOD;
+        int controllerCount = controllerList.size();
+        this.controllerTimings = new TimingHistogram[controllerCount];
+        this.updateLoops = new int[controllerCount];
+        for (int i = 0; i < controllerCount; i++)
+        {
+            IController controller = controllerList.get(i);
+            this.controllerTimings[i] = new TimingHistogram(
+                logger,
+                ControllerManager.LogName,
+                controller.getClass().getSimpleName(),
+                loopPeriod);
+
+            this.updateLoops[i] = Math.max(1, (int)Math.round(controller.getUpdatePeriod() / loopPeriod));
+        }
+
+        // group the controllers by rate, keeping the order they were registered in within each group
+        List<Integer> groupLoops = new ArrayList<Integer>();
+        for (int loops : this.updateLoops)
+        {
+            if (!groupLoops.contains(loops))
+            {
+                groupLoops.add(loops);
+            }
+        }
+
+        Collections.sort(groupLoops);
+
+        this.updateOrder = new int[controllerCount];
+        this.controllerGroups = new int[controllerCount];
+        this.groupTimings = new TimingHistogram[groupLoops.size()];
+        int index = 0;
+        for (int group = 0; group < groupLoops.size(); group++)
+        {
+            int loops = groupLoops.get(group);
+            this.groupTimings[group] = new TimingHistogram(
+                logger,
+                ControllerManager.LogName,
+                String.format("group.%.0fHz", 1.0 / (loops * loopPeriod)),
+                loopPeriod);
+
+            for (int i = 0; i < controllerCount; i++)
+            {
+                if (this.updateLoops[i] == loops)
+                {
+                    this.updateOrder[index++] = i;
+                    this.controllerGroups[i] = group;
+                }
+            }
+        }
+
+        this.groupNanos = new long[groupLoops.size()];
+        this.nextUpdateLoops = new long[controllerCount];
+        this.deferredLogKey = logger.registerKey(ControllerManager.LogName, "deferred");
+        this.slowBudgetNanos = (long)(loopPeriod * TuningConstants.CONTROLLER_SLOW_BUDGET_RATIO * 1000000000.0);
+        this.deferredUpdates = 0;
+        this.resetSchedule();
     }
 
     @Override
     public void update()
     {
-        for (IController controller : this.controllerList)
+        for (int group = 0; group < this.groupNanos.length; group++)
         {
+            this.groupNanos[group] = -1L;
+        }
+
+        long loopStartTime = System.nanoTime();
+        for (int i : this.updateOrder)
+        {
+            int loops = this.updateLoops[i];
+            if (loops > 1)
+            {
+                long overdueLoops = this.loop - this.nextUpdateLoops[i];
+                if (overdueLoops < 0L)
+                {
+                    continue;
+                }
+
+                // the faster controllers get the first part of the loop, so put this one off if they have used it up
+                if (overdueLoops < loops && System.nanoTime() - loopStartTime > this.slowBudgetNanos)
+                {
+                    this.deferredUpdates++;
+                    continue;
+                }
+
+                this.nextUpdateLoops[i] = this.loop + loops;
+            }
+
+            long startTime = System.nanoTime();
             try
             {
-                controller.update();
+                this.controllerList.get(i).update();
             }
             catch (Exception ex)
             {
@@ -30,7 +150,42 @@ public class ControllerManager implements IController
                     throw ex;
                 }
             }
+
+            long duration = System.nanoTime() - startTime;
+            this.controllerTimings[i].record(duration);
+
+            int group = this.controllerGroups[i];
+            this.groupNanos[group] = Math.max(this.groupNanos[group], 0L) + duration;
+        }
+
+        for (int group = 0; group < this.groupNanos.length; group++)
+        {
+            if (this.groupNanos[group] >= 0L)
+            {
+                this.groupTimings[group].record(this.groupNanos[group]);
+            }
         }
+
+        this.loop++;
+    }
+
+    /**
+     * Write the timing statistics for each controller and rate group to the dashboard
+     */
+    public void reportTiming()
+    {
+        for (TimingHistogram controllerTiming : this.controllerTimings)
+        {
+            controllerTiming.report();
+        }
+
+        for (TimingHistogram groupTiming : this.groupTimings)
+        {
+            groupTiming.report();
+        }
+
+        this.logger.logInteger(this.deferredLogKey, this.deferredUpdates);
+        this.deferredUpdates = 0;
     }
 
     @Override
@@ -50,6 +205,8 @@ public class ControllerManager implements IController
                 }
             }
         }
+
+        this.resetSchedule();
     }
 
     @Override
@@ -60,4 +217,32 @@ public class ControllerManager implements IController
             controller.setDriver(driver);
         }
     }
+
+    @Override
+    public double getUpdatePeriod()
+    {
+        return TuningConstants.CONTROLLER_UPDATE_EVERY_LOOP;
+    }
+
+    /**
+     * Start the schedule over, offsetting each of the slower controllers by a loop from the previous one
+     */
+    private void resetSchedule()
+    {
+        this.loop = 0L;
+
+        int slowControllers = 0;
+        for (int i = 0; i < this.nextUpdateLoops.length; i++)
+        {
+            if (this.updateLoops[i] > 1)
+            {
+                this.nextUpdateLoops[i] = slowControllers % this.updateLoops[i];
+                slowControllers++;
+            }
+            else
+            {
+                this.nextUpdateLoops[i] = 0L;
+            }
+        }
+    }
 }
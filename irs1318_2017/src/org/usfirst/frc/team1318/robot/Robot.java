@@ -1,6 +1,11 @@
 package org.usfirst.frc.team1318.robot;
 
+import org.usfirst.frc.team1318.robot.common.ActuatorOutputs;
+import org.usfirst.frc.team1318.robot.common.FixedRateScheduler;
 import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.LoggingKey;
+import org.usfirst.frc.team1318.robot.common.SensorSnapshot;
+import org.usfirst.frc.team1318.robot.common.TimingHistogram;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
 import org.usfirst.frc.team1318.robot.driver.Driver;
 import org.usfirst.frc.team1318.robot.driver.autonomous.AutonomousDriver;
@@ -38,13 +43,30 @@ public class Robot extends IterativeRobot
     // Driver.  This could either be the UserDriver (joystick) or the AutonomousDriver
     private Driver driver;
 
+    // When enabled, the control thread reads the sensors, updates the driver, runs the controllers and writes the actuators.
+    // The main thread only samples the driver's inputs (the joysticks) as driver station packets arrive.
+    private FixedRateScheduler controlScheduler;
+
     // Controllers and injector
+    private SensorSnapshot sensorSnapshot;
     private ControllerManager controllers;
+    private ActuatorOutputs actuatorOutputs;
     private IDashboardLogger logger;
+    private LoggingKey stateLogKey;
+    private LoggingKey timeLogKey;
     private Injector injector;
 
     private ITimer timer;
 
+    // loop timing
+    private TimingHistogram sensorsTiming;
+    private TimingHistogram driverTiming;
+    private TimingHistogram controllersTiming;
+    private TimingHistogram outputsTiming;
+    private TimingHistogram flushTiming;
+    private TimingHistogram loopTiming;
+    private int timingCycles;
+
     /**
      * Robot-wide initialization code should go here.
      * This default Robot-wide initialization code will be called when 
@@ -53,12 +75,37 @@ public class Robot extends IterativeRobot
     public void robotInit()
     {
         // create mechanism components and controllers
+        this.sensorSnapshot = this.getInjector().getInstance(SensorSnapshot.class);
         this.controllers = this.getInjector().getInstance(ControllerManager.class);
+        this.actuatorOutputs = this.getInjector().getInstance(ActuatorOutputs.class);
         this.logger = this.getInjector().getInstance(IDashboardLogger.class);
-        this.logger.logString(Robot.LogName, "state", "Init");
+        this.stateLogKey = this.logger.registerKey(Robot.LogName, "state");
+        this.timeLogKey = this.logger.registerKey(Robot.LogName, "time");
+
+        double loopPeriod = TuningConstants.EFFECTIVE_CONTROL_LOOP_PERIOD;
+        this.sensorsTiming = new TimingHistogram(this.logger, Robot.LogName, "sensors", loopPeriod);
+        this.driverTiming = new TimingHistogram(this.logger, Robot.LogName, "driver", loopPeriod);
+        this.controllersTiming = new TimingHistogram(this.logger, Robot.LogName, "controllers", loopPeriod);
+        this.outputsTiming = new TimingHistogram(this.logger, Robot.LogName, "outputs", loopPeriod);
+        this.flushTiming = new TimingHistogram(this.logger, Robot.LogName, "flush", loopPeriod);
+        this.loopTiming = new TimingHistogram(this.logger, Robot.LogName, "loop", loopPeriod);
+        this.timingCycles = 0;
+
+        if (TuningConstants.CONTROL_LOOP_SCHEDULER_ENABLED)
+        {
+            this.controlScheduler = new FixedRateScheduler(
+                this.logger,
+                "control",
+                TuningConstants.CONTROL_LOOP_PERIOD,
+                TuningConstants.CONTROL_LOOP_THREAD_PRIORITY,
+                () -> this.controlPeriodic(),
+                () -> this.stopOutputs());
+        }
+
+        this.logger.logString(this.stateLogKey, "Init");
 
         this.timer = this.getInjector().getInstance(ITimer.class);
-        this.logger.logNumber(Robot.LogName, "time", this.timer.get());
+        this.logger.logNumber(this.timeLogKey, this.timer.get());
     }
 
     /**
@@ -67,6 +114,12 @@ public class Robot extends IterativeRobot
      */
     public void disabledInit()
     {
+        // stop the control thread first, so that nothing else touches the controllers or actuators while we stop them
+        if (this.controlScheduler != null)
+        {
+            this.controlScheduler.stop();
+        }
+
         this.timer.stop();
         this.timer.reset();
 
@@ -77,10 +130,10 @@ public class Robot extends IterativeRobot
 
         if (this.controllers != null)
         {
-            this.controllers.stop();
+            this.stopOutputs();
         }
 
-        this.logger.logString(Robot.LogName, "state", "Disabled");
+        this.logger.logString(this.stateLogKey, "Disabled");
     }
 
     /**
@@ -90,12 +143,7 @@ public class Robot extends IterativeRobot
     public void autonomousInit()
     {
         // Create an autonomous driver
-        this.driver = this.getInjector().getInstance(AutonomousDriver.class);
-
-        this.generalInit();
-
-        // log that we are in autonomous mode
-        this.logger.logString(Robot.LogName, "state", "Autonomous");
+        this.generalInit(this.getInjector().getInstance(AutonomousDriver.class), "Autonomous");
     }
 
     /**
@@ -105,23 +153,40 @@ public class Robot extends IterativeRobot
     public void teleopInit()
     {
         // create driver for user's joystick
-        this.driver = this.getInjector().getInstance(UserDriver.class);
-
-        this.generalInit();
-
-        // log that we are in teleop mode
-        this.logger.logString(Robot.LogName, "state", "Teleop");
+        this.generalInit(this.getInjector().getInstance(UserDriver.class), "Teleop");
     }
 
     /**
      * General initialization code for teleop/autonomous mode should go here.
+     * @param driver to use for this mode
+     * @param state to log for this mode
      */
-    public void generalInit()
+    public void generalInit(Driver driver, String state)
     {
-        // apply the driver to the controllers
+        // stop the control thread first (in case we didn't go through disabled), so that it isn't running while we switch drivers
+        if (this.controlScheduler != null)
+        {
+            this.controlScheduler.stop();
+        }
+
+        this.driver = driver;
+
+        // log which mode we are in
+        this.logger.logString(this.stateLogKey, state);
+
+        // refresh sensor values, which may have changed while we were disabled
+        this.sensorSnapshot.read();
+
+        // take the first sample of the driver's inputs, and apply the driver to the controllers
+        this.driver.sampleInputs();
         this.controllers.setDriver(this.driver);
 
         this.timer.start();
+
+        if (this.controlScheduler != null)
+        {
+            this.controlScheduler.start();
+        }
     }
 
     /**
@@ -155,13 +220,82 @@ public class Robot extends IterativeRobot
      */
     public void generalPeriodic()
     {
+        // sample the driver's inputs as each driver station packet arrives, for the next driver update to pick up
+        this.driver.sampleInputs();
+
+        // when the control thread is enabled it runs everything else
+        if (this.controlScheduler == null)
+        {
+            this.controlPeriodic();
+        }
+    }
+
+    /**
+     * Periodic code for reading the sensors, running the controllers and writing the actuators should go here.
+     * This is called by the control thread at a fixed rate when it is enabled, otherwise from generalPeriodic.
+     */
+    private void controlPeriodic()
+    {
+        long loopStartTime = System.nanoTime();
+
+        // read all of the sensors once, so that the driver and controllers see consistent values for the whole loop
+        this.sensorSnapshot.read();
+
+        long sensorsEndTime = System.nanoTime();
+
+        // update the driver from the latest sample of its inputs, and the sensors
         this.driver.update();
 
+        long driverEndTime = System.nanoTime();
+
         // run each controller
         this.controllers.update();
 
-        this.logger.logNumber(Robot.LogName, "time", this.timer.get());
+        long controllersEndTime = System.nanoTime();
+
+        // write all of the actuator outputs that changed during this loop
+        this.actuatorOutputs.flush();
+
+        long outputsEndTime = System.nanoTime();
+
+        this.logger.logNumber(this.timeLogKey, this.timer.get());
         this.logger.flush();
+
+        long loopEndTime = System.nanoTime();
+
+        this.sensorsTiming.record(sensorsEndTime - loopStartTime);
+        this.driverTiming.record(driverEndTime - sensorsEndTime);
+        this.controllersTiming.record(controllersEndTime - driverEndTime);
+        this.outputsTiming.record(outputsEndTime - controllersEndTime);
+        this.flushTiming.record(loopEndTime - outputsEndTime);
+        this.loopTiming.record(loopEndTime - loopStartTime);
+
+        // report timing at a low rate, it will be written out as a part of the next flush
+        if (++this.timingCycles >= TuningConstants.LOOP_TIMING_REPORT_CYCLES)
+        {
+            this.sensorsTiming.report();
+            this.driverTiming.report();
+            this.controllersTiming.report();
+            this.outputsTiming.report();
+            this.flushTiming.report();
+            this.loopTiming.report();
+            this.controllers.reportTiming();
+            if (this.controlScheduler != null)
+            {
+                this.controlScheduler.reportTiming();
+            }
+
+            this.timingCycles = 0;
+        }
+    }
+
+    /**
+     * Stop the controllers and write their stopped outputs to the actuators
+     */
+    private void stopOutputs()
+    {
+        this.controllers.stop();
+        this.actuatorOutputs.flush();
     }
 
     /**
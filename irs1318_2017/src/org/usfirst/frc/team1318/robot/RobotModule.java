@@ -7,8 +7,10 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.usfirst.frc.team1318.robot.climber.ClimberController;
+import org.usfirst.frc.team1318.robot.common.ActuatorOutputs;
 import org.usfirst.frc.team1318.robot.common.IController;
 import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.SensorSnapshot;
 import org.usfirst.frc.team1318.robot.common.SmartDashboardLogger;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.AnalogInputWrapper;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.CANTalonControlMode;
@@ -66,7 +68,7 @@ public class RobotModule extends AbstractModule
 //        try
 //        {
 //            String fileName = String.format("/home/lvuser/%1$d.csv", Calendar.getInstance().getTime().getTime());
-//            IDashboardLogger csvLogger = new CSVLogger(fileName, new String[] { "r.time", "shooter.power", "vision.mAngle", "vision.dist" });
+//            IDashboardLogger csvLogger = new CSVLogger(fileName, new String[] { "r.time", "shooter.power", "vision.mAngle", "vision.dist", "logger.droppedRows" });
 //            logger = new MultiLogger(logger, csvLogger);
 //        }
 //        catch (IOException e)
@@ -93,7 +95,7 @@ public class RobotModule extends AbstractModule
 
     @Singleton
     @Provides
-    public ControllerManager getControllerManager(Injector injector)
+    public ControllerManager getControllerManager(Injector injector, IDashboardLogger logger)
     {
         List<IController> controllerList = new ArrayList<>();
         controllerList.add(injector.getInstance(PowerManager.class));
@@ -104,7 +106,7 @@ public class RobotModule extends AbstractModule
         controllerList.add(injector.getInstance(ClimberController.class));
         controllerList.add(injector.getInstance(IntakeController.class));
         controllerList.add(injector.getInstance(ShooterController.class));
-        return new ControllerManager(controllerList);
+        return new ControllerManager(logger, controllerList);
     }
 
     @Singleton
@@ -132,55 +134,59 @@ public class RobotModule extends AbstractModule
 
     @Singleton
     @Provides
-    public IPowerDistributionPanel getPowerManagerPdp()
+    public IPowerDistributionPanel getPowerManagerPdp(SensorSnapshot sensorSnapshot)
     {
-        return new PowerDistributionPanelWrapper();
+        // the climber controller reads the current of the climber's channels each loop
+        return sensorSnapshot.register(
+            new PowerDistributionPanelWrapper(),
+            ElectronicsConstants.CLIMBER_PDP_CHANNEL_A,
+            ElectronicsConstants.CLIMBER_PDP_CHANNEL_B);
     }
 
     @Singleton
     @Provides
     @Named("VISION_GEAR_LIGHT")
-    public ISolenoid getVisionGearLight()
+    public ISolenoid getVisionGearLight(ActuatorOutputs actuatorOutputs)
     {
         SolenoidWrapper gearLight = new SolenoidWrapper(
             ElectronicsConstants.PCM_B_MODULE,
             ElectronicsConstants.VISION_GEAR_LIGHT_CHANNEL);
 
-        return gearLight;
+        return actuatorOutputs.registerSolenoid(gearLight);
     }
 
     @Singleton
     @Provides
     @Named("VISION_SHOOTER_LIGHT")
-    public ISolenoid getVisionShooterLight()
+    public ISolenoid getVisionShooterLight(ActuatorOutputs actuatorOutputs)
     {
         SolenoidWrapper shooterLight = new SolenoidWrapper(
             ElectronicsConstants.PCM_B_MODULE,
             ElectronicsConstants.VISION_SHOOTER_LIGHT_CHANNEL);
 
-        return shooterLight;
+        return actuatorOutputs.registerSolenoid(shooterLight);
     }
 
     @Singleton
     @Provides
     @Named("DRIVETRAIN_LEFTMOTOR")
-    public IMotor getDriveTrainLeftMotor()
+    public IMotor getDriveTrainLeftMotor(ActuatorOutputs actuatorOutputs)
     {
-        return new VictorWrapper(ElectronicsConstants.DRIVETRAIN_LEFT_TALON_CHANNEL);
+        return actuatorOutputs.registerMotor(new VictorWrapper(ElectronicsConstants.DRIVETRAIN_LEFT_TALON_CHANNEL));
     }
 
     @Singleton
     @Provides
     @Named("DRIVETRAIN_RIGHTMOTOR")
-    public IMotor getDriveTrainRightMotor()
+    public IMotor getDriveTrainRightMotor(ActuatorOutputs actuatorOutputs)
     {
-        return new VictorWrapper(ElectronicsConstants.DRIVETRAIN_RIGHT_TALON_CHANNEL);
+        return actuatorOutputs.registerMotor(new VictorWrapper(ElectronicsConstants.DRIVETRAIN_RIGHT_TALON_CHANNEL));
     }
 
     @Singleton
     @Provides
     @Named("DRIVETRAIN_LEFTENCODER")
-    public IEncoder getDriveTrainLeftEncoder()
+    public IEncoder getDriveTrainLeftEncoder(SensorSnapshot sensorSnapshot)
     {
         EncoderWrapper encoder = new EncoderWrapper(
             ElectronicsConstants.DRIVETRAIN_LEFT_ENCODER_CHANNEL_A,
@@ -188,13 +194,13 @@ public class RobotModule extends AbstractModule
 
         encoder.setDistancePerPulse(HardwareConstants.DRIVETRAIN_LEFT_PULSE_DISTANCE);
 
-        return encoder;
+        return sensorSnapshot.register(encoder);
     }
 
     @Singleton
     @Provides
     @Named("DRIVETRAIN_RIGHTENCODER")
-    public IEncoder getDriveTrainRightEncoder()
+    public IEncoder getDriveTrainRightEncoder(SensorSnapshot sensorSnapshot)
     {
         EncoderWrapper encoder = new EncoderWrapper(
             ElectronicsConstants.DRIVETRAIN_RIGHT_ENCODER_CHANNEL_A,
@@ -202,117 +208,117 @@ public class RobotModule extends AbstractModule
 
         encoder.setDistancePerPulse(HardwareConstants.DRIVETRAIN_RIGHT_PULSE_DISTANCE);
 
-        return encoder;
+        return sensorSnapshot.register(encoder);
     }
 
     @Singleton
     @Provides
     @Named("INTAKE_MOTOR")
-    public IMotor getIntakeMotor()
+    public IMotor getIntakeMotor(ActuatorOutputs actuatorOutputs)
     {
         TalonWrapper intake = new TalonWrapper(
             ElectronicsConstants.INTAKE_MOTOR_CHANNEL);
-        return intake;
+        return actuatorOutputs.registerMotor(intake);
     }
 
     @Singleton
     @Provides
     @Named("INTAKE_ARM_SOLENOID")
-    public IDoubleSolenoid getIntakeExtender()
+    public IDoubleSolenoid getIntakeExtender(ActuatorOutputs actuatorOutputs)
     {
         DoubleSolenoidWrapper intakeExtender = new DoubleSolenoidWrapper(
             ElectronicsConstants.INTAKE_EXTENDER_SOLENOID_CHANNEL_A,
             ElectronicsConstants.INTAKE_EXTENDER_SOLENOID_CHANNEL_B);
-        return intakeExtender;
+        return actuatorOutputs.registerDoubleSolenoid(intakeExtender);
     }
 
     @Singleton
     @Provides
     @Named("INTAKE_CONVEYOR_SOLENOID")
-    public IDoubleSolenoid getIntakeGearExtender()
+    public IDoubleSolenoid getIntakeGearExtender(ActuatorOutputs actuatorOutputs)
     {
         DoubleSolenoidWrapper intakeConveyorExtender = new DoubleSolenoidWrapper(
             ElectronicsConstants.INTAKE_CONVEYOR_EXTENDER_SOLENOID_CHANNEL_A,
             ElectronicsConstants.INTAKE_CONVEYOR_EXTENDER_SOLENOID_CHANNEL_B);
-        return intakeConveyorExtender;
+        return actuatorOutputs.registerDoubleSolenoid(intakeConveyorExtender);
     }
 
     @Singleton
     @Provides
     @Named("INTAKE_GEAR_THROUGH_BEAM_SENSOR")
-    public IAnalogInput getThroughBeamSensor()
+    public IAnalogInput getThroughBeamSensor(SensorSnapshot sensorSnapshot)
     {
         AnalogInputWrapper throughBeamSensor = new AnalogInputWrapper(
             ElectronicsConstants.INTAKE_GEAR_THROUGH_BEAM_SENSOR_CHANNEL);
-        return throughBeamSensor;
+        return sensorSnapshot.register(throughBeamSensor);
     }
 
     @Singleton
     @Provides
     @Named("INTAKE_GEAR_INDICATOR_LIGHT")
-    public ISolenoid getGearIndicator()
+    public ISolenoid getGearIndicator(ActuatorOutputs actuatorOutputs)
     {
         SolenoidWrapper gearLight = new SolenoidWrapper(
             ElectronicsConstants.PCM_B_MODULE,
             ElectronicsConstants.INTAKE_GEAR_INDICATOR_CHANNEL);
-        return gearLight;
+        return actuatorOutputs.registerSolenoid(gearLight);
     }
     
     @Singleton
     @Provides
     @Named("INTAKE_MOUTH_SOLENOID")
-    public IDoubleSolenoid getIntakeMouthExtender()
+    public IDoubleSolenoid getIntakeMouthExtender(ActuatorOutputs actuatorOutputs)
     {
         DoubleSolenoidWrapper intakeMouthExtender = new DoubleSolenoidWrapper(
             ElectronicsConstants.PCM_B_MODULE,
             ElectronicsConstants.INTAKE_MOUTH_EXTENDER_CHANNEL_A,
             ElectronicsConstants.INTAKE_MOUTH_EXTENDER_CHANNEL_B);
-        return intakeMouthExtender;
+        return actuatorOutputs.registerDoubleSolenoid(intakeMouthExtender);
     }
 
     @Singleton
     @Provides
     @Named("CLIMBER_MOTOR")
-    public IMotor getCimberClimber()
+    public IMotor getCimberClimber(ActuatorOutputs actuatorOutputs)
     {
         TalonWrapper climber = new TalonWrapper(
             ElectronicsConstants.CLIMBER_MOTOR_CHANNEL);
-        return climber;
+        return actuatorOutputs.registerMotor(climber);
     }
 
     @Singleton
     @Provides
     @Named("SHOOTER_HOOD")
-    public IDoubleSolenoid getShooterHood()
+    public IDoubleSolenoid getShooterHood(ActuatorOutputs actuatorOutputs)
     {
         DoubleSolenoidWrapper hood = new DoubleSolenoidWrapper(
             ElectronicsConstants.SHOOTER_HOOD_CHANNEL_A,
             ElectronicsConstants.SHOOTER_HOOD_CHANNEL_B);
 
-        return hood;
+        return actuatorOutputs.registerDoubleSolenoid(hood);
     }
 
     @Singleton
     @Provides
     @Named("SHOOTER_FEEDER")
-    public IMotor getShooterFeeder()
+    public IMotor getShooterFeeder(ActuatorOutputs actuatorOutputs)
     {
         TalonWrapper feeder = new TalonWrapper(
             ElectronicsConstants.SHOOTER_FEEDER_CHANNEL);
 
-        return feeder;
+        return actuatorOutputs.registerMotor(feeder);
     }
 
     @Singleton
     @Provides
     @Named("SHOOTER_READY_LIGHT")
-    public ISolenoid getShooterReadyLight()
+    public ISolenoid getShooterReadyLight(ActuatorOutputs actuatorOutputs)
     {
         SolenoidWrapper readyLight = new SolenoidWrapper(
             ElectronicsConstants.PCM_B_MODULE,
             ElectronicsConstants.SHOOTER_READY_LIGHT_CHANNEL);
 
-        return readyLight;
+        return actuatorOutputs.registerSolenoid(readyLight);
     }
 
     @Singleton
@@ -330,7 +336,7 @@ public class RobotModule extends AbstractModule
     @Singleton
     @Provides
     @Named("SHOOTER_SHOOTER")
-    public ICANTalon getOneMotorMotor()
+    public ICANTalon getOneMotorMotor(ActuatorOutputs actuatorOutputs, SensorSnapshot sensorSnapshot)
     {
         CANTalonWrapper master = new CANTalonWrapper(ElectronicsConstants.SHOOTER_MASTER_MOTOR_CHANNEL);
         master.enableBrakeMode(false);
@@ -356,7 +362,7 @@ public class RobotModule extends AbstractModule
             master.changeControlMode(CANTalonControlMode.PercentVbus);
         }
 
-        return master;
+        return sensorSnapshot.register(actuatorOutputs.registerTalon(master));
     }
 
     @Singleton
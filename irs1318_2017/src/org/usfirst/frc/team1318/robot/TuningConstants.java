@@ -11,13 +11,43 @@ public class TuningConstants
     public static final boolean COMPETITION_ROBOT = true;
     public static final boolean THROW_EXCEPTIONS = !TuningConstants.COMPETITION_ROBOT;
 
+    //================================================== Loop Timing ==============================================================
+
+    public static final double LOOP_PERIOD = 0.02; // IterativeRobot's default period, in seconds
+    public static final int LOOP_TIMING_REPORT_CYCLES = 50; // report loop timing roughly once per second
+    public static final int ACTUATOR_REFRESH_CYCLES = 5; // re-write unchanged actuator outputs at least every 100ms
+
+    // run the sensors, controllers and actuators on a dedicated fixed-rate thread, rather than whenever driver station packets arrive
+    public static final boolean CONTROL_LOOP_SCHEDULER_ENABLED = true;
+    public static final double CONTROL_LOOP_PERIOD = 0.02; // 50Hz, as the positional PID gains are tuned per-update (can go down to 0.005)
+    public static final int CONTROL_LOOP_THREAD_PRIORITY = Thread.MAX_PRIORITY;
+
+    // the period at which the controllers are actually updated
+    public static final double EFFECTIVE_CONTROL_LOOP_PERIOD = TuningConstants.CONTROL_LOOP_SCHEDULER_ENABLED ? TuningConstants.CONTROL_LOOP_PERIOD : TuningConstants.LOOP_PERIOD;
+
+    // how often each controller should be updated, in seconds
+    public static final double CONTROLLER_UPDATE_EVERY_LOOP = 0.0;
+    public static final double POWER_MANAGER_UPDATE_PERIOD = 0.1; // battery voltage filtering, 10Hz
+    public static final double COMPRESSOR_UPDATE_PERIOD = 0.2; // only starts the compressor, 5Hz
+    public static final double CONTROLLER_SLOW_BUDGET_RATIO = 0.5; // slower controllers are put off while the loop's controllers have used over half of the period
+
     //================================================== Autonomous ==============================================================
 
     public static final double DRIVETRAIN_POSITIONAL_ACCEPTABLE_DELTA = 1.0;
 
+    // Motion profile limits for positional driving (in inches)
+    public static final double DRIVETRAIN_PROFILE_MAX_VELOCITY = 120.0; // inches per second
+    public static final double DRIVETRAIN_PROFILE_MAX_ACCELERATION = 480.0; // inches per second per second (fast enough for the autonomous routines' short timed drives)
+    public static final double DRIVETRAIN_PROFILE_MAX_JERK = 9600.0; // inches per second cubed (Double.POSITIVE_INFINITY for trapezoidal profiles)
+    public static final double DRIVETRAIN_PROFILE_DURATION_RATIO = 0.9; // timed drives finish their profile within this portion of their duration, leaving the rest to settle
+    public static final double MOTION_PROFILE_SAMPLE_INTERVAL = 0.01; // seconds between each precomputed motion profile sample
+
     // Acceptable vision centering range values in degrees
     public static final double MAX_VISION_CENTERING_RANGE_DEGREES = 5.0;
 
+    // Whether to correct the measured vision angle by how far the robot has turned since the frame was captured
+    public static final boolean VISION_LATENCY_COMPENSATION_ENABLED = true;
+
     // Acceptable vision distance from tape in inches
     public static final double MAX_VISION_ACCEPTABLE_FORWARD_DISTANCE = 30.0;
 
@@ -75,12 +105,16 @@ public class TuningConstants
     public static final double DRIVETRAIN_POSITION_PID_RIGHT_KI = 0.0;
     public static final double DRIVETRAIN_POSITION_PID_RIGHT_KD = 0.0;
     public static final double DRIVETRAIN_POSITION_PID_RIGHT_KF = 0.0;
+    public static final double DRIVETRAIN_POSITION_PID_RIGHT_KV = 0.005; // feed-forward power per inch per second of profile velocity
+    public static final double DRIVETRAIN_POSITION_PID_RIGHT_KA = 0.0005; // feed-forward power per inch per second per second of profile acceleration
 
     // Position PID (left)
     public static final double DRIVETRAIN_POSITION_PID_LEFT_KP = 0.35;
     public static final double DRIVETRAIN_POSITION_PID_LEFT_KI = 0.0;
     public static final double DRIVETRAIN_POSITION_PID_LEFT_KD = 0.0;
     public static final double DRIVETRAIN_POSITION_PID_LEFT_KF = 0.0;
+    public static final double DRIVETRAIN_POSITION_PID_LEFT_KV = 0.005; // feed-forward power per inch per second of profile velocity
+    public static final double DRIVETRAIN_POSITION_PID_LEFT_KA = 0.0005; // feed-forward power per inch per second per second of profile acceleration
 
     // Drivetrain choices for one-stick drive
     public static final double DRIVETRAIN_K1 = 1.4;
@@ -102,6 +136,7 @@ public class TuningConstants
     public static final double DRIVETRAIN_REVERSE_LEFT_SCALE_FACTOR = 1.05;
 
     public static final double DRIVETRAIN_ENCODER_ODOMETRY_ANGLE_CORRECTION = 1.0; // account for turning weirdness (any degree offset in the angle)
+    public static final int POSITION_HISTORY_LENGTH = 50; // number of loops of odometry angle history to keep (about a second)
 
     //================================================== Intake ==============================================================
 
@@ -1,6 +1,7 @@
 package org.usfirst.frc.team1318.robot.climber;
 
 import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.LoggingKey;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.IMotor;
 
 import com.google.inject.Inject;
@@ -13,6 +14,7 @@ public class ClimberComponent
     private static final String LogName = "climber";
 
     private final IDashboardLogger logger;
+    private final LoggingKey speedLogKey;
     private final IMotor motor;
 
     @Inject
@@ -21,13 +23,14 @@ public class ClimberComponent
         @Named("CLIMBER_MOTOR") IMotor motor)
     {
         this.logger = logger;
+        this.speedLogKey = logger.registerKey(ClimberComponent.LogName, "Speed");
         this.motor = motor;
     }
 
     public void setMotorSpeed(double speed)
     {
         this.motor.set(speed);
-        this.logger.logNumber(LogName, "Speed", speed);
+        this.logger.logNumber(this.speedLogKey, speed);
     }
 
     public void stop()
@@ -4,6 +4,7 @@ import org.usfirst.frc.team1318.robot.ElectronicsConstants;
 import org.usfirst.frc.team1318.robot.TuningConstants;
 import org.usfirst.frc.team1318.robot.common.IController;
 import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.LoggingKey;
 import org.usfirst.frc.team1318.robot.driver.Driver;
 import org.usfirst.frc.team1318.robot.driver.Operation;
 import org.usfirst.frc.team1318.robot.general.PowerManager;
@@ -15,6 +16,7 @@ public class ClimberController implements IController
     private static final String LogName = "climber";
 
     private final IDashboardLogger logger;
+    private final LoggingKey currentLogKey;
     private final ClimberComponent climber;
     private final PowerManager powerManager;
 
@@ -24,6 +26,7 @@ public class ClimberController implements IController
     public ClimberController(IDashboardLogger logger, ClimberComponent climber, PowerManager powerManager)
     {
         this.logger = logger;
+        this.currentLogKey = logger.registerKey(ClimberController.LogName, "current");
         this.climber = climber;
         this.powerManager = powerManager;
     }
@@ -35,7 +38,7 @@ public class ClimberController implements IController
         double currentDraw =
             this.powerManager.getCurrent(ElectronicsConstants.CLIMBER_PDP_CHANNEL_A) +
             this.powerManager.getCurrent(ElectronicsConstants.CLIMBER_PDP_CHANNEL_B);
-        this.logger.logNumber(ClimberController.LogName, "current", currentDraw);
+        this.logger.logNumber(this.currentLogKey, currentDraw);
         if (currentDraw > TuningConstants.CLIMBER_MAX_CURRENT_DRAW)
         {
             climberSpeed = 0.0;
@@ -60,4 +63,10 @@ public class ClimberController implements IController
     {
         this.driver = driver;
     }
+
+    @Override
+    public double getUpdatePeriod()
+    {
+        return TuningConstants.CONTROLLER_UPDATE_EVERY_LOOP;
+    }
 }
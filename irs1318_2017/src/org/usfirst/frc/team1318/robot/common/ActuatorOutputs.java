@@ -0,0 +1,359 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.usfirst.frc.team1318.robot.TuningConstants;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.CANTalonControlMode;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.DoubleSolenoidValue;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ICANTalon;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IDoubleSolenoid;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IMotor;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ISolenoid;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Actuator output stage.  Commands to registered actuators are collected during the robot loop, and then written to the
+ * hardware in one pass at the end of the loop.  Writes whose value (and control mode) haven't changed since they were
+ * last written are suppressed, except that every actuator is re-written at least once every refresh interval so that
+ * the hardware can never be left out of sync for long.
+ * Registering an actuator returns a view of it that implements the same interface, so components don't need to know
+ * whether they are writing to the hardware directly or through the output stage.
+ *
+ */
+@Singleton
+public class ActuatorOutputs
+{
+    private final int refreshCycles;
+    private final List<IBufferedOutput> outputs;
+
+    /**
+     * Initializes a new ActuatorOutputs
+     */
+    @Inject
+    public ActuatorOutputs()
+    {
+        this(TuningConstants.ACTUATOR_REFRESH_CYCLES);
+    }
+
+    /**
+     * Initializes a new ActuatorOutputs
+     * @param refreshCycles the number of flushes after which an unchanged output should be written again anyways
+     */
+    public ActuatorOutputs(int refreshCycles)
+    {
+        this.refreshCycles = refreshCycles;
+        this.outputs = new ArrayList<IBufferedOutput>();
+    }
+
+    /**
+     * Register a motor whose power should be written as a part of the output stage
+     * @param motor to write to
+     * @return motor that collects the power to write during the next flush
+     */
+    public IMotor registerMotor(IMotor motor)
+    {
+        return this.add(new Motor(motor));
+    }
+
+    /**
+     * Register a CAN talon whose control mode and output should be written as a part of the output stage
+     * @param talon to write to
+     * @return talon that collects the control mode and output to write during the next flush (configuration and sensors are passed through directly)
+     */
+    public ICANTalon registerTalon(ICANTalon talon)
+    {
+        return this.add(new CANTalon(talon));
+    }
+
+    /**
+     * Register a solenoid whose state should be written as a part of the output stage
+     * @param solenoid to write to
+     * @return solenoid that collects the state to write during the next flush
+     */
+    public ISolenoid registerSolenoid(ISolenoid solenoid)
+    {
+        return this.add(new Solenoid(solenoid));
+    }
+
+    /**
+     * Register a double solenoid whose state should be written as a part of the output stage
+     * @param doubleSolenoid to write to
+     * @return double solenoid that collects the state to write during the next flush
+     */
+    public IDoubleSolenoid registerDoubleSolenoid(IDoubleSolenoid doubleSolenoid)
+    {
+        return this.add(new DoubleSolenoid(doubleSolenoid));
+    }
+
+    /**
+     * Write all of the changed (or due to be refreshed) outputs to the hardware
+     */
+    public void flush()
+    {
+        for (int i = 0; i < this.outputs.size(); i++)
+        {
+            this.outputs.get(i).flush(this.refreshCycles);
+        }
+    }
+
+    /**
+     * Add an output to the output stage
+     * @param output to add
+     * @return the output
+     */
+    private <T extends IBufferedOutput> T add(T output)
+    {
+        this.outputs.add(output);
+        return output;
+    }
+
+    /**
+     * An output whose commands are collected and then written as a part of the output stage
+     */
+    private interface IBufferedOutput
+    {
+        /**
+         * Write the most recent command to the hardware if it has changed or is due to be refreshed
+         * @param refreshCycles the number of flushes after which an unchanged output should be written again anyways
+         */
+        void flush(int refreshCycles);
+    }
+
+    private static class Motor implements IMotor, IBufferedOutput
+    {
+        private final IMotor motor;
+
+        private boolean hasCommand;
+        private double power;
+
+        private boolean hasWritten;
+        private double writtenPower;
+        private int cyclesSinceWrite;
+
+        Motor(IMotor motor)
+        {
+            this.motor = motor;
+        }
+
+        @Override
+        public void set(double power)
+        {
+            this.hasCommand = true;
+            this.power = power;
+        }
+
+        @Override
+        public void flush(int refreshCycles)
+        {
+            if (!this.hasCommand)
+            {
+                return;
+            }
+
+            this.cyclesSinceWrite++;
+            if (!this.hasWritten || this.power != this.writtenPower || this.cyclesSinceWrite >= refreshCycles)
+            {
+                this.motor.set(this.power);
+                this.hasWritten = true;
+                this.writtenPower = this.power;
+                this.cyclesSinceWrite = 0;
+            }
+        }
+    }
+
+    private static class CANTalon implements ICANTalon, IBufferedOutput
+    {
+        private final ICANTalon talon;
+
+        private boolean hasCommand;
+        private CANTalonControlMode mode;
+        private double value;
+
+        private boolean hasWritten;
+        private CANTalonControlMode writtenMode;
+        private double writtenValue;
+        private int cyclesSinceWrite;
+
+        CANTalon(ICANTalon talon)
+        {
+            this.talon = talon;
+        }
+
+        @Override
+        public void set(double value)
+        {
+            this.hasCommand = true;
+            this.value = value;
+        }
+
+        @Override
+        public void changeControlMode(CANTalonControlMode mode)
+        {
+            this.mode = mode;
+        }
+
+        @Override
+        public void flush(int refreshCycles)
+        {
+            if (!this.hasCommand)
+            {
+                return;
+            }
+
+            this.cyclesSinceWrite++;
+            boolean refresh = !this.hasWritten || this.cyclesSinceWrite >= refreshCycles;
+            boolean modeChanged = this.mode != null && this.mode != this.writtenMode;
+            if (this.mode != null && (refresh || modeChanged))
+            {
+                this.talon.changeControlMode(this.mode);
+                this.writtenMode = this.mode;
+            }
+
+            // the meaning of the value depends on the control mode, so it must be re-sent when the mode changes
+            if (refresh || modeChanged || this.value != this.writtenValue)
+            {
+                this.talon.set(this.value);
+                this.hasWritten = true;
+                this.writtenValue = this.value;
+                this.cyclesSinceWrite = 0;
+            }
+        }
+
+        @Override
+        public void setPIDF(double p, double i, double d, double f)
+        {
+            this.talon.setPIDF(p, i, d, f);
+        }
+
+        @Override
+        public void setPIDF(double p, double i, double d, double f, int izone, double closeLoopRampRate, int profile)
+        {
+            this.talon.setPIDF(p, i, d, f, izone, closeLoopRampRate, profile);
+        }
+
+        @Override
+        public void reverseOutput(boolean flip)
+        {
+            this.talon.reverseOutput(flip);
+        }
+
+        @Override
+        public void reverseSensor(boolean flip)
+        {
+            this.talon.reverseSensor(flip);
+        }
+
+        @Override
+        public void enableBrakeMode(boolean brake)
+        {
+            this.talon.enableBrakeMode(brake);
+        }
+
+        @Override
+        public void reset()
+        {
+            this.talon.reset();
+        }
+
+        @Override
+        public int getTicks()
+        {
+            return this.talon.getTicks();
+        }
+
+        @Override
+        public double getSpeed()
+        {
+            return this.talon.getSpeed();
+        }
+
+        @Override
+        public double getError()
+        {
+            return this.talon.getError();
+        }
+    }
+
+    private static class Solenoid implements ISolenoid, IBufferedOutput
+    {
+        private final ISolenoid solenoid;
+
+        private boolean hasCommand;
+        private boolean on;
+
+        private boolean hasWritten;
+        private boolean writtenOn;
+        private int cyclesSinceWrite;
+
+        Solenoid(ISolenoid solenoid)
+        {
+            this.solenoid = solenoid;
+        }
+
+        @Override
+        public void set(boolean on)
+        {
+            this.hasCommand = true;
+            this.on = on;
+        }
+
+        @Override
+        public void flush(int refreshCycles)
+        {
+            if (!this.hasCommand)
+            {
+                return;
+            }
+
+            this.cyclesSinceWrite++;
+            if (!this.hasWritten || this.on != this.writtenOn || this.cyclesSinceWrite >= refreshCycles)
+            {
+                this.solenoid.set(this.on);
+                this.hasWritten = true;
+                this.writtenOn = this.on;
+                this.cyclesSinceWrite = 0;
+            }
+        }
+    }
+
+    private static class DoubleSolenoid implements IDoubleSolenoid, IBufferedOutput
+    {
+        private final IDoubleSolenoid doubleSolenoid;
+
+        private DoubleSolenoidValue value;
+
+        private DoubleSolenoidValue writtenValue;
+        private int cyclesSinceWrite;
+
+        DoubleSolenoid(IDoubleSolenoid doubleSolenoid)
+        {
+            this.doubleSolenoid = doubleSolenoid;
+        }
+
+        @Override
+        public void set(DoubleSolenoidValue value)
+        {
+            this.value = value;
+        }
+
+        @Override
+        public void flush(int refreshCycles)
+        {
+            if (this.value == null)
+            {
+                return;
+            }
+
+            this.cyclesSinceWrite++;
+            if (this.value != this.writtenValue || this.cyclesSinceWrite >= refreshCycles)
+            {
+                this.doubleSolenoid.set(this.value);
+                this.writtenValue = this.value;
+                this.cyclesSinceWrite = 0;
+            }
+        }
+    }
+}
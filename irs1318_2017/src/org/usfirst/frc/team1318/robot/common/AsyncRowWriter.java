@@ -0,0 +1,303 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ring buffer of rows waiting to be written to a log file, and the background thread that writes them, shared by the
+ * loggers that write rows to a file (CSVLogger and BinaryLogger).
+ *
+ * The ring buffer only manages the slots - each logger keeps the values for its rows in its own preallocated arrays,
+ * indexed by slot.  The robot loop claims a slot, copies its current row into it, and publishes it.  The writer thread
+ * drains the published rows in batches, asking the logger to write each one, so that storage latency doesn't affect the
+ * robot loop.  If the writer falls behind and the ring buffer is full, the row is dropped and counted.
+ *
+ */
+class AsyncRowWriter
+{
+    static final int RowBufferCapacity = 256;
+
+    private static final int WriteBufferSize = 64 * 1024;
+    private static final long WriterIdleSleepMillis = 10;
+
+    /**
+     * Writes a row from the ring buffer (called on the writer thread)
+     */
+    interface IRowFormatter
+    {
+        /**
+         * Write the row in a slot of the ring buffer, using the writer's reserve or writeChars
+         * @param slot of the row within the ring buffer
+         */
+        void writeRow(int slot);
+    }
+
+    private final FileChannel fileChannel;
+    private final IRowFormatter formatter;
+
+    private final AtomicLong writeSequence;
+    private final AtomicLong readSequence;
+    private final AtomicLong droppedRows;
+
+    // only used by the writer thread
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder;
+
+    private Thread writerThread;
+    private volatile boolean running;
+    private volatile boolean closed;
+
+    /**
+     * Initializes a new instance of the AsyncRowWriter class.
+     * @param fileName to write to
+     * @param formatter to write each row
+     * @throws IOException
+     */
+    AsyncRowWriter(String fileName, IRowFormatter formatter) throws IOException
+    {
+        this.fileChannel = FileChannel.open(
+            Paths.get(fileName),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+
+        this.formatter = formatter;
+
+        this.writeSequence = new AtomicLong(0);
+        this.readSequence = new AtomicLong(0);
+        this.droppedRows = new AtomicLong(0);
+
+        this.buffer = ByteBuffer.allocateDirect(AsyncRowWriter.WriteBufferSize);
+        this.encoder = StandardCharsets.UTF_8.newEncoder();
+
+        this.writerThread = null;
+        this.running = false;
+        this.closed = false;
+    }
+
+    /**
+     * Write the header of the file directly (before the writer thread is started)
+     * @param header to write
+     * @throws IOException
+     */
+    void writeHeader(ByteBuffer header) throws IOException
+    {
+        while (header.hasRemaining())
+        {
+            this.fileChannel.write(header);
+        }
+    }
+
+    /**
+     * Start the writer thread
+     * @param name of the writer thread
+     */
+    void start(String name)
+    {
+        this.running = true;
+        this.writerThread = new Thread(() -> this.writeRows(), name);
+        this.writerThread.setDaemon(true);
+        this.writerThread.setPriority(Thread.MIN_PRIORITY);
+        this.writerThread.start();
+    }
+
+    /**
+     * Claim the next slot of the ring buffer for a row (called by the robot loop)
+     * @return the slot to copy the row into before publishing it, or -1 if the row should be dropped
+     */
+    int claimRow()
+    {
+        long sequence = this.writeSequence.get();
+        if (this.closed || sequence - this.readSequence.get() >= AsyncRowWriter.RowBufferCapacity)
+        {
+            // writer has fallen behind (or the file is closed), drop this row rather than block the robot loop
+            this.droppedRows.incrementAndGet();
+            return -1;
+        }
+
+        return (int)(sequence % AsyncRowWriter.RowBufferCapacity);
+    }
+
+    /**
+     * Publish the row in the claimed slot to the writer thread
+     */
+    void publishRow()
+    {
+        this.writeSequence.lazySet(this.writeSequence.get() + 1);
+    }
+
+    /**
+     * Write any pending rows on the calling thread, when the writer thread hasn't been started
+     */
+    void writePendingRows()
+    {
+        if (this.writerThread == null)
+        {
+            this.writeBatch();
+        }
+    }
+
+    /**
+     * Stop the writer thread after writing any pending rows, and close the file.
+     * Any rows flushed after closing are dropped.
+     */
+    void close()
+    {
+        this.closed = true;
+        this.running = false;
+        if (this.writerThread == null)
+        {
+            this.writeBatch();
+            this.closeFile();
+            return;
+        }
+
+        try
+        {
+            this.writerThread.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the number of rows that were dropped because the writer thread had fallen behind
+     * @return the number of dropped rows
+     */
+    long getDroppedRowCount()
+    {
+        return this.droppedRows.get();
+    }
+
+    /**
+     * Reserve space for the next part of a row in the write buffer (called on the writer thread)
+     * @param length of the next part of the row, in bytes
+     * @return the write buffer to put the bytes into
+     */
+    ByteBuffer reserve(int length)
+    {
+        if (this.buffer.remaining() < length)
+        {
+            this.writeBuffer();
+        }
+
+        return this.buffer;
+    }
+
+    /**
+     * Encode characters as UTF-8 into the write buffer (called on the writer thread)
+     * @param chars to write
+     */
+    void writeChars(CharSequence chars)
+    {
+        CharBuffer charBuffer = CharBuffer.wrap(chars);
+        this.encoder.reset();
+        while (this.encoder.encode(charBuffer, this.buffer, true).isOverflow())
+        {
+            this.writeBuffer();
+        }
+
+        while (this.encoder.flush(this.buffer).isOverflow())
+        {
+            this.writeBuffer();
+        }
+    }
+
+    /**
+     * Main loop of the writer thread - drain batches of rows from the ring buffer into the file
+     */
+    private void writeRows()
+    {
+        while (true)
+        {
+            if (!this.writeBatch())
+            {
+                if (!this.running)
+                {
+                    break;
+                }
+
+                try
+                {
+                    Thread.sleep(AsyncRowWriter.WriterIdleSleepMillis);
+                }
+                catch (InterruptedException e)
+                {
+                    break;
+                }
+            }
+        }
+
+        this.closeFile();
+    }
+
+    /**
+     * Write the rows that have been published so far to the file
+     * @return true if there were any rows to write, otherwise false
+     */
+    private boolean writeBatch()
+    {
+        long readSequence = this.readSequence.get();
+        long writeSequence = this.writeSequence.get();
+        if (readSequence == writeSequence)
+        {
+            return false;
+        }
+
+        for (long sequence = readSequence; sequence < writeSequence; sequence++)
+        {
+            this.formatter.writeRow((int)(sequence % AsyncRowWriter.RowBufferCapacity));
+
+            // release the slot back to the robot loop now that it has been copied out
+            this.readSequence.lazySet(sequence + 1);
+        }
+
+        this.writeBuffer();
+        return true;
+    }
+
+    /**
+     * Write the contents of the write buffer to the file and clear it
+     */
+    private void writeBuffer()
+    {
+        this.buffer.flip();
+        try
+        {
+            while (this.buffer.hasRemaining())
+            {
+                this.fileChannel.write(this.buffer);
+            }
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+
+        this.buffer.clear();
+    }
+
+    /**
+     * Close the file
+     */
+    private void closeFile()
+    {
+        try
+        {
+            this.fileChannel.close();
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Reader for match logs written by the BinaryLogger, for offline analysis.
+ * Can also be run directly to convert a binary log into a CSV file:
+ *   java org.usfirst.frc.team1318.robot.common.BinaryLogReader input.bin output.csv
+ *
+ */
+public class BinaryLogReader implements AutoCloseable
+{
+    private final DataInputStream input;
+    private final String[] schema;
+    private final ArrayList<String> strings;
+
+    private final byte[] types;
+    private final long[] values;
+    private double timestamp;
+
+    /**
+     * Initializes a new instance of the BinaryLogReader class, reading the header from the input.
+     * @param input to read from
+     * @throws IOException if the input isn't a binary log
+     */
+    public BinaryLogReader(InputStream input) throws IOException
+    {
+        this.input = new DataInputStream(new BufferedInputStream(input));
+        if (this.input.readInt() != BinaryLogger.Magic)
+        {
+            throw new IOException("Input is not a binary log");
+        }
+
+        short version = this.input.readShort();
+        if (version != BinaryLogger.Version)
+        {
+            throw new IOException("Unsupported binary log version " + version);
+        }
+
+        int columnCount = this.input.readShort();
+        this.schema = new String[columnCount];
+        for (int i = 0; i < columnCount; i++)
+        {
+            this.schema[i] = this.readString();
+        }
+
+        this.strings = new ArrayList<String>();
+        this.types = new byte[columnCount];
+        this.values = new long[columnCount];
+    }
+
+    /**
+     * Gets the names of the columns in the log
+     * @return the schema of the log
+     */
+    public String[] getSchema()
+    {
+        return this.schema;
+    }
+
+    /**
+     * Advance to the next row in the log
+     * @return true if a row was read, false if the end of the log was reached
+     * @throws IOException
+     */
+    public boolean readRow() throws IOException
+    {
+        try
+        {
+            while (true)
+            {
+                byte tag = this.input.readByte();
+                if (tag == BinaryLogger.StringRecord)
+                {
+                    int id = this.input.readInt();
+                    String value = this.readString();
+                    while (this.strings.size() <= id)
+                    {
+                        this.strings.add(null);
+                    }
+
+                    this.strings.set(id, value);
+                }
+                else if (tag == BinaryLogger.RowRecord)
+                {
+                    this.timestamp = this.input.readDouble();
+                    for (int i = 0; i < this.schema.length; i++)
+                    {
+                        this.types[i] = this.input.readByte();
+                        this.values[i] = this.input.readLong();
+                    }
+
+                    return true;
+                }
+                else
+                {
+                    throw new IOException("Unexpected record tag " + tag);
+                }
+            }
+        }
+        catch (EOFException e)
+        {
+            // a partially-written record at the end of the file is expected if the robot lost power
+            return false;
+        }
+    }
+
+    /**
+     * Gets the timestamp of the current row
+     * @return the timestamp, as reported by the robot's timer
+     */
+    public double getTimestamp()
+    {
+        return this.timestamp;
+    }
+
+    /**
+     * Gets whether a value was logged for a column in the current row
+     * @param column index within the schema
+     * @return true if a value was logged
+     */
+    public boolean hasValue(int column)
+    {
+        return this.types[column] != BinaryLogger.NoValue;
+    }
+
+    /**
+     * Gets the numeric value of a column in the current row
+     * @param column index within the schema
+     * @return the value, or NaN if no numeric value was logged
+     */
+    public double getNumber(int column)
+    {
+        switch (this.types[column])
+        {
+            case BinaryLogger.NumberValue:
+                return Double.longBitsToDouble(this.values[column]);
+
+            case BinaryLogger.IntegerValue:
+            case BinaryLogger.BooleanValue:
+                return this.values[column];
+
+            default:
+                return Double.NaN;
+        }
+    }
+
+    /**
+     * Gets the value of a column in the current row, formatted as a string
+     * @param column index within the schema
+     * @return the value, or null if no value was logged
+     */
+    public String getValue(int column)
+    {
+        long value = this.values[column];
+        switch (this.types[column])
+        {
+            case BinaryLogger.NumberValue:
+                return String.valueOf(Double.longBitsToDouble(value));
+
+            case BinaryLogger.IntegerValue:
+                return String.valueOf(value);
+
+            case BinaryLogger.BooleanValue:
+                return String.valueOf(value != 0L);
+
+            case BinaryLogger.StringValue:
+                return this.strings.get((int)value);
+
+            case BinaryLogger.PointValue:
+                float x = Float.intBitsToFloat((int)(value >>> 32));
+                float y = Float.intBitsToFloat((int)value);
+                return x + " " + y;
+
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Convert the remaining rows of the log into CSV
+     * @param writer to write the CSV to
+     * @throws IOException
+     */
+    public void writeCSV(Writer writer) throws IOException
+    {
+        writer.append("timestamp");
+        for (String column : this.schema)
+        {
+            writer.append(',');
+            writer.append(column);
+        }
+
+        writer.append("\r\n"); // file will be read in windows
+
+        while (this.readRow())
+        {
+            writer.append(String.valueOf(this.timestamp));
+            for (int i = 0; i < this.schema.length; i++)
+            {
+                writer.append(',');
+                String value = this.getValue(i);
+                if (value != null)
+                {
+                    writer.append(value);
+                }
+            }
+
+            writer.append("\r\n");
+        }
+
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.input.close();
+    }
+
+    /**
+     * Read a length-prefixed UTF-8 string
+     * @return the string that was read
+     * @throws IOException
+     */
+    private String readString() throws IOException
+    {
+        byte[] encoded = new byte[this.input.readShort()];
+        this.input.readFully(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Convert a binary log into a CSV file
+     * @param args input (binary log) file name and output (CSV) file name
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            System.err.println("usage: BinaryLogReader <input.bin> <output.csv>");
+            return;
+        }
+
+        try (BinaryLogReader reader = new BinaryLogReader(new FileInputStream(args[0]));
+            Writer writer = new BufferedWriter(new FileWriter(args[1])))
+        {
+            reader.writeCSV(writer);
+        }
+    }
+}
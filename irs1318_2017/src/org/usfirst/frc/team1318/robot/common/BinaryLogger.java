@@ -0,0 +1,496 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.opencv.core.Point;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
+
+/**
+ * Logger that writes rows of values to a compact binary match log, which can be converted to CSV offline
+ * using the BinaryLogReader.
+ *
+ * File format (big-endian):
+ *   header:  int magic, short version, short column count, then each column name as (short length, UTF-8 bytes)
+ *   records: byte tag, followed by either:
+ *     'S' (string definition): int string id, short length, UTF-8 bytes
+ *     'R' (row): double timestamp, then each column as (byte value type, long value)
+ *
+ * Like the CSVLogger, rows are handed off through the AsyncRowWriter's preallocated ring buffer to a background
+ * writer thread, and are dropped (and counted) if the writer falls behind.  String values are assigned ids by the writer thread
+ * the first time they are seen, so they should come from a small set of values (e.g. states).
+ *
+ */
+public class BinaryLogger implements IDashboardLogger
+{
+    static final int Magic = 0x49525331; // "IRS1"
+    static final short Version = 1;
+
+    static final byte StringRecord = 'S';
+    static final byte RowRecord = 'R';
+
+    static final byte NoValue = 0;
+    static final byte NumberValue = 1;
+    static final byte IntegerValue = 2;
+    static final byte BooleanValue = 3;
+    static final byte StringValue = 4;
+    static final byte PointValue = 5;
+
+    static final int MaxStringLength = 1024;
+
+    private final AsyncRowWriter writer;
+    private final ITimer timer;
+    private final HashMap<String, Integer> columnIndex;
+    private final int columnCount;
+
+    // values for the row currently being logged (only touched by the robot loop)
+    private final byte[] types;
+    private final long[] values;
+    private final String[] strings;
+
+    // ring buffer of rows waiting to be written (filled by the robot loop, drained by the writer thread)
+    private final double[] rowTimestamps;
+    private final byte[][] rowTypes;
+    private final long[][] rowValues;
+    private final String[][] rowStrings;
+
+    // only used by the writer thread
+    private final HashMap<String, Integer> stringIds;
+    private final int rowSize;
+
+    /**
+     * Initializes a new instance of the BinaryLogger class.
+     * @param fileName to write to
+     * @param schema to use for writing
+     * @param timer to use for row timestamps
+     * @throws IOException
+     */
+    public BinaryLogger(String fileName, String[] schema, ITimer timer) throws IOException
+    {
+        this.writer = new AsyncRowWriter(fileName, slot -> this.writeRow(slot));
+
+        this.timer = timer;
+        this.columnCount = schema.length;
+        this.columnIndex = new HashMap<String, Integer>();
+        for (int i = 0; i < schema.length; i++)
+        {
+            this.columnIndex.put(schema[i], i);
+        }
+
+        this.types = new byte[this.columnCount];
+        this.values = new long[this.columnCount];
+        this.strings = new String[this.columnCount];
+
+        this.rowTimestamps = new double[AsyncRowWriter.RowBufferCapacity];
+        this.rowTypes = new byte[AsyncRowWriter.RowBufferCapacity][this.columnCount];
+        this.rowValues = new long[AsyncRowWriter.RowBufferCapacity][this.columnCount];
+        this.rowStrings = new String[AsyncRowWriter.RowBufferCapacity][this.columnCount];
+
+        this.stringIds = new HashMap<String, Integer>();
+        this.rowSize = 1 + 8 + this.columnCount * 9;
+
+        this.writeHeader(schema);
+        this.writer.start("BinaryLogger");
+    }
+
+    /**
+     * Register a key to use for logging, resolving the key's column within the schema once instead of on every write
+     * @param component to log for
+     * @param key to write to
+     * @return key to use when logging the value
+     */
+    @Override
+    public LoggingKey registerKey(String component, String key)
+    {
+        return new LoggingKey(component, key, this, this.getColumn(LoggingKey.buildName(component, key)));
+    }
+
+    /**
+     * Write a boolean to the log
+     * @param component to log for
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logBoolean(String component, String key, boolean value)
+    {
+        this.set(this.getColumn(LoggingKey.buildName(component, key)), BinaryLogger.BooleanValue, value ? 1L : 0L);
+    }
+
+    /**
+     * Write a number (double) to the log
+     * @param component to log for
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumber(String component, String key, double value)
+    {
+        this.setNumber(this.getColumn(LoggingKey.buildName(component, key)), value);
+    }
+
+    /**
+     * Write a number (double) to the log
+     * @param component to log for
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumber(String component, String key, Double value)
+    {
+        this.setNumber(this.getColumn(LoggingKey.buildName(component, key)), value);
+    }
+
+    /**
+     * Write a number (integer) to the log
+     * @param component to log for
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logInteger(String component, String key, int value)
+    {
+        this.set(this.getColumn(LoggingKey.buildName(component, key)), BinaryLogger.IntegerValue, value);
+    }
+
+    /**
+     * Write a number (integer) to the log
+     * @param component to log for
+     * @param key to write to
+     * @param value to write
+     * @param formatString to use
+     */
+    @Override
+    public void logInteger(String component, String key, int value, String formatString)
+    {
+        this.logInteger(component, key, value);
+    }
+
+    /**
+     * Write a point (x,y or N/A) to the log
+     * @param component to log for
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logPoint(String component, String key, Point value)
+    {
+        this.setPoint(this.getColumn(LoggingKey.buildName(component, key)), value);
+    }
+
+    /**
+     * Write a string to the log
+     * @param component to log for
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logString(String component, String key, String value)
+    {
+        this.setString(this.getColumn(LoggingKey.buildName(component, key)), value);
+    }
+
+    /**
+     * Write a boolean to the log
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logBoolean(LoggingKey key, boolean value)
+    {
+        this.set(this.getColumn(key), BinaryLogger.BooleanValue, value ? 1L : 0L);
+    }
+
+    /**
+     * Write a number (double) to the log
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, double value)
+    {
+        this.setNumber(this.getColumn(key), value);
+    }
+
+    /**
+     * Write a number (double) to the log
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, Double value)
+    {
+        this.setNumber(this.getColumn(key), value);
+    }
+
+    /**
+     * Write a number (integer) to the log
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value)
+    {
+        this.set(this.getColumn(key), BinaryLogger.IntegerValue, value);
+    }
+
+    /**
+     * Write a point (x,y or N/A) to the log
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logPoint(LoggingKey key, Point value)
+    {
+        this.setPoint(this.getColumn(key), value);
+    }
+
+    /**
+     * Write a string to the log
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logString(LoggingKey key, String value)
+    {
+        this.setString(this.getColumn(key), value);
+    }
+
+    /**
+     * Flush the output stream, if appropriate..
+     * The current row is timestamped and handed off to the writer thread rather than written directly.
+     */
+    @Override
+    public void flush()
+    {
+        int slot = this.writer.claimRow();
+        if (slot >= 0)
+        {
+            this.rowTimestamps[slot] = this.timer.get();
+            System.arraycopy(this.types, 0, this.rowTypes[slot], 0, this.columnCount);
+            System.arraycopy(this.values, 0, this.rowValues[slot], 0, this.columnCount);
+            System.arraycopy(this.strings, 0, this.rowStrings[slot], 0, this.columnCount);
+            this.writer.publishRow();
+        }
+
+        Arrays.fill(this.types, BinaryLogger.NoValue);
+        Arrays.fill(this.strings, null);
+    }
+
+    /**
+     * Stop the writer thread after writing any pending rows, and close the file
+     */
+    public void close()
+    {
+        this.writer.close();
+    }
+
+    /**
+     * Gets the number of rows that were dropped because the writer thread had fallen behind
+     * @return the number of dropped rows
+     */
+    public long getDroppedRowCount()
+    {
+        return this.writer.getDroppedRowCount();
+    }
+
+    /**
+     * Get the column for a key within the schema, as resolved when the key was registered
+     * @param key to write to
+     * @return index of the column in the schema (or -1 if not present)
+     */
+    private int getColumn(LoggingKey key)
+    {
+        if (key.isResolvedBy(this))
+        {
+            return key.getColumn();
+        }
+
+        // registered with a different logger, so look it up by name
+        return this.getColumn(key.getName());
+    }
+
+    /**
+     * Look up the column for a key within the schema
+     * @param name full name of the key
+     * @return index of the column in the schema (or -1 if not present)
+     */
+    private int getColumn(String name)
+    {
+        Integer index = this.columnIndex.get(name);
+        if (index == null)
+        {
+            return -1;
+        }
+
+        return index;
+    }
+
+    /**
+     * Record a value for the current row
+     * @param index of the column in the schema (or -1 if not present)
+     * @param type of the value
+     * @param value to record
+     */
+    private void set(int index, byte type, long value)
+    {
+        if (index >= 0)
+        {
+            this.types[index] = type;
+            this.values[index] = value;
+            this.strings[index] = null;
+        }
+    }
+
+    /**
+     * Record a number value for the current row
+     * @param index of the column in the schema (or -1 if not present)
+     * @param value to record
+     */
+    private void setNumber(int index, double value)
+    {
+        this.set(index, BinaryLogger.NumberValue, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Record a nullable number value for the current row
+     * @param index of the column in the schema (or -1 if not present)
+     * @param value to record
+     */
+    private void setNumber(int index, Double value)
+    {
+        if (value == null)
+        {
+            this.set(index, BinaryLogger.NoValue, 0L);
+        }
+        else
+        {
+            this.setNumber(index, value.doubleValue());
+        }
+    }
+
+    /**
+     * Record a point value for the current row, packed as two floats
+     * @param index of the column in the schema (or -1 if not present)
+     * @param value to record
+     */
+    private void setPoint(int index, Point value)
+    {
+        if (value == null)
+        {
+            this.set(index, BinaryLogger.NoValue, 0L);
+        }
+        else
+        {
+            long x = Float.floatToRawIntBits((float)value.x);
+            long y = Float.floatToRawIntBits((float)value.y);
+            this.set(index, BinaryLogger.PointValue, (x << 32) | (y & 0xFFFFFFFFL));
+        }
+    }
+
+    /**
+     * Record a string value for the current row.  The string's id is assigned by the writer thread.
+     * @param index of the column in the schema (or -1 if not present)
+     * @param value to record
+     */
+    private void setString(int index, String value)
+    {
+        if (index >= 0)
+        {
+            this.types[index] = value == null ? BinaryLogger.NoValue : BinaryLogger.StringValue;
+            this.values[index] = 0L;
+            this.strings[index] = value;
+        }
+    }
+
+    /**
+     * Write the header containing the schema to the start of the file
+     * @param schema to write
+     * @throws IOException
+     */
+    private void writeHeader(String[] schema) throws IOException
+    {
+        int length = 4 + 2 + 2;
+        byte[][] encodedNames = new byte[schema.length][];
+        for (int i = 0; i < schema.length; i++)
+        {
+            encodedNames[i] = BinaryLogger.encode(schema[i]);
+            length += 2 + encodedNames[i].length;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(length);
+        header.putInt(BinaryLogger.Magic);
+        header.putShort(BinaryLogger.Version);
+        header.putShort((short)schema.length);
+        for (byte[] encodedName : encodedNames)
+        {
+            header.putShort((short)encodedName.length);
+            header.put(encodedName);
+        }
+
+        header.flip();
+        this.writer.writeHeader(header);
+    }
+
+    /**
+     * Write a row from the ring buffer as a record of the file (called on the writer thread)
+     * @param slot of the row within the ring buffer
+     */
+    private void writeRow(int slot)
+    {
+        byte[] types = this.rowTypes[slot];
+        long[] values = this.rowValues[slot];
+        String[] strings = this.rowStrings[slot];
+
+        // assign ids to any strings we haven't seen before, writing their definitions ahead of the row
+        for (int i = 0; i < this.columnCount; i++)
+        {
+            if (types[i] == BinaryLogger.StringValue)
+            {
+                Integer id = this.stringIds.get(strings[i]);
+                if (id == null)
+                {
+                    id = this.stringIds.size();
+                    this.stringIds.put(strings[i], id);
+
+                    byte[] encoded = BinaryLogger.encode(strings[i]);
+                    ByteBuffer buffer = this.writer.reserve(1 + 4 + 2 + encoded.length);
+                    buffer.put(BinaryLogger.StringRecord);
+                    buffer.putInt(id);
+                    buffer.putShort((short)encoded.length);
+                    buffer.put(encoded);
+                }
+
+                values[i] = id;
+            }
+        }
+
+        ByteBuffer buffer = this.writer.reserve(this.rowSize);
+        buffer.put(BinaryLogger.RowRecord);
+        buffer.putDouble(this.rowTimestamps[slot]);
+        for (int i = 0; i < this.columnCount; i++)
+        {
+            buffer.put(types[i]);
+            buffer.putLong(values[i]);
+        }
+    }
+
+    /**
+     * Encode a string as UTF-8, truncating it if it is too long
+     * @param value to encode
+     * @return encoded bytes
+     */
+    private static byte[] encode(String value)
+    {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        if (encoded.length > BinaryLogger.MaxStringLength)
+        {
+            encoded = Arrays.copyOf(encoded, BinaryLogger.MaxStringLength);
+        }
+
+        return encoded;
+    }
+}
@@ -1,84 +1,493 @@
 package org.usfirst.frc.team1318.robot.common;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 
+import org.opencv.core.Point;
+
+/**
+ * Logger that writes rows of values to a CSV file.
+ *
+ * Writing to the file is done on a background thread so that storage latency doesn't affect the robot loop.
+ * Each call to flush copies the current row into a preallocated ring buffer, which the AsyncRowWriter's thread
+ * drains in batches.  If the writer falls behind and the ring buffer is full, the row is dropped and counted.
+ * Include "logger.droppedRows" in the schema to log the number of rows dropped so far with each row.
+ *
+ */
 public class CSVLogger extends StringLogger implements IDashboardLogger
 {
-    private final FileWriter fileWriter;
+    private static final String NewLine = "\r\n"; // file will be read in windows
+    private static final String NoValueString = "N/A";
+
+    // the type of value recorded for each column
+    private static final byte NoValue = 0;
+    private static final byte StringValue = 1;
+    private static final byte NumberValue = 2;
+    private static final byte IntegerValue = 3;
+    private static final byte PointValue = 4;
+
+    public static final String LogName = "logger";
+    public static final String DroppedRowsKey = "droppedRows";
+
+    private final AsyncRowWriter writer;
     private final ArrayList<String> schema;
+    private final HashMap<String, Integer> columnIndex;
+    private final int droppedRowsColumn;
 
-    private String[] values;
+    // values for the row currently being logged (only touched by the robot loop)
+    // numbers, integers and points are kept as primitives, and only converted to strings by the writer thread
+    private final byte[] types;
+    private final String[] values;
+    private final double[] numberValues;
+    private final double[] pointYValues;
+
+    // ring buffer of rows waiting to be written (filled by the robot loop, drained by the writer thread)
+    private final byte[][] rowTypes;
+    private final String[][] rowValues;
+    private final double[][] rowNumberValues;
+    private final double[][] rowPointYValues;
+
+    // only used by the writer thread
+    private final StringBuilder builder;
 
     /**
      * Initializes a new instance of the CSVLogger class.
      * @param fileName to write to
      * @param schema to use for writing
-     * @throws IOException 
+     * @throws IOException
      */
     public CSVLogger(String fileName, String[] schema) throws IOException
     {
-        this.fileWriter = new FileWriter(fileName);
+        this(fileName, schema, true);
+    }
+
+    /**
+     * Initializes a new instance of the CSVLogger class.
+     * @param fileName to write to
+     * @param schema to use for writing
+     * @param startWriter whether to start the writer thread (otherwise rows are written by writePendingRows and close)
+     * @throws IOException
+     */
+    CSVLogger(String fileName, String[] schema, boolean startWriter) throws IOException
+    {
+        this.writer = new AsyncRowWriter(fileName, slot -> this.writeRow(slot));
+
         this.schema = new ArrayList<String>();
+        this.columnIndex = new HashMap<String, Integer>();
         for (String schemaEntry : schema)
         {
+            this.columnIndex.put(schemaEntry, this.schema.size());
             this.schema.add(schemaEntry);
         }
 
-        this.values = new String[this.schema.size()];
+        this.droppedRowsColumn = this.getColumn(LoggingKey.buildName(CSVLogger.LogName, CSVLogger.DroppedRowsKey));
 
-        this.fileWriter.append(String.join(",", this.schema));
-        this.fileWriter.append("\r\n"); // file will be read in windows
+        int columns = this.schema.size();
+        this.types = new byte[columns];
+        this.values = new String[columns];
+        this.numberValues = new double[columns];
+        this.pointYValues = new double[columns];
+
+        this.rowTypes = new byte[AsyncRowWriter.RowBufferCapacity][columns];
+        this.rowValues = new String[AsyncRowWriter.RowBufferCapacity][columns];
+        this.rowNumberValues = new double[AsyncRowWriter.RowBufferCapacity][columns];
+        this.rowPointYValues = new double[AsyncRowWriter.RowBufferCapacity][columns];
+
+        this.builder = new StringBuilder();
+
+        this.writer.writeHeader(StandardCharsets.UTF_8.encode(String.join(",", this.schema) + CSVLogger.NewLine));
+        if (startWriter)
+        {
+            this.writer.start("CSVLogger");
+        }
     }
 
     /**
-     * Write a string to the smart dashboard
+     * Register a key to use for logging, resolving the key's column within the schema once instead of on every write
+     * @param component to log for
+     * @param key to write to
+     * @return key to use when logging the value
+     */
+    @Override
+    public LoggingKey registerKey(String component, String key)
+    {
+        return new LoggingKey(component, key, this, this.getColumn(LoggingKey.buildName(component, key)));
+    }
+
+    /**
+     * Write a boolean to the smart dashboard
      * @param component to log for
      * @param key to write to
      * @param value to write
      */
     @Override
-    public void logString(String component, String key, String value)
+    public void logBoolean(String component, String key, boolean value)
+    {
+        this.setBoolean(this.getColumn(LoggingKey.buildName(component, key)), value);
+    }
+
+    /**
+     * Write a number (double) to the smart dashboard
+     * @param component to log for
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumber(String component, String key, double value)
+    {
+        this.setNumber(this.getColumn(LoggingKey.buildName(component, key)), value);
+    }
+
+    /**
+     * Write a number (double) to the smart dashboard
+     * @param component to log for
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumber(String component, String key, Double value)
+    {
+        this.setNumber(this.getColumn(LoggingKey.buildName(component, key)), value);
+    }
+
+    /**
+     * Write a number (integer) to the smart dashboard
+     * @param component to log for
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logInteger(String component, String key, int value)
     {
-        String logKey = String.format("%s.%s", component, key);
-        int index = this.schema.indexOf(logKey);
+        this.setInteger(this.getColumn(LoggingKey.buildName(component, key)), value);
+    }
+
+    /**
+     * Write a number (integer) to the smart dashboard
+     * @param component to log for
+     * @param key to write to
+     * @param value to write
+     * @param formatString to use
+     */
+    @Override
+    public void logInteger(String component, String key, int value, String formatString)
+    {
+        int index = this.getColumn(LoggingKey.buildName(component, key));
         if (index >= 0)
         {
-            this.values[index] = value;
+            this.setString(index, String.format(formatString, value));
         }
     }
 
+    /**
+     * Write a point (x,y or N/A) to the smart dashboard
+     * @param component to log for
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logPoint(String component, String key, Point value)
+    {
+        this.setPoint(this.getColumn(LoggingKey.buildName(component, key)), value);
+    }
+
+    /**
+     * Write a string to the smart dashboard
+     * @param component to log for
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logString(String component, String key, String value)
+    {
+        this.setString(this.getColumn(LoggingKey.buildName(component, key)), value);
+    }
+
+    /**
+     * Write a boolean to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logBoolean(LoggingKey key, boolean value)
+    {
+        this.setBoolean(this.getColumn(key), value);
+    }
+
+    /**
+     * Write a string to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logString(LoggingKey key, String value)
+    {
+        this.setString(this.getColumn(key), value);
+    }
+
+    /**
+     * Write a number (double) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, double value)
+    {
+        this.setNumber(this.getColumn(key), value);
+    }
+
+    /**
+     * Write a number (double) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, Double value)
+    {
+        this.setNumber(this.getColumn(key), value);
+    }
+
+    /**
+     * Write a number (integer) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value)
+    {
+        this.setInteger(this.getColumn(key), value);
+    }
+
+    /**
+     * Write a point (x,y or N/A) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logPoint(LoggingKey key, Point value)
+    {
+        this.setPoint(this.getColumn(key), value);
+    }
+
     /**
      * Flush the output stream, if appropriate..
+     * The current row is handed off to the writer thread rather than written directly.
      */
     @Override
     public void flush()
     {
-        try
+        this.setNumber(this.droppedRowsColumn, this.writer.getDroppedRowCount());
+
+        int slot = this.writer.claimRow();
+        if (slot >= 0)
         {
-            for (int i = 0; i < this.schema.size(); i++)
-            {
-                if (i > 0)
-                {
-                    this.fileWriter.append(",");
-                }
-
-                String value = this.values[i];
-                if (value != null)
-                {
-                    this.fileWriter.append(value);
-                }
-            }
+            System.arraycopy(this.types, 0, this.rowTypes[slot], 0, this.types.length);
+            System.arraycopy(this.values, 0, this.rowValues[slot], 0, this.values.length);
+            System.arraycopy(this.numberValues, 0, this.rowNumberValues[slot], 0, this.numberValues.length);
+            System.arraycopy(this.pointYValues, 0, this.rowPointYValues[slot], 0, this.pointYValues.length);
+            this.writer.publishRow();
+        }
+
+        Arrays.fill(this.types, CSVLogger.NoValue);
+        Arrays.fill(this.values, null);
+    }
+
+    /**
+     * Stop the writer thread after writing any pending rows, and close the file.
+     * Any rows flushed after closing are dropped.
+     */
+    public void close()
+    {
+        this.writer.close();
+    }
+
+    /**
+     * Write any pending rows on the calling thread, when the writer thread wasn't started
+     */
+    void writePendingRows()
+    {
+        this.writer.writePendingRows();
+    }
+
+    /**
+     * Gets the number of rows that were dropped because the writer thread had fallen behind
+     * @return the number of dropped rows
+     */
+    public long getDroppedRowCount()
+    {
+        return this.writer.getDroppedRowCount();
+    }
+
+    /**
+     * Get the column for a key within the schema, as resolved when the key was registered
+     * @param key to write to
+     * @return index of the column in the schema (or -1 if not present)
+     */
+    private int getColumn(LoggingKey key)
+    {
+        if (key.isResolvedBy(this))
+        {
+            return key.getColumn();
+        }
+
+        // registered with a different logger, so look it up by name
+        return this.getColumn(key.getName());
+    }
+
+    /**
+     * Look up the column for a key within the schema
+     * @param name full name of the key
+     * @return index of the column in the schema (or -1 if not present)
+     */
+    private int getColumn(String name)
+    {
+        Integer index = this.columnIndex.get(name);
+        if (index == null)
+        {
+            return -1;
+        }
+
+        return index;
+    }
+
+    /**
+     * Record a string value for the current row
+     * @param index of the column in the schema (or -1 if not present)
+     * @param value to record
+     */
+    private void setString(int index, String value)
+    {
+        if (index >= 0)
+        {
+            this.types[index] = CSVLogger.StringValue;
+            this.values[index] = value;
+        }
+    }
 
-            this.fileWriter.append("\r\n");
-            this.fileWriter.flush();
+    /**
+     * Record a boolean value for the current row
+     * @param index of the column in the schema (or -1 if not present)
+     * @param value to record
+     */
+    private void setBoolean(int index, boolean value)
+    {
+        this.setString(index, value ? "true" : "false");
+    }
+
+    /**
+     * Record a number value for the current row, deferring conversion to a string until it is written
+     * @param index of the column in the schema (or -1 if not present)
+     * @param value to record
+     */
+    private void setNumber(int index, double value)
+    {
+        if (index >= 0)
+        {
+            this.types[index] = CSVLogger.NumberValue;
+            this.values[index] = null;
+            this.numberValues[index] = value;
+        }
+    }
+
+    /**
+     * Record a nullable number value for the current row, deferring conversion to a string until it is written
+     * @param index of the column in the schema (or -1 if not present)
+     * @param value to record
+     */
+    private void setNumber(int index, Double value)
+    {
+        if (value == null)
+        {
+            this.setString(index, CSVLogger.NoValueString);
         }
-        catch (IOException e)
+        else
         {
-            // best-effort...
+            this.setNumber(index, value.doubleValue());
+        }
+    }
+
+    /**
+     * Record an integer value for the current row, deferring conversion to a string until it is written
+     * @param index of the column in the schema (or -1 if not present)
+     * @param value to record
+     */
+    private void setInteger(int index, int value)
+    {
+        if (index >= 0)
+        {
+            this.types[index] = CSVLogger.IntegerValue;
+            this.values[index] = null;
+            this.numberValues[index] = value;
+        }
+    }
+
+    /**
+     * Record a point value for the current row, deferring conversion to a string until it is written
+     * @param index of the column in the schema (or -1 if not present)
+     * @param value to record
+     */
+    private void setPoint(int index, Point value)
+    {
+        if (value == null)
+        {
+            this.setString(index, CSVLogger.NoValueString);
+        }
+        else if (index >= 0)
+        {
+            this.types[index] = CSVLogger.PointValue;
+            this.values[index] = null;
+            this.numberValues[index] = value.x;
+            this.pointYValues[index] = value.y;
+        }
+    }
+
+    /**
+     * Write a row from the ring buffer as a line of the CSV file (called on the writer thread)
+     * @param slot of the row within the ring buffer
+     */
+    private void writeRow(int slot)
+    {
+        byte[] types = this.rowTypes[slot];
+        String[] values = this.rowValues[slot];
+        double[] numberValues = this.rowNumberValues[slot];
+        double[] pointYValues = this.rowPointYValues[slot];
+
+        this.builder.setLength(0);
+        for (int i = 0; i < types.length; i++)
+        {
+            if (i > 0)
+            {
+                this.builder.append(',');
+            }
+
+            switch (types[i])
+            {
+                case CSVLogger.StringValue:
+                    this.builder.append(values[i]);
+                    break;
+
+                case CSVLogger.NumberValue:
+                    this.builder.append(numberValues[i]);
+                    break;
+
+                case CSVLogger.IntegerValue:
+                    this.builder.append((int)numberValues[i]);
+                    break;
+
+                case CSVLogger.PointValue:
+                    // quoted, as the point contains a comma
+                    this.builder.append('"').append(numberValues[i]).append(',').append(pointYValues[i]).append('"');
+                    break;
+
+                default:
+                    break;
+            }
         }
 
-        this.values = new String[this.schema.size()];
+        this.builder.append(CSVLogger.NewLine);
+        this.writer.writeChars(this.builder);
     }
 }
@@ -15,7 +15,18 @@ public class ConsoleDashboardLogger extends StringLogger implements IDashboardLo
     @Override
     public void logString(String component, String key, String value)
     {
-        String logKey = String.format("%s.%s", component, key);
+        String logKey = LoggingKey.buildName(component, key);
         System.out.println(logKey + ": " + value);
     }
+
+    /**
+     * Write a string to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logString(LoggingKey key, String value)
+    {
+        System.out.println(key.getName() + ": " + value);
+    }
 }
@@ -0,0 +1,183 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.usfirst.frc.team1318.robot.TuningConstants;
+
+/**
+ * Runs a task on a dedicated thread at a fixed rate.
+ * Each cycle is scheduled relative to when the scheduler was started (rather than to when the previous cycle finished),
+ * so that the period doesn't drift.  If a cycle runs so long that whole periods are missed, those cycles are skipped
+ * (instead of being run back-to-back to catch up) and counted.
+ *
+ * The jitter (how late each cycle started compared to when it was scheduled) is recorded into a histogram, which should be
+ * reported from within the task so that the logger is only used from the scheduler's thread.
+ *
+ * If the task throws an exception, the exception is logged and the failure handler is run (e.g. to stop the outputs).
+ * The scheduler then either stops (and rethrows the exception) or carries on with the next cycle, based on THROW_EXCEPTIONS.
+ *
+ */
+public class FixedRateScheduler
+{
+    private final String name;
+    private final long periodNanos;
+    private final int priority;
+    private final Runnable task;
+    private final Runnable failureHandler;
+
+    private final IDashboardLogger logger;
+    private final TimingHistogram jitterTiming;
+    private final LoggingKey missedCyclesLogKey;
+    private final LoggingKey exceptionLogKey;
+
+    private volatile boolean isRunning;
+    private Thread thread;
+
+    // only used by the scheduler's thread
+    private int missedCycles;
+
+    /**
+     * Initializes a new instance of the FixedRateScheduler class.
+     * @param logger to report jitter to
+     * @param name of the scheduler, used for its thread and for logging
+     * @param period between the start of each cycle, in seconds
+     * @param priority of the scheduler's thread
+     * @param task to run each cycle
+     * @param failureHandler to run (on the scheduler's thread) when the task throws an exception
+     */
+    public FixedRateScheduler(IDashboardLogger logger, String name, double period, int priority, Runnable task, Runnable failureHandler)
+    {
+        this.name = name;
+        this.periodNanos = (long)(period * 1000000000.0);
+        this.priority = priority;
+        this.task = task;
+        this.failureHandler = failureHandler;
+
+        this.logger = logger;
+        this.jitterTiming = new TimingHistogram(logger, name, "jitter", period / 2.0); // overruns are cycles that started over half a period late
+        this.missedCyclesLogKey = logger.registerKey(name, "missedCycles");
+        this.exceptionLogKey = logger.registerKey(name, "exception");
+
+        this.isRunning = false;
+        this.thread = null;
+        this.missedCycles = 0;
+    }
+
+    /**
+     * Start running the task on the scheduler's thread
+     */
+    public synchronized void start()
+    {
+        if (this.thread != null)
+        {
+            return;
+        }
+
+        this.isRunning = true;
+        this.thread = new Thread(() -> this.run(), this.name);
+        this.thread.setDaemon(true);
+        this.thread.setPriority(this.priority);
+        this.thread.start();
+    }
+
+    /**
+     * Stop running the task, waiting for the current cycle to finish
+     */
+    public synchronized void stop()
+    {
+        if (this.thread == null)
+        {
+            return;
+        }
+
+        this.isRunning = false;
+        LockSupport.unpark(this.thread);
+
+        boolean interrupted = false;
+        while (this.thread.isAlive())
+        {
+            try
+            {
+                this.thread.join();
+            }
+            catch (InterruptedException ex)
+            {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        this.thread = null;
+    }
+
+    /**
+     * Gets whether the task is currently being run on the scheduler's thread
+     * @return true if the scheduler is running
+     */
+    public boolean isRunning()
+    {
+        return this.isRunning;
+    }
+
+    /**
+     * Write the jitter statistics to the dashboard (should be called from within the task)
+     */
+    public void reportTiming()
+    {
+        this.jitterTiming.report();
+        this.logger.logInteger(this.missedCyclesLogKey, this.missedCycles);
+        this.missedCycles = 0;
+    }
+
+    /**
+     * Run the task each period until the scheduler is stopped
+     */
+    private void run()
+    {
+        long nextStartTime = System.nanoTime();
+        while (this.isRunning)
+        {
+            long now = System.nanoTime();
+            long delay = nextStartTime - now;
+            if (delay > 0L)
+            {
+                LockSupport.parkNanos(this, delay);
+                continue;
+            }
+
+            // skip any whole periods that we missed, staying aligned to the original schedule
+            long lateness = -delay;
+            if (lateness >= this.periodNanos)
+            {
+                long skippedCycles = lateness / this.periodNanos;
+                this.missedCycles += (int)skippedCycles;
+                nextStartTime += skippedCycles * this.periodNanos;
+                lateness -= skippedCycles * this.periodNanos;
+            }
+
+            this.jitterTiming.record(lateness);
+            nextStartTime += this.periodNanos;
+
+            try
+            {
+                this.task.run();
+            }
+            catch (RuntimeException ex)
+            {
+                this.logger.logString(this.exceptionLogKey, ex.toString());
+                ex.printStackTrace();
+
+                this.failureHandler.run();
+                if (TuningConstants.THROW_EXCEPTIONS)
+                {
+                    this.isRunning = false;
+                    throw ex;
+                }
+            }
+        }
+    }
+}
@@ -26,4 +26,11 @@ public interface IController
      * @param driver to use
      */
     public void setDriver(Driver driver);
+
+    /**
+     * get how often the controller should be updated.  Controllers that don't need to react quickly (or that only
+     * monitor slowly-changing values) can be updated less often, so that the controllers that do have more of the loop.
+     * @return the desired number of seconds between updates (the controller is updated every loop if this is no more than the loop period)
+     */
+    public double getUpdatePeriod();
 }
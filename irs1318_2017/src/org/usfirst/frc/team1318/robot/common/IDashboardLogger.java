@@ -4,6 +4,14 @@ import org.opencv.core.Point;
 
 public interface IDashboardLogger
 {
+    /**
+     * Register a key to use for logging, resolving the full name of the key once instead of on every write
+     * @param component to log for
+     * @param key to write to
+     * @return key to use when logging the value
+     */
+    LoggingKey registerKey(String component, String key);
+
     /**
      * Write a boolean to the smart dashboard
      * @param component to log for
@@ -61,6 +69,48 @@ public interface IDashboardLogger
      */
     void logString(String component, String key, String value);
 
+    /**
+     * Write a boolean to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    void logBoolean(LoggingKey key, boolean value);
+
+    /**
+     * Write a number (double) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    void logNumber(LoggingKey key, double value);
+
+    /**
+     * Write a number (double) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    void logNumber(LoggingKey key, Double value);
+
+    /**
+     * Write a number (integer) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    void logInteger(LoggingKey key, int value);
+
+    /**
+     * Write a point (x,y or N/A) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    void logPoint(LoggingKey key, Point value);
+
+    /**
+     * Write a string to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    void logString(LoggingKey key, String value);
+
     /**
      * Flush the output stream, if appropriate..
      */
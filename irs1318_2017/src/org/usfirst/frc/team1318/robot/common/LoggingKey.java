@@ -0,0 +1,151 @@
+package org.usfirst.frc.team1318.robot.common;
+
+/**
+ * Pre-resolved key for logging a value to an IDashboardLogger.
+ * Keys should be registered once (typically at construction time) so that the combined "component.key"
+ * name isn't re-formatted every time a value is logged within the robot loop.  Loggers that write to a fixed
+ * schema also resolve the key's column when it is registered, so that logging a value doesn't need a lookup.
+ *
+ */
+public final class LoggingKey
+{
+    private final String component;
+    private final String key;
+    private final String name;
+
+    // the logger that resolved the column, and the key's column within that logger's schema (or -1 if not present)
+    private final IDashboardLogger owner;
+    private final int column;
+
+    // keys registered with each of the loggers that a MultiLogger logs to (or null)
+    private final LoggingKey[] innerKeys;
+
+    /**
+     * Initializes a new instance of the LoggingKey class.
+     * @param component to log for
+     * @param key to write to
+     */
+    LoggingKey(String component, String key)
+    {
+        this(component, key, null, -1, null);
+    }
+
+    /**
+     * Initializes a new instance of the LoggingKey class, for a logger that writes to a fixed schema.
+     * @param component to log for
+     * @param key to write to
+     * @param owner logger that resolved the column
+     * @param column of the key within the owner's schema (or -1 if not present)
+     */
+    LoggingKey(String component, String key, IDashboardLogger owner, int column)
+    {
+        this(component, key, owner, column, null);
+    }
+
+    /**
+     * Initializes a new instance of the LoggingKey class, for a logger that logs to other loggers.
+     * @param component to log for
+     * @param key to write to
+     * @param innerKeys registered with each of the other loggers
+     */
+    LoggingKey(String component, String key, LoggingKey[] innerKeys)
+    {
+        this(component, key, null, -1, innerKeys);
+    }
+
+    /**
+     * Initializes a new instance of the LoggingKey class.
+     * @param component to log for
+     * @param key to write to
+     * @param owner logger that resolved the column (or null)
+     * @param column of the key within the owner's schema (or -1 if not present)
+     * @param innerKeys registered with each of the other loggers (or null)
+     */
+    private LoggingKey(String component, String key, IDashboardLogger owner, int column, LoggingKey[] innerKeys)
+    {
+        this.component = component;
+        this.key = key;
+        this.name = LoggingKey.buildName(component, key);
+        this.owner = owner;
+        this.column = column;
+        this.innerKeys = innerKeys;
+    }
+
+    /**
+     * Gets the component that this key logs for
+     * @return the component name
+     */
+    public String getComponent()
+    {
+        return this.component;
+    }
+
+    /**
+     * Gets the key within the component that this key writes to
+     * @return the key name
+     */
+    public String getKey()
+    {
+        return this.key;
+    }
+
+    /**
+     * Gets the full name of the key ("component.key")
+     * @return the full name of the key
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * Gets whether the key's column was resolved by the provided logger
+     * @param logger to check
+     * @return true if getColumn can be used for the logger
+     */
+    boolean isResolvedBy(IDashboardLogger logger)
+    {
+        return this.owner == logger;
+    }
+
+    /**
+     * Gets the key's column within the schema of the logger that resolved it
+     * @return index of the column (or -1 if not present)
+     */
+    int getColumn()
+    {
+        return this.column;
+    }
+
+    /**
+     * Gets the key that was registered with one of the loggers that a MultiLogger logs to
+     * @param index of the logger
+     * @return the inner key (or this key, if it wasn't registered through a MultiLogger)
+     */
+    LoggingKey getInnerKey(int index)
+    {
+        if (this.innerKeys == null)
+        {
+            return this;
+        }
+
+        return this.innerKeys[index];
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.name;
+    }
+
+    /**
+     * Build the full name of a key
+     * @param component to log for
+     * @param key to write to
+     * @return the full name of the key ("component.key")
+     */
+    static String buildName(String component, String key)
+    {
+        return component + "." + key;
+    }
+}
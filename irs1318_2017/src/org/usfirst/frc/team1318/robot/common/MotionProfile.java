@@ -0,0 +1,420 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import java.util.function.Function;
+
+import org.usfirst.frc.team1318.robot.TuningConstants;
+
+/**
+ * This class is a motion profile, with the position, velocity and acceleration precomputed at regular intervals so that
+ * looking up the setpoint for a given time (with linear interpolation between samples) is cheap enough to do every loop.
+ *
+ * Profiles generated from limits are S-curves: the acceleration ramps up and down at the max jerk, holds at the max
+ * acceleration, and the velocity holds at the max velocity (cruise) in between.  Phases that don't fit within the distance
+ * are shortened (so a short move may never reach the max acceleration or the max velocity).  An infinite max jerk gives a
+ * trapezoidal profile instead.
+ *
+ * for reference:
+ *      https://en.wikipedia.org/wiki/Jerk_(physics)
+ *
+ */
+public class MotionProfile
+{
+    // the number of bisection steps used when fitting a profile within a duration
+    private static final int FitIterations = 50;
+
+    private final double sampleInterval;
+    private final double duration;
+    private final double[] positions;
+    private final double[] velocities;
+    private final double[] accelerations;
+
+    /**
+     * Initializes a new MotionProfile from precomputed samples
+     * @param sampleInterval between each of the samples, in seconds
+     * @param duration of the profile, in seconds
+     * @param positions at each sample
+     * @param velocities at each sample
+     * @param accelerations at each sample
+     */
+    private MotionProfile(double sampleInterval, double duration, double[] positions, double[] velocities, double[] accelerations)
+    {
+        this.sampleInterval = sampleInterval;
+        this.duration = duration;
+        this.positions = positions;
+        this.velocities = velocities;
+        this.accelerations = accelerations;
+    }
+
+    /**
+     * Create the fastest profile to travel a distance (starting and ending at rest) within the provided limits
+     * @param distance to travel (negative to travel backwards)
+     * @param maxVelocity limit (distance per second)
+     * @param maxAcceleration limit (distance per second per second)
+     * @param maxJerk limit (distance per second cubed), or Double.POSITIVE_INFINITY for a trapezoidal profile
+     * @return the motion profile
+     */
+    public static MotionProfile create(double distance, double maxVelocity, double maxAcceleration, double maxJerk)
+    {
+        double absDistance = Math.abs(distance);
+        double peakVelocity = Math.min(
+            maxVelocity,
+            MotionProfile.getPeakVelocityWithinDistance(absDistance, maxAcceleration, maxJerk));
+
+        return MotionProfile.generate(
+            distance,
+            peakVelocity,
+            maxAcceleration,
+            maxJerk,
+            TuningConstants.MOTION_PROFILE_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Create a profile to travel a distance (starting and ending at rest) that finishes at the provided duration, by lowering
+     * the velocity that it cruises at.  If the limits don't allow the distance to be covered within that duration, the
+     * fastest profile is used instead (and it will take longer than the duration).
+     * @param distance to travel (negative to travel backwards)
+     * @param duration to take, in seconds
+     * @param maxVelocity limit (distance per second)
+     * @param maxAcceleration limit (distance per second per second)
+     * @param maxJerk limit (distance per second cubed), or Double.POSITIVE_INFINITY for a trapezoidal profile
+     * @return the motion profile
+     */
+    public static MotionProfile createWithinDuration(
+        double distance,
+        double duration,
+        double maxVelocity,
+        double maxAcceleration,
+        double maxJerk)
+    {
+        double absDistance = Math.abs(distance);
+        double maxPeakVelocity = Math.min(
+            maxVelocity,
+            MotionProfile.getPeakVelocityWithinDistance(absDistance, maxAcceleration, maxJerk));
+
+        double peakVelocity = maxPeakVelocity;
+        if (maxPeakVelocity > 0.0
+            && MotionProfile.getDuration(absDistance, maxPeakVelocity, maxAcceleration, maxJerk) < duration)
+        {
+            // the duration only gets longer as the peak velocity is lowered, so search for the one that fits exactly
+            double low = 0.0;
+            double high = maxPeakVelocity;
+            for (int i = 0; i < MotionProfile.FitIterations; i++)
+            {
+                double middle = (low + high) / 2.0;
+                if (MotionProfile.getDuration(absDistance, middle, maxAcceleration, maxJerk) > duration)
+                {
+                    low = middle;
+                }
+                else
+                {
+                    high = middle;
+                }
+            }
+
+            peakVelocity = high;
+        }
+
+        return MotionProfile.generate(
+            distance,
+            peakVelocity,
+            maxAcceleration,
+            maxJerk,
+            TuningConstants.MOTION_PROFILE_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Create a profile by sampling a function of position per ratio of time that has elapsed, with the velocity and
+     * acceleration estimated from the differences between samples
+     * @param positionPerRatio function that calculates the position per ratio of time that has elapsed (between 0.0 and 1.0)
+     * @param duration of the profile, in seconds
+     * @return the motion profile
+     */
+    public static MotionProfile fromFunction(Function<Double, Double> positionPerRatio, double duration)
+    {
+        double sampleInterval = TuningConstants.MOTION_PROFILE_SAMPLE_INTERVAL;
+        int sampleCount = MotionProfile.getSampleCount(duration, sampleInterval);
+
+        double[] positions = new double[sampleCount];
+        for (int i = 0; i < sampleCount; i++)
+        {
+            double ratio = duration > 0.0 ? Math.min(1.0, (i * sampleInterval) / duration) : 1.0;
+            positions[i] = positionPerRatio.apply(ratio);
+        }
+
+        double[] velocities = MotionProfile.differentiate(positions, sampleInterval);
+        double[] accelerations = MotionProfile.differentiate(velocities, sampleInterval);
+        return new MotionProfile(sampleInterval, duration, positions, velocities, accelerations);
+    }
+
+    /**
+     * Gets the time it takes to complete the profile
+     * @return the duration of the profile, in seconds
+     */
+    public double getDuration()
+    {
+        return this.duration;
+    }
+
+    /**
+     * Gets the position at the end of the profile
+     * @return the final position
+     */
+    public double getDistance()
+    {
+        return this.positions[this.positions.length - 1];
+    }
+
+    /**
+     * Gets the position at the provided time
+     * @param time since the start of the profile, in seconds
+     * @return the position
+     */
+    public double getPosition(double time)
+    {
+        return this.interpolate(this.positions, time);
+    }
+
+    /**
+     * Gets the velocity at the provided time
+     * @param time since the start of the profile, in seconds
+     * @return the velocity
+     */
+    public double getVelocity(double time)
+    {
+        return this.interpolate(this.velocities, time);
+    }
+
+    /**
+     * Gets the acceleration at the provided time
+     * @param time since the start of the profile, in seconds
+     * @return the acceleration
+     */
+    public double getAcceleration(double time)
+    {
+        return this.interpolate(this.accelerations, time);
+    }
+
+    /**
+     * Look up the value at the provided time, interpolating between the samples on either side of it
+     * @param values at each sample
+     * @param time since the start of the profile, in seconds
+     * @return the value at that time (or the first/last value if the time is outside of the profile)
+     */
+    private double interpolate(double[] values, double time)
+    {
+        double index = time / this.sampleInterval;
+        if (index <= 0.0)
+        {
+            return values[0];
+        }
+
+        int lowerIndex = (int)index;
+        if (lowerIndex >= values.length - 1)
+        {
+            return values[values.length - 1];
+        }
+
+        double fraction = index - lowerIndex;
+        return values[lowerIndex] + (values[lowerIndex + 1] - values[lowerIndex]) * fraction;
+    }
+
+    /**
+     * Generate the samples for an S-curve profile with the provided peak velocity
+     * @param distance to travel (negative to travel backwards)
+     * @param peakVelocity to cruise at (must be reachable within the distance)
+     * @param maxAcceleration limit
+     * @param maxJerk limit
+     * @param sampleInterval between each of the samples, in seconds
+     * @return the motion profile
+     */
+    private static MotionProfile generate(
+        double distance,
+        double peakVelocity,
+        double maxAcceleration,
+        double maxJerk,
+        double sampleInterval)
+    {
+        double absDistance = Math.abs(distance);
+        double direction = Math.signum(distance);
+        if (peakVelocity <= 0.0)
+        {
+            return new MotionProfile(sampleInterval, 0.0, new double[] { 0.0 }, new double[] { 0.0 }, new double[] { 0.0 });
+        }
+
+        // the profile is made up of 7 phases: jerk up, hold acceleration, jerk down, cruise, jerk down, hold deceleration, jerk up
+        double jerkTime = MotionProfile.getJerkTime(peakVelocity, maxAcceleration, maxJerk);
+        double peakAcceleration = jerkTime > 0.0 ? maxJerk * jerkTime : maxAcceleration;
+        double jerk = jerkTime > 0.0 ? maxJerk : 0.0;
+        double constantAccelerationTime = peakVelocity / peakAcceleration - jerkTime;
+        double cruiseTime = MotionProfile.getCruiseTime(absDistance, peakVelocity, maxAcceleration, maxJerk);
+
+        double[] phaseDurations = new double[] { jerkTime, constantAccelerationTime, jerkTime, cruiseTime, jerkTime, constantAccelerationTime, jerkTime };
+        double[] phaseJerks = new double[] { jerk, 0.0, -jerk, 0.0, -jerk, 0.0, jerk };
+        double[] phaseAccelerations = new double[] { 0.0, peakAcceleration, peakAcceleration, 0.0, 0.0, -peakAcceleration, -peakAcceleration };
+
+        double duration = 0.0;
+        for (double phaseDuration : phaseDurations)
+        {
+            duration += phaseDuration;
+        }
+
+        int sampleCount = MotionProfile.getSampleCount(duration, sampleInterval);
+        double[] positions = new double[sampleCount];
+        double[] velocities = new double[sampleCount];
+        double[] accelerations = new double[sampleCount];
+
+        int phase = 0;
+        double phaseStartTime = 0.0;
+        double phaseStartPosition = 0.0;
+        double phaseStartVelocity = 0.0;
+        for (int i = 0; i < sampleCount; i++)
+        {
+            double time = i * sampleInterval;
+            if (time >= duration)
+            {
+                // exactly at rest at the end, without any accumulated rounding error
+                positions[i] = distance;
+                velocities[i] = 0.0;
+                accelerations[i] = 0.0;
+                continue;
+            }
+
+            // move forward to the phase that contains this sample, keeping track of where each phase starts
+            while (phase < phaseDurations.length - 1 && time >= phaseStartTime + phaseDurations[phase])
+            {
+                double phaseDuration = phaseDurations[phase];
+                phaseStartPosition += phaseStartVelocity * phaseDuration
+                    + phaseAccelerations[phase] * phaseDuration * phaseDuration / 2.0
+                    + phaseJerks[phase] * phaseDuration * phaseDuration * phaseDuration / 6.0;
+                phaseStartVelocity += phaseAccelerations[phase] * phaseDuration
+                    + phaseJerks[phase] * phaseDuration * phaseDuration / 2.0;
+                phaseStartTime += phaseDuration;
+                phase++;
+            }
+
+            double t = time - phaseStartTime;
+            positions[i] = direction * (phaseStartPosition
+                + phaseStartVelocity * t
+                + phaseAccelerations[phase] * t * t / 2.0
+                + phaseJerks[phase] * t * t * t / 6.0);
+            velocities[i] = direction * (phaseStartVelocity
+                + phaseAccelerations[phase] * t
+                + phaseJerks[phase] * t * t / 2.0);
+            accelerations[i] = direction * (phaseAccelerations[phase] + phaseJerks[phase] * t);
+        }
+
+        return new MotionProfile(sampleInterval, duration, positions, velocities, accelerations);
+    }
+
+    /**
+     * Gets the highest peak velocity for which speeding up and slowing down fit within the distance
+     * @param distance to travel (positive)
+     * @param maxAcceleration limit
+     * @param maxJerk limit
+     * @return the peak velocity
+     */
+    private static double getPeakVelocityWithinDistance(double distance, double maxAcceleration, double maxJerk)
+    {
+        // speeding up covers half of the distance (and slowing down the other half)
+        double halfDistance = distance / 2.0;
+        double jerkRampVelocity = maxAcceleration * maxAcceleration / maxJerk;
+        if (halfDistance >= maxAcceleration * jerkRampVelocity / maxJerk)
+        {
+            // reaches the max acceleration: v * (v / a + a / j) / 2 = d / 2, so v^2 + v * a^2 / j - d * a = 0
+            return (-jerkRampVelocity + Math.sqrt(jerkRampVelocity * jerkRampVelocity + 4.0 * distance * maxAcceleration)) / 2.0;
+        }
+
+        // only ramps the acceleration up and back down: v * sqrt(v / j) = d / 2
+        return Math.cbrt(halfDistance * halfDistance * maxJerk);
+    }
+
+    /**
+     * Gets the time spent ramping the acceleration up (or down) when speeding up to the peak velocity
+     * @param peakVelocity to speed up to
+     * @param maxAcceleration limit
+     * @param maxJerk limit
+     * @return the time to ramp the acceleration, in seconds (0.0 for a trapezoidal profile)
+     */
+    private static double getJerkTime(double peakVelocity, double maxAcceleration, double maxJerk)
+    {
+        if (peakVelocity < maxAcceleration * maxAcceleration / maxJerk)
+        {
+            // the max acceleration isn't reached before it needs to ramp back down
+            return Math.sqrt(peakVelocity / maxJerk);
+        }
+
+        return maxAcceleration / maxJerk;
+    }
+
+    /**
+     * Gets the time spent cruising at the peak velocity
+     * @param distance to travel (positive)
+     * @param peakVelocity to cruise at
+     * @param maxAcceleration limit
+     * @param maxJerk limit
+     * @return the time spent cruising, in seconds
+     */
+    private static double getCruiseTime(double distance, double peakVelocity, double maxAcceleration, double maxJerk)
+    {
+        // the velocity ramp is symmetric, so speeding up covers the average velocity over the time it takes
+        double speedUpDistance = peakVelocity * MotionProfile.getSpeedUpTime(peakVelocity, maxAcceleration, maxJerk) / 2.0;
+        return Math.max(0.0, (distance - 2.0 * speedUpDistance) / peakVelocity);
+    }
+
+    /**
+     * Gets the time spent speeding up to the peak velocity (which is the same as the time spent slowing down)
+     * @param peakVelocity to speed up to
+     * @param maxAcceleration limit
+     * @param maxJerk limit
+     * @return the time spent speeding up, in seconds
+     */
+    private static double getSpeedUpTime(double peakVelocity, double maxAcceleration, double maxJerk)
+    {
+        double jerkTime = MotionProfile.getJerkTime(peakVelocity, maxAcceleration, maxJerk);
+        double peakAcceleration = jerkTime > 0.0 ? maxJerk * jerkTime : maxAcceleration;
+        return jerkTime + peakVelocity / peakAcceleration;
+    }
+
+    /**
+     * Gets the total duration of a profile with the provided peak velocity
+     * @param distance to travel (positive)
+     * @param peakVelocity to cruise at
+     * @param maxAcceleration limit
+     * @param maxJerk limit
+     * @return the duration of the profile, in seconds
+     */
+    private static double getDuration(double distance, double peakVelocity, double maxAcceleration, double maxJerk)
+    {
+        return 2.0 * MotionProfile.getSpeedUpTime(peakVelocity, maxAcceleration, maxJerk)
+            + MotionProfile.getCruiseTime(distance, peakVelocity, maxAcceleration, maxJerk);
+    }
+
+    /**
+     * Gets the number of samples needed to cover the duration (including both the start and the end)
+     * @param duration of the profile, in seconds
+     * @param sampleInterval between each of the samples, in seconds
+     * @return the number of samples
+     */
+    private static int getSampleCount(double duration, double sampleInterval)
+    {
+        return (int)Math.ceil(duration / sampleInterval) + 1;
+    }
+
+    /**
+     * Estimate the derivative at each sample using the differences between neighboring samples
+     * @param values at each sample
+     * @param sampleInterval between each of the samples, in seconds
+     * @return the derivative at each sample
+     */
+    private static double[] differentiate(double[] values, double sampleInterval)
+    {
+        // the first and last samples are left at 0.0, as the route starts and ends at rest
+        double[] derivatives = new double[values.length];
+        for (int i = 1; i < values.length - 1; i++)
+        {
+            derivatives[i] = (values[i + 1] - values[i - 1]) / (2.0 * sampleInterval);
+        }
+
+        return derivatives;
+    }
+}
@@ -15,6 +15,24 @@ public class MultiLogger implements IDashboardLogger
         this.loggers = loggers;
     }
 
+    /**
+     * Register a key to use for logging, resolving the full name of the key once instead of on every write
+     * @param component to log for
+     * @param key to write to
+     * @return key to use when logging the value
+     */
+    @Override
+    public LoggingKey registerKey(String component, String key)
+    {
+        LoggingKey[] innerKeys = new LoggingKey[this.loggers.length];
+        for (int i = 0; i < this.loggers.length; i++)
+        {
+            innerKeys[i] = this.loggers[i].registerKey(component, key);
+        }
+
+        return new LoggingKey(component, key, innerKeys);
+    }
+
     /**
      * Write a boolean to the smart dashboard
      * @param component to log for
@@ -121,6 +139,90 @@ public class MultiLogger implements IDashboardLogger
         }
     }
 
+    /**
+     * Write a boolean to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logBoolean(LoggingKey key, boolean value)
+    {
+        for (int i = 0; i < this.loggers.length; i++)
+        {
+            this.loggers[i].logBoolean(key.getInnerKey(i), value);
+        }
+    }
+
+    /**
+     * Write a number (double) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, double value)
+    {
+        for (int i = 0; i < this.loggers.length; i++)
+        {
+            this.loggers[i].logNumber(key.getInnerKey(i), value);
+        }
+    }
+
+    /**
+     * Write a number (Double) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, Double value)
+    {
+        for (int i = 0; i < this.loggers.length; i++)
+        {
+            this.loggers[i].logNumber(key.getInnerKey(i), value);
+        }
+    }
+
+    /**
+     * Write a number (integer) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value)
+    {
+        for (int i = 0; i < this.loggers.length; i++)
+        {
+            this.loggers[i].logInteger(key.getInnerKey(i), value);
+        }
+    }
+
+    /**
+     * Write a point (x,y or N/A) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logPoint(LoggingKey key, Point value)
+    {
+        for (int i = 0; i < this.loggers.length; i++)
+        {
+            this.loggers[i].logPoint(key.getInnerKey(i), value);
+        }
+    }
+
+    /**
+     * Write a string to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logString(LoggingKey key, String value)
+    {
+        for (int i = 0; i < this.loggers.length; i++)
+        {
+            this.loggers[i].logString(key.getInnerKey(i), value);
+        }
+    }
+
     /**
      * Flush the output stream, if appropriate..
      */
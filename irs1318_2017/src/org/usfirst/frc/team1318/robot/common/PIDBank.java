@@ -0,0 +1,455 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import java.util.Arrays;
+
+import org.usfirst.frc.team1318.robot.TuningConstants;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
+
+/**
+ * This class holds the state for a set of PID loops (each with a feed-forward handler and complementary filters), which
+ * are updated together.
+ *
+ * The state for all of the loops is kept in parallel primitive arrays (indexed by the loop's slot) rather than in an object
+ * per loop.  Each cycle, the setpoint and measured value for the loops are set, and then update() reads the timer once and
+ * calculates all of those loops in one pass.  The loops can still be calculated individually (with their own timestamp),
+ * which is how PIDHandlers that aren't part of a shared bank work.
+ *
+ * PIDHandler is the handle for a loop within a bank.  A bank isn't thread-safe, so each bank should only be used by the
+ * loops that run on the same thread (e.g. the drivetrain's loops within the control loop).
+ *
+ */
+public class PIDBank
+{
+    // constants
+    private static final double MinTimeStep = TuningConstants.EFFECTIVE_CONTROL_LOOP_PERIOD / 2.0; // so that loop jitter doesn't cause skipped updates
+    private static final int DefaultCapacity = 2;
+
+    private final ITimer timer;
+    private int count;
+
+    // PIDFS constants
+    private double[] kp;        // proportion for proportional
+    private double[] ki;        // proportion for integral
+    private double[] kd;        // proportion for derivative
+    private double[] kf;        // proportion for feed-forward
+    private double[] ks;        // multiplicand for adjusting scale of setpoint to match scale of measured value
+
+    // output bounds, or NaN when there is no bound (comparisons against NaN are always false, so NaN never limits anything)
+    private double[] minOutput;
+    private double[] maxOutput;
+
+    // integral values at which the integral component reaches the output bounds (cached so we don't divide each update)
+    private double[] minIntegral;
+    private double[] maxIntegral;
+
+    // complementary filters for the error and the output
+    private double[] errorFilterKO;
+    private double[] errorFilterKN;
+    private double[] errorFilterValue;
+    private double[] outputFilterKO;
+    private double[] outputFilterKN;
+    private double[] outputFilterValue;
+
+    // loop state
+    private double[] integral;          // integral of error data in memory
+    private double[] prevMeasuredValue; // the previous measured value
+    private double[] prevTime;          // the timestamp of our previous measurement
+    private double[] prevError;         // the error during our previous measurement
+    private double[] output;            // the output we wish to set after our calculation
+
+    // inputs set for the next update
+    private double[] setpoint;
+    private double[] measuredValue;
+    private boolean[] isVelocity;
+    private boolean[] hasInput;
+
+    // logging
+    private IDashboardLogger[] loggers;
+    private LoggingKey[] scaleFactorLogKeys;
+
+    /**
+     * Initializes a new PIDBank
+     * @param timer to use to get the timestamp for each update
+     */
+    public PIDBank(ITimer timer)
+    {
+        this(timer, PIDBank.DefaultCapacity);
+    }
+
+    /**
+     * Initializes a new PIDBank
+     * @param timer to use to get the timestamp for each update
+     * @param capacity of the bank, i.e. the number of loops that can be registered before it needs to grow
+     */
+    public PIDBank(ITimer timer, int capacity)
+    {
+        this.timer = timer;
+        this.count = 0;
+
+        this.kp = new double[capacity];
+        this.ki = new double[capacity];
+        this.kd = new double[capacity];
+        this.kf = new double[capacity];
+        this.ks = new double[capacity];
+        this.minOutput = new double[capacity];
+        this.maxOutput = new double[capacity];
+        this.minIntegral = new double[capacity];
+        this.maxIntegral = new double[capacity];
+        this.errorFilterKO = new double[capacity];
+        this.errorFilterKN = new double[capacity];
+        this.errorFilterValue = new double[capacity];
+        this.outputFilterKO = new double[capacity];
+        this.outputFilterKN = new double[capacity];
+        this.outputFilterValue = new double[capacity];
+        this.integral = new double[capacity];
+        this.prevMeasuredValue = new double[capacity];
+        this.prevTime = new double[capacity];
+        this.prevError = new double[capacity];
+        this.output = new double[capacity];
+        this.setpoint = new double[capacity];
+        this.measuredValue = new double[capacity];
+        this.isVelocity = new boolean[capacity];
+        this.hasInput = new boolean[capacity];
+        this.loggers = new IDashboardLogger[capacity];
+        this.scaleFactorLogKeys = new LoggingKey[capacity];
+    }
+
+    /**
+     * Add a new loop to the bank (growing the bank if it is full)
+     * @param kO scalar for output complementary filter multiplier
+     * @param kN scalar for output complementary filter multiplier
+     * @param kEO scalar for error complementary filter multiplier
+     * @param kEN scalar for error complementary filter multiplier
+     * @param logName to use for logging, or null for no logging
+     * @param logger to use for logging, or null for no logging
+     * @return the slot of the new loop
+     */
+    public int register(double kO, double kN, double kEO, double kEN, String logName, IDashboardLogger logger)
+    {
+        if (this.count == this.kp.length)
+        {
+            this.grow(Math.max(1, this.count * 2));
+        }
+
+        int slot = this.count++;
+        this.outputFilterKO[slot] = kO;
+        this.outputFilterKN[slot] = kN;
+        this.errorFilterKO[slot] = kEO;
+        this.errorFilterKN[slot] = kEN;
+
+        if (logger != null && logName != null)
+        {
+            this.loggers[slot] = logger;
+            this.scaleFactorLogKeys[slot] = logger.registerKey(logName, "scale factor");
+        }
+
+        return slot;
+    }
+
+    /**
+     * Gets the number of loops registered in the bank
+     * @return the number of loops
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * Set the inputs for a loop to be calculated as a position loop during the next update
+     * @param slot of the loop
+     * @param setpoint describes the goal value
+     * @param measuredValue describes the measured value
+     */
+    public void setPositionInput(int slot, double setpoint, double measuredValue)
+    {
+        this.setpoint[slot] = setpoint;
+        this.measuredValue[slot] = measuredValue;
+        this.isVelocity[slot] = false;
+        this.hasInput[slot] = true;
+    }
+
+    /**
+     * Set the inputs for a loop to be calculated as a velocity loop during the next update
+     * @param slot of the loop
+     * @param setpoint describes the goal velocity value
+     * @param measuredValue describes the measured value, where the measured value is the ticks on the encoder
+     */
+    public void setVelocityInput(int slot, double setpoint, double measuredValue)
+    {
+        this.setpoint[slot] = setpoint;
+        this.measuredValue[slot] = measuredValue;
+        this.isVelocity[slot] = true;
+        this.hasInput[slot] = true;
+    }
+
+    /**
+     * Calculate each loop that has had its inputs set since the last update, all using the same timestamp.
+     * Loops without new inputs keep their previous output.
+     */
+    public void update()
+    {
+        double curTime = this.timer.get();
+        for (int slot = 0; slot < this.count; slot++)
+        {
+            if (this.hasInput[slot])
+            {
+                this.hasInput[slot] = false;
+                this.calculate(slot, curTime);
+            }
+        }
+    }
+
+    /**
+     * Calculate the desired output value for a single loop as a position loop, using its own timestamp
+     * @param slot of the loop
+     * @param setpoint describes the goal value
+     * @param measuredValue describes the measured value
+     * @return output value to be used
+     */
+    public double calculatePosition(int slot, double setpoint, double measuredValue)
+    {
+        this.setPositionInput(slot, setpoint, measuredValue);
+        this.hasInput[slot] = false;
+        this.calculate(slot, this.timer.get());
+        return this.output[slot];
+    }
+
+    /**
+     * Calculate the desired output value for a single loop as a velocity loop, using its own timestamp
+     * @param slot of the loop
+     * @param setpoint describes the goal velocity value
+     * @param measuredValue describes the measured value, where the measured value is the ticks on the encoder
+     * @return output value to be used
+     */
+    public double calculateVelocity(int slot, double setpoint, double measuredValue)
+    {
+        this.setVelocityInput(slot, setpoint, measuredValue);
+        this.hasInput[slot] = false;
+        this.calculate(slot, this.timer.get());
+        return this.output[slot];
+    }
+
+    public double getOutput(int slot)
+    {
+        return this.output[slot];
+    }
+
+    public void setKp(int slot, double kp)
+    {
+        this.kp[slot] = kp;
+    }
+
+    public void setKi(int slot, double ki)
+    {
+        this.ki[slot] = ki;
+        this.updateIntegralBounds(slot);
+    }
+
+    public void setKd(int slot, double kd)
+    {
+        this.kd[slot] = kd;
+    }
+
+    public void setKf(int slot, double kf)
+    {
+        this.kf[slot] = kf;
+    }
+
+    /**
+     * Switch a loop to new gains and output bounds, resetting the loop
+     * @param slot of the loop
+     * @param kp scalar for proportional component
+     * @param ki scalar for integral component
+     * @param kd scalar for derivative component
+     * @param kf scalar for feed-forward control
+     * @param ks scalar for adjusting scale difference between measured value and setpoint value
+     * @param minOutput indicates the minimum output value acceptable, or Double.NaN for no minimum
+     * @param maxOutput indicates the maximum output value acceptable, or Double.NaN for no maximum
+     */
+    public void configure(
+        int slot,
+        double kp,
+        double ki,
+        double kd,
+        double kf,
+        double ks,
+        double minOutput,
+        double maxOutput)
+    {
+        this.kp[slot] = kp;
+        this.ki[slot] = ki;
+        this.kd[slot] = kd;
+        this.kf[slot] = kf;
+        this.ks[slot] = ks;
+
+        this.minOutput[slot] = minOutput;
+        this.maxOutput[slot] = maxOutput;
+        this.updateIntegralBounds(slot);
+
+        this.reset(slot);
+    }
+
+    /**
+     * Reset a loop's history (and clear any inputs set for the next update)
+     * @param slot of the loop
+     */
+    public void reset(int slot)
+    {
+        this.prevError[slot] = 0.0;
+        this.prevMeasuredValue[slot] = 0.0;
+        this.prevTime[slot] = this.timer.get();
+        this.integral[slot] = 0.0;
+
+        this.output[slot] = 0.0;
+
+        this.errorFilterValue[slot] = 0.0;
+        this.outputFilterValue[slot] = 0.0;
+        this.hasInput[slot] = false;
+    }
+
+    /**
+     * Calculate the desired output value for a loop based on its history and its current inputs
+     * @param slot of the loop
+     * @param curTime timestamp of the current measurement
+     */
+    private void calculate(int slot, double curTime)
+    {
+        // update dt
+        double dt = curTime - this.prevTime[slot];
+
+        // To prevent division by zero and over-aggressive measurement, output updates at a max of twice the loop rate
+        if (dt < PIDBank.MinTimeStep)
+        {
+            return;
+        }
+
+        this.prevTime[slot] = curTime;
+
+        double setpoint = this.setpoint[slot];
+        double measuredValue = this.measuredValue[slot];
+        double minOutput = this.minOutput[slot];
+        double maxOutput = this.maxOutput[slot];
+        double ki = this.ki[slot];
+        boolean isVelocity = this.isVelocity[slot];
+
+        // calculate error (for velocity, based on the change in ticks since our last measurement)
+        double rawError;
+        if (isVelocity)
+        {
+            double deltaX = measuredValue - this.prevMeasuredValue[slot];
+            double timeRatio = 0.02 / dt;
+
+            LoggingKey scaleFactorLogKey = this.scaleFactorLogKeys[slot];
+            if (scaleFactorLogKey != null)
+            {
+                this.loggers[slot].logNumber(scaleFactorLogKey, timeRatio * deltaX);
+            }
+
+            rawError = this.ks[slot] * setpoint - deltaX * timeRatio;
+        }
+        else
+        {
+            rawError = setpoint - measuredValue;
+        }
+
+        double error = this.errorFilterValue[slot] * this.errorFilterKO[slot] + rawError * this.errorFilterKN[slot];
+        this.errorFilterValue[slot] = error;
+
+        // calculate integral, limiting it based on MaxOutput/MinOutput
+        double integral = this.integral[slot];
+        double potentialI = ki * (integral + error * dt);
+        if (potentialI > maxOutput)
+        {
+            integral = this.maxIntegral[slot];
+        }
+        else if (potentialI < minOutput)
+        {
+            integral = this.minIntegral[slot];
+        }
+        else if (isVelocity)
+        {
+            integral += error * dt;
+        }
+        else
+        {
+            integral += error;
+        }
+
+        this.integral[slot] = integral;
+
+        // calculate derivative
+        double derivative = error - this.prevError[slot];
+        if (isVelocity)
+        {
+            derivative /= dt;
+        }
+
+        // store error
+        this.prevError[slot] = error;
+
+        double result = this.kp[slot] * error +      // proportional
+            ki * integral +   // integral
+            this.kd[slot] * derivative + // derivative
+            this.kf[slot] * setpoint;    // feed-forward
+
+        if (result > maxOutput)
+        {
+            result = maxOutput;
+        }
+        else if (result < minOutput)
+        {
+            result = minOutput;
+        }
+
+        // apply complementary filter to slow ramp-up/ramp-down
+        double output = this.outputFilterValue[slot] * this.outputFilterKO[slot] + result * this.outputFilterKN[slot];
+        this.outputFilterValue[slot] = output;
+        this.output[slot] = output;
+        this.prevMeasuredValue[slot] = measuredValue;
+    }
+
+    /**
+     * Update the cached integral bounds for a loop after its integral gain or output bounds have changed
+     * @param slot of the loop
+     */
+    private void updateIntegralBounds(int slot)
+    {
+        this.minIntegral[slot] = this.minOutput[slot] / this.ki[slot];
+        this.maxIntegral[slot] = this.maxOutput[slot] / this.ki[slot];
+    }
+
+    /**
+     * Grow each of the arrays to the provided capacity
+     * @param capacity of the bank
+     */
+    private void grow(int capacity)
+    {
+        this.kp = Arrays.copyOf(this.kp, capacity);
+        this.ki = Arrays.copyOf(this.ki, capacity);
+        this.kd = Arrays.copyOf(this.kd, capacity);
+        this.kf = Arrays.copyOf(this.kf, capacity);
+        this.ks = Arrays.copyOf(this.ks, capacity);
+        this.minOutput = Arrays.copyOf(this.minOutput, capacity);
+        this.maxOutput = Arrays.copyOf(this.maxOutput, capacity);
+        this.minIntegral = Arrays.copyOf(this.minIntegral, capacity);
+        this.maxIntegral = Arrays.copyOf(this.maxIntegral, capacity);
+        this.errorFilterKO = Arrays.copyOf(this.errorFilterKO, capacity);
+        this.errorFilterKN = Arrays.copyOf(this.errorFilterKN, capacity);
+        this.errorFilterValue = Arrays.copyOf(this.errorFilterValue, capacity);
+        this.outputFilterKO = Arrays.copyOf(this.outputFilterKO, capacity);
+        this.outputFilterKN = Arrays.copyOf(this.outputFilterKN, capacity);
+        this.outputFilterValue = Arrays.copyOf(this.outputFilterValue, capacity);
+        this.integral = Arrays.copyOf(this.integral, capacity);
+        this.prevMeasuredValue = Arrays.copyOf(this.prevMeasuredValue, capacity);
+        this.prevTime = Arrays.copyOf(this.prevTime, capacity);
+        this.prevError = Arrays.copyOf(this.prevError, capacity);
+        this.output = Arrays.copyOf(this.output, capacity);
+        this.setpoint = Arrays.copyOf(this.setpoint, capacity);
+        this.measuredValue = Arrays.copyOf(this.measuredValue, capacity);
+        this.isVelocity = Arrays.copyOf(this.isVelocity, capacity);
+        this.hasInput = Arrays.copyOf(this.hasInput, capacity);
+        this.loggers = Arrays.copyOf(this.loggers, capacity);
+        this.scaleFactorLogKeys = Arrays.copyOf(this.scaleFactorLogKeys, capacity);
+    }
+}
@@ -8,6 +8,10 @@ import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
  * To use PID control:
  *      set the kp/ki/kd/kf tuning values
  *      calculate output based on the setpoint and measured value regularly
+ *
+ * The handler's state is kept in a PIDBank.  A handler created without a bank has a bank of its own, and calculates its
+ * output immediately.  Handlers that share a bank can instead have their inputs set, and then be calculated together
+ * (with a single timestamp) when the bank is updated.
  * 
  * for reference:
  *      http://en.wikipedia.org/wiki/PID_controller
@@ -17,32 +21,8 @@ import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
  */
 public class PIDHandler
 {
-    // constants
-    private static final double MinTimeStep = 0.01;
-    private final Double minOutput;
-    private final Double maxOutput;
-
-    private final ComplementaryFilter errorFilter;
-    private final ComplementaryFilter outputFilter;
-
-    // instance PIDFS constants
-    private double kp;        // proportion for proportional
-    private double ki;        // proportion for integral
-    private double kd;        // proportion for derivative
-    private double kf;        // proportion for feed-forward
-    private double ks;        // multiplicand for adjusting scale of setpoint to match scale of measured value
-
-    // instance variables
-    private double integral = 0.0;          // integral of error data in memory
-    private double prevMeasuredValue = 0.0; // the previous measured value
-    private double prevTime = 0.0;          // the timestamp of our previous measurement
-    private double prevError = 0.0;         // the error during our previous measurement
-    private double output = 0.0;            // the output we wish to set after our calculation
-
-    // other vars
-    private final ITimer timer;
-    private final IDashboardLogger logger;
-    private final String logName;
+    private final PIDBank bank;
+    private final int slot;
 
     /**
      * This constructor initializes the object and sets constants to affect gain.
@@ -53,8 +33,8 @@ public class PIDHandler
      * @param kd scalar for derivative component
      * @param kf scalar for feed-forward control
      * @param ks scalar for adjusting scale difference between measured value and setpoint value
-     * @param minOutput indicates the minimum output value acceptable, or null
-     * @param maxOutput indicates the maximum output value acceptable, or null
+     * @param minOutput indicates the minimum output value acceptable, or Double.NaN for no minimum
+     * @param maxOutput indicates the maximum output value acceptable, or Double.NaN for no maximum
      */
     public PIDHandler(
         double kp,
@@ -62,11 +42,11 @@ public class PIDHandler
         double kd,
         double kf,
         double ks,
-        Double minOutput,
-        Double maxOutput,
+        double minOutput,
+        double maxOutput,
         ITimer timer)
     {
-        this(kp, ki, kd, kf, ks, 0.0, 1.0, 0.0, 1.0, minOutput, maxOutput, null, null, timer);
+        this(new PIDBank(timer, 1), kp, ki, kd, kf, ks, 0.0, 1.0, 0.0, 1.0, minOutput, maxOutput, null, null);
     }
 
     /**
@@ -78,8 +58,8 @@ public class PIDHandler
      * @param kd scalar for derivative component
      * @param kf scalar for feed-forward control
      * @param ks scalar for adjusting scale difference between measured value and setpoint value
-     * @param minOutput indicates the minimum output value acceptable, or null
-     * @param maxOutput indicates the maximum output value acceptable, or null
+     * @param minOutput indicates the minimum output value acceptable, or Double.NaN for no minimum
+     * @param maxOutput indicates the maximum output value acceptable, or Double.NaN for no maximum
      * @param logName to use for logging
      * @param logger to use for logging
      */
@@ -89,13 +69,13 @@ public class PIDHandler
         double kd,
         double kf,
         double ks,
-        Double minOutput,
-        Double maxOutput,
+        double minOutput,
+        double maxOutput,
         String logName,
         IDashboardLogger logger,
         ITimer timer)
     {
-        this(kp, ki, kd, kf, ks, 0.0, 1.0, 0.0, 1.0, minOutput, maxOutput, logName, logger, timer);
+        this(new PIDBank(timer, 1), kp, ki, kd, kf, ks, 0.0, 1.0, 0.0, 1.0, minOutput, maxOutput, logName, logger);
     }
 
     /**
@@ -111,8 +91,8 @@ public class PIDHandler
      * @param kN scalar for output complementary filter multiplier
      * @param kEO scalar for error complementary filter multiplier
      * @param kEN scalar for error complementary filter multiplier
-     * @param minOutput indicates the minimum output value acceptable, or null
-     * @param maxOutput indicates the maximum output value acceptable, or null
+     * @param minOutput indicates the minimum output value acceptable, or Double.NaN for no minimum
+     * @param maxOutput indicates the maximum output value acceptable, or Double.NaN for no maximum
      * @param logName to use for logging
      * @param logger to use for logging
      */
@@ -126,29 +106,83 @@ public class PIDHandler
         double kN,
         double kEO,
         double kEN,
-        Double minOutput,
-        Double maxOutput,
+        double minOutput,
+        double maxOutput,
         String logName,
         IDashboardLogger logger,
         ITimer timer)
     {
-        this.ki = ki;
-        this.kd = kd;
-        this.kp = kp;
-        this.kf = kf;
-        this.ks = ks;
-
-        this.errorFilter = new ComplementaryFilter(kEO, kEN);
-        this.outputFilter = new ComplementaryFilter(kO, kN);
-
-        this.minOutput = minOutput;
-        this.maxOutput = maxOutput;
+        this(new PIDBank(timer, 1), kp, ki, kd, kf, ks, kO, kN, kEO, kEN, minOutput, maxOutput, logName, logger);
+    }
 
-        this.timer = timer;
-        this.prevTime = this.timer.get();
+    /**
+     * This constructor adds a loop to the provided bank and sets constants to affect gain.
+     * This defaults to not utilizing a complementary filter to slow ramp-up/ramp-down.
+     * 
+     * @param bank to keep the handler's state in
+     * @param kp scalar for proportional component
+     * @param ki scalar for integral component
+     * @param kd scalar for derivative component
+     * @param kf scalar for feed-forward control
+     * @param ks scalar for adjusting scale difference between measured value and setpoint value
+     * @param minOutput indicates the minimum output value acceptable, or Double.NaN for no minimum
+     * @param maxOutput indicates the maximum output value acceptable, or Double.NaN for no maximum
+     * @param logName to use for logging, or null for no logging
+     * @param logger to use for logging, or null for no logging
+     */
+    public PIDHandler(
+        PIDBank bank,
+        double kp,
+        double ki,
+        double kd,
+        double kf,
+        double ks,
+        double minOutput,
+        double maxOutput,
+        String logName,
+        IDashboardLogger logger)
+    {
+        this(bank, kp, ki, kd, kf, ks, 0.0, 1.0, 0.0, 1.0, minOutput, maxOutput, logName, logger);
+    }
 
-        this.logger = logger;
-        this.logName = logName;
+    /**
+     * This constructor adds a loop to the provided bank and sets constants to affect gain.
+     * This utilizes a complementary filter to slow ramp-up/ramp-down.
+     * 
+     * @param bank to keep the handler's state in
+     * @param kp scalar for proportional component
+     * @param ki scalar for integral component
+     * @param kd scalar for derivative component
+     * @param kf scalar for feed-forward control
+     * @param ks scalar for adjusting scale difference between measured value and setpoint value
+     * @param kO scalar for output complementary filter multiplier
+     * @param kN scalar for output complementary filter multiplier
+     * @param kEO scalar for error complementary filter multiplier
+     * @param kEN scalar for error complementary filter multiplier
+     * @param minOutput indicates the minimum output value acceptable, or Double.NaN for no minimum
+     * @param maxOutput indicates the maximum output value acceptable, or Double.NaN for no maximum
+     * @param logName to use for logging, or null for no logging
+     * @param logger to use for logging, or null for no logging
+     */
+    public PIDHandler(
+        PIDBank bank,
+        double kp,
+        double ki,
+        double kd,
+        double kf,
+        double ks,
+        double kO,
+        double kN,
+        double kEO,
+        double kEN,
+        double minOutput,
+        double maxOutput,
+        String logName,
+        IDashboardLogger logger)
+    {
+        this.bank = bank;
+        this.slot = bank.register(kO, kN, kEO, kEN, logName, logger);
+        this.configure(kp, ki, kd, kf, ks, minOutput, maxOutput);
     }
 
     /**
@@ -163,61 +197,7 @@ public class PIDHandler
      */
     public double calculatePosition(double setpoint, double measuredValue)
     {
-        // update dt
-        double curTime = this.timer.get();
-        double dt = curTime - this.prevTime;
-
-        // To prevent division by zero and over-aggressive measurement, output updates at a max of 1kHz
-        if (dt >= PIDHandler.MinTimeStep)
-        {
-            this.prevTime = curTime;
-
-            // calculate error
-            this.errorFilter.update(setpoint - measuredValue);
-            double error = this.errorFilter.getValue();
-
-            // calculate integral, limiting it based on MaxOutput/MinOutput
-            double potentialI = this.ki * (this.integral + error * dt);
-            if (this.maxOutput != null && potentialI > this.maxOutput)
-            {
-                this.integral = this.maxOutput / this.ki;
-            }
-            else if (this.minOutput != null && potentialI < this.minOutput)
-            {
-                this.integral = this.minOutput / this.ki;
-            }
-            else
-            {
-                this.integral += error;// * this.dt;
-            }
-
-            // calculate derivative
-            double derivative = (error - this.prevError);// / this.dt;
-
-            // store error
-            this.prevError = error;
-
-            double result = this.kp * error +      // proportional
-                this.ki * this.integral +   // integral
-                this.kd * derivative + // derivative
-                this.kf * setpoint;    // feed-forward
-
-            if (this.maxOutput != null && result > this.maxOutput)
-            {
-                result = this.maxOutput;
-            }
-            else if (this.minOutput != null && result < this.minOutput)
-            {
-                result = this.minOutput;
-            }
-
-            // apply complementary filter to slow ramp-up/ramp-down
-            this.outputFilter.update(result);
-            this.output = this.outputFilter.getValue();
-            this.prevMeasuredValue = measuredValue;
-        }
-
-        return this.output;
+        return this.bank.calculatePosition(this.slot, setpoint, measuredValue);
     }
 
     /**
@@ -232,106 +212,82 @@ public class PIDHandler
      */
     public double calculateVelocity(double setpoint, double measuredValue)
     {
-        // update dt
-        double curTime = this.timer.get();
-        double dt = curTime - this.prevTime;
-
-        // To prevent division by zero and over-aggressive measurement, output updates at a max of 100 Hz
-        if (dt >= PIDHandler.MinTimeStep)
-        {
-            this.prevTime = curTime;
-
-            // calculate change in ticks since our last measurement
-            double deltaX = measuredValue - this.prevMeasuredValue;
-            double timeRatio = 0.02 / dt;
-
-            if (this.logger != null && this.logName != null)
-            {
-                this.logger.logNumber(this.logName, "scale factor", timeRatio * deltaX);
-            }
-
-            this.errorFilter.update(this.ks * setpoint - deltaX * timeRatio);
-            double error = this.errorFilter.getValue();
-
-            // calculate integral, limiting it based on MaxOutput/MinOutput
-            double potentialI = this.ki * (this.integral + error * dt);
-            if (this.maxOutput != null && potentialI > this.maxOutput)
-            {
-                this.integral = this.maxOutput / this.ki;
-            }
-            else if (this.minOutput != null && potentialI < this.minOutput)
-            {
-                this.integral = this.minOutput / this.ki;
-            }
-            else
-            {
-                this.integral += error * dt;
-            }
-
-            // calculate derivative
-            double derivative = (error - this.prevError) / dt;
-
-            // store error
-            this.prevError = error;
-
-            double result = this.kp * error +      // proportional
-                this.ki * this.integral +   // integral
-                this.kd * derivative + // derivative
-                this.kf * setpoint;    // feed-forward
-
-            if (this.maxOutput != null && result > this.maxOutput)
-            {
-                result = this.maxOutput;
-            }
-            else if (this.minOutput != null && result < this.minOutput)
-            {
-                result = this.minOutput;
-            }
+        return this.bank.calculateVelocity(this.slot, setpoint, measuredValue);
+    }
 
-            // apply complementary filter to slow ramp-up/ramp-down
-            this.outputFilter.update(result);
-            this.output = this.outputFilter.getValue();
-            this.prevMeasuredValue = measuredValue;
-        }
+    /**
+     * Set the setpoint and measured value to calculate the position output from when the bank is next updated
+     * 
+     * @param setpoint describes the goal value
+     * @param measuredValue describes the measured value
+     */
+    public void setPositionInput(double setpoint, double measuredValue)
+    {
+        this.bank.setPositionInput(this.slot, setpoint, measuredValue);
+    }
 
-        return this.output;
+    /**
+     * Set the setpoint and measured value to calculate the velocity output from when the bank is next updated
+     * 
+     * @param setpoint describes the goal velocity value
+     * @param measuredValue describes the measured value, where the measured value is the ticks on the encoder
+     */
+    public void setVelocityInput(double setpoint, double measuredValue)
+    {
+        this.bank.setVelocityInput(this.slot, setpoint, measuredValue);
     }
 
     public double getCurrentOutput()
     {
-        return this.output;
+        return this.bank.getOutput(this.slot);
     }
 
     public void setKp(double kp)
     {
-        this.kp = kp;
+        this.bank.setKp(this.slot, kp);
     }
 
     public void setKi(double ki)
     {
-        this.ki = ki;
+        this.bank.setKi(this.slot, ki);
     }
 
     public void setKd(double kd)
     {
-        this.kd = kd;
+        this.bank.setKd(this.slot, kd);
     }
 
     public void setKf(double kf)
     {
-        this.kf = kf;
+        this.bank.setKf(this.slot, kf);
     }
 
-    public void reset()
+    /**
+     * Switch to new gains and output bounds, resetting the handler (so that a handler can be reused when switching between
+     * modes, instead of creating a new one)
+     * 
+     * @param kp scalar for proportional component
+     * @param ki scalar for integral component
+     * @param kd scalar for derivative component
+     * @param kf scalar for feed-forward control
+     * @param ks scalar for adjusting scale difference between measured value and setpoint value
+     * @param minOutput indicates the minimum output value acceptable, or Double.NaN for no minimum
+     * @param maxOutput indicates the maximum output value acceptable, or Double.NaN for no maximum
+     */
+    public void configure(
+        double kp,
+        double ki,
+        double kd,
+        double kf,
+        double ks,
+        double minOutput,
+        double maxOutput)
     {
-        this.prevError = 0.0;
-        this.prevMeasuredValue = 0.0;
-        this.prevTime = this.timer.get();
-        this.integral = 0.0;
-
-        this.output = 0.0;
+        this.bank.configure(this.slot, kp, ki, kd, kf, ks, minOutput, maxOutput);
+    }
 
-        this.errorFilter.reset();
-        this.outputFilter.reset();
+    public void reset()
+    {
+        this.bank.reset(this.slot);
     }
 }
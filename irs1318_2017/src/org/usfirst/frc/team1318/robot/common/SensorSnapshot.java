@@ -0,0 +1,366 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.CANTalonControlMode;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IAnalogInput;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ICANTalon;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IDigitalInput;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IEncoder;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IPowerDistributionPanel;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Sensor snapshot stage.  All registered sensors are read from the hardware exactly once (at the start of each robot loop),
+ * and components read the cached values from the snapshot for the rest of the loop, regardless of how many times they
+ * ask for them.  Registering a sensor returns a view of it that implements the same interface, so components don't need
+ * to know whether they are reading the hardware directly or reading from the snapshot.
+ *
+ * Sensors are read once when they are registered, so that values are available before the first loop.
+ *
+ */
+@Singleton
+public class SensorSnapshot
+{
+    private static final int PdpChannelCount = 16;
+
+    private final List<ISnapshotSensor> sensors;
+
+    /**
+     * Initializes a new SensorSnapshot
+     */
+    @Inject
+    public SensorSnapshot()
+    {
+        this.sensors = new ArrayList<ISnapshotSensor>();
+    }
+
+    /**
+     * Register an encoder to be read as a part of each snapshot
+     * @param encoder to read
+     * @return encoder that returns the values from the most recent snapshot
+     */
+    public IEncoder register(IEncoder encoder)
+    {
+        return this.add(new Encoder(encoder));
+    }
+
+    /**
+     * Register a CAN talon whose sensor values should be read as a part of each snapshot
+     * @param talon to read
+     * @return talon that returns the values from the most recent snapshot (output is still written directly)
+     */
+    public ICANTalon register(ICANTalon talon)
+    {
+        return this.add(new CANTalon(talon));
+    }
+
+    /**
+     * Register an analog input to be read as a part of each snapshot
+     * @param analogInput to read
+     * @return analog input that returns the value from the most recent snapshot
+     */
+    public IAnalogInput register(IAnalogInput analogInput)
+    {
+        return this.add(new AnalogInput(analogInput));
+    }
+
+    /**
+     * Register a digital input to be read as a part of each snapshot
+     * @param digitalInput to read
+     * @return digital input that returns the value from the most recent snapshot
+     */
+    public IDigitalInput register(IDigitalInput digitalInput)
+    {
+        return this.add(new DigitalInput(digitalInput));
+    }
+
+    /**
+     * Register a power distribution panel to be read as a part of each snapshot
+     * @param pdp to read
+     * @param channels whose current should be read as a part of each snapshot (other channels are read on demand)
+     * @return power distribution panel that returns the values from the most recent snapshot
+     */
+    public IPowerDistributionPanel register(IPowerDistributionPanel pdp, int... channels)
+    {
+        return this.add(new PowerDistributionPanel(pdp, channels));
+    }
+
+    /**
+     * Read all of the registered sensors from the hardware
+     */
+    public void read()
+    {
+        for (int i = 0; i < this.sensors.size(); i++)
+        {
+            this.sensors.get(i).read();
+        }
+    }
+
+    /**
+     * Add a sensor to the snapshot, reading its initial values
+     * @param sensor to add
+     * @return the sensor
+     */
+    private <T extends ISnapshotSensor> T add(T sensor)
+    {
+        sensor.read();
+        this.sensors.add(sensor);
+        return sensor;
+    }
+
+    /**
+     * A sensor whose values are cached as a part of the snapshot
+     */
+    private interface ISnapshotSensor
+    {
+        /**
+         * Read the values of the sensor from the hardware
+         */
+        void read();
+    }
+
+    private static class Encoder implements IEncoder, ISnapshotSensor
+    {
+        private final IEncoder encoder;
+
+        private double rate;
+        private double distance;
+        private int ticks;
+
+        Encoder(IEncoder encoder)
+        {
+            this.encoder = encoder;
+        }
+
+        @Override
+        public void read()
+        {
+            this.rate = this.encoder.getRate();
+            this.distance = this.encoder.getDistance();
+            this.ticks = this.encoder.get();
+        }
+
+        @Override
+        public double getRate()
+        {
+            return this.rate;
+        }
+
+        @Override
+        public double getDistance()
+        {
+            return this.distance;
+        }
+
+        @Override
+        public int get()
+        {
+            return this.ticks;
+        }
+
+        @Override
+        public void setDistancePerPulse(double distancePerPulse)
+        {
+            this.encoder.setDistancePerPulse(distancePerPulse);
+        }
+
+        @Override
+        public void reset()
+        {
+            // the hardware will report 0 after the reset, so there is no need to wait for the next snapshot
+            this.encoder.reset();
+            this.distance = 0.0;
+            this.ticks = 0;
+        }
+    }
+
+    private static class CANTalon implements ICANTalon, ISnapshotSensor
+    {
+        private final ICANTalon talon;
+
+        private int ticks;
+        private double speed;
+        private double error;
+
+        CANTalon(ICANTalon talon)
+        {
+            this.talon = talon;
+        }
+
+        @Override
+        public void read()
+        {
+            this.ticks = this.talon.getTicks();
+            this.speed = this.talon.getSpeed();
+            this.error = this.talon.getError();
+        }
+
+        @Override
+        public void set(double power)
+        {
+            this.talon.set(power);
+        }
+
+        @Override
+        public void changeControlMode(CANTalonControlMode mode)
+        {
+            this.talon.changeControlMode(mode);
+        }
+
+        @Override
+        public void setPIDF(double p, double i, double d, double f)
+        {
+            this.talon.setPIDF(p, i, d, f);
+        }
+
+        @Override
+        public void setPIDF(double p, double i, double d, double f, int izone, double closeLoopRampRate, int profile)
+        {
+            this.talon.setPIDF(p, i, d, f, izone, closeLoopRampRate, profile);
+        }
+
+        @Override
+        public void reverseOutput(boolean flip)
+        {
+            this.talon.reverseOutput(flip);
+        }
+
+        @Override
+        public void reverseSensor(boolean flip)
+        {
+            this.talon.reverseSensor(flip);
+        }
+
+        @Override
+        public void enableBrakeMode(boolean brake)
+        {
+            this.talon.enableBrakeMode(brake);
+        }
+
+        @Override
+        public void reset()
+        {
+            this.talon.reset();
+            this.ticks = 0;
+        }
+
+        @Override
+        public int getTicks()
+        {
+            return this.ticks;
+        }
+
+        @Override
+        public double getSpeed()
+        {
+            return this.speed;
+        }
+
+        @Override
+        public double getError()
+        {
+            return this.error;
+        }
+    }
+
+    private static class AnalogInput implements IAnalogInput, ISnapshotSensor
+    {
+        private final IAnalogInput analogInput;
+
+        private double voltage;
+
+        AnalogInput(IAnalogInput analogInput)
+        {
+            this.analogInput = analogInput;
+        }
+
+        @Override
+        public void read()
+        {
+            this.voltage = this.analogInput.getVoltage();
+        }
+
+        @Override
+        public double getVoltage()
+        {
+            return this.voltage;
+        }
+    }
+
+    private static class DigitalInput implements IDigitalInput, ISnapshotSensor
+    {
+        private final IDigitalInput digitalInput;
+
+        private boolean value;
+
+        DigitalInput(IDigitalInput digitalInput)
+        {
+            this.digitalInput = digitalInput;
+        }
+
+        @Override
+        public void read()
+        {
+            this.value = this.digitalInput.get();
+        }
+
+        @Override
+        public boolean get()
+        {
+            return this.value;
+        }
+    }
+
+    private static class PowerDistributionPanel implements IPowerDistributionPanel, ISnapshotSensor
+    {
+        private final IPowerDistributionPanel pdp;
+        private final int[] channels;
+        private final boolean[] isChannelCached;
+        private final double[] currents;
+
+        private double batteryVoltage;
+
+        PowerDistributionPanel(IPowerDistributionPanel pdp, int[] channels)
+        {
+            this.pdp = pdp;
+            this.channels = channels;
+            this.isChannelCached = new boolean[SensorSnapshot.PdpChannelCount];
+            this.currents = new double[SensorSnapshot.PdpChannelCount];
+            for (int channel : channels)
+            {
+                this.isChannelCached[channel] = true;
+            }
+        }
+
+        @Override
+        public void read()
+        {
+            this.batteryVoltage = this.pdp.getBatteryVoltage();
+            for (int channel : this.channels)
+            {
+                this.currents[channel] = this.pdp.getCurrent(channel);
+            }
+        }
+
+        @Override
+        public double getBatteryVoltage()
+        {
+            return this.batteryVoltage;
+        }
+
+        @Override
+        public double getCurrent(int pdpChannel)
+        {
+            if (pdpChannel >= 0 && pdpChannel < SensorSnapshot.PdpChannelCount && this.isChannelCached[pdpChannel])
+            {
+                return this.currents[pdpChannel];
+            }
+
+            return this.pdp.getCurrent(pdpChannel);
+        }
+    }
+}
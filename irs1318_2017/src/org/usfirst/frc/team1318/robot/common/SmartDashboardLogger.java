@@ -1,5 +1,7 @@
 package org.usfirst.frc.team1318.robot.common;
 
+import java.util.HashMap;
+
 import org.opencv.core.Point;
 
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
@@ -7,9 +9,39 @@ import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 /**
  * Logger that logs current values to a dashboard.
  *
+ * Nullable numbers and points are written as strings, so the last value written for each of those keys is remembered
+ * and the string is only built (and written) when the value changes.
+ *
  */
 public class SmartDashboardLogger implements IDashboardLogger
 {
+    private static final String NoValue = "N/A";
+
+    // the last nullable number or point written to each key
+    private final HashMap<String, LoggedValue> loggedValues;
+    private final StringBuilder builder;
+
+    /**
+     * Initializes a new instance of the SmartDashboardLogger class.
+     */
+    public SmartDashboardLogger()
+    {
+        this.loggedValues = new HashMap<String, LoggedValue>();
+        this.builder = new StringBuilder();
+    }
+
+    /**
+     * Register a key to use for logging, resolving the full name of the key once instead of on every write
+     * @param component to log for
+     * @param key to write to
+     * @return key to use when logging the value
+     */
+    @Override
+    public LoggingKey registerKey(String component, String key)
+    {
+        return new LoggingKey(component, key);
+    }
+
     /**
      * Write a boolean to the smart dashboard
      * @param component to log for
@@ -19,11 +51,7 @@ public class SmartDashboardLogger implements IDashboardLogger
     @Override
     public void logBoolean(String component, String key, boolean value)
     {
-        String logKey = String.format("%s.%s", component, key);
-        if (SmartDashboard.getBoolean(logKey, !value) != value)
-        {
-            SmartDashboard.putBoolean(logKey, value);
-        }
+        this.putBoolean(LoggingKey.buildName(component, key), value);
     }
 
     /**
@@ -35,11 +63,7 @@ public class SmartDashboardLogger implements IDashboardLogger
     @Override
     public void logNumber(String component, String key, double value)
     {
-        String logKey = String.format("%s.%s", component, key);
-        if (SmartDashboard.getNumber(logKey, value + 0.5) != value)
-        {
-            SmartDashboard.putNumber(logKey, value);
-        }
+        this.putNumber(LoggingKey.buildName(component, key), value);
     }
 
     /**
@@ -51,14 +75,7 @@ public class SmartDashboardLogger implements IDashboardLogger
     @Override
     public void logNumber(String component, String key, Double value)
     {
-        String logKey = String.format("%s.%s", component, key);
-        String valueString = "N/A";
-        if (value != null)
-        {
-            valueString = "" + value;
-        }
-
-        SmartDashboard.putString(logKey, valueString);
+        this.putNumber(LoggingKey.buildName(component, key), value);
     }
 
     /**
@@ -83,11 +100,7 @@ public class SmartDashboardLogger implements IDashboardLogger
     @Override
     public void logInteger(String component, String key, int value, String formatString)
     {
-        String logKey = String.format("%s.%s", component, key);
-        if (SmartDashboard.getNumber(logKey, value + 0.5) != value)
-        {
-            SmartDashboard.putNumber(logKey, value);
-        }
+        this.putNumber(LoggingKey.buildName(component, key), value);
     }
 
     /**
@@ -99,13 +112,7 @@ public class SmartDashboardLogger implements IDashboardLogger
     @Override
     public void logPoint(String component, String key, Point value)
     {
-        String valueString = "N/A";
-        if (value != null)
-        {
-            valueString = String.format("", value.x, value.y);
-        }
-
-        this.logString(component, key, valueString);
+        this.putPoint(LoggingKey.buildName(component, key), value);
     }
 
     /**
@@ -117,7 +124,203 @@ public class SmartDashboardLogger implements IDashboardLogger
     @Override
     public void logString(String component, String key, String value)
     {
-        String logKey = String.format("%s.%s", component, key);
+        this.putString(LoggingKey.buildName(component, key), value);
+    }
+
+    /**
+     * Write a boolean to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logBoolean(LoggingKey key, boolean value)
+    {
+        this.putBoolean(key.getName(), value);
+    }
+
+    /**
+     * Write a number (double) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, double value)
+    {
+        this.putNumber(key.getName(), value);
+    }
+
+    /**
+     * Write a number (double) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, Double value)
+    {
+        this.putNumber(key.getName(), value);
+    }
+
+    /**
+     * Write a number (integer) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value)
+    {
+        this.putNumber(key.getName(), value);
+    }
+
+    /**
+     * Write a point (x,y or N/A) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logPoint(LoggingKey key, Point value)
+    {
+        this.putPoint(key.getName(), value);
+    }
+
+    /**
+     * Write a string to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logString(LoggingKey key, String value)
+    {
+        this.putString(key.getName(), value);
+    }
+
+    /**
+     * Flush the output stream, if appropriate..
+     */
+    @Override
+    public void flush()
+    {
+    }
+
+    /**
+     * Write a boolean to the smart dashboard, if it has changed
+     * @param logKey full name of the key to write to
+     * @param value to write
+     */
+    private void putBoolean(String logKey, boolean value)
+    {
+        if (SmartDashboard.getBoolean(logKey, !value) != value)
+        {
+            SmartDashboard.putBoolean(logKey, value);
+        }
+    }
+
+    /**
+     * Write a number to the smart dashboard, if it has changed
+     * @param logKey full name of the key to write to
+     * @param value to write
+     */
+    private void putNumber(String logKey, double value)
+    {
+        if (SmartDashboard.getNumber(logKey, value + 0.5) != value)
+        {
+            SmartDashboard.putNumber(logKey, value);
+        }
+    }
+
+    /**
+     * Write a nullable number to the smart dashboard
+     * @param logKey full name of the key to write to
+     * @param value to write
+     */
+    private void putNumber(String logKey, Double value)
+    {
+        LoggedValue loggedValue = this.getLoggedValue(logKey);
+        if (value == null)
+        {
+            this.putNoValue(logKey, loggedValue);
+            return;
+        }
+
+        double number = value.doubleValue();
+        if (loggedValue.hasValue && loggedValue.x == number)
+        {
+            return;
+        }
+
+        loggedValue.set(number, 0.0);
+
+        this.builder.setLength(0);
+        this.builder.append(number);
+        SmartDashboard.putString(logKey, this.builder.toString());
+    }
+
+    /**
+     * Write a point to the smart dashboard
+     * @param logKey full name of the key to write to
+     * @param value to write
+     */
+    private void putPoint(String logKey, Point value)
+    {
+        LoggedValue loggedValue = this.getLoggedValue(logKey);
+        if (value == null)
+        {
+            this.putNoValue(logKey, loggedValue);
+            return;
+        }
+
+        if (loggedValue.hasValue && loggedValue.x == value.x && loggedValue.y == value.y)
+        {
+            return;
+        }
+
+        loggedValue.set(value.x, value.y);
+
+        this.builder.setLength(0);
+        this.builder.append(value.x).append(',').append(value.y);
+        SmartDashboard.putString(logKey, this.builder.toString());
+    }
+
+    /**
+     * Write N/A for a nullable number or point to the smart dashboard, if it has changed
+     * @param logKey full name of the key to write to
+     * @param loggedValue the last value written to the key
+     */
+    private void putNoValue(String logKey, LoggedValue loggedValue)
+    {
+        if (loggedValue.isWritten && !loggedValue.hasValue)
+        {
+            return;
+        }
+
+        loggedValue.isWritten = true;
+        loggedValue.hasValue = false;
+        SmartDashboard.putString(logKey, SmartDashboardLogger.NoValue);
+    }
+
+    /**
+     * Get the last nullable number or point written to a key
+     * @param logKey full name of the key
+     * @return the last value written to the key
+     */
+    private LoggedValue getLoggedValue(String logKey)
+    {
+        LoggedValue loggedValue = this.loggedValues.get(logKey);
+        if (loggedValue == null)
+        {
+            loggedValue = new LoggedValue();
+            this.loggedValues.put(logKey, loggedValue);
+        }
+
+        return loggedValue;
+    }
+
+    /**
+     * Write a string to the smart dashboard, if it has changed
+     * @param logKey full name of the key to write to
+     * @param value to write
+     */
+    private void putString(String logKey, String value)
+    {
         if (SmartDashboard.getString(logKey, null) != value)
         {
             SmartDashboard.putString(logKey, value);
@@ -125,10 +328,26 @@ public class SmartDashboardLogger implements IDashboardLogger
     }
 
     /**
-     * Flush the output stream, if appropriate..
+     * The last nullable number or point written to a key
      */
-    @Override
-    public void flush()
+    private static class LoggedValue
     {
+        boolean isWritten;
+        boolean hasValue;
+        double x;
+        double y;
+
+        /**
+         * Record that a value was written
+         * @param x the number, or the x coordinate of the point
+         * @param y the y coordinate of the point (or 0.0 for a number)
+         */
+        void set(double x, double y)
+        {
+            this.isWritten = true;
+            this.hasValue = true;
+            this.x = x;
+            this.y = y;
+        }
     }
 }
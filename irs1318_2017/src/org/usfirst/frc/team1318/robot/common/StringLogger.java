@@ -4,6 +4,18 @@ import org.opencv.core.Point;
 
 public abstract class StringLogger implements IDashboardLogger
 {
+    /**
+     * Register a key to use for logging, resolving the full name of the key once instead of on every write
+     * @param component to log for
+     * @param key to write to
+     * @return key to use when logging the value
+     */
+    @Override
+    public LoggingKey registerKey(String component, String key)
+    {
+        return new LoggingKey(component, key);
+    }
+
     /**
      * Write a string to the smart dashboard
      * @param component to log for
@@ -12,6 +24,13 @@ public abstract class StringLogger implements IDashboardLogger
      */
     public abstract void logString(String component, String key, String value);
 
+    /**
+     * Write a string to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    public abstract void logString(LoggingKey key, String value);
+
     /**
      * Write a boolean to the smart dashboard
      * @param component to log for
@@ -85,12 +104,73 @@ public abstract class StringLogger implements IDashboardLogger
         String valueString = "N/A";
         if (value != null)
         {
-            valueString = String.format("", value.x, value.y);
+            valueString = value.x + "," + value.y;
         }
 
         this.logString(component, key, valueString);
     }
 
+    /**
+     * Write a boolean to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logBoolean(LoggingKey key, boolean value)
+    {
+        this.logString(key, String.valueOf(value));
+    }
+
+    /**
+     * Write a number (double) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, double value)
+    {
+        this.logString(key, String.valueOf(value));
+    }
+
+    /**
+     * Write a number (double) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, Double value)
+    {
+        this.logString(key, String.valueOf(value));
+    }
+
+    /**
+     * Write a number (integer) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value)
+    {
+        this.logString(key, String.valueOf(value));
+    }
+
+    /**
+     * Write a point (x,y or N/A) to the smart dashboard
+     * @param key to write to, as returned by registerKey
+     * @param value to write
+     */
+    @Override
+    public void logPoint(LoggingKey key, Point value)
+    {
+        String valueString = "N/A";
+        if (value != null)
+        {
+            valueString = value.x + "," + value.y;
+        }
+
+        this.logString(key, valueString);
+    }
+
     /**
      * Flush the output stream, if appropriate..
      */
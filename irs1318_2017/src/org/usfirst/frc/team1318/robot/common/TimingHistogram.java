@@ -0,0 +1,193 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of how long a stage of the robot loop takes, for reporting min/mean/p99/max timings and overruns.
+ * Durations are recorded into fixed-width buckets so that recording doesn't allocate within the robot loop.
+ *
+ */
+public class TimingHistogram
+{
+    private static final long BucketWidthNanos = 100000L; // 0.1ms
+    private static final int BucketCount = 400; // 40ms, with anything longer falling into the last bucket
+    private static final double NanosPerMilli = 1000000.0;
+
+    private final long overrunThresholdNanos;
+    private final IDashboardLogger logger;
+
+    private final LoggingKey minLogKey;
+    private final LoggingKey meanLogKey;
+    private final LoggingKey p99LogKey;
+    private final LoggingKey maxLogKey;
+    private final LoggingKey overrunsLogKey;
+
+    private final int[] buckets;
+    private int count;
+    private long totalNanos;
+    private long minNanos;
+    private long maxNanos;
+    private int overruns;
+
+    /**
+     * Initializes a new instance of the TimingHistogram class.
+     * @param logger to report to
+     * @param component to log for
+     * @param name of the stage being timed
+     * @param overrunThreshold duration (in seconds) above which a measurement counts as an overrun
+     */
+    public TimingHistogram(IDashboardLogger logger, String component, String name, double overrunThreshold)
+    {
+        this.overrunThresholdNanos = (long)(overrunThreshold * 1000000000.0);
+        this.logger = logger;
+
+        this.minLogKey = logger.registerKey(component, name + ".min");
+        this.meanLogKey = logger.registerKey(component, name + ".mean");
+        this.p99LogKey = logger.registerKey(component, name + ".p99");
+        this.maxLogKey = logger.registerKey(component, name + ".max");
+        this.overrunsLogKey = logger.registerKey(component, name + ".overruns");
+
+        this.buckets = new int[TimingHistogram.BucketCount];
+        this.reset();
+    }
+
+    /**
+     * Record the duration of one run of the stage
+     * @param durationNanos duration, as measured using System.nanoTime()
+     */
+    public void record(long durationNanos)
+    {
+        int bucket = (int)Math.min(durationNanos / TimingHistogram.BucketWidthNanos, TimingHistogram.BucketCount - 1);
+        if (bucket < 0)
+        {
+            bucket = 0;
+        }
+
+        this.buckets[bucket]++;
+        this.count++;
+        this.totalNanos += durationNanos;
+        if (durationNanos < this.minNanos)
+        {
+            this.minNanos = durationNanos;
+        }
+
+        if (durationNanos > this.maxNanos)
+        {
+            this.maxNanos = durationNanos;
+        }
+
+        if (durationNanos > this.overrunThresholdNanos)
+        {
+            this.overruns++;
+        }
+    }
+
+    /**
+     * Gets the number of durations recorded since the last reset
+     * @return number of durations
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * Gets the number of durations since the last reset that were longer than the overrun threshold
+     * @return number of overruns
+     */
+    public int getOverruns()
+    {
+        return this.overruns;
+    }
+
+    /**
+     * Gets the shortest duration recorded since the last reset
+     * @return duration in milliseconds
+     */
+    public double getMin()
+    {
+        if (this.count == 0)
+        {
+            return 0.0;
+        }
+
+        return this.minNanos / TimingHistogram.NanosPerMilli;
+    }
+
+    /**
+     * Gets the mean duration recorded since the last reset
+     * @return duration in milliseconds
+     */
+    public double getMean()
+    {
+        if (this.count == 0)
+        {
+            return 0.0;
+        }
+
+        return this.totalNanos / (this.count * TimingHistogram.NanosPerMilli);
+    }
+
+    /**
+     * Gets the longest duration recorded since the last reset
+     * @return duration in milliseconds
+     */
+    public double getMax()
+    {
+        return this.maxNanos / TimingHistogram.NanosPerMilli;
+    }
+
+    /**
+     * Gets the 99th percentile duration since the last reset, to the resolution of the histogram's buckets
+     * @return duration in milliseconds
+     */
+    public double getP99()
+    {
+        if (this.count == 0)
+        {
+            return 0.0;
+        }
+
+        int threshold = (int)Math.ceil(this.count * 0.99);
+        int seen = 0;
+        for (int i = 0; i < TimingHistogram.BucketCount - 1; i++)
+        {
+            seen += this.buckets[i];
+            if (seen >= threshold)
+            {
+                // report the upper edge of the bucket, but never more than the actual max
+                long upperNanos = (i + 1) * TimingHistogram.BucketWidthNanos;
+                return Math.min(upperNanos, this.maxNanos) / TimingHistogram.NanosPerMilli;
+            }
+        }
+
+        return this.getMax();
+    }
+
+    /**
+     * Write the timing statistics to the dashboard and reset the histogram
+     */
+    public void report()
+    {
+        this.logger.logNumber(this.minLogKey, this.getMin());
+        this.logger.logNumber(this.meanLogKey, this.getMean());
+        this.logger.logNumber(this.p99LogKey, this.getP99());
+        this.logger.logNumber(this.maxLogKey, this.getMax());
+        this.logger.logInteger(this.overrunsLogKey, this.overruns);
+
+        this.reset();
+    }
+
+    /**
+     * Clear all recorded durations
+     */
+    public void reset()
+    {
+        Arrays.fill(this.buckets, 0);
+        this.count = 0;
+        this.totalNanos = 0L;
+        this.minNanos = Long.MAX_VALUE;
+        this.maxNanos = 0L;
+        this.overruns = 0;
+    }
+}
@@ -0,0 +1,105 @@
+package org.usfirst.frc.team1318.robot.common;
+
+/**
+ * Ring buffer of the most recent values of a measurement along with the time at which each was recorded, so that we can
+ * look up what the measurement was at some time in the recent past (e.g. when a camera frame was captured).
+ * Values are stored in preallocated arrays so that recording doesn't allocate within the robot loop.
+ *
+ */
+public class ValueHistory
+{
+    private final double[] times;
+    private final double[] values;
+
+    private int next;
+    private int count;
+
+    /**
+     * Initializes a new instance of the ValueHistory class.
+     * @param capacity the number of values to keep
+     */
+    public ValueHistory(int capacity)
+    {
+        this.times = new double[capacity];
+        this.values = new double[capacity];
+
+        this.clear();
+    }
+
+    /**
+     * Record a value, which must be recorded at or after the time of the previously recorded value
+     * @param time at which the value was measured
+     * @param value that was measured
+     */
+    public void add(double time, double value)
+    {
+        this.times[this.next] = time;
+        this.values[this.next] = value;
+
+        this.next = (this.next + 1) % this.times.length;
+        if (this.count < this.times.length)
+        {
+            this.count++;
+        }
+    }
+
+    /**
+     * Gets the number of values currently within the history
+     * @return number of values
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * Gets the value at the provided time, interpolating between the values recorded before and after that time.
+     * Times older than the history are given the oldest value, and times more recent than the history are given the newest value.
+     * @param time to get the value for
+     * @return the value at that time, or NaN if there are no values in the history
+     */
+    public double getValueAt(double time)
+    {
+        if (this.count == 0)
+        {
+            return Double.NaN;
+        }
+
+        // walk backwards from the newest value until we find the value recorded at or before the time
+        int capacity = this.times.length;
+        int newer = (this.next + capacity - 1) % capacity;
+        if (time >= this.times[newer])
+        {
+            return this.values[newer];
+        }
+
+        for (int i = 1; i < this.count; i++)
+        {
+            int older = (newer + capacity - 1) % capacity;
+            if (time >= this.times[older])
+            {
+                double timeSpan = this.times[newer] - this.times[older];
+                if (timeSpan <= 0.0)
+                {
+                    return this.values[newer];
+                }
+
+                double ratio = (time - this.times[older]) / timeSpan;
+                return this.values[older] + ratio * (this.values[newer] - this.values[older]);
+            }
+
+            newer = older;
+        }
+
+        return this.values[newer];
+    }
+
+    /**
+     * Remove all of the values from the history
+     */
+    public void clear()
+    {
+        this.next = 0;
+        this.count = 0;
+    }
+}
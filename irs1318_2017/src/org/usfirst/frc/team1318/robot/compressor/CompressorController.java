@@ -1,5 +1,6 @@
 package org.usfirst.frc.team1318.robot.compressor;
 
+import org.usfirst.frc.team1318.robot.TuningConstants;
 import org.usfirst.frc.team1318.robot.common.IController;
 import org.usfirst.frc.team1318.robot.driver.Driver;
 
@@ -40,6 +41,16 @@ public class CompressorController implements IController
         // not needed for this controller
     }
 
+    /**
+     * get how often the controller should be updated
+     * @return the desired number of seconds between updates
+     */
+    @Override
+    public double getUpdatePeriod()
+    {
+        return TuningConstants.COMPRESSOR_UPDATE_PERIOD;
+    }
+
     /**
      * calculate the various outputs to use based on the inputs and apply them to the outputs for the relevant component
      */
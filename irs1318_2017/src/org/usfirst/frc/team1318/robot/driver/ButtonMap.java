@@ -98,6 +98,34 @@ public class ButtonMap implements IButtonMap
                     false,
                     0.0));
 
+            put(Operation.DriveTrainLeftVelocity,
+                new AnalogOperationDescription(
+                    UserInputDevice.None,
+                    AnalogAxis.None,
+                    false,
+                    0.0));
+
+            put(Operation.DriveTrainRightVelocity,
+                new AnalogOperationDescription(
+                    UserInputDevice.None,
+                    AnalogAxis.None,
+                    false,
+                    0.0));
+
+            put(Operation.DriveTrainLeftAcceleration,
+                new AnalogOperationDescription(
+                    UserInputDevice.None,
+                    AnalogAxis.None,
+                    false,
+                    0.0));
+
+            put(Operation.DriveTrainRightAcceleration,
+                new AnalogOperationDescription(
+                    UserInputDevice.None,
+                    AnalogAxis.None,
+                    false,
+                    0.0));
+
             put(Operation.DriveTrainSwapFrontOrientation,
                 new DigitalOperationDescription(
                     UserInputDevice.None,
@@ -230,6 +258,10 @@ public class ButtonMap implements IButtonMap
                         Operation.DriveTrainUsePositionalMode,
                         Operation.DriveTrainLeftPosition,
                         Operation.DriveTrainRightPosition,
+                        Operation.DriveTrainLeftVelocity,
+                        Operation.DriveTrainRightVelocity,
+                        Operation.DriveTrainLeftAcceleration,
+                        Operation.DriveTrainRightAcceleration,
                     }));
 
             // Centering macro
@@ -247,6 +279,10 @@ public class ButtonMap implements IButtonMap
                         Operation.DriveTrainUsePositionalMode,
                         Operation.DriveTrainLeftPosition,
                         Operation.DriveTrainRightPosition,
+                        Operation.DriveTrainLeftVelocity,
+                        Operation.DriveTrainRightVelocity,
+                        Operation.DriveTrainLeftAcceleration,
+                        Operation.DriveTrainRightAcceleration,
                         Operation.DriveTrainTurn,
                         Operation.DriveTrainMoveForward,
                     }));
@@ -264,6 +300,10 @@ public class ButtonMap implements IButtonMap
                         Operation.DriveTrainUsePositionalMode,
                         Operation.DriveTrainLeftPosition,
                         Operation.DriveTrainRightPosition,
+                        Operation.DriveTrainLeftVelocity,
+                        Operation.DriveTrainRightVelocity,
+                        Operation.DriveTrainLeftAcceleration,
+                        Operation.DriveTrainRightAcceleration,
                         Operation.DriveTrainTurn,
                         Operation.DriveTrainMoveForward,
                     }));
@@ -283,6 +323,10 @@ public class ButtonMap implements IButtonMap
                         Operation.DriveTrainUsePositionalMode,
                         Operation.DriveTrainLeftPosition,
                         Operation.DriveTrainRightPosition,
+                        Operation.DriveTrainLeftVelocity,
+                        Operation.DriveTrainRightVelocity,
+                        Operation.DriveTrainLeftAcceleration,
+                        Operation.DriveTrainRightAcceleration,
                         Operation.DriveTrainTurn,
                         Operation.DriveTrainMoveForward,
                         Operation.IntakeIn,
@@ -474,6 +518,10 @@ public class ButtonMap implements IButtonMap
                         Operation.DriveTrainUsePositionalMode,
                         Operation.DriveTrainLeftPosition,
                         Operation.DriveTrainRightPosition,
+                        Operation.DriveTrainLeftVelocity,
+                        Operation.DriveTrainRightVelocity,
+                        Operation.DriveTrainLeftAcceleration,
+                        Operation.DriveTrainRightAcceleration,
                         Operation.DriveTrainMoveForward,
                         Operation.DriveTrainTurn
                     }));
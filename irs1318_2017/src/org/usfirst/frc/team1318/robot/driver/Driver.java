@@ -1,13 +1,9 @@
 package org.usfirst.frc.team1318.robot.driver;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.usfirst.frc.team1318.robot.TuningConstants;
-import org.usfirst.frc.team1318.robot.driver.descriptions.OperationDescription;
 import org.usfirst.frc.team1318.robot.driver.states.AnalogOperationState;
 import org.usfirst.frc.team1318.robot.driver.states.DigitalOperationState;
-import org.usfirst.frc.team1318.robot.driver.states.OperationState;
+import org.usfirst.frc.team1318.robot.driver.states.OperationStateTable;
 
 import com.google.inject.Injector;
 
@@ -18,7 +14,7 @@ import com.google.inject.Injector;
 public abstract class Driver
 {
     protected final Injector injector;
-    protected final Map<Operation, OperationState> operationStateMap;
+    protected final OperationStateTable operationStates;
 
     /**
      * Initializes a new Driver
@@ -26,13 +22,15 @@ public abstract class Driver
     protected Driver(Injector injector, IButtonMap buttonMap)
     {
         this.injector = injector;
+        this.operationStates = new OperationStateTable(buttonMap.getOperationSchema());
+    }
 
-        Map<Operation, OperationDescription> operationSchema = buttonMap.getOperationSchema();
-        this.operationStateMap = new HashMap<Operation, OperationState>(operationSchema.size());
-        for (Operation operation : operationSchema.keySet())
-        {
-            this.operationStateMap.put(operation, OperationState.createFromDescription(operationSchema.get(operation)));
-        }
+    /**
+     * Sample the driver's inputs, for the next update to pick up.  This is called on the main robot thread as driver station
+     * packets arrive, while update may be called on the control thread.
+     */
+    public void sampleInputs()
+    {
     }
 
     /**
@@ -52,8 +50,8 @@ public abstract class Driver
      */
     public boolean getDigital(Operation digitalOperation)
     {
-        OperationState state = this.operationStateMap.get(digitalOperation);
-        if (!(state instanceof DigitalOperationState))
+        DigitalOperationState digitalState = this.operationStates.getDigital(digitalOperation);
+        if (digitalState == null)
         {
             if (TuningConstants.THROW_EXCEPTIONS)
             {
@@ -63,7 +61,6 @@ public abstract class Driver
             return false;
         }
 
-        DigitalOperationState digitalState = (DigitalOperationState)state;
         return digitalState.getState();
     }
 
@@ -74,8 +71,8 @@ public abstract class Driver
      */
     public double getAnalog(Operation analogOperation)
     {
-        OperationState state = this.operationStateMap.get(analogOperation);
-        if (!(state instanceof AnalogOperationState))
+        AnalogOperationState analogState = this.operationStates.getAnalog(analogOperation);
+        if (analogState == null)
         {
             if (TuningConstants.THROW_EXCEPTIONS)
             {
@@ -85,7 +82,6 @@ public abstract class Driver
             return 0.0;
         }
 
-        AnalogOperationState analogState = (AnalogOperationState)state;
         return analogState.getState();
     }
 }
@@ -1,8 +1,6 @@
 package org.usfirst.frc.team1318.robot.driver;
 
-import java.util.Map;
-
-import org.usfirst.frc.team1318.robot.driver.states.OperationState;
+import org.usfirst.frc.team1318.robot.driver.states.OperationStateTable;
 
 import com.google.inject.Injector;
 
@@ -14,10 +12,10 @@ public interface IControlTask
 {
     /**
      * Initialize the task with the mapping of operations to states
-     * @param operationStateMap indicating the mapping of an operation to its current state
+     * @param operationStates indicating the mapping of an operation to its current state
      * @param injector used to retrieve components to utilize for making any decisions
      */
-    public void initialize(Map<Operation, OperationState> operationStateMap, Injector injector);
+    public void initialize(OperationStateTable operationStates, Injector injector);
 
     /**
      * Begin the current task.
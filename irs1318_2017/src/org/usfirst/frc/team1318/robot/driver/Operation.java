@@ -15,6 +15,10 @@ public enum Operation
     DriveTrainUsePositionalMode,
     DriveTrainLeftPosition,
     DriveTrainRightPosition,
+    DriveTrainLeftVelocity,
+    DriveTrainRightVelocity,
+    DriveTrainLeftAcceleration,
+    DriveTrainRightAcceleration,
     DriveTrainSwapFrontOrientation,
 
     // intake
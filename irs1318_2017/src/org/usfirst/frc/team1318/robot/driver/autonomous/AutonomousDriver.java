@@ -3,7 +3,7 @@ package org.usfirst.frc.team1318.robot.driver.autonomous;
 import org.usfirst.frc.team1318.robot.driver.Driver;
 import org.usfirst.frc.team1318.robot.driver.IButtonMap;
 import org.usfirst.frc.team1318.robot.driver.IControlTask;
-import org.usfirst.frc.team1318.robot.driver.states.OperationState;
+import org.usfirst.frc.team1318.robot.driver.Operation;
 
 import com.google.inject.Inject;
 import com.google.inject.Injector;
@@ -37,11 +37,11 @@ public class AutonomousDriver extends Driver
         this.hasBegun = false;
         this.hasEnded = false;
 
-        this.autonomousTask.initialize(this.operationStateMap, injector);
+        this.autonomousTask.initialize(this.operationStates, injector);
 
-        for (OperationState state : this.operationStateMap.values())
+        for (Operation operation : this.operationStates.getOperations())
         {
-            state.setIsInterrupted(true);
+            this.operationStates.get(operation).setIsInterrupted(true);
         }
     }
 
@@ -2,6 +2,7 @@ package org.usfirst.frc.team1318.robot.driver.autonomous;
 
 import org.usfirst.frc.team1318.robot.TuningConstants;
 import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.LoggingKey;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.IDigitalInput;
 import org.usfirst.frc.team1318.robot.driver.IControlTask;
 import org.usfirst.frc.team1318.robot.driver.controltasks.ConcurrentTask;
@@ -28,6 +29,7 @@ public class AutonomousRoutineSelector
 {
     private static final String LogName = "auto";
     private final IDashboardLogger logger;
+    private final LoggingKey routineLogKey;
 
     private final IDigitalInput turnLeftSwitch;
     private final IDigitalInput dipSwitchA;
@@ -45,6 +47,7 @@ public class AutonomousRoutineSelector
     {
         // initialize robot parts that are used to select autonomous routine (e.g. dipswitches) here...
         this.logger = logger;
+        this.routineLogKey = logger.registerKey(AutonomousRoutineSelector.LogName, "routine");
         this.turnLeftSwitch = turnLeftSwitch;
         this.dipSwitchA = dipSwitchA;
         this.dipSwitchB = dipSwitchB;
@@ -72,9 +75,7 @@ public class AutonomousRoutineSelector
         boolean turnLeft = this.turnLeftSwitch.get();
 
         // print routine selection to the smartdash
-        this.logger.logInteger(
-            AutonomousRoutineSelector.LogName, "routine",
-            routineSelection);
+        this.logger.logInteger(this.routineLogKey, routineSelection);
 
         switch (routineSelection)
         {
@@ -195,7 +196,7 @@ public class AutonomousRoutineSelector
                     new IntakeArmExtendTask(false, 15.0),
                     SequentialTask.Sequence(
                         new TurnTimedTask(turnLeft ? 10.0 : -10.0, 0.75),
-                        new DriveDistanceTimedTask(-24.0, 0.5),
+                        new DriveDistanceTimedTask(-24.0, 0.6),
                         ConcurrentTask.AnyTasks(
                             new VisionCenteringTask(false),
                             new WaitTask(2.5)),
@@ -208,6 +209,8 @@ public class AutonomousRoutineSelector
     {
         return ConcurrentTask.AllTasks(
             AutonomousRoutineSelector.GearSetUp(),
+            // speed is a ratio of DRIVETRAIN_PROFILE_MAX_VELOCITY (cruise at 0.35 * 120 in/s = 42 in/s in positional mode),
+            // rather than the open-loop velocity-mode speed it used to be
             new DriveDistancePositionTimedTask(0.35, TuningConstants.AIRSHIP_DISTANCE, 5.0));
     }
 
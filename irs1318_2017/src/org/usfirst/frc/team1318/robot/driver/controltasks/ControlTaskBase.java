@@ -1,29 +1,25 @@
 package org.usfirst.frc.team1318.robot.driver.controltasks;
 
-import java.util.Map;
-
 import org.usfirst.frc.team1318.robot.driver.IControlTask;
 import org.usfirst.frc.team1318.robot.driver.Operation;
-import org.usfirst.frc.team1318.robot.driver.states.AnalogOperationState;
-import org.usfirst.frc.team1318.robot.driver.states.DigitalOperationState;
-import org.usfirst.frc.team1318.robot.driver.states.OperationState;
+import org.usfirst.frc.team1318.robot.driver.states.OperationStateTable;
 
 import com.google.inject.Injector;
 
 public abstract class ControlTaskBase implements IControlTask
 {
-    private Map<Operation, OperationState> operationStateMap;
+    private OperationStateTable operationStates;
     private Injector injector;
 
     /**
      * Initialize the task with the mapping of operations to states
-     * @param operationStateMap indicating the mapping of an operation to its current state
+     * @param operationStates indicating the mapping of an operation to its current state
      * @param components to utilize for making any decisions
      */
     @Override
-    public void initialize(Map<Operation, OperationState> operationStateMap, Injector injector)
+    public void initialize(OperationStateTable operationStates, Injector injector)
     {
-        this.operationStateMap = operationStateMap;
+        this.operationStates = operationStates;
         this.injector = injector;
     }
 
@@ -66,8 +62,7 @@ public abstract class ControlTaskBase implements IControlTask
      */
     protected void setAnalogOperationState(Operation operation, double value)
     {
-        OperationState operationState = this.operationStateMap.get(operation);
-        ((AnalogOperationState)operationState).setInterruptState(value);
+        this.operationStates.getAnalog(operation).setInterruptState(value);
     }
 
     /**
@@ -77,8 +72,7 @@ public abstract class ControlTaskBase implements IControlTask
      */
     protected void setDigitalOperationState(Operation operation, boolean value)
     {
-        OperationState operationState = this.operationStateMap.get(operation);
-        ((DigitalOperationState)operationState).setInterruptState(value);
+        this.operationStates.getDigital(operation).setInterruptState(value);
     }
 
     /**
@@ -88,8 +82,7 @@ public abstract class ControlTaskBase implements IControlTask
      */
     protected double getAnalogOperationState(Operation operation)
     {
-        OperationState operationState = this.operationStateMap.get(operation);
-        return ((AnalogOperationState)operationState).getState();
+        return this.operationStates.getAnalog(operation).getState();
     }
 
     /**
@@ -99,8 +92,7 @@ public abstract class ControlTaskBase implements IControlTask
      */
     protected boolean getDigitalOperationState(Operation operation)
     {
-        OperationState operationState = this.operationStateMap.get(operation);
-        return ((DigitalOperationState)operationState).getState();
+        return this.operationStates.getDigital(operation).getState();
     }
 
     /**
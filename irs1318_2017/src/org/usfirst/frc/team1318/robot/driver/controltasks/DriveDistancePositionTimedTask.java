@@ -1,100 +1,36 @@
 package org.usfirst.frc.team1318.robot.driver.controltasks;
 
-import org.usfirst.frc.team1318.robot.driver.Operation;
-import org.usfirst.frc.team1318.robot.drivetrain.DriveTrainComponent;
+import org.usfirst.frc.team1318.robot.TuningConstants;
+import org.usfirst.frc.team1318.robot.common.MotionProfile;
 
-public class DriveDistancePositionTimedTask extends TimedTask
+public class DriveDistancePositionTimedTask extends DriveRouteTask
 {
-    private final double distance;
-    private final double velocity;
-
-    private DriveTrainComponent driveTrain;
-
-    private double startLeftDistance;
-    private double startRightDistance;
-    private double endLeftDistance;
-    private double endRightDistance;
-
+    /**
+     * Initializes a new DriveDistancePositionTimedTask
+     * @param speed to cruise at, as a ratio of the max profile velocity
+     * @param distance to travel overall
+     * @param duration to allow for driving the specified distance
+     */
     public DriveDistancePositionTimedTask(double speed, double distance, double duration)
     {
-        super(duration);
-
-        this.distance = distance;
-        this.velocity = speed;
-    }
-
-    @Override
-    public void begin()
-    {
-        super.begin();
-
-        this.driveTrain = this.getInjector().getInstance(DriveTrainComponent.class);
-
-        this.startLeftDistance = this.driveTrain.getLeftEncoderDistance();
-        this.startRightDistance = this.driveTrain.getRightEncoderDistance();
-
-        this.endLeftDistance = this.startLeftDistance + this.distance;
-        this.endRightDistance = this.startRightDistance + this.distance;
-
-        this.setDigitalOperationState(Operation.DriveTrainUsePositionalMode, false);
-        this.setAnalogOperationState(Operation.DriveTrainTurn, 0.0);
-        this.setAnalogOperationState(Operation.DriveTrainMoveForward, this.velocity);
-    }
-
-    @Override
-    public void update()
-    {
-        this.setDigitalOperationState(Operation.DriveTrainUsePositionalMode, false);
-        this.setAnalogOperationState(Operation.DriveTrainTurn, 0.0);
-        this.setAnalogOperationState(Operation.DriveTrainMoveForward, this.velocity);
-    }
-
-    @Override
-    public void stop()
-    {
-        super.stop();
-
-        this.setDigitalOperationState(Operation.DriveTrainUsePositionalMode, false);
-        this.setAnalogOperationState(Operation.DriveTrainTurn, 0.0);
-        this.setAnalogOperationState(Operation.DriveTrainMoveForward, 0.0);
-    }
-
-    @Override
-    public void end()
-    {
-        super.end();
-
-        this.setDigitalOperationState(Operation.DriveTrainUsePositionalMode, false);
-        this.setAnalogOperationState(Operation.DriveTrainTurn, 0.0);
-        this.setAnalogOperationState(Operation.DriveTrainMoveForward, 0.0);
-    }
-
-    @Override
-    public boolean hasCompleted()
-    {
-        if (super.hasCompleted())
-        {
-            return true;
-        }
-
-        double leftEncoderDistance = this.driveTrain.getLeftEncoderDistance();
-        double rightEncoderDistance = this.driveTrain.getRightEncoderDistance();
-
-        if (this.distance >= 0.0)
-        {
-            return leftEncoderDistance >= this.endLeftDistance ||
-                rightEncoderDistance >= this.endRightDistance;
-        }
-        else
-        {
-            return leftEncoderDistance <= this.endLeftDistance ||
-                rightEncoderDistance <= this.endRightDistance;
-        }
+        super(
+            DriveDistancePositionTimedTask.createProfile(speed, distance),
+            DriveDistancePositionTimedTask.createProfile(speed, distance),
+            duration);
     }
 
-    @Override
-    public boolean shouldCancel()
+    /**
+     * Create the profile for each side, limited to the provided speed
+     * @param speed to cruise at, as a ratio of the max profile velocity
+     * @param distance to travel overall
+     * @return the motion profile
+     */
+    private static MotionProfile createProfile(double speed, double distance)
     {
-        return super.shouldCancel();
+        return MotionProfile.create(
+            distance,
+            speed * TuningConstants.DRIVETRAIN_PROFILE_MAX_VELOCITY,
+            TuningConstants.DRIVETRAIN_PROFILE_MAX_ACCELERATION,
+            TuningConstants.DRIVETRAIN_PROFILE_MAX_JERK);
     }
 }
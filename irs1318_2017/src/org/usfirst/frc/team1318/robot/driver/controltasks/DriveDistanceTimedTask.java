@@ -10,24 +10,8 @@ public class DriveDistanceTimedTask extends DriveRouteTask
     public DriveDistanceTimedTask(double distance, double duration)
     {
         super(
-            percentage ->
-            {
-                if (percentage <= 0.9)
-                {
-                    return distance * (percentage / 0.9);
-                }
-
-                return distance;
-            },
-            percentage ->
-            {
-                if (percentage <= 0.9)
-                {
-                    return distance * (percentage / 0.9);
-                }
-
-                return distance;
-            },
+            DriveRouteTask.createTimedProfile(distance, duration),
+            DriveRouteTask.createTimedProfile(distance, duration),
             duration);
     }
 }
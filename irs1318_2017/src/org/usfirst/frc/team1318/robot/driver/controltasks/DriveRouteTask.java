@@ -3,14 +3,15 @@ package org.usfirst.frc.team1318.robot.driver.controltasks;
 import java.util.function.Function;
 
 import org.usfirst.frc.team1318.robot.TuningConstants;
+import org.usfirst.frc.team1318.robot.common.MotionProfile;
 import org.usfirst.frc.team1318.robot.driver.IControlTask;
 import org.usfirst.frc.team1318.robot.driver.Operation;
 import org.usfirst.frc.team1318.robot.drivetrain.DriveTrainComponent;
 
 public class DriveRouteTask extends TimedTask implements IControlTask
 {
-    private final Function<Double, Double> leftPositionPerTime;
-    private final Function<Double, Double> rightPositionPerTime;
+    private final MotionProfile leftProfile;
+    private final MotionProfile rightProfile;
     private DriveTrainComponent driveTrain;
 
     private double startLeftDistance;
@@ -26,11 +27,22 @@ public class DriveRouteTask extends TimedTask implements IControlTask
      * @param duration to take to drive the route
      */
     public DriveRouteTask(Function<Double, Double> left, Function<Double, Double> right, double duration)
+    {
+        this(MotionProfile.fromFunction(left, duration), MotionProfile.fromFunction(right, duration), duration);
+    }
+
+    /**
+     * Initializes a new DriveRouteTask
+     * @param left motion profile for the left side
+     * @param right motion profile for the right side
+     * @param duration to allow for driving the route (the task ends at this time even if the profiles take longer)
+     */
+    public DriveRouteTask(MotionProfile left, MotionProfile right, double duration)
     {
         super(duration);
 
-        this.leftPositionPerTime = left;
-        this.rightPositionPerTime = right;
+        this.leftProfile = left;
+        this.rightProfile = right;
     }
 
     /**
@@ -46,8 +58,8 @@ public class DriveRouteTask extends TimedTask implements IControlTask
         this.startLeftDistance = this.driveTrain.getLeftEncoderDistance();
         this.startRightDistance = this.driveTrain.getRightEncoderDistance();
 
-        this.endLeftDistance = this.startLeftDistance + this.leftPositionPerTime.apply(1.0);
-        this.endRightDistance = this.startRightDistance + this.rightPositionPerTime.apply(1.0);
+        this.endLeftDistance = this.startLeftDistance + this.leftProfile.getDistance();
+        this.endRightDistance = this.startRightDistance + this.rightProfile.getDistance();
 
         this.setDigitalOperationState(Operation.DriveTrainUsePositionalMode, true);
     }
@@ -58,18 +70,14 @@ public class DriveRouteTask extends TimedTask implements IControlTask
     @Override
     public void update()
     {
-        double t = this.getRatioComplete();
-        if (t >= 1.0)
-        {
-            t = 1.0;
-        }
-        else if (t <= 0.0)
-        {
-            t = 0.0;
-        }
-
-        this.setAnalogOperationState(Operation.DriveTrainLeftPosition, this.startLeftDistance + this.leftPositionPerTime.apply(t));
-        this.setAnalogOperationState(Operation.DriveTrainRightPosition, this.startRightDistance + this.rightPositionPerTime.apply(t));
+        double t = this.getElapsedTime();
+
+        this.setAnalogOperationState(Operation.DriveTrainLeftPosition, this.startLeftDistance + this.leftProfile.getPosition(t));
+        this.setAnalogOperationState(Operation.DriveTrainRightPosition, this.startRightDistance + this.rightProfile.getPosition(t));
+        this.setAnalogOperationState(Operation.DriveTrainLeftVelocity, this.leftProfile.getVelocity(t));
+        this.setAnalogOperationState(Operation.DriveTrainRightVelocity, this.rightProfile.getVelocity(t));
+        this.setAnalogOperationState(Operation.DriveTrainLeftAcceleration, this.leftProfile.getAcceleration(t));
+        this.setAnalogOperationState(Operation.DriveTrainRightAcceleration, this.rightProfile.getAcceleration(t));
     }
 
     /**
@@ -83,6 +91,7 @@ public class DriveRouteTask extends TimedTask implements IControlTask
         this.setDigitalOperationState(Operation.DriveTrainUsePositionalMode, false);
         this.setAnalogOperationState(Operation.DriveTrainLeftPosition, 0.0);
         this.setAnalogOperationState(Operation.DriveTrainRightPosition, 0.0);
+        this.clearFeedForward();
     }
 
     /**
@@ -95,6 +104,7 @@ public class DriveRouteTask extends TimedTask implements IControlTask
 
         this.setAnalogOperationState(Operation.DriveTrainLeftPosition, this.endLeftDistance);
         this.setAnalogOperationState(Operation.DriveTrainRightPosition, this.endRightDistance);
+        this.clearFeedForward();
 
         this.setDigitalOperationState(Operation.DriveTrainUsePositionalMode, false);
     }
@@ -114,9 +124,36 @@ public class DriveRouteTask extends TimedTask implements IControlTask
         double rightDelta = Math.abs(this.endRightDistance - rightEncoderDistance);
 
         // return that we have completed this task if are within an acceptable distance
-        // from the desired end location for both left and right. 
+        // from the desired end location for both left and right.
         return super.hasCompleted()
             || (leftDelta < TuningConstants.DRIVETRAIN_POSITIONAL_ACCEPTABLE_DELTA
                 && rightDelta < TuningConstants.DRIVETRAIN_POSITIONAL_ACCEPTABLE_DELTA);
     }
+
+    /**
+     * Create a profile for one side of a timed drive, which finishes in time to leave part of the duration for settling
+     * @param distance for the side to travel
+     * @param duration of the drive
+     * @return the motion profile
+     */
+    protected static MotionProfile createTimedProfile(double distance, double duration)
+    {
+        return MotionProfile.createWithinDuration(
+            distance,
+            duration * TuningConstants.DRIVETRAIN_PROFILE_DURATION_RATIO,
+            TuningConstants.DRIVETRAIN_PROFILE_MAX_VELOCITY,
+            TuningConstants.DRIVETRAIN_PROFILE_MAX_ACCELERATION,
+            TuningConstants.DRIVETRAIN_PROFILE_MAX_JERK);
+    }
+
+    /**
+     * Clear the velocity and acceleration used for the drivetrain's feed-forward
+     */
+    private void clearFeedForward()
+    {
+        this.setAnalogOperationState(Operation.DriveTrainLeftVelocity, 0.0);
+        this.setAnalogOperationState(Operation.DriveTrainRightVelocity, 0.0);
+        this.setAnalogOperationState(Operation.DriveTrainLeftAcceleration, 0.0);
+        this.setAnalogOperationState(Operation.DriveTrainRightAcceleration, 0.0);
+    }
 }
@@ -2,12 +2,10 @@ package org.usfirst.frc.team1318.robot.driver.controltasks;
 
 import java.util.Arrays;
 import java.util.LinkedList;
-import java.util.Map;
 import java.util.Queue;
 
 import org.usfirst.frc.team1318.robot.driver.IControlTask;
-import org.usfirst.frc.team1318.robot.driver.Operation;
-import org.usfirst.frc.team1318.robot.driver.states.OperationState;
+import org.usfirst.frc.team1318.robot.driver.states.OperationStateTable;
 
 import com.google.inject.Injector;
 
@@ -44,16 +42,16 @@ public class SequentialTask extends ControlTaskBase implements IControlTask
 
     /**
      * Initialize the task with the mapping of operations to states
-     * @param operationStateMap indicating the mapping of an operation to its current state
+     * @param operationStates indicating the mapping of an operation to its current state
      * @param injector used to retrieve the components to utilize for making any decisions
      */
     @Override
-    public void initialize(Map<Operation, OperationState> operationStateMap, Injector injector)
+    public void initialize(OperationStateTable operationStates, Injector injector)
     {
-        super.initialize(operationStateMap, injector);
+        super.initialize(operationStates, injector);
         for (IControlTask task : this.orderedTasks)
         {
-            task.initialize(operationStateMap, injector);
+            task.initialize(operationStates, injector);
         }
     }
 
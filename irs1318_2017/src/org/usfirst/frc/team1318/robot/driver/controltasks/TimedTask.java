@@ -77,6 +77,15 @@ public abstract class TimedTask extends ControlTaskBase implements IControlTask
         return ratioComplete;
     }
 
+    /**
+     * Gets the time that has elapsed since the task began
+     * @return elapsed time in seconds
+     */
+    protected double getElapsedTime()
+    {
+        return this.timer.get() - this.startTime;
+    }
+
     /**
      * Checks whether this task should be stopped, or whether it should continue being processed.
      * @return true if we should cancel this task (and stop performing any subsequent tasks), otherwise false (to keep processing this task)
@@ -12,28 +12,18 @@ public class TurnTimedTask extends DriveRouteTask
     public TurnTimedTask(double degrees, double duration)
     {
         super(
-            percentage ->
-            {
-                double arcLength = Math.PI * HardwareConstants.DRIVETRAIN_WHEEL_SEPARATION_DISTANCE * (degrees / 360.0);
-                double leftDistance = arcLength;
-                if (percentage <= 0.9)
-                {
-                    return percentage * leftDistance / 0.9;
-                }
-
-                return leftDistance;
-            },
-            percentage ->
-            {
-                double arcLength = Math.PI * HardwareConstants.DRIVETRAIN_WHEEL_SEPARATION_DISTANCE * (degrees / 360.0);
-                double rightDistance = -arcLength;
-                if (percentage <= 0.9)
-                {
-                    return percentage * rightDistance / 0.9;
-                }
-
-                return rightDistance;
-            },
+            DriveRouteTask.createTimedProfile(TurnTimedTask.getArcLength(degrees), duration),
+            DriveRouteTask.createTimedProfile(-TurnTimedTask.getArcLength(degrees), duration),
             duration);
     }
+
+    /**
+     * Gets the distance that each side of the robot travels when turning in-place
+     * @param degrees to rotate
+     * @return the arc length for the left side (the right side travels the same distance in the opposite direction)
+     */
+    private static double getArcLength(double degrees)
+    {
+        return Math.PI * HardwareConstants.DRIVETRAIN_WHEEL_SEPARATION_DISTANCE * (degrees / 360.0);
+    }
 }
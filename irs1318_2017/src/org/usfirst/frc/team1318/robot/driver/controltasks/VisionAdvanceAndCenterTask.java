@@ -2,13 +2,13 @@ package org.usfirst.frc.team1318.robot.driver.controltasks;
 
 import org.usfirst.frc.team1318.robot.TuningConstants;
 import org.usfirst.frc.team1318.robot.common.PIDHandler;
-import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
 import org.usfirst.frc.team1318.robot.driver.IControlTask;
 import org.usfirst.frc.team1318.robot.driver.Operation;
 
 public class VisionAdvanceAndCenterTask extends VisionCenteringTask implements IControlTask
 {
     private PIDHandler forwardPIDHandler;
+    private boolean hasForwardInput;
 
     /**
     * Initializes a new VisionForwardAndCenterTask
@@ -19,6 +19,7 @@ public class VisionAdvanceAndCenterTask extends VisionCenteringTask implements I
         super(visionMode, false);
 
         this.forwardPIDHandler = null;
+        this.hasForwardInput = false;
     }
 
     /**
@@ -29,6 +30,7 @@ public class VisionAdvanceAndCenterTask extends VisionCenteringTask implements I
     {
         super.begin();
         this.forwardPIDHandler = new PIDHandler(
+            this.pidBank,
             TuningConstants.VISION_ADVANCING_PID_KP,
             TuningConstants.VISION_ADVANCING_PID_KI,
             TuningConstants.VISION_ADVANCING_PID_KD,
@@ -36,17 +38,29 @@ public class VisionAdvanceAndCenterTask extends VisionCenteringTask implements I
             TuningConstants.VISION_ADVANCING_PID_KS,
             TuningConstants.VISION_ADVANCING_PID_MIN,
             TuningConstants.VISION_ADVANCING_PID_MAX,
-            this.getInjector().getInstance(ITimer.class));
+            null,
+            null);
     }
 
     @Override
-    public void update()
+    protected void setPIDInputs()
     {
-        super.update();
+        super.setPIDInputs();
         Double currentDistance = this.visionManager.getMeasuredDistance();
-        if (currentDistance != null)
+        this.hasForwardInput = currentDistance != null;
+        if (this.hasForwardInput)
         {
-            this.setAnalogOperationState(Operation.DriveTrainMoveForward, this.forwardPIDHandler.calculatePosition(0.0, -currentDistance));
+            this.forwardPIDHandler.setPositionInput(0.0, -currentDistance);
+        }
+    }
+
+    @Override
+    protected void applyPIDOutputs()
+    {
+        super.applyPIDOutputs();
+        if (this.hasForwardInput)
+        {
+            this.setAnalogOperationState(Operation.DriveTrainMoveForward, this.forwardPIDHandler.getCurrentOutput());
         }
     }
 
@@ -81,6 +95,7 @@ public class VisionAdvanceAndCenterTask extends VisionCenteringTask implements I
     protected PIDHandler createTurnHandler()
     {
         return new PIDHandler(
+            this.pidBank,
             TuningConstants.VISION_MOVING_CENTERING_PID_KP,
             TuningConstants.VISION_MOVING_CENTERING_PID_KI,
             TuningConstants.VISION_MOVING_CENTERING_PID_KD,
@@ -88,6 +103,7 @@ public class VisionAdvanceAndCenterTask extends VisionCenteringTask implements I
             TuningConstants.VISION_MOVING_CENTERING_PID_KS,
             TuningConstants.VISION_MOVING_CENTERING_PID_MIN,
             TuningConstants.VISION_MOVING_CENTERING_PID_MAX,
-            this.getInjector().getInstance(ITimer.class));
+            null,
+            null);
     }
 }
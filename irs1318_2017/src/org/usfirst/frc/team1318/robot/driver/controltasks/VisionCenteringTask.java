@@ -1,11 +1,14 @@
 package org.usfirst.frc.team1318.robot.driver.controltasks;
 
 import org.usfirst.frc.team1318.robot.TuningConstants;
+import org.usfirst.frc.team1318.robot.common.PIDBank;
 import org.usfirst.frc.team1318.robot.common.PIDHandler;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
 import org.usfirst.frc.team1318.robot.driver.IControlTask;
 import org.usfirst.frc.team1318.robot.driver.Operation;
+import org.usfirst.frc.team1318.robot.general.PositionManager;
 import org.usfirst.frc.team1318.robot.vision.VisionManager;
+import org.usfirst.frc.team1318.robot.vision.VisionResult;
 
 /**
  * Task that turns the robot a certain amount clockwise or counterclockwise in-place based on vision center
@@ -19,9 +22,12 @@ public class VisionCenteringTask extends ControlTaskBase implements IControlTask
     private final boolean visionMode;
     private final boolean useTime;
 
+    protected PIDBank pidBank;
     private PIDHandler turnPidHandler;
+    private boolean hasTurnInput;
     private Double centeredTime;
     protected VisionManager visionManager;
+    private PositionManager positionManager;
 
     private int noCenterCount;
 
@@ -44,7 +50,9 @@ public class VisionCenteringTask extends ControlTaskBase implements IControlTask
         this.visionMode = visionMode;
         this.useTime = useTime;
 
+        this.pidBank = null;
         this.turnPidHandler = null;
+        this.hasTurnInput = false;
         this.centeredTime = null;
 
         this.noCenterCount = 0;
@@ -57,6 +65,8 @@ public class VisionCenteringTask extends ControlTaskBase implements IControlTask
     public void begin()
     {
         this.visionManager = this.getInjector().getInstance(VisionManager.class);
+        this.positionManager = this.getInjector().getInstance(PositionManager.class);
+        this.pidBank = new PIDBank(this.getInjector().getInstance(ITimer.class));
         this.turnPidHandler = this.createTurnHandler();
 
         if (this.visionMode)
@@ -79,14 +89,10 @@ public class VisionCenteringTask extends ControlTaskBase implements IControlTask
     {
         this.setDigitalOperationState(Operation.DriveTrainUsePositionalMode, false);
 
-        Double currentMeasuredAngle = this.visionManager.getMeasuredAngle();
-        Double currentDesiredAngle = this.visionManager.getDesiredAngle();
-        if (currentMeasuredAngle != null && currentDesiredAngle != null)
-        {
-            this.setAnalogOperationState(
-                Operation.DriveTrainTurn,
-                -this.turnPidHandler.calculatePosition(currentDesiredAngle, currentMeasuredAngle));
-        }
+        // calculate all of the task's PID loops together
+        this.setPIDInputs();
+        this.pidBank.update();
+        this.applyPIDOutputs();
     }
 
     /**
@@ -122,8 +128,9 @@ public class VisionCenteringTask extends ControlTaskBase implements IControlTask
     @Override
     public boolean hasCompleted()
     {
-        Double currentMeasuredAngle = this.visionManager.getMeasuredAngle();
-        Double currentDesiredAngle = this.visionManager.getDesiredAngle();
+        VisionResult result = this.visionManager.getLatestResult();
+        Double currentMeasuredAngle = this.getCompensatedMeasuredAngle(result);
+        Double currentDesiredAngle = result.getDesiredAngle();
         if (currentMeasuredAngle == null || currentDesiredAngle == null)
         {
             return false;
@@ -173,9 +180,54 @@ public class VisionCenteringTask extends ControlTaskBase implements IControlTask
         return this.noCenterCount >= VisionCenteringTask.NO_CENTER_THRESHOLD;
     }
 
+    /**
+     * Gets the measured angle from the vision result, corrected for how far the robot has turned since the frame was captured
+     * @param result from vision
+     * @return the angle to the vision target as of now, or null if there isn't one
+     */
+    protected Double getCompensatedMeasuredAngle(VisionResult result)
+    {
+        Double measuredAngle = result.getMeasuredAngle();
+        if (measuredAngle == null || !TuningConstants.VISION_LATENCY_COMPENSATION_ENABLED)
+        {
+            return measuredAngle;
+        }
+
+        // turning clockwise moves the target counter-clockwise relative to the robot
+        return measuredAngle - this.positionManager.getOdometryAngleChangeSince(result.getCaptureTime());
+    }
+
+    /**
+     * Set the inputs for the task's PID loops for the current update
+     */
+    protected void setPIDInputs()
+    {
+        // use a single result so that both angles come from the same frame
+        VisionResult result = this.visionManager.getLatestResult();
+        Double currentMeasuredAngle = this.getCompensatedMeasuredAngle(result);
+        Double currentDesiredAngle = result.getDesiredAngle();
+        this.hasTurnInput = currentMeasuredAngle != null && currentDesiredAngle != null;
+        if (this.hasTurnInput)
+        {
+            this.turnPidHandler.setPositionInput(currentDesiredAngle, currentMeasuredAngle);
+        }
+    }
+
+    /**
+     * Apply the outputs of the task's PID loops once they have been calculated
+     */
+    protected void applyPIDOutputs()
+    {
+        if (this.hasTurnInput)
+        {
+            this.setAnalogOperationState(Operation.DriveTrainTurn, -this.turnPidHandler.getCurrentOutput());
+        }
+    }
+
     protected PIDHandler createTurnHandler()
     {
         return new PIDHandler(
+            this.pidBank,
             TuningConstants.VISION_STATIONARY_CENTERING_PID_KP,
             TuningConstants.VISION_STATIONARY_CENTERING_PID_KI,
             TuningConstants.VISION_STATIONARY_CENTERING_PID_KD,
@@ -183,6 +235,7 @@ public class VisionCenteringTask extends ControlTaskBase implements IControlTask
             TuningConstants.VISION_STATIONARY_CENTERING_PID_KS,
             TuningConstants.VISION_STATIONARY_CENTERING_PID_MIN,
             TuningConstants.VISION_STATIONARY_CENTERING_PID_MAX,
-            this.getInjector().getInstance(ITimer.class));
+            null,
+            null);
     }
 }
@@ -1,7 +1,6 @@
 package org.usfirst.frc.team1318.robot.driver.states;
 
 import org.usfirst.frc.team1318.robot.TuningConstants;
-import org.usfirst.frc.team1318.robot.common.wpilibmocks.IJoystick;
 import org.usfirst.frc.team1318.robot.driver.buttons.AnalogAxis;
 import org.usfirst.frc.team1318.robot.driver.descriptions.AnalogOperationDescription;
 
@@ -51,68 +50,23 @@ public class AnalogOperationState extends OperationState
     }
 
     /**
-     * Checks whether the operation state should change based on the driver and co-driver joysticks and component sensors. 
-     * @param driver joystick to update from
-     * @param coDriver joystick to update from
+     * Updates the operation state based on the current position of its axis, applying inversion and dead zone.
+     * @param rawValue the current position of the axis, as read from the user input device
      * @return true if there was any active user input that triggered a state change
      */
-    @Override
-    public boolean checkInput(IJoystick driver, IJoystick coDriver)
+    public boolean updateInput(double rawValue)
     {
         AnalogOperationDescription description = (AnalogOperationDescription)this.getDescription();
 
-        IJoystick relevantJoystick;
-        AxisType relevantAxis;
-        switch (description.getUserInputDevice())
+        double newValue = rawValue;
+        if (description.getShouldInvert())
         {
-            case None:
-                return false;
-
-            case Driver:
-                relevantJoystick = driver;
-                break;
-
-            case CoDriver:
-                relevantJoystick = coDriver;
-                break;
-
-            case Sensor:
-                relevantJoystick = null;
-
-            default:
-                if (TuningConstants.THROW_EXCEPTIONS)
-                {
-                    throw new RuntimeException("unexpected user input device " + description.getUserInputDevice().toString());
-                }
-
-                return false;
+            newValue *= -1.0;
         }
 
-        double newValue;
-        double oldValue = this.currentValue;
-        if (relevantJoystick != null)
-        {
-            relevantAxis = AnalogOperationState.fromAxis(description.getUserInputDeviceAxis());
-            if (relevantAxis == null)
-            {
-                return false;
-            }
-
-            newValue = relevantJoystick.getAxis(relevantAxis);
-            if (description.getShouldInvert())
-            {
-                newValue *= -1.0;
-            }
-
-            newValue = this.adjustForDeadZone(newValue, description.getDeadZone());
-        }
-        else
-        {
-            // grab the appropriate sensor output.
-            // e.g.: if (description.getSensor() == AnalogSensor.None) ...
-            newValue = 0.0;
-        }
+        newValue = this.adjustForDeadZone(newValue, description.getDeadZone());
 
+        double oldValue = this.currentValue;
         this.currentValue = newValue;
         return this.currentValue != oldValue;
     }
@@ -1,8 +1,6 @@
 package org.usfirst.frc.team1318.robot.driver.states;
 
 import org.usfirst.frc.team1318.robot.TuningConstants;
-import org.usfirst.frc.team1318.robot.common.wpilibmocks.IJoystick;
-import org.usfirst.frc.team1318.robot.driver.UserInputDeviceButton;
 import org.usfirst.frc.team1318.robot.driver.buttons.ClickButton;
 import org.usfirst.frc.team1318.robot.driver.buttons.IButton;
 import org.usfirst.frc.team1318.robot.driver.buttons.SimpleButton;
@@ -75,69 +73,12 @@ public class DigitalOperationState extends OperationState
     }
 
     /**
-     * Checks whether the operation state should change based on the driver and co-driver joysticks and component sensors. 
-     * @param driver joystick to update from
-     * @param coDriver joystick to update from
+     * Updates the operation state based on the current position of its button.
+     * @param buttonPressed whether the button is currently pressed
      * @return true if there was any active user input that triggered a state change
      */
-    @Override
-    public boolean checkInput(IJoystick driver, IJoystick coDriver)
+    public boolean updateInput(boolean buttonPressed)
     {
-        DigitalOperationDescription description = (DigitalOperationDescription)this.getDescription();
-
-        IJoystick relevantJoystick;
-        UserInputDeviceButton relevantButton;
-        switch (description.getUserInputDevice())
-        {
-            case None:
-                return false;
-
-            case Driver:
-                relevantJoystick = driver;
-                break;
-
-            case CoDriver:
-                relevantJoystick = coDriver;
-                break;
-
-            case Sensor:
-                relevantJoystick = null;
-
-            default:
-                if (TuningConstants.THROW_EXCEPTIONS)
-                {
-                    throw new RuntimeException("unexpected user input device " + description.getUserInputDevice().toString());
-                }
-
-                return false;
-        }
-
-        boolean buttonPressed;
-        if (relevantJoystick != null)
-        {
-            // find the appropriate button and grab the value from the relevant joystick
-            relevantButton = description.getUserInputDeviceButton();
-
-            if (relevantButton == UserInputDeviceButton.JOYSTICK_POV)
-            {
-                buttonPressed = relevantJoystick.getPOV() == description.getUserInputDevicePovValue();
-            }
-            else if (relevantButton != UserInputDeviceButton.NONE)
-            {
-                buttonPressed = relevantJoystick.getRawButton(relevantButton.Value);
-            }
-            else
-            {
-                buttonPressed = false;
-            }
-        }
-        else
-        {
-            // grab the appropriate sensor output.
-            // e.g.: if (description.getSensor() == DigitalSensor.None) ...
-            buttonPressed = false;
-        }
-
         this.button.updateState(buttonPressed);
         return buttonPressed;
     }
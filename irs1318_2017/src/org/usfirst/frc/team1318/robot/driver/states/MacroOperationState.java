@@ -1,12 +1,8 @@
 package org.usfirst.frc.team1318.robot.driver.states;
 
-import java.util.Map;
-
 import org.usfirst.frc.team1318.robot.TuningConstants;
-import org.usfirst.frc.team1318.robot.common.wpilibmocks.IJoystick;
 import org.usfirst.frc.team1318.robot.driver.IControlTask;
 import org.usfirst.frc.team1318.robot.driver.Operation;
-import org.usfirst.frc.team1318.robot.driver.UserInputDeviceButton;
 import org.usfirst.frc.team1318.robot.driver.buttons.ClickButton;
 import org.usfirst.frc.team1318.robot.driver.buttons.IButton;
 import org.usfirst.frc.team1318.robot.driver.buttons.SimpleButton;
@@ -22,19 +18,19 @@ import com.google.inject.Injector;
 public class MacroOperationState extends OperationState
 {
     private final IButton button;
-    private final Map<Operation, OperationState> operationStateMap;
+    private final OperationStateTable operationStates;
     private final Injector injector;
 
     private IControlTask task;
 
     public MacroOperationState(
         MacroOperationDescription description,
-        Map<Operation, OperationState> operationStateMap,
+        OperationStateTable operationStates,
         Injector injector)
     {
         super(description);
 
-        this.operationStateMap = operationStateMap;
+        this.operationStates = operationStates;
         this.injector = injector;
 
         switch (description.getButtonType())
@@ -89,71 +85,13 @@ public class MacroOperationState extends OperationState
     }
 
     /**
-     * Checks whether the operation state should change based on the driver and co-driver joysticks and component sensors. 
-     * @param driver joystick to update from
-     * @param coDriver joystick to update from
+     * Updates the operation state based on the current position of its button.
+     * @param buttonPressed whether the button is currently pressed
      * @return true if there was any active user input that triggered a state change
      */
-    @Override
-    public boolean checkInput(IJoystick driver, IJoystick coDriver)
+    public boolean updateInput(boolean buttonPressed)
     {
-        MacroOperationDescription description = (MacroOperationDescription)this.getDescription();
-
-        IJoystick relevantJoystick;
-        UserInputDeviceButton relevantButton;
-        switch (description.getUserInputDevice())
-        {
-            case None:
-                return false;
-
-            case Driver:
-                relevantJoystick = driver;
-                break;
-
-            case CoDriver:
-                relevantJoystick = coDriver;
-                break;
-
-            case Sensor:
-                relevantJoystick = null;
-
-            default:
-                if (TuningConstants.THROW_EXCEPTIONS)
-                {
-                    throw new RuntimeException("unexpected user input device " + description.getUserInputDevice().toString());
-                }
-
-                return false;
-        }
-
-        boolean buttonPressed;
-        if (relevantJoystick != null)
-        {
-            // find the appropriate button and grab the value from the relevant joystick
-            relevantButton = description.getUserInputDeviceButton();
-
-            if (relevantButton == UserInputDeviceButton.JOYSTICK_POV)
-            {
-                buttonPressed = relevantJoystick.getPOV() == description.getUserInputDevicePovValue();
-            }
-            else if (relevantButton != UserInputDeviceButton.NONE)
-            {
-                buttonPressed = relevantJoystick.getRawButton(relevantButton.Value);
-            }
-            else
-            {
-                buttonPressed = false;
-            }
-        }
-        else
-        {
-            // grab the appropriate sensor output.
-            // e.g.: if (description.getSensor() == DigitalSensor.None) ...
-            buttonPressed = false;
-        }
-
         this.button.updateState(buttonPressed);
-
         return buttonPressed;
     }
 
@@ -175,12 +113,12 @@ public class MacroOperationState extends OperationState
             {
                 for (Operation operation : this.getAffectedOperations())
                 {
-                    this.operationStateMap.get(operation).setIsInterrupted(true);
+                    this.operationStates.get(operation).setIsInterrupted(true);
                 }
 
                 // start task
                 this.task = ((MacroOperationDescription)this.getDescription()).constructTask();
-                this.task.initialize(this.operationStateMap, this.injector);
+                this.task.initialize(this.operationStates, this.injector);
                 this.task.begin();
             }
             else
@@ -206,7 +144,7 @@ public class MacroOperationState extends OperationState
                     {
                         for (Operation operation : this.getAffectedOperations())
                         {
-                            this.operationStateMap.get(operation).setIsInterrupted(false);
+                            this.operationStates.get(operation).setIsInterrupted(false);
                         }
                     }
                 }
@@ -224,7 +162,7 @@ public class MacroOperationState extends OperationState
 
             for (Operation operation : this.getAffectedOperations())
             {
-                this.operationStateMap.get(operation).setIsInterrupted(false);
+                this.operationStates.get(operation).setIsInterrupted(false);
             }
         }
     }
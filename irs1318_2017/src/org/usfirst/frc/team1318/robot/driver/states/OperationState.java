@@ -1,7 +1,6 @@
 package org.usfirst.frc.team1318.robot.driver.states;
 
 import org.usfirst.frc.team1318.robot.TuningConstants;
-import org.usfirst.frc.team1318.robot.common.wpilibmocks.IJoystick;
 import org.usfirst.frc.team1318.robot.driver.descriptions.AnalogOperationDescription;
 import org.usfirst.frc.team1318.robot.driver.descriptions.DigitalOperationDescription;
 import org.usfirst.frc.team1318.robot.driver.descriptions.OperationDescription;
@@ -36,14 +35,6 @@ public abstract class OperationState
      */
     public abstract boolean getIsInterrupted();
 
-    /**
-     * Checks whether the operation state should change based on the driver and co-driver joysticks and component sensors. 
-     * @param driver joystick to update from
-     * @param coDriver joystick to update from
-     * @return true if there was any active user input that triggered a state change
-     */
-    public abstract boolean checkInput(IJoystick driver, IJoystick coDriver);
-
     /**
      * Create the state corresponding to the description
      * @param description to use for creating the state
@@ -0,0 +1,95 @@
+package org.usfirst.frc.team1318.robot.driver.states;
+
+import java.util.Map;
+
+import org.usfirst.frc.team1318.robot.driver.Operation;
+import org.usfirst.frc.team1318.robot.driver.descriptions.OperationDescription;
+
+/**
+ * The states of all of the operations, indexed by the operation's ordinal.
+ * Digital and analog states are also kept in separate typed arrays so that typed lookups are just an array index.
+ *
+ */
+public class OperationStateTable
+{
+    private final Operation[] operations;
+    private final OperationState[] states;
+    private final DigitalOperationState[] digitalStates;
+    private final AnalogOperationState[] analogStates;
+
+    /**
+     * Initializes a new OperationStateTable, creating a state for each operation in the schema
+     * @param operationSchema describing each operation
+     */
+    public OperationStateTable(Map<Operation, OperationDescription> operationSchema)
+    {
+        int operationCount = Operation.values().length;
+        this.states = new OperationState[operationCount];
+        this.digitalStates = new DigitalOperationState[operationCount];
+        this.analogStates = new AnalogOperationState[operationCount];
+
+        int index = 0;
+        this.operations = new Operation[operationSchema.size()];
+        for (Operation operation : Operation.values())
+        {
+            OperationDescription description = operationSchema.get(operation);
+            if (description == null)
+            {
+                continue;
+            }
+
+            OperationState state = OperationState.createFromDescription(description);
+            int ordinal = operation.ordinal();
+            this.states[ordinal] = state;
+            if (state instanceof DigitalOperationState)
+            {
+                this.digitalStates[ordinal] = (DigitalOperationState)state;
+            }
+            else if (state instanceof AnalogOperationState)
+            {
+                this.analogStates[ordinal] = (AnalogOperationState)state;
+            }
+
+            this.operations[index++] = operation;
+        }
+    }
+
+    /**
+     * Gets the operations that have a state within this table
+     * @return array of operations (which should not be modified)
+     */
+    public Operation[] getOperations()
+    {
+        return this.operations;
+    }
+
+    /**
+     * Gets the state of an operation
+     * @param operation to get
+     * @return the state of the operation, or null if the operation isn't in the schema
+     */
+    public OperationState get(Operation operation)
+    {
+        return this.states[operation.ordinal()];
+    }
+
+    /**
+     * Gets the state of a digital operation
+     * @param operation to get
+     * @return the state of the operation, or null if the operation isn't a digital operation in the schema
+     */
+    public DigitalOperationState getDigital(Operation operation)
+    {
+        return this.digitalStates[operation.ordinal()];
+    }
+
+    /**
+     * Gets the state of an analog operation
+     * @param operation to get
+     * @return the state of the operation, or null if the operation isn't an analog operation in the schema
+     */
+    public AnalogOperationState getAnalog(Operation operation)
+    {
+        return this.analogStates[operation.ordinal()];
+    }
+}
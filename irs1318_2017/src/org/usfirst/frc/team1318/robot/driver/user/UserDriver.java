@@ -1,17 +1,19 @@
 package org.usfirst.frc.team1318.robot.driver.user;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
-import org.usfirst.frc.team1318.robot.common.SetHelper;
+import org.usfirst.frc.team1318.robot.TuningConstants;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.IJoystick;
 import org.usfirst.frc.team1318.robot.driver.Driver;
 import org.usfirst.frc.team1318.robot.driver.IButtonMap;
 import org.usfirst.frc.team1318.robot.driver.MacroOperation;
 import org.usfirst.frc.team1318.robot.driver.Operation;
+import org.usfirst.frc.team1318.robot.driver.descriptions.AnalogOperationDescription;
+import org.usfirst.frc.team1318.robot.driver.descriptions.DigitalOperationDescription;
 import org.usfirst.frc.team1318.robot.driver.descriptions.MacroOperationDescription;
+import org.usfirst.frc.team1318.robot.driver.descriptions.OperationDescription;
+import org.usfirst.frc.team1318.robot.driver.states.AnalogOperationState;
+import org.usfirst.frc.team1318.robot.driver.states.DigitalOperationState;
 import org.usfirst.frc.team1318.robot.driver.states.MacroOperationState;
 
 import com.google.inject.Inject;
@@ -25,10 +27,21 @@ import com.google.inject.name.Named;
  */
 public class UserDriver extends Driver
 {
-    private final IJoystick joystickDriver;
-    private final IJoystick joystickCoDriver;
+    // the physical joystick inputs, and the slot (and POV value) within the input snapshot for each operation and macro, by ordinal
+    private final UserInputPlan inputPlan;
+    private final int[] operationInputSlots;
+    private final int[] operationPovValues;
+    private final int[] macroInputSlots;
+    private final int[] macroPovValues;
 
-    private final Map<MacroOperation, MacroOperationState> macroStateMap;
+    // macro operations and their states, indexed by ordinal
+    private final Operation[] allOperations;
+    private final MacroOperation[] macroOperations;
+    private final MacroOperationState[] macroStates;
+
+    // bitmasks (by ordinal) of the operations affected by each macro, and of the macros that affect each operation
+    private final long[] macroAffectedOperations;
+    private final long[] operationAffectingMacros;
 
     /**
      * Initializes a new UserDriver
@@ -43,19 +56,73 @@ public class UserDriver extends Driver
     {
         super(injector, buttonMap);
 
-        this.joystickDriver = joystickDriver;
-        this.joystickCoDriver = joystickCoDriver;
+        this.allOperations = Operation.values();
+        MacroOperation[] allMacroOperations = MacroOperation.values();
+        if (TuningConstants.THROW_EXCEPTIONS && (this.allOperations.length > Long.SIZE || allMacroOperations.length > Long.SIZE))
+        {
+            throw new RuntimeException("too many operations or macro operations to arbitrate using bitmasks");
+        }
+
+        this.macroStates = new MacroOperationState[allMacroOperations.length];
+        this.macroAffectedOperations = new long[allMacroOperations.length];
+        this.operationAffectingMacros = new long[this.allOperations.length];
+
+        this.inputPlan = new UserInputPlan(joystickDriver, joystickCoDriver);
+        this.operationInputSlots = new int[this.allOperations.length];
+        this.operationPovValues = new int[this.allOperations.length];
+        this.macroInputSlots = new int[allMacroOperations.length];
+        this.macroPovValues = new int[allMacroOperations.length];
+
+        Map<Operation, OperationDescription> operationSchema = buttonMap.getOperationSchema();
+        for (Operation operation : this.operationStates.getOperations())
+        {
+            OperationDescription description = operationSchema.get(operation);
+            int ordinal = operation.ordinal();
+            if (description instanceof AnalogOperationDescription)
+            {
+                AnalogOperationDescription analogDescription = (AnalogOperationDescription)description;
+                this.operationInputSlots[ordinal] =
+                    this.inputPlan.registerAxis(analogDescription.getUserInputDevice(), analogDescription.getUserInputDeviceAxis());
+            }
+            else
+            {
+                DigitalOperationDescription digitalDescription = (DigitalOperationDescription)description;
+                this.operationInputSlots[ordinal] =
+                    this.inputPlan.registerButton(digitalDescription.getUserInputDevice(), digitalDescription.getUserInputDeviceButton());
+                this.operationPovValues[ordinal] = digitalDescription.getUserInputDevicePovValue();
+            }
+        }
 
-        this.macroStateMap = new HashMap<MacroOperation, MacroOperationState>();
         Map<MacroOperation, MacroOperationDescription> macroSchema = buttonMap.getMacroOperationSchema();
-        for (MacroOperation macroOperation : macroSchema.keySet())
+        this.macroOperations = new MacroOperation[macroSchema.size()];
+
+        int index = 0;
+        for (MacroOperation macroOperation : allMacroOperations)
         {
-            this.macroStateMap.put(
-                macroOperation,
+            MacroOperationDescription description = macroSchema.get(macroOperation);
+            if (description == null)
+            {
+                continue;
+            }
+
+            int macroOrdinal = macroOperation.ordinal();
+            this.macroStates[macroOrdinal] =
                 new MacroOperationState(
-                    macroSchema.get(macroOperation),
-                    this.operationStateMap,
-                    this.injector));
+                    description,
+                    this.operationStates,
+                    this.injector);
+
+            this.macroInputSlots[macroOrdinal] =
+                this.inputPlan.registerButton(description.getUserInputDevice(), description.getUserInputDeviceButton());
+            this.macroPovValues[macroOrdinal] = description.getUserInputDevicePovValue();
+
+            for (Operation affectedOperation : description.getAffectedOperations())
+            {
+                this.macroAffectedOperations[macroOrdinal] |= 1L << affectedOperation.ordinal();
+                this.operationAffectingMacros[affectedOperation.ordinal()] |= 1L << macroOrdinal;
+            }
+
+            this.macroOperations[index++] = macroOperation;
         }
     }
 
@@ -66,58 +133,65 @@ public class UserDriver extends Driver
     public void update()
     {
         // keep track of macros that were running before we checked user input...
-        Set<MacroOperation> previouslyActiveMacroOperations = new HashSet<MacroOperation>();
-        for (MacroOperation macroOperation : this.macroStateMap.keySet())
+        long previouslyActiveMacroOperations = 0L;
+        for (MacroOperation macroOperation : this.macroOperations)
         {
-            MacroOperationState macroState = this.macroStateMap.get(macroOperation);
-            if (macroState.getIsActive())
+            if (this.macroStates[macroOperation.ordinal()].getIsActive())
             {
-                previouslyActiveMacroOperations.add(macroOperation);
+                previouslyActiveMacroOperations |= 1L << macroOperation.ordinal();
             }
         }
 
+        // pick up the latest snapshot of the joystick inputs that are used by any operation, and then update the operations from it
+        this.inputPlan.read();
+
         // check user inputs for various operations (non-macro) and keep track of:
-        // operations that were interrupted already, and operations that were modified by user input in this update
-        Set<Operation> modifiedOperations = new HashSet<Operation>();
-        Set<Operation> interruptedOperations = new HashSet<Operation>();
-        for (Operation operation : this.operationStateMap.keySet())
+        // operations that were modified by user input in this update
+        long modifiedOperations = 0L;
+        for (Operation operation : this.operationStates.getOperations())
         {
-            boolean receivedInput = this.operationStateMap.get(operation).checkInput(this.joystickDriver, this.joystickCoDriver);
-            if (receivedInput)
+            int ordinal = operation.ordinal();
+            int slot = this.operationInputSlots[ordinal];
+            if (slot == UserInputPlan.NoInput)
             {
-                modifiedOperations.add(operation);
+                continue;
             }
 
-            if (this.operationStateMap.get(operation).getIsInterrupted())
+            boolean receivedInput;
+            AnalogOperationState analogState = this.operationStates.getAnalog(operation);
+            if (analogState != null)
+            {
+                receivedInput = analogState.updateInput(this.inputPlan.getAxis(slot));
+            }
+            else
             {
-                interruptedOperations.add(operation);
+                DigitalOperationState digitalState = this.operationStates.getDigital(operation);
+                receivedInput = digitalState.updateInput(this.inputPlan.getButton(slot, this.operationPovValues[ordinal]));
+            }
+
+            if (receivedInput)
+            {
+                modifiedOperations |= 1L << operation.ordinal();
             }
         }
 
         // check user inputs for various macro operations
-        // also keep track of modified and active macro operations, and how macro operations and operations link together
-        Set<MacroOperation> activeMacroOperations = new HashSet<MacroOperation>();
-        Map<Operation, Set<MacroOperation>> activeMacroOperationMap = new HashMap<Operation, Set<MacroOperation>>();
-        for (MacroOperation macroOperation : this.macroStateMap.keySet())
+        // also keep track of active macro operations, and which operations they affect
+        long activeMacroOperations = 0L;
+        long affectedOperations = 0L;
+        for (MacroOperation macroOperation : this.macroOperations)
         {
-            MacroOperationState macroState = this.macroStateMap.get(macroOperation);
-            macroState.checkInput(this.joystickDriver, this.joystickCoDriver);
+            MacroOperationState macroState = this.macroStates[macroOperation.ordinal()];
+            int slot = this.macroInputSlots[macroOperation.ordinal()];
+            if (slot != UserInputPlan.NoInput)
+            {
+                macroState.updateInput(this.inputPlan.getButton(slot, this.macroPovValues[macroOperation.ordinal()]));
+            }
 
             if (macroState.getIsActive())
             {
-                activeMacroOperations.add(macroOperation);
-
-                for (Operation affectedOperation : macroState.getAffectedOperations())
-                {
-                    Set<MacroOperation> relevantMacroOperations = activeMacroOperationMap.get(affectedOperation);
-                    if (relevantMacroOperations == null)
-                    {
-                        relevantMacroOperations = new HashSet<MacroOperation>();
-                        activeMacroOperationMap.put(affectedOperation, relevantMacroOperations);
-                    }
-
-                    relevantMacroOperations.add(macroOperation);
-                }
+                activeMacroOperations |= 1L << macroOperation.ordinal();
+                affectedOperations |= this.macroAffectedOperations[macroOperation.ordinal()];
             }
         }
 
@@ -125,57 +199,78 @@ public class UserDriver extends Driver
         // 1. have not been usurped by a user action
         // 2. have not been usurped by a new macro (i.e. that was started in this round)
         // 3. are new macros that do not overlap with other new macros
-        Set<MacroOperation> macroOperationsToCancel = new HashSet<MacroOperation>();
-        for (Operation operation : activeMacroOperationMap.keySet())
+        long macroOperationsToCancel = 0L;
+        for (Operation operation : this.allOperations)
         {
-            Set<MacroOperation> relevantMacroOperations = activeMacroOperationMap.get(operation);
-            if (modifiedOperations.contains(operation))
+            long operationMask = 1L << operation.ordinal();
+            if ((affectedOperations & operationMask) == 0L)
+            {
+                continue;
+            }
+
+            long relevantMacroOperations = this.operationAffectingMacros[operation.ordinal()] & activeMacroOperations;
+            if ((modifiedOperations & operationMask) != 0L)
             {
                 // disobeys rule #1:
                 // (macro usurped by user action)
-                macroOperationsToCancel.addAll(relevantMacroOperations);
+                macroOperationsToCancel |= relevantMacroOperations;
             }
-            else if (relevantMacroOperations.size() > 1)
+            else if (Long.bitCount(relevantMacroOperations) > 1)
             {
-                Set<MacroOperation> newRelevantMacroOperations = SetHelper.<MacroOperation> RelativeComplement(
-                    previouslyActiveMacroOperations, relevantMacroOperations);
-                if (newRelevantMacroOperations.size() > 1)
+                long newRelevantMacroOperations = relevantMacroOperations & ~previouslyActiveMacroOperations;
+                if (Long.bitCount(newRelevantMacroOperations) > 1)
                 {
                     // disobeys rule #3:
                     // (there are 2 or more active macros that weren't previously active)
-                    macroOperationsToCancel.addAll(relevantMacroOperations);
+                    macroOperationsToCancel |= relevantMacroOperations;
                 }
                 else
                 {
                     // some disobey rule #2 (remove only those that were previously active, and not the 1 that is newly active...)
-                    macroOperationsToCancel.addAll(SetHelper.<MacroOperation> RelativeComplement(newRelevantMacroOperations,
-                        relevantMacroOperations));
+                    macroOperationsToCancel |= relevantMacroOperations & ~newRelevantMacroOperations;
                 }
             }
         }
 
         // cancel macros that didn't follow the rules list above
-        for (MacroOperation macroOperationToCancel : macroOperationsToCancel)
+        for (MacroOperation macroOperation : this.macroOperations)
         {
-            this.macroStateMap.get(macroOperationToCancel).setIsInterrupted(true);
-            activeMacroOperations.remove(macroOperationToCancel);
+            if ((macroOperationsToCancel & (1L << macroOperation.ordinal())) != 0L)
+            {
+                this.macroStates[macroOperation.ordinal()].setIsInterrupted(true);
+            }
         }
 
+        activeMacroOperations &= ~macroOperationsToCancel;
+
         // first, run all of the inactive macros (to clear any old interrupts)...
-        Set<MacroOperation> inactiveMacroOperations = SetHelper.<MacroOperation> RelativeComplement(activeMacroOperations,
-            this.macroStateMap.keySet());
-        for (MacroOperation macroOperation : inactiveMacroOperations)
+        for (MacroOperation macroOperation : this.macroOperations)
         {
-            this.macroStateMap.get(macroOperation).run();
+            if ((activeMacroOperations & (1L << macroOperation.ordinal())) == 0L)
+            {
+                this.macroStates[macroOperation.ordinal()].run();
+            }
         }
 
         // second, run all of the active macros (which could add interrupts that were cleared in the previous phase)...
-        for (MacroOperation macroOperation : activeMacroOperations)
+        for (MacroOperation macroOperation : this.macroOperations)
         {
-            this.macroStateMap.get(macroOperation).run();
+            if ((activeMacroOperations & (1L << macroOperation.ordinal())) != 0L)
+            {
+                this.macroStates[macroOperation.ordinal()].run();
+            }
         }
     }
 
+    /**
+     * Sample the joystick inputs that are used by any operation, for the next update to pick up
+     */
+    @Override
+    public void sampleInputs()
+    {
+        this.inputPlan.sample();
+    }
+
     /**
      * Tell the driver that operation is stopping
      */
@@ -0,0 +1,285 @@
+package org.usfirst.frc.team1318.robot.driver.user;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.usfirst.frc.team1318.robot.TuningConstants;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IJoystick;
+import org.usfirst.frc.team1318.robot.driver.UserInputDeviceButton;
+import org.usfirst.frc.team1318.robot.driver.buttons.AnalogAxis;
+import org.usfirst.frc.team1318.robot.driver.descriptions.UserInputDevice;
+import org.usfirst.frc.team1318.robot.driver.states.AnalogOperationState;
+
+import edu.wpi.first.wpilibj.Joystick.AxisType;
+
+/**
+ * The set of physical joystick inputs (axes, buttons and POV) used by the operations, compiled when the driver is constructed.
+ * Each cycle, every physical input is read exactly once into a snapshot which the operations are then evaluated from,
+ * regardless of how many operations are mapped to the same input.
+ *
+ * Snapshots are sampled on the main robot thread as driver station packets arrive, and are read by the thread that updates
+ * the driver (the control thread, when it is enabled), so only these raw input values are passed between the threads.
+ * The sampler fills in a back buffer and then publishes it by swapping it with the "latest" slot, and the reader picks up
+ * the latest slot by swapping it with its front buffer.  There are three buffers, so that neither side ever waits for the
+ * other.  If more than one snapshot is sampled between reads, the reader only sees the latest one.
+ *
+ */
+public class UserInputPlan
+{
+    /**
+     * Slot for operations that don't read any user input (so their state should not be updated)
+     */
+    public static final int NoInput = -1;
+
+    private static final byte ConstantInput = 0;
+    private static final byte AxisInput = 1;
+    private static final byte ButtonInput = 2;
+    private static final byte PovInput = 3;
+
+    private static final int BufferCount = 3;
+    private static final int IndexMask = 3;
+    private static final int FreshFlag = 4;
+
+    private final IJoystick[] joysticks;
+
+    // the physical inputs, indexed by slot
+    private int inputCount;
+    private byte[] inputTypes;
+    private int[] inputJoysticks;
+    private AxisType[] inputAxes;
+    private int[] inputButtons;
+
+    // the values of the physical inputs for each buffer, indexed by slot
+    private double[][] values;
+
+    // index of the most recently published buffer, plus FreshFlag if the reader hasn't picked it up yet
+    private final AtomicInteger latest;
+
+    // only used by the sampler
+    private int sampleIndex;
+
+    // only used by the reader
+    private int readIndex;
+
+    /**
+     * Initializes a new UserInputPlan
+     * @param joystickDriver to read driver inputs from
+     * @param joystickCoDriver to read co-driver inputs from
+     */
+    public UserInputPlan(IJoystick joystickDriver, IJoystick joystickCoDriver)
+    {
+        this.joysticks = new IJoystick[] { joystickDriver, joystickCoDriver };
+
+        this.inputCount = 0;
+        this.inputTypes = new byte[0];
+        this.inputJoysticks = new int[0];
+        this.inputAxes = new AxisType[0];
+        this.inputButtons = new int[0];
+        this.values = new double[UserInputPlan.BufferCount][0];
+
+        this.sampleIndex = 0;
+        this.readIndex = 1;
+        this.latest = new AtomicInteger(2);
+    }
+
+    /**
+     * Register an axis that is used by an analog operation
+     * @param device to read the axis from
+     * @param axis to read
+     * @return slot to retrieve the value of the axis from, or NoInput if there is no input to read
+     */
+    public int registerAxis(UserInputDevice device, AnalogAxis axis)
+    {
+        int joystick = UserInputPlan.getJoystickIndex(device);
+        if (joystick == UserInputPlan.NoInput)
+        {
+            return UserInputPlan.NoInput;
+        }
+
+        AxisType axisType = AnalogOperationState.fromAxis(axis);
+        if (axisType == null)
+        {
+            return UserInputPlan.NoInput;
+        }
+
+        return this.register(UserInputPlan.AxisInput, joystick, axisType, 0);
+    }
+
+    /**
+     * Register a button that is used by a digital or macro operation
+     * @param device to read the button from
+     * @param button to read (POV is read as its current value)
+     * @return slot to retrieve the value of the button from, or NoInput if there is no input to read
+     */
+    public int registerButton(UserInputDevice device, UserInputDeviceButton button)
+    {
+        int joystick = UserInputPlan.getJoystickIndex(device);
+        if (joystick == UserInputPlan.NoInput)
+        {
+            return UserInputPlan.NoInput;
+        }
+
+        if (button == UserInputDeviceButton.JOYSTICK_POV)
+        {
+            return this.register(UserInputPlan.PovInput, joystick, null, 0);
+        }
+        else if (button != UserInputDeviceButton.NONE)
+        {
+            return this.register(UserInputPlan.ButtonInput, joystick, null, button.Value);
+        }
+
+        // a user input device without a button is never pressed
+        return this.register(UserInputPlan.ConstantInput, joystick, null, 0);
+    }
+
+    /**
+     * Gets the number of physical inputs that are read in each snapshot
+     * @return number of inputs
+     */
+    public int getInputCount()
+    {
+        return this.inputCount;
+    }
+
+    /**
+     * Take a snapshot of all of the physical inputs from the joysticks, and publish it to the reader
+     * (called on the main robot thread as driver station packets arrive)
+     */
+    public void sample()
+    {
+        double[] values = this.values[this.sampleIndex];
+        for (int i = 0; i < this.inputCount; i++)
+        {
+            IJoystick joystick = this.joysticks[this.inputJoysticks[i]];
+            switch (this.inputTypes[i])
+            {
+                case UserInputPlan.AxisInput:
+                    values[i] = joystick.getAxis(this.inputAxes[i]);
+                    break;
+
+                case UserInputPlan.ButtonInput:
+                    values[i] = joystick.getRawButton(this.inputButtons[i]) ? 1.0 : 0.0;
+                    break;
+
+                case UserInputPlan.PovInput:
+                    values[i] = joystick.getPOV();
+                    break;
+
+                default:
+                    values[i] = 0.0;
+                    break;
+            }
+        }
+
+        this.sampleIndex = this.latest.getAndSet(this.sampleIndex | UserInputPlan.FreshFlag) & UserInputPlan.IndexMask;
+    }
+
+    /**
+     * Pick up the most recently published snapshot (called by the thread that updates the driver)
+     * @return true if a new snapshot was published since the last read
+     */
+    public boolean read()
+    {
+        if ((this.latest.get() & UserInputPlan.FreshFlag) != 0)
+        {
+            this.readIndex = this.latest.getAndSet(this.readIndex) & UserInputPlan.IndexMask;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the value of an axis from the most recent snapshot
+     * @param slot of the axis, as returned by registerAxis
+     * @return the value of the axis
+     */
+    public double getAxis(int slot)
+    {
+        return this.values[this.readIndex][slot];
+    }
+
+    /**
+     * Gets whether a button was pressed in the most recent snapshot
+     * @param slot of the button, as returned by registerButton
+     * @param povValue that indicates the button is pressed, if the button is the POV
+     * @return true if the button was pressed
+     */
+    public boolean getButton(int slot, int povValue)
+    {
+        if (this.inputTypes[slot] == UserInputPlan.PovInput)
+        {
+            return (int)this.values[this.readIndex][slot] == povValue;
+        }
+
+        return this.values[this.readIndex][slot] != 0.0;
+    }
+
+    /**
+     * Find or add the slot for a physical input
+     * @param type of the input
+     * @param joystick index of the joystick to read the input from
+     * @param axis to read for axis inputs
+     * @param button number to read for button inputs
+     * @return slot for the input
+     */
+    private int register(byte type, int joystick, AxisType axis, int button)
+    {
+        for (int i = 0; i < this.inputCount; i++)
+        {
+            if (this.inputTypes[i] == type
+                && this.inputJoysticks[i] == joystick
+                && this.inputAxes[i] == axis
+                && this.inputButtons[i] == button)
+            {
+                return i;
+            }
+        }
+
+        // only happens while the plan is being compiled, so it is fine to grow the arrays one at a time
+        int slot = this.inputCount++;
+        this.inputTypes = Arrays.copyOf(this.inputTypes, this.inputCount);
+        this.inputJoysticks = Arrays.copyOf(this.inputJoysticks, this.inputCount);
+        this.inputAxes = Arrays.copyOf(this.inputAxes, this.inputCount);
+        this.inputButtons = Arrays.copyOf(this.inputButtons, this.inputCount);
+        for (int i = 0; i < UserInputPlan.BufferCount; i++)
+        {
+            this.values[i] = Arrays.copyOf(this.values[i], this.inputCount);
+        }
+
+        this.inputTypes[slot] = type;
+        this.inputJoysticks[slot] = joystick;
+        this.inputAxes[slot] = axis;
+        this.inputButtons[slot] = button;
+        return slot;
+    }
+
+    /**
+     * Gets the index of the joystick for a user input device
+     * @param device to find
+     * @return index of the joystick, or NoInput if the device isn't a joystick
+     */
+    private static int getJoystickIndex(UserInputDevice device)
+    {
+        switch (device)
+        {
+            case None:
+                return UserInputPlan.NoInput;
+
+            case Driver:
+                return 0;
+
+            case CoDriver:
+                return 1;
+
+            case Sensor:
+            default:
+                if (TuningConstants.THROW_EXCEPTIONS)
+                {
+                    throw new RuntimeException("unexpected user input device " + device.toString());
+                }
+
+                return UserInputPlan.NoInput;
+        }
+    }
+}
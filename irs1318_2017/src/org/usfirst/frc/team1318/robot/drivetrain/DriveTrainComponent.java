@@ -1,6 +1,7 @@
 package org.usfirst.frc.team1318.robot.drivetrain;
 
 import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.LoggingKey;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.IEncoder;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.IMotor;
 
@@ -18,6 +19,14 @@ public class DriveTrainComponent
 {
     private final static String LogName = "dt";
     private final IDashboardLogger logger;
+    private final LoggingKey leftPowerLogKey;
+    private final LoggingKey rightPowerLogKey;
+    private final LoggingKey leftVelocityLogKey;
+    private final LoggingKey rightVelocityLogKey;
+    private final LoggingKey leftDistanceLogKey;
+    private final LoggingKey rightDistanceLogKey;
+    private final LoggingKey leftTicksLogKey;
+    private final LoggingKey rightTicksLogKey;
 
     private final IMotor leftMotor;
     private final IMotor rightMotor;
@@ -37,6 +46,14 @@ public class DriveTrainComponent
         @Named("DRIVETRAIN_RIGHTENCODER") IEncoder rightEncoder)
     {
         this.logger = logger;
+        this.leftPowerLogKey = logger.registerKey(DriveTrainComponent.LogName, "leftPower");
+        this.rightPowerLogKey = logger.registerKey(DriveTrainComponent.LogName, "rightPower");
+        this.leftVelocityLogKey = logger.registerKey(DriveTrainComponent.LogName, "leftVelocity");
+        this.rightVelocityLogKey = logger.registerKey(DriveTrainComponent.LogName, "rightVelocity");
+        this.leftDistanceLogKey = logger.registerKey(DriveTrainComponent.LogName, "leftDistance");
+        this.rightDistanceLogKey = logger.registerKey(DriveTrainComponent.LogName, "rightDistance");
+        this.leftTicksLogKey = logger.registerKey(DriveTrainComponent.LogName, "leftTicks");
+        this.rightTicksLogKey = logger.registerKey(DriveTrainComponent.LogName, "rightTicks");
 
         this.leftMotor = leftMotor;
         this.rightMotor = rightMotor;
@@ -51,8 +68,8 @@ public class DriveTrainComponent
      */
     public void setDriveTrainPower(double leftPower, double rightPower)
     {
-        this.logger.logNumber(DriveTrainComponent.LogName, "leftPower", leftPower);
-        this.logger.logNumber(DriveTrainComponent.LogName, "rightPower", rightPower);
+        this.logger.logNumber(this.leftPowerLogKey, leftPower);
+        this.logger.logNumber(this.rightPowerLogKey, rightPower);
 
         double outLeftPower = leftPower;
         double outRightPower = -rightPower;// note: right motors are oriented facing "backwards"
@@ -68,7 +85,7 @@ public class DriveTrainComponent
     public double getLeftEncoderVelocity()
     {
         double leftVelocity = -this.leftEncoder.getRate();
-        this.logger.logNumber(DriveTrainComponent.LogName, "leftVelocity", leftVelocity);
+        this.logger.logNumber(this.leftVelocityLogKey, leftVelocity);
         return leftVelocity;
     }
 
@@ -79,7 +96,7 @@ public class DriveTrainComponent
     public double getRightEncoderVelocity()
     {
         double rightVelocity = this.rightEncoder.getRate();
-        this.logger.logNumber(DriveTrainComponent.LogName, "rightVelocity", rightVelocity);
+        this.logger.logNumber(this.rightVelocityLogKey, rightVelocity);
         return rightVelocity;
     }
 
@@ -90,7 +107,7 @@ public class DriveTrainComponent
     public double getLeftEncoderDistance()
     {
         double leftDistance = -this.leftEncoder.getDistance();
-        this.logger.logNumber(DriveTrainComponent.LogName, "leftDistance", leftDistance);
+        this.logger.logNumber(this.leftDistanceLogKey, leftDistance);
         return leftDistance;
     }
 
@@ -101,7 +118,7 @@ public class DriveTrainComponent
     public double getRightEncoderDistance()
     {
         double rightDistance = this.rightEncoder.getDistance();
-        this.logger.logNumber(DriveTrainComponent.LogName, "rightDistance", rightDistance);
+        this.logger.logNumber(this.rightDistanceLogKey, rightDistance);
         return rightDistance;
     }
 
@@ -112,7 +129,7 @@ public class DriveTrainComponent
     public int getLeftEncoderTicks()
     {
         int leftTicks = -this.leftEncoder.get();
-        this.logger.logNumber(DriveTrainComponent.LogName, "leftTicks", leftTicks);
+        this.logger.logNumber(this.leftTicksLogKey, leftTicks);
         return leftTicks;
     }
 
@@ -123,7 +140,7 @@ public class DriveTrainComponent
     public int getRightEncoderTicks()
     {
         int rightTicks = this.rightEncoder.get();
-        this.logger.logNumber(DriveTrainComponent.LogName, "rightTicks", rightTicks);
+        this.logger.logNumber(this.rightTicksLogKey, rightTicks);
         return rightTicks;
     }
 
@@ -4,6 +4,8 @@ import org.usfirst.frc.team1318.robot.TuningConstants;
 import org.usfirst.frc.team1318.robot.common.Helpers;
 import org.usfirst.frc.team1318.robot.common.IController;
 import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.LoggingKey;
+import org.usfirst.frc.team1318.robot.common.PIDBank;
 import org.usfirst.frc.team1318.robot.common.PIDHandler;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
 import org.usfirst.frc.team1318.robot.driver.Driver;
@@ -25,6 +27,10 @@ public class DriveTrainController implements IController
     private static final double POWERLEVEL_MAX = 1.0;
 
     private final IDashboardLogger logger;
+    private final LoggingKey leftVelocityGoalLogKey;
+    private final LoggingKey rightVelocityGoalLogKey;
+    private final LoggingKey leftPositionGoalLogKey;
+    private final LoggingKey rightPositionGoalLogKey;
     private final ITimer timer;
     private final DriveTrainComponent component;
 
@@ -32,8 +38,10 @@ public class DriveTrainController implements IController
 
     private boolean usePID;
     private boolean usePositionalMode;
-    private PIDHandler leftPID;
-    private PIDHandler rightPID;
+    private final PIDBank pidBank;
+    private final PIDHandler leftPID;
+    private final PIDHandler rightPID;
+    private final PowerSetting powerSetting;
 
     /**
      * Initializes a new DriveTrainController
@@ -47,13 +55,44 @@ public class DriveTrainController implements IController
         DriveTrainComponent component)
     {
         this.logger = logger;
+        this.leftVelocityGoalLogKey = logger.registerKey(DriveTrainController.LogName, "leftVelocityGoal");
+        this.rightVelocityGoalLogKey = logger.registerKey(DriveTrainController.LogName, "rightVelocityGoal");
+        this.leftPositionGoalLogKey = logger.registerKey(DriveTrainController.LogName, "leftPositionGoal");
+        this.rightPositionGoalLogKey = logger.registerKey(DriveTrainController.LogName, "rightPositionGoal");
         this.timer = timer;
         this.component = component;
 
         this.usePID = TuningConstants.DRIVETRAIN_USE_PID;
         this.usePositionalMode = false;
 
-        this.createPIDHandler();
+        // the PID handlers are re-configured (rather than re-created) whenever we switch modes, and share a bank so that
+        // both sides are calculated together from the same timestamp
+        this.pidBank = new PIDBank(this.timer);
+        this.leftPID = new PIDHandler(
+            this.pidBank,
+            TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KP,
+            TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KI,
+            TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KD,
+            TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KF,
+            TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KS,
+            -TuningConstants.DRIVETRAIN_VELOCITY_MAX_POWER_LEVEL,
+            TuningConstants.DRIVETRAIN_VELOCITY_MAX_POWER_LEVEL,
+            "leftDT",
+            this.logger);
+
+        this.rightPID = new PIDHandler(
+            this.pidBank,
+            TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KP,
+            TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KI,
+            TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KD,
+            TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KF,
+            TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KS,
+            -TuningConstants.DRIVETRAIN_VELOCITY_MAX_POWER_LEVEL,
+            TuningConstants.DRIVETRAIN_VELOCITY_MAX_POWER_LEVEL,
+            "rightDT",
+            this.logger);
+
+        this.powerSetting = new PowerSetting();
     }
 
     /**
@@ -71,10 +110,20 @@ public class DriveTrainController implements IController
             this.usePID = TuningConstants.DRIVETRAIN_USE_PID;
             this.usePositionalMode = false;
 
-            this.createPIDHandler();
+            this.configurePIDHandlers();
         }
     }
 
+    /**
+     * get how often the controller should be updated
+     * @return the desired number of seconds between updates
+     */
+    @Override
+    public double getUpdatePeriod()
+    {
+        return TuningConstants.CONTROLLER_UPDATE_EVERY_LOOP;
+    }
+
     /**
      * calculate the various outputs to use based on the inputs and apply them to the outputs for the relevant component
      */
@@ -84,12 +133,12 @@ public class DriveTrainController implements IController
         if (this.driver.getDigital(Operation.DriveTrainEnablePID))
         {
             this.usePID = true;
-            this.createPIDHandler();
+            this.configurePIDHandlers();
         }
         else if (this.driver.getDigital(Operation.DriveTrainDisablePID))
         {
             this.usePID = false;
-            this.createPIDHandler();
+            this.configurePIDHandlers();
         }
 
         // check our desired PID mode (needed for positional mode or break mode)
@@ -99,7 +148,7 @@ public class DriveTrainController implements IController
             this.usePositionalMode = newUsePositionalMode;
 
             // re-create PID handler
-            this.createPIDHandler();
+            this.configurePIDHandlers();
         }
 
         // calculate desired power setting for the current mode
@@ -141,78 +190,54 @@ public class DriveTrainController implements IController
     {
         this.component.setDriveTrainPower(0.0, 0.0);
         this.component.reset();
-        if (this.leftPID != null)
-        {
-            this.leftPID.reset();
-        }
-
-        if (this.rightPID != null)
-        {
-            this.rightPID.reset();
-        }
+        this.leftPID.reset();
+        this.rightPID.reset();
     }
 
     /**
-     * create a PIDHandler based on our current settings
+     * configure the PID handlers based on our current settings
      */
-    private void createPIDHandler()
+    private void configurePIDHandlers()
     {
-        if (!this.usePID)
+        if (this.usePositionalMode)
         {
-            this.leftPID = null;
-            this.rightPID = null;
+            this.leftPID.configure(
+                TuningConstants.DRIVETRAIN_POSITION_PID_LEFT_KP,
+                TuningConstants.DRIVETRAIN_POSITION_PID_LEFT_KI,
+                TuningConstants.DRIVETRAIN_POSITION_PID_LEFT_KD,
+                TuningConstants.DRIVETRAIN_POSITION_PID_LEFT_KF,
+                1.0,
+                -TuningConstants.DRIVETRAIN_POSITIONAL_MAX_POWER_LEVEL,
+                TuningConstants.DRIVETRAIN_POSITIONAL_MAX_POWER_LEVEL);
+
+            this.rightPID.configure(
+                TuningConstants.DRIVETRAIN_POSITION_PID_RIGHT_KP,
+                TuningConstants.DRIVETRAIN_POSITION_PID_RIGHT_KI,
+                TuningConstants.DRIVETRAIN_POSITION_PID_RIGHT_KD,
+                TuningConstants.DRIVETRAIN_POSITION_PID_RIGHT_KF,
+                1.0,
+                -TuningConstants.DRIVETRAIN_POSITIONAL_MAX_POWER_LEVEL,
+                TuningConstants.DRIVETRAIN_POSITIONAL_MAX_POWER_LEVEL);
         }
         else
         {
-            if (this.usePositionalMode)
-            {
-                this.leftPID = new PIDHandler(
-                    TuningConstants.DRIVETRAIN_POSITION_PID_LEFT_KP,
-                    TuningConstants.DRIVETRAIN_POSITION_PID_LEFT_KI,
-                    TuningConstants.DRIVETRAIN_POSITION_PID_LEFT_KD,
-                    TuningConstants.DRIVETRAIN_POSITION_PID_LEFT_KF,
-                    1.0,
-                    -TuningConstants.DRIVETRAIN_POSITIONAL_MAX_POWER_LEVEL,
-                    TuningConstants.DRIVETRAIN_POSITIONAL_MAX_POWER_LEVEL,
-                    this.timer);
-
-                this.rightPID = new PIDHandler(
-                    TuningConstants.DRIVETRAIN_POSITION_PID_RIGHT_KP,
-                    TuningConstants.DRIVETRAIN_POSITION_PID_RIGHT_KI,
-                    TuningConstants.DRIVETRAIN_POSITION_PID_RIGHT_KD,
-                    TuningConstants.DRIVETRAIN_POSITION_PID_RIGHT_KF,
-                    1.0,
-                    -TuningConstants.DRIVETRAIN_POSITIONAL_MAX_POWER_LEVEL,
-                    TuningConstants.DRIVETRAIN_POSITIONAL_MAX_POWER_LEVEL,
-                    this.timer);
-            }
-            else
-            {
-                this.leftPID = new PIDHandler(
-                    TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KP,
-                    TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KI,
-                    TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KD,
-                    TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KF,
-                    TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KS,
-                    -TuningConstants.DRIVETRAIN_VELOCITY_MAX_POWER_LEVEL,
-                    TuningConstants.DRIVETRAIN_VELOCITY_MAX_POWER_LEVEL,
-                    "leftDT",
-                    this.logger,
-                    this.timer);
-
-                this.rightPID = new PIDHandler(
-                    TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KP,
-                    TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KI,
-                    TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KD,
-                    TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KF,
-                    TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KS,
-                    -TuningConstants.DRIVETRAIN_VELOCITY_MAX_POWER_LEVEL,
-                    TuningConstants.DRIVETRAIN_VELOCITY_MAX_POWER_LEVEL,
-                    "rightDT",
-                    this.logger,
-                    this.timer);
-                ;
-            }
+            this.leftPID.configure(
+                TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KP,
+                TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KI,
+                TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KD,
+                TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KF,
+                TuningConstants.DRIVETRAIN_VELOCITY_PID_LEFT_KS,
+                -TuningConstants.DRIVETRAIN_VELOCITY_MAX_POWER_LEVEL,
+                TuningConstants.DRIVETRAIN_VELOCITY_MAX_POWER_LEVEL);
+
+            this.rightPID.configure(
+                TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KP,
+                TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KI,
+                TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KD,
+                TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KF,
+                TuningConstants.DRIVETRAIN_VELOCITY_PID_RIGHT_KS,
+                -TuningConstants.DRIVETRAIN_VELOCITY_MAX_POWER_LEVEL,
+                TuningConstants.DRIVETRAIN_VELOCITY_MAX_POWER_LEVEL);
         }
     }
 
@@ -276,21 +301,20 @@ public class DriveTrainController implements IController
         leftVelocityGoal = leftVelocityGoal * TuningConstants.DRIVETRAIN_MAX_POWER_LEVEL;
         rightVelocityGoal = rightVelocityGoal * TuningConstants.DRIVETRAIN_MAX_POWER_LEVEL;
 
-        this.logger.logNumber(DriveTrainController.LogName, "leftVelocityGoal", leftVelocityGoal);
-        this.logger.logNumber(DriveTrainController.LogName, "rightVelocityGoal", rightVelocityGoal);
+        this.logger.logNumber(this.leftVelocityGoalLogKey, leftVelocityGoal);
+        this.logger.logNumber(this.rightVelocityGoalLogKey, rightVelocityGoal);
 
         // convert velocity goal to power level...
         double leftPower;
         double rightPower;
         if (this.usePID)
         {
-            leftPower = this.leftPID.calculateVelocity(
-                leftVelocityGoal,
-                currentLeftTicks);
+            this.leftPID.setVelocityInput(leftVelocityGoal, currentLeftTicks);
+            this.rightPID.setVelocityInput(rightVelocityGoal, currentRightTicks);
+            this.pidBank.update();
 
-            rightPower = this.rightPID.calculateVelocity(
-                rightVelocityGoal,
-                currentRightTicks);
+            leftPower = this.leftPID.getCurrentOutput();
+            rightPower = this.rightPID.getCurrentOutput();
         }
         else
         {
@@ -303,7 +327,8 @@ public class DriveTrainController implements IController
         leftPower = this.applyPowerLevelRange(leftPower);
         rightPower = this.applyPowerLevelRange(rightPower);
 
-        return new PowerSetting(leftPower, rightPower);
+        this.powerSetting.set(leftPower, rightPower);
+        return this.powerSetting;
     }
 
     /**
@@ -316,6 +341,12 @@ public class DriveTrainController implements IController
         double leftPosition = this.driver.getAnalog(Operation.DriveTrainLeftPosition);
         double rightPosition = this.driver.getAnalog(Operation.DriveTrainRightPosition);
 
+        // get the velocity and acceleration the route expects at those positions, for feed-forward
+        double leftVelocity = this.driver.getAnalog(Operation.DriveTrainLeftVelocity);
+        double rightVelocity = this.driver.getAnalog(Operation.DriveTrainRightVelocity);
+        double leftAcceleration = this.driver.getAnalog(Operation.DriveTrainLeftAcceleration);
+        double rightAcceleration = this.driver.getAnalog(Operation.DriveTrainRightAcceleration);
+
         // get the current encoder distance from the component.
         double leftDistance = this.component.getLeftEncoderDistance();
         double rightDistance = this.component.getRightEncoderDistance();
@@ -324,16 +355,34 @@ public class DriveTrainController implements IController
         this.component.getLeftEncoderVelocity();
         this.component.getRightEncoderVelocity();
 
-        this.logger.logNumber(DriveTrainController.LogName, "leftPositionGoal", leftPosition);
-        this.logger.logNumber(DriveTrainController.LogName, "rightPositionGoal", rightPosition);
+        this.logger.logNumber(this.leftPositionGoalLogKey, leftPosition);
+        this.logger.logNumber(this.rightPositionGoalLogKey, rightPosition);
 
         double leftPower;
         double rightPower;
         if (this.usePID)
         {
             // use positional PID to get the relevant value
-            leftPower = this.leftPID.calculatePosition(leftPosition, leftDistance);
-            rightPower = this.rightPID.calculatePosition(rightPosition, rightDistance);
+            this.leftPID.setPositionInput(leftPosition, leftDistance);
+            this.rightPID.setPositionInput(rightPosition, rightDistance);
+            this.pidBank.update();
+
+            // add feed-forward for the motion profile, so that the PID only needs to correct for the error from it
+            leftPower = this.leftPID.getCurrentOutput()
+                + TuningConstants.DRIVETRAIN_POSITION_PID_LEFT_KV * leftVelocity
+                + TuningConstants.DRIVETRAIN_POSITION_PID_LEFT_KA * leftAcceleration;
+            rightPower = this.rightPID.getCurrentOutput()
+                + TuningConstants.DRIVETRAIN_POSITION_PID_RIGHT_KV * rightVelocity
+                + TuningConstants.DRIVETRAIN_POSITION_PID_RIGHT_KA * rightAcceleration;
+
+            leftPower = Helpers.EnforceRange(
+                leftPower,
+                -TuningConstants.DRIVETRAIN_POSITIONAL_MAX_POWER_LEVEL,
+                TuningConstants.DRIVETRAIN_POSITIONAL_MAX_POWER_LEVEL);
+            rightPower = Helpers.EnforceRange(
+                rightPower,
+                -TuningConstants.DRIVETRAIN_POSITIONAL_MAX_POWER_LEVEL,
+                TuningConstants.DRIVETRAIN_POSITIONAL_MAX_POWER_LEVEL);
         }
         else
         {
@@ -358,7 +407,8 @@ public class DriveTrainController implements IController
         this.assertPowerLevelRange(leftPower, "left velocity (goal)");
         this.assertPowerLevelRange(rightPower, "right velocity (goal)");
 
-        return new PowerSetting(leftPower, rightPower);
+        this.powerSetting.set(leftPower, rightPower);
+        return this.powerSetting;
     }
 
     /**
@@ -402,6 +452,7 @@ public class DriveTrainController implements IController
     /**
      * Simple holder of power setting information for the left and right motor
      * (This exists only to allow splitting out common code and have only one return value, because Java doesn't support multi-return)
+     * A single instance is re-used for each update, so that we don't allocate within the robot loop.
      */
     private class PowerSetting
     {
@@ -409,11 +460,11 @@ public class DriveTrainController implements IController
         private double rightPower;
 
         /**
-         * Initializes a new PowerSetting
+         * Sets the power settings
          * @param leftPower to apply
          * @param rightPower to apply
          */
-        public PowerSetting(double leftPower, double rightPower)
+        public void set(double leftPower, double rightPower)
         {
             this.leftPower = leftPower;
             this.rightPower = rightPower;
@@ -4,6 +4,9 @@ import org.usfirst.frc.team1318.robot.HardwareConstants;
 import org.usfirst.frc.team1318.robot.TuningConstants;
 import org.usfirst.frc.team1318.robot.common.IController;
 import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.LoggingKey;
+import org.usfirst.frc.team1318.robot.common.ValueHistory;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
 import org.usfirst.frc.team1318.robot.driver.Driver;
 import org.usfirst.frc.team1318.robot.driver.autonomous.AutonomousDriver;
 import org.usfirst.frc.team1318.robot.drivetrain.DriveTrainComponent;
@@ -24,7 +27,14 @@ public class PositionManager implements IController
     private final static String LogName = "pos";
 
     private final IDashboardLogger logger;
+    private final LoggingKey odomAngleLogKey;
+    private final LoggingKey odomXLogKey;
+    private final LoggingKey odomYLogKey;
+    private final LoggingKey navxAngleLogKey;
+    private final LoggingKey navxXLogKey;
+    private final LoggingKey navxYLogKey;
     private final DriveTrainComponent driveTrainComponent;
+    private final ITimer timer;
     //private final AHRS navx;
 
     // Position coordinates
@@ -34,6 +44,10 @@ public class PositionManager implements IController
     // Orientation
     private double angle;
 
+    // recent history of the orientation (in degrees, without wrapping around), for compensating for sensor latency
+    private final ValueHistory angleHistory;
+    private double unwrappedAngle;
+
     // previous data (from which we will calculate changes)
     private double prevLeftDistance;
     private double prevRightDistance;
@@ -41,14 +55,23 @@ public class PositionManager implements IController
     /**
      * Initializes a new PositionManager
      * @param driveTrainComponent to use to determine position changes
+     * @param timer to use to record when position changes occur
      */
     @Inject
     public PositionManager(
         IDashboardLogger logger,
-        DriveTrainComponent driveTrainComponent)
+        DriveTrainComponent driveTrainComponent,
+        ITimer timer)
     {
         this.logger = logger;
+        this.odomAngleLogKey = logger.registerKey(PositionManager.LogName, "odom_angle");
+        this.odomXLogKey = logger.registerKey(PositionManager.LogName, "odom_x");
+        this.odomYLogKey = logger.registerKey(PositionManager.LogName, "odom_y");
+        this.navxAngleLogKey = logger.registerKey(PositionManager.LogName, "navx_angle");
+        this.navxXLogKey = logger.registerKey(PositionManager.LogName, "navx_x");
+        this.navxYLogKey = logger.registerKey(PositionManager.LogName, "navx_y");
         this.driveTrainComponent = driveTrainComponent;
+        this.timer = timer;
         //this.navx = new AHRS(SPI.Port.kMXP);
 
         this.x = 0.0;
@@ -56,6 +79,9 @@ public class PositionManager implements IController
 
         this.angle = 0.0;
 
+        this.angleHistory = new ValueHistory(TuningConstants.POSITION_HISTORY_LENGTH);
+        this.unwrappedAngle = 0.0;
+
         this.prevLeftDistance = 0.0;
         this.prevRightDistance = 0.0;
     }
@@ -74,6 +100,16 @@ public class PositionManager implements IController
         }
     }
 
+    /**
+     * get how often the controller should be updated
+     * @return the desired number of seconds between updates
+     */
+    @Override
+    public double getUpdatePeriod()
+    {
+        return TuningConstants.CONTROLLER_UPDATE_EVERY_LOOP;
+    }
+
     /**
      * calculate the various outputs to use based on the inputs and apply them to the outputs for the relevant component
      */
@@ -103,19 +139,21 @@ public class PositionManager implements IController
         this.x += averagePositionChange * Math.cos(angleR);
         this.y += averagePositionChange * Math.sin(angleR);
 
-        this.angle = (angleR * 360 / (2 * Math.PI)) % 360;
+        this.unwrappedAngle = angleR * 360 / (2 * Math.PI);
+        this.angle = this.unwrappedAngle % 360;
+        this.angleHistory.add(this.timer.get(), this.unwrappedAngle);
 
         // record distance for next time
         this.prevLeftDistance = leftDistance;
         this.prevRightDistance = rightDistance;
 
         // log the current position and orientation
-        this.logger.logNumber(PositionManager.LogName, "odom_angle", this.getOdometryAngle());
-        this.logger.logNumber(PositionManager.LogName, "odom_x", this.getOdometryX());
-        this.logger.logNumber(PositionManager.LogName, "odom_y", this.getOdometryY());
-        this.logger.logNumber(PositionManager.LogName, "navx_angle", this.getNavxAngle());
-        this.logger.logNumber(PositionManager.LogName, "navx_x", this.getNavxX());
-        this.logger.logNumber(PositionManager.LogName, "navx_y", this.getNavxY());
+        this.logger.logNumber(this.odomAngleLogKey, this.getOdometryAngle());
+        this.logger.logNumber(this.odomXLogKey, this.getOdometryX());
+        this.logger.logNumber(this.odomYLogKey, this.getOdometryY());
+        this.logger.logNumber(this.navxAngleLogKey, this.getNavxAngle());
+        this.logger.logNumber(this.navxXLogKey, this.getNavxX());
+        this.logger.logNumber(this.navxYLogKey, this.getNavxY());
     }
 
     /**
@@ -136,6 +174,22 @@ public class PositionManager implements IController
         return this.angle;
     }
 
+    /**
+     * Retrieve how far the robot has turned since a time in the recent past (e.g. when a camera frame was captured)
+     * @param time in the past, from the robot's timer
+     * @return the change in angle in degrees (positive is clockwise), or 0 if there is no history yet
+     */
+    public double getOdometryAngleChangeSince(double time)
+    {
+        double pastAngle = this.angleHistory.getValueAt(time);
+        if (Double.isNaN(pastAngle))
+        {
+            return 0.0;
+        }
+
+        return this.unwrappedAngle - pastAngle;
+    }
+
     /**
      * Retrieve the current x position
      * @return the current x position
@@ -191,6 +245,9 @@ public class PositionManager implements IController
 
         this.angle = 0.0;
 
+        this.angleHistory.clear();
+        this.unwrappedAngle = 0.0;
+
         this.prevLeftDistance = 0.0;
         this.prevRightDistance = 0.0;
     }
@@ -1,5 +1,6 @@
 package org.usfirst.frc.team1318.robot.general;
 
+import org.usfirst.frc.team1318.robot.TuningConstants;
 import org.usfirst.frc.team1318.robot.common.ComplementaryFilter;
 import org.usfirst.frc.team1318.robot.common.IController;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.IPowerDistributionPanel;
@@ -58,4 +59,10 @@ public class PowerManager implements IController
     {
         // no-op
     }
+
+    @Override
+    public double getUpdatePeriod()
+    {
+        return TuningConstants.POWER_MANAGER_UPDATE_PERIOD;
+    }
 }
@@ -2,6 +2,7 @@ package org.usfirst.frc.team1318.robot.intake;
 
 import org.usfirst.frc.team1318.robot.TuningConstants;
 import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.LoggingKey;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.DoubleSolenoidValue;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.IAnalogInput;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.IDoubleSolenoid;
@@ -18,6 +19,9 @@ public class IntakeComponent
     private static final String LogName = "intake";
 
     private final IDashboardLogger logger;
+    private final LoggingKey motorLogKey;
+    private final LoggingKey throughBeamLogKey;
+    private final LoggingKey gearIndicatorLogKey;
     private final IMotor motor;
     private final IDoubleSolenoid armExtender;
     private final IDoubleSolenoid conveyorExtender;
@@ -36,6 +40,9 @@ public class IntakeComponent
         @Named("INTAKE_GEAR_INDICATOR_LIGHT") ISolenoid gearIndicator)
     {
         this.logger = logger;
+        this.motorLogKey = logger.registerKey(IntakeComponent.LogName, "motor");
+        this.throughBeamLogKey = logger.registerKey(IntakeComponent.LogName, "throughBeam");
+        this.gearIndicatorLogKey = logger.registerKey(IntakeComponent.LogName, "gearIndicator");
         this.motor = motor;
         this.armExtender = armExtender;
         this.conveyorExtender = conveyorExtender;
@@ -47,7 +54,7 @@ public class IntakeComponent
     public void setMotorSpeed(double speed)
     {
         this.motor.set(speed);
-        this.logger.logNumber(IntakeComponent.LogName, "motor", speed);
+        this.logger.logNumber(this.motorLogKey, speed);
     }
 
     public void extendArm(boolean extend)
@@ -89,14 +96,14 @@ public class IntakeComponent
     public boolean getThroughBeamBroken()
     {
         double voltage = this.throughBeamSensor.getVoltage();
-        this.logger.logNumber(IntakeComponent.LogName, "throughBeam", voltage);
+        this.logger.logNumber(this.throughBeamLogKey, voltage);
         return voltage > TuningConstants.THROUGH_BEAM_BROKEN_VOLTAGE_MIN;
     }
 
     public void setIndicator(boolean on)
     {
         this.gearIndicator.set(on);
-        this.logger.logBoolean(IntakeComponent.LogName, "gearIndicator", on);
+        this.logger.logBoolean(this.gearIndicatorLogKey, on);
     }
 
     public void stop()
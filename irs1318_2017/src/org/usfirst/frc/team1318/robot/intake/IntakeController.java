@@ -92,4 +92,10 @@ public class IntakeController implements IController
     {
         this.driver = driver;
     }
+
+    @Override
+    public double getUpdatePeriod()
+    {
+        return TuningConstants.CONTROLLER_UPDATE_EVERY_LOOP;
+    }
 }
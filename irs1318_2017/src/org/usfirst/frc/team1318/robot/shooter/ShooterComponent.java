@@ -1,6 +1,7 @@
 package org.usfirst.frc.team1318.robot.shooter;
 
 import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.LoggingKey;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.CANTalonControlMode;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.DoubleSolenoidValue;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.ICANTalon;
@@ -21,6 +22,12 @@ public class ShooterComponent
     private static final String LogName = "shooter";
 
     private final IDashboardLogger logger;
+    private final LoggingKey powerLogKey;
+    private final LoggingKey feederPowerLogKey;
+    private final LoggingKey ticksLogKey;
+    private final LoggingKey speedLogKey;
+    private final LoggingKey errorLogKey;
+    private final LoggingKey hoodLogKey;
     private final IDoubleSolenoid hood;
     private final IMotor feeder;
     private final ISolenoid readyLight;
@@ -38,6 +45,12 @@ public class ShooterComponent
         @Named("SHOOTER_SHOOTER") ICANTalon shooter)
     {
         this.logger = logger;
+        this.powerLogKey = logger.registerKey(ShooterComponent.LogName, "power");
+        this.feederPowerLogKey = logger.registerKey(ShooterComponent.LogName, "feederPower");
+        this.ticksLogKey = logger.registerKey(ShooterComponent.LogName, "ticks");
+        this.speedLogKey = logger.registerKey(ShooterComponent.LogName, "speed");
+        this.errorLogKey = logger.registerKey(ShooterComponent.LogName, "error");
+        this.hoodLogKey = logger.registerKey(ShooterComponent.LogName, "hood");
 
         this.hood = hood;
         this.feeder = feeder;
@@ -57,40 +70,40 @@ public class ShooterComponent
             this.shooter.changeControlMode(CANTalonControlMode.Speed);
         }
 
-        this.logger.logNumber(ShooterComponent.LogName, "power", power);
+        this.logger.logNumber(this.powerLogKey, power);
         this.shooter.set(power);
     }
 
     public void setFeederPower(double power)
     {
-        this.logger.logNumber(ShooterComponent.LogName, "feederPower", power);
+        this.logger.logNumber(this.feederPowerLogKey, power);
         this.feeder.set(-power); // motor installed backwards
     }
 
     public int getShooterTicks()
     {
         int ticks = this.shooter.getTicks();
-        this.logger.logNumber(ShooterComponent.LogName, "ticks", ticks);
+        this.logger.logNumber(this.ticksLogKey, ticks);
         return ticks;
     }
 
     public double getShooterSpeed()
     {
         double speed = this.shooter.getSpeed();
-        this.logger.logNumber(ShooterComponent.LogName, "speed", speed);
+        this.logger.logNumber(this.speedLogKey, speed);
         return speed;
     }
 
     public double getShooterError()
     {
         double error = this.shooter.getError();
-        this.logger.logNumber(ShooterComponent.LogName, "error", error);
+        this.logger.logNumber(this.errorLogKey, error);
         return error;
     }
 
     public void extendHood(boolean extend)
     {
-        this.logger.logString(ShooterComponent.LogName, "hood", extend ? "extend" : "retract");
+        this.logger.logString(this.hoodLogKey, extend ? "extend" : "retract");
         if (extend)
         {
             this.hood.set(DoubleSolenoidValue.kForward);
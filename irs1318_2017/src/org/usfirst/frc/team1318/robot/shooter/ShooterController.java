@@ -3,6 +3,7 @@ package org.usfirst.frc.team1318.robot.shooter;
 import org.usfirst.frc.team1318.robot.TuningConstants;
 import org.usfirst.frc.team1318.robot.common.IController;
 import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.LoggingKey;
 import org.usfirst.frc.team1318.robot.driver.Driver;
 import org.usfirst.frc.team1318.robot.driver.Operation;
 
@@ -14,6 +15,8 @@ public class ShooterController implements IController
 
     private final ShooterComponent shooter;
     private final IDashboardLogger logger;
+    private final LoggingKey speedGoalLogKey;
+    private final LoggingKey errorPercentageLogKey;
 
     private boolean feederWait;
     private boolean usePID;
@@ -25,6 +28,8 @@ public class ShooterController implements IController
         ShooterComponent shooter)
     {
         this.logger = logger;
+        this.speedGoalLogKey = logger.registerKey(ShooterController.LogName, "speedGoal");
+        this.errorPercentageLogKey = logger.registerKey(ShooterController.LogName, "error%");
         this.shooter = shooter;
         this.feederWait = TuningConstants.SHOOTER_USE_CAN_PID;
         this.usePID = TuningConstants.SHOOTER_USE_CAN_PID;
@@ -78,8 +83,8 @@ public class ShooterController implements IController
         this.shooter.getShooterSpeed();
         double error = this.shooter.getShooterError();
         double errorPercentage = error / shooterSpeedGoal;
-        this.logger.logNumber(ShooterController.LogName, "speedGoal", shooterSpeedGoal);
-        this.logger.logNumber(ShooterController.LogName, "error%", errorPercentage * 100.0);
+        this.logger.logNumber(this.speedGoalLogKey, shooterSpeedGoal);
+        this.logger.logNumber(this.errorPercentageLogKey, errorPercentage * 100.0);
         boolean shooterIsUpToSpeed = false;
         if (shooterSpeedPercentage != 0.0)
         {
@@ -115,4 +120,10 @@ public class ShooterController implements IController
     {
         this.driver = driver;
     }
+
+    @Override
+    public double getUpdatePeriod()
+    {
+        return TuningConstants.CONTROLLER_UPDATE_EVERY_LOOP;
+    }
 }
@@ -16,6 +16,7 @@ public class VisionConstants
     public static final boolean DEBUG_SAVE_FRAMES = true;
     public static final int DEBUG_FRAME_OUTPUT_GAP = 20; // the number of frames to wait between saving debug image output
     public static final String DEBUG_OUTPUT_FOLDER = "/home/lvuser/vision/";
+    public static final long DEBUG_SAVE_FRAMES_MAX_QUEUED_BYTES = 4 * 1024 * 1024; // frames waiting to be saved beyond this are dropped (oldest first)
 
     // Conversion constants...
     public static final double ANGLE_TO_RADIANS = (Math.PI / 180.0f);
@@ -48,6 +49,10 @@ public class VisionConstants
     public static final int LIFECAM_CAMERA_OPERATOR_BRIGHTNESS = 35;
     public static final int LIFECAM_CAMERA_FPS = 20; // Max supported value is 30
 
+    // Frame capture constants
+    public static final double FRAME_GRAB_TIMEOUT = 0.225; // seconds to wait for a frame before checking whether we are still active
+    public static final double LIFECAM_CAPTURE_LATENCY = 0.05; // estimated seconds between the camera capturing a frame and us grabbing it
+
     // Undistort constants
     public static final boolean SHOULD_UNDISTORT = false;
 
@@ -56,9 +61,25 @@ public class VisionConstants
     public static final Scalar AXIS_HSV_FILTER_HIGH = new Scalar(90, 255, 255);
     public static final Scalar LIFECAM_HSV_FILTER_LOW = new Scalar(52, 150, 100);
     public static final Scalar LIFECAM_HSV_FILTER_HIGH = new Scalar(95, 255, 255);
+    public static final boolean HSV_FILTER_USE_LOOKUP_TABLE = true; // filter in a single pass using a BGR lookup table (built on startup)
 
     // Contour filtering constants
     public static final double CONTOUR_MIN_AREA = 25.0;
+    public static final int CONTOUR_ANALYSIS_THREADS = 2; // the roboRIO has two cores
+    public static final int CONTOUR_ANALYSIS_PARALLEL_THRESHOLD = 64; // below this many contours, it isn't worth splitting up the analysis
+
+    // Region of interest tracking constants
+    public static final boolean ROI_TRACKING_ENABLED = true;
+    public static final double ROI_PADDING_RATIO = 0.5; // pad each side of the last detection by half of its size
+    public static final int ROI_MIN_PADDING = 16; // pad each side of the last detection by at least 16 pixels
+    public static final double ROI_GROWTH_FACTOR = 1.5; // grow the region by 50% each frame the target is missed
+    public static final int ROI_MAX_MISSES = 3; // go back to processing the full frame after 3 misses in a row
+
+    // Coarse-to-fine detection constants
+    public static final int COARSE_TO_FINE_DOWNSCALE = 2; // when searching the full frame, first find the target within a half-resolution frame (1 disables)
+    public static final double COARSE_TO_FINE_PADDING_RATIO = 0.25; // pad each side of the rough location by a quarter of its size
+    public static final int COARSE_TO_FINE_FULL_SEARCH_INTERVAL = 15; // search the full frame anyway every 15 frames (about twice a second)
+    public static final int COARSE_TO_FINE_MAX_MISSES = 5; // search the full frame anyway after 5 empty downscaled frames in a row
 
     // Real Measurements
     public static final double GEAR_RETROREFLECTIVE_TAPE_HEIGHT = 5.0; // 5 inches tall
@@ -1,12 +1,17 @@
 package org.usfirst.frc.team1318.robot.vision;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.opencv.core.Point;
+import org.usfirst.frc.team1318.robot.TuningConstants;
 import org.usfirst.frc.team1318.robot.common.IController;
 import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+import org.usfirst.frc.team1318.robot.common.LoggingKey;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.ISolenoid;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
 import org.usfirst.frc.team1318.robot.driver.Driver;
 import org.usfirst.frc.team1318.robot.driver.Operation;
+import org.usfirst.frc.team1318.robot.vision.helpers.DebugFrameWriter;
 import org.usfirst.frc.team1318.robot.vision.pipelines.HSVGearCenterPipeline;
 import org.usfirst.frc.team1318.robot.vision.pipelines.HSVShooterCenterPipeline;
 import org.usfirst.frc.team1318.robot.vision.pipelines.ICentroidVisionPipeline;
@@ -17,7 +22,6 @@ import com.google.inject.name.Named;
 
 import edu.wpi.cscore.UsbCamera;
 import edu.wpi.first.wpilibj.vision.VisionRunner;
-import edu.wpi.first.wpilibj.vision.VisionThread;
 
 /**
  * Vision manager.
@@ -31,30 +35,34 @@ public class VisionManager implements IController, VisionRunner.Listener<ICentro
     private final static String LogName = "vision";
 
     private final IDashboardLogger logger;
+    private final LoggingKey centerLogKey;
+    private final LoggingKey fpsLogKey;
+    private final LoggingKey distLogKey;
+    private final LoggingKey dAngleLogKey;
+    private final LoggingKey mAngleLogKey;
+    private final LoggingKey savedFramesLogKey;
+    private final LoggingKey droppedFramesLogKey;
     private final ITimer timer;
     private final ISolenoid shooterLight;
     private final ISolenoid gearLight;
 
-    private final Object visionLock;
-    
     private final UsbCamera shooterCamera;
-    private final VisionThread shooterVisionThread;
+    private final VisionProcessingThread shooterVisionThread;
     private final HSVShooterCenterPipeline shooterVisionPipeline;
 
     private final UsbCamera gearCamera;
-    private final VisionThread gearVisionThread;
+    private final VisionProcessingThread gearVisionThread;
     private final HSVGearCenterPipeline gearVisionPipeline;
 
     private Driver driver;
     private VisionProcessingState currentState;
 
-    private Point center;
-
-    private Double desiredAngleX;
-    private Double measuredAngleX;
-    private Double distanceFromRobot;
+    // the latest result is replaced (never modified) by the vision threads, so readers always see a consistent snapshot without locking
+    private final AtomicLong resultSequenceNumber;
+    private volatile VisionResult latestResult;
 
-    private double lastMeasuredFps;
+    // sequence number of the last result that was logged
+    private long loggedSequenceNumber;
 
     /**
      * Initializes a new VisionManager
@@ -67,12 +75,17 @@ public class VisionManager implements IController, VisionRunner.Listener<ICentro
         @Named("VISION_GEAR_LIGHT") ISolenoid gearLight)
     {
         this.logger = logger;
+        this.centerLogKey = logger.registerKey(VisionManager.LogName, "center");
+        this.fpsLogKey = logger.registerKey(VisionManager.LogName, "fps");
+        this.distLogKey = logger.registerKey(VisionManager.LogName, "dist");
+        this.dAngleLogKey = logger.registerKey(VisionManager.LogName, "dAngle");
+        this.mAngleLogKey = logger.registerKey(VisionManager.LogName, "mAngle");
+        this.savedFramesLogKey = logger.registerKey(VisionManager.LogName, "savedFrames");
+        this.droppedFramesLogKey = logger.registerKey(VisionManager.LogName, "droppedFrames");
         this.timer = timer;
         this.shooterLight = shooterLight;
         this.gearLight = gearLight;
 
-        this.visionLock = new Object();
-
         this.shooterCamera = new UsbCamera("usb1", 1);
         this.shooterCamera.setResolution(VisionConstants.LIFECAM_CAMERA_RESOLUTION_X, VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y);;
         this.shooterCamera.setExposureAuto();
@@ -80,8 +93,7 @@ public class VisionManager implements IController, VisionRunner.Listener<ICentro
         this.shooterCamera.setFPS(VisionConstants.LIFECAM_CAMERA_FPS);
 
         this.shooterVisionPipeline = new HSVShooterCenterPipeline(this.timer, VisionConstants.SHOULD_UNDISTORT);
-        this.shooterVisionThread = new VisionThread(shooterCamera, this.shooterVisionPipeline, this);
-        this.shooterVisionThread.start();
+        this.shooterVisionThread = new VisionProcessingThread("shooterVision", this.shooterCamera, this.shooterVisionPipeline, this);
 
         this.gearCamera = new UsbCamera("usb0", 0);
         this.gearCamera.setResolution(VisionConstants.LIFECAM_CAMERA_RESOLUTION_X, VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y);
@@ -90,58 +102,53 @@ public class VisionManager implements IController, VisionRunner.Listener<ICentro
         this.gearCamera.setFPS(VisionConstants.LIFECAM_CAMERA_FPS);
 
         this.gearVisionPipeline = new HSVGearCenterPipeline(this.timer, VisionConstants.SHOULD_UNDISTORT);
-        this.gearVisionThread = new VisionThread(gearCamera, this.gearVisionPipeline, this);
-        this.gearVisionThread.start();
+        this.gearVisionThread = new VisionProcessingThread("gearVision", this.gearCamera, this.gearVisionPipeline, this);
 
         this.driver = null;
     	this.currentState = VisionProcessingState.None;
 
-        this.center = null;
-        this.desiredAngleX = null;
-        this.measuredAngleX = null;
-        this.distanceFromRobot = null;
+        this.resultSequenceNumber = new AtomicLong(0);
+        this.latestResult = VisionResult.Empty;
+        this.loggedSequenceNumber = -1L;
 
-        this.lastMeasuredFps = 0.0;
+        // start the threads last, as they publish their results through the fields above
+        this.shooterVisionThread.start();
+        this.gearVisionThread.start();
+    }
+
+    /**
+     * Gets the latest result from the vision pipeline.  Callers that use more than one value should get the result once
+     * and read the values from it, so that all of the values come from the same frame.
+     * @return latest vision result
+     */
+    public VisionResult getLatestResult()
+    {
+        return this.latestResult;
     }
 
     public Point getCenter()
     {
-        synchronized (this.visionLock)
-        {
-            return this.center;
-        }
+        return this.latestResult.getCenter();
     }
 
     public Double getMeasuredAngle()
     {
-        synchronized (this.visionLock)
-        {
-            return this.measuredAngleX;
-        }
+        return this.latestResult.getMeasuredAngle();
     }
 
     public Double getDesiredAngle()
     {
-        synchronized (this.visionLock)
-        {
-            return this.desiredAngleX;
-        }
+        return this.latestResult.getDesiredAngle();
     }
 
     public Double getMeasuredDistance()
     {
-        synchronized (this.visionLock)
-        {
-            return this.distanceFromRobot;
-        }
+        return this.latestResult.getMeasuredDistance();
     }
 
     public double getLastMeasuredFps()
     {
-        synchronized (this.visionLock)
-        {
-            return this.lastMeasuredFps;
-        }
+        return this.latestResult.getFps();
     }
 
     @Override
@@ -185,47 +192,67 @@ public class VisionManager implements IController, VisionRunner.Listener<ICentro
                 this.shooterCamera.setFPS(VisionConstants.LIFECAM_CAMERA_FPS);
             }
 
+            // only the camera for the current target captures and processes frames
             this.shooterLight.set(desiredState == VisionProcessingState.Shooter);
-            this.shooterVisionPipeline.setActivation(desiredState == VisionProcessingState.Shooter);
+            this.shooterVisionThread.setActivation(desiredState == VisionProcessingState.Shooter);
 
             this.gearLight.set(desiredState == VisionProcessingState.Gear);
-            this.gearVisionPipeline.setActivation(desiredState == VisionProcessingState.Gear);
+            this.gearVisionThread.setActivation(desiredState == VisionProcessingState.Gear);
 
             this.currentState = desiredState;
         }
 
-        Point center = this.getCenter();
-        this.logger.logPoint(VisionManager.LogName, "center", center);
+        // results only arrive at the camera's frame rate, so only log each one once
+        VisionResult result = this.latestResult;
+        if (result.getSequenceNumber() == this.loggedSequenceNumber)
+        {
+            return;
+        }
+
+        this.loggedSequenceNumber = result.getSequenceNumber();
+
+        Point center = result.getCenter();
+        this.logger.logPoint(this.centerLogKey, center);
+
+        Double fps = result.getFps();
+        this.logger.logNumber(this.fpsLogKey, fps);
 
-        Double fps = this.getLastMeasuredFps();
-        this.logger.logNumber(VisionManager.LogName, "fps", fps);
+        Double dist = result.getMeasuredDistance();
+        this.logger.logNumber(this.distLogKey, dist);
 
-        Double dist = this.getMeasuredDistance();
-        this.logger.logNumber(VisionManager.LogName, "dist", dist);
+        Double dAngle = result.getDesiredAngle();
+        this.logger.logNumber(this.dAngleLogKey, dAngle);
 
-        Double dAngle = this.getDesiredAngle();
-        this.logger.logNumber(VisionManager.LogName, "dAngle", dAngle);
+        Double mAngle = result.getMeasuredAngle();
+        this.logger.logNumber(this.mAngleLogKey, mAngle);
 
-        Double mAngle = this.getMeasuredAngle();
-        this.logger.logNumber(VisionManager.LogName, "mAngle", mAngle);
+        if (VisionConstants.DEBUG && VisionConstants.DEBUG_SAVE_FRAMES)
+        {
+            DebugFrameWriter frameWriter = DebugFrameWriter.getShared();
+            this.logger.logNumber(this.savedFramesLogKey, frameWriter.getSavedCount());
+            this.logger.logNumber(this.droppedFramesLogKey, frameWriter.getDroppedCount());
+        }
     }
 
     @Override
     public void stop()
     {
         this.shooterLight.set(false);
-        this.shooterVisionPipeline.setActivation(false);
+        this.shooterVisionThread.setActivation(false);
 
         this.gearLight.set(false);
-        this.gearVisionPipeline.setActivation(false);
-
-        this.center = null;
-
-        this.desiredAngleX = null;
-        this.measuredAngleX = null;
-        this.distanceFromRobot = null;
-
-        this.lastMeasuredFps = 0.0;
+        this.gearVisionThread.setActivation(false);
+
+        this.currentState = VisionProcessingState.None;
+
+        this.latestResult = new VisionResult(
+            this.resultSequenceNumber.incrementAndGet(),
+            this.timer.get(),
+            null,
+            null,
+            null,
+            null,
+            0.0);
     }
 
     @Override
@@ -234,21 +261,30 @@ public class VisionManager implements IController, VisionRunner.Listener<ICentro
         this.driver = driver;
     }
 
+    /**
+     * get how often the controller should be updated
+     * @return the desired number of seconds between updates
+     */
+    @Override
+    public double getUpdatePeriod()
+    {
+        // switch the cameras, lights and vision threads as soon as the driver asks
+        return TuningConstants.CONTROLLER_UPDATE_EVERY_LOOP;
+    }
+
     @Override
     public void copyPipelineOutputs(ICentroidVisionPipeline pipeline)
     {
-        synchronized (this.visionLock)
+        if (pipeline.isActive())
         {
-            if (pipeline.isActive())
-            {
-                this.center = pipeline.getCenter();
-
-                this.desiredAngleX = pipeline.getDesiredAngleX();
-                this.measuredAngleX = pipeline.getMeasuredAngleX();
-                this.distanceFromRobot = pipeline.getRobotDistance();
-
-                this.lastMeasuredFps = pipeline.getFps();
-            }
+            this.latestResult = new VisionResult(
+                this.resultSequenceNumber.incrementAndGet(),
+                pipeline.getCaptureTime(),
+                pipeline.getCenter(),
+                pipeline.getDesiredAngleX(),
+                pipeline.getMeasuredAngleX(),
+                pipeline.getRobotDistance(),
+                pipeline.getFps());
         }
     }
 }
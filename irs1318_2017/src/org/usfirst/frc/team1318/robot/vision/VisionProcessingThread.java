@@ -0,0 +1,112 @@
+package org.usfirst.frc.team1318.robot.vision;
+
+import org.opencv.core.Mat;
+import org.usfirst.frc.team1318.robot.vision.pipelines.ICentroidVisionPipeline;
+
+import edu.wpi.cscore.CvSink;
+import edu.wpi.cscore.VideoSource;
+import edu.wpi.first.wpilibj.vision.VisionRunner;
+
+/**
+ * Thread that grabs frames from a camera and runs them through a vision pipeline, but only on demand.
+ * While the pipeline is inactive, the thread disables its sink (so that the camera stops capturing and decoding frames)
+ * and waits until it is activated again, instead of grabbing every frame and then discarding it.
+ *
+ */
+public class VisionProcessingThread extends Thread
+{
+    private final CvSink cvSink;
+    private final ICentroidVisionPipeline pipeline;
+    private final VisionRunner.Listener<ICentroidVisionPipeline> listener;
+    private final Mat image;
+
+    private final Object activationLock;
+    private boolean isActive;
+
+    /**
+     * Initializes a new VisionProcessingThread.  The thread starts out inactive.
+     * @param name of the thread
+     * @param camera to grab frames from
+     * @param pipeline to process frames with
+     * @param listener to notify with the pipeline's outputs after each frame
+     */
+    public VisionProcessingThread(
+        String name,
+        VideoSource camera,
+        ICentroidVisionPipeline pipeline,
+        VisionRunner.Listener<ICentroidVisionPipeline> listener)
+    {
+        super(name);
+
+        this.cvSink = new CvSink("opencv_" + name);
+        this.cvSink.setSource(camera);
+        this.pipeline = pipeline;
+        this.listener = listener;
+        this.image = new Mat();
+
+        this.activationLock = new Object();
+        this.isActive = false;
+
+        this.pipeline.setActivation(false);
+        this.cvSink.setEnabled(false);
+
+        this.setDaemon(true);
+    }
+
+    /**
+     * Sets whether frames from the camera should be processed
+     * @param isActive true to start grabbing and processing frames, false to stop
+     */
+    public void setActivation(boolean isActive)
+    {
+        synchronized (this.activationLock)
+        {
+            if (this.isActive == isActive)
+            {
+                return;
+            }
+
+            this.isActive = isActive;
+            this.pipeline.setActivation(isActive);
+            this.cvSink.setEnabled(isActive);
+            this.activationLock.notifyAll();
+        }
+    }
+
+    @Override
+    public void run()
+    {
+        while (!Thread.interrupted())
+        {
+            synchronized (this.activationLock)
+            {
+                try
+                {
+                    while (!this.isActive)
+                    {
+                        this.activationLock.wait();
+                    }
+                }
+                catch (InterruptedException ex)
+                {
+                    return;
+                }
+            }
+
+            // time out so that we notice deactivation even if the camera stops delivering frames
+            long frameTime = this.cvSink.grabFrame(this.image, VisionConstants.FRAME_GRAB_TIMEOUT);
+            if (frameTime == 0)
+            {
+                if (VisionConstants.DEBUG && VisionConstants.DEBUG_PRINT_OUTPUT)
+                {
+                    System.out.println(this.getName() + " error grabbing frame: " + this.cvSink.getError());
+                }
+
+                continue;
+            }
+
+            this.pipeline.process(this.image);
+            this.listener.copyPipelineOutputs(this.pipeline);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.usfirst.frc.team1318.robot.vision;
+
+import org.opencv.core.Point;
+
+/**
+ * Immutable snapshot of the outputs of the vision pipeline for a single frame.
+ * A new result is published for each processed frame, so all of the values within a result always come from the same frame.
+ *
+ */
+public final class VisionResult
+{
+    public static final VisionResult Empty = new VisionResult(0, 0.0, null, null, null, null, 0.0);
+
+    private final long sequenceNumber;
+    private final double captureTime;
+    private final Point center;
+    private final Double desiredAngleX;
+    private final Double measuredAngleX;
+    private final Double distanceFromRobot;
+    private final double fps;
+
+    /**
+     * Initializes a new VisionResult
+     * @param sequenceNumber of the result, which increases with each published result
+     * @param captureTime the estimated time (from the robot's timer) at which the frame was captured
+     * @param center of the vision target, or null if it wasn't found
+     * @param desiredAngleX the desired angle to the vision target, or null if it wasn't found
+     * @param measuredAngleX the measured angle to the vision target, or null if it wasn't found
+     * @param distanceFromRobot the measured distance to the vision target, or null if it wasn't found
+     * @param fps the rate at which frames are being processed
+     */
+    public VisionResult(
+        long sequenceNumber,
+        double captureTime,
+        Point center,
+        Double desiredAngleX,
+        Double measuredAngleX,
+        Double distanceFromRobot,
+        double fps)
+    {
+        this.sequenceNumber = sequenceNumber;
+        this.captureTime = captureTime;
+        this.center = center == null ? null : new Point(center.x, center.y);
+        this.desiredAngleX = desiredAngleX;
+        this.measuredAngleX = measuredAngleX;
+        this.distanceFromRobot = distanceFromRobot;
+        this.fps = fps;
+    }
+
+    /**
+     * Gets the sequence number of the result, which can be used to tell whether a new result has been published
+     * @return sequence number
+     */
+    public long getSequenceNumber()
+    {
+        return this.sequenceNumber;
+    }
+
+    /**
+     * Gets the estimated time (from the robot's timer) at which the frame was captured, for compensating for the
+     * latency between capturing the frame and the result being used
+     * @return capture time, in seconds
+     */
+    public double getCaptureTime()
+    {
+        return this.captureTime;
+    }
+
+    /**
+     * Gets the center of the vision target (which should not be modified)
+     * @return center, or null if it wasn't found
+     */
+    public Point getCenter()
+    {
+        return this.center;
+    }
+
+    public Double getDesiredAngle()
+    {
+        return this.desiredAngleX;
+    }
+
+    public Double getMeasuredAngle()
+    {
+        return this.measuredAngleX;
+    }
+
+    public Double getMeasuredDistance()
+    {
+        return this.distanceFromRobot;
+    }
+
+    public double getFps()
+    {
+        return this.fps;
+    }
+}
@@ -0,0 +1,10 @@
+package org.usfirst.frc.team1318.robot.vision;
+
+public enum VisionStage
+{
+	Undistort,
+	CoarseLocate,
+	HSVFilter,
+	Contours,
+	Geometry,
+}
@@ -0,0 +1,71 @@
+package org.usfirst.frc.team1318.robot.vision;
+
+/**
+ * Records how long each stage of a vision pipeline took for the most recently processed frame.
+ * Durations are kept in a preallocated array so that recording them doesn't allocate while processing frames.
+ *
+ */
+public class VisionStageTimings
+{
+    private final long[] stageNanos;
+    private long frameStartNanos;
+    private long stageStartNanos;
+    private long frameNanos;
+
+    /**
+     * Initializes a new instance of the VisionStageTimings class.
+     */
+    public VisionStageTimings()
+    {
+        this.stageNanos = new long[VisionStage.values().length];
+        this.frameStartNanos = 0L;
+        this.stageStartNanos = 0L;
+        this.frameNanos = 0L;
+    }
+
+    /**
+     * Start timing a new frame, clearing the durations from the previous frame
+     */
+    public void startFrame()
+    {
+        for (int i = 0; i < this.stageNanos.length; i++)
+        {
+            this.stageNanos[i] = 0L;
+        }
+
+        this.frameStartNanos = System.nanoTime();
+        this.stageStartNanos = this.frameStartNanos;
+        this.frameNanos = 0L;
+    }
+
+    /**
+     * Record the end of a stage, which is considered to have started at the end of the previous stage
+     * @param stage that has just completed
+     */
+    public void endStage(VisionStage stage)
+    {
+        long now = System.nanoTime();
+        this.stageNanos[stage.ordinal()] += now - this.stageStartNanos;
+        this.stageStartNanos = now;
+        this.frameNanos = now - this.frameStartNanos;
+    }
+
+    /**
+     * Gets how long a stage took for the most recent frame
+     * @param stage to retrieve
+     * @return duration in nanoseconds (0 if the stage was skipped)
+     */
+    public long getStageNanos(VisionStage stage)
+    {
+        return this.stageNanos[stage.ordinal()];
+    }
+
+    /**
+     * Gets how long the most recent frame took, from the start of the frame to the end of its last stage
+     * @return duration in nanoseconds
+     */
+    public long getFrameNanos()
+    {
+        return this.frameNanos;
+    }
+}
@@ -0,0 +1,220 @@
+package org.usfirst.frc.team1318.robot.vision.helpers;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+/**
+ * Finds roughly where the target could be within a frame by filtering a downscaled copy of the frame.
+ * The full-resolution frame then only needs to be filtered and searched within the region around the rough location
+ * (to get accurate bounding rects and centers), instead of across the whole frame.
+ *
+ * The downscaled frame is blurred, so the contour checks used at full resolution (minimum area, height-to-width ratio and
+ * only keeping the largest contours) can't be trusted there - a small or distant piece of tape could fail them in the
+ * downscaled frame but pass them at full resolution.  Instead, the rough location covers every pixel that passes the
+ * filter within the downscaled frame, and the full-resolution search applies the real checks.  Any blob that passes the
+ * minimum area at full resolution contains at least one whole downscaled pixel, so it can only be missed here if
+ * averaging its pixels takes them out of the filter's range.  To recover from that, the full frame is still searched
+ * every so often, and after the downscaled frame has been empty for too many frames in a row.
+ *
+ */
+public class CoarseTargetLocator
+{
+    private final int scaleFactor;
+    private final int fullSearchInterval;
+    private final int maxMisses;
+
+    private final MatPool matPool;
+    private final Mat downscaledFrame;
+    private final Size downscaledSize;
+    private final HSVFilter hsvFilter;
+    private final Mat columnMax;
+    private final Mat rowMax;
+    private final RegionOfInterestTracker regionTracker;
+    private final Rect bounds;
+
+    private byte[] columnValues;
+    private byte[] rowValues;
+
+    private int framesSinceFullSearch;
+    private int misses;
+
+    /**
+     * Initializes a new instance of the CoarseTargetLocator class.
+     * @param width of the full-resolution frames, in pixels
+     * @param height of the full-resolution frames, in pixels
+     * @param scaleFactor to downscale the frames by (e.g. 2 for half of the width and height)
+     * @param lowerBound of HSV to filter
+     * @param upperBound of HSV to filter
+     * @param paddingRatio the padding to add on each side of the rough location, as a ratio of its size
+     * @param fullSearchInterval the number of frames after which the full frame is searched regardless (0 means never)
+     * @param maxMisses the number of frames in a row the downscaled frame can be empty before the full frame is searched
+     */
+    public CoarseTargetLocator(
+        int width,
+        int height,
+        int scaleFactor,
+        Scalar lowerBound,
+        Scalar upperBound,
+        double paddingRatio,
+        int fullSearchInterval,
+        int maxMisses)
+    {
+        this.scaleFactor = scaleFactor;
+        this.fullSearchInterval = fullSearchInterval;
+        this.maxMisses = maxMisses;
+
+        this.matPool = new MatPool(width / scaleFactor, height / scaleFactor);
+        this.downscaledFrame = this.matPool.allocate(CvType.CV_8UC3);
+        this.downscaledSize = new Size(width / scaleFactor, height / scaleFactor);
+        this.hsvFilter = new HSVFilter(lowerBound, upperBound, this.matPool);
+        this.columnMax = new Mat();
+        this.rowMax = new Mat();
+
+        // pad by at least a downscaled pixel on each side, to cover the edges that were blurred by downscaling
+        this.regionTracker = new RegionOfInterestTracker(paddingRatio, scaleFactor, 1.0, 0);
+        this.bounds = new Rect();
+
+        this.columnValues = new byte[0];
+        this.rowValues = new byte[0];
+
+        this.framesSinceFullSearch = 0;
+        this.misses = 0;
+    }
+
+    /**
+     * Find roughly where the target could be within the frame
+     * @param frame in which to look for the target, at full resolution
+     * @return true if the full-resolution frame should be searched (within getRegion), otherwise false
+     */
+    public boolean locate(Mat frame)
+    {
+        this.regionTracker.reset();
+        if (this.fullSearchInterval > 0 && ++this.framesSinceFullSearch >= this.fullSearchInterval)
+        {
+            // search the full frame every so often, in case the target was blurred away in the downscaled frame
+            this.framesSinceFullSearch = 0;
+            return true;
+        }
+
+        this.downscaledSize.width = frame.cols() / this.scaleFactor;
+        this.downscaledSize.height = frame.rows() / this.scaleFactor;
+        Imgproc.resize(frame, this.downscaledFrame, this.downscaledSize, 0.0, 0.0, Imgproc.INTER_AREA);
+
+        Mat filteredFrame = this.hsvFilter.filterHSV(this.downscaledFrame);
+        if (!this.findBounds(filteredFrame))
+        {
+            if (++this.misses > this.maxMisses)
+            {
+                // the downscaled frame has been empty for a while, make sure we aren't missing the target
+                this.misses = 0;
+                this.framesSinceFullSearch = 0;
+                return true;
+            }
+
+            return false;
+        }
+
+        this.misses = 0;
+        this.regionTracker.found(this.scaleUp(this.bounds), null, frame.cols(), frame.rows());
+        return true;
+    }
+
+    /**
+     * Gets the region of the full-resolution frame to search, as found by the most recent call to locate
+     * @return the region to search, or null if the full frame should be searched
+     */
+    public Rect getRegion()
+    {
+        return this.regionTracker.getRegion();
+    }
+
+    /**
+     * Release the native resources used by the locator.  The locator should not be used after it has been released.
+     */
+    public void release()
+    {
+        this.columnMax.release();
+        this.rowMax.release();
+        this.matPool.release();
+    }
+
+    /**
+     * Find the bounds of all of the pixels that passed the filter within the downscaled frame
+     * @param filteredFrame the filtered downscaled frame
+     * @return true if any pixels passed the filter, otherwise false
+     */
+    private boolean findBounds(Mat filteredFrame)
+    {
+        int width = filteredFrame.cols();
+        int height = filteredFrame.rows();
+        if (this.columnValues.length != width)
+        {
+            this.columnValues = new byte[width];
+        }
+
+        if (this.rowValues.length != height)
+        {
+            this.rowValues = new byte[height];
+        }
+
+        // project the frame onto its columns and rows, so we only need to scan the edges of the projections
+        Core.reduce(filteredFrame, this.columnMax, 0, Core.REDUCE_MAX);
+        Core.reduce(filteredFrame, this.rowMax, 1, Core.REDUCE_MAX);
+        this.columnMax.get(0, 0, this.columnValues);
+        this.rowMax.get(0, 0, this.rowValues);
+
+        int left = 0;
+        while (left < width && this.columnValues[left] == 0)
+        {
+            left++;
+        }
+
+        if (left == width)
+        {
+            return false;
+        }
+
+        int right = width;
+        while (this.columnValues[right - 1] == 0)
+        {
+            right--;
+        }
+
+        int top = 0;
+        while (this.rowValues[top] == 0)
+        {
+            top++;
+        }
+
+        int bottom = height;
+        while (this.rowValues[bottom - 1] == 0)
+        {
+            bottom--;
+        }
+
+        this.bounds.x = left;
+        this.bounds.y = top;
+        this.bounds.width = right - left;
+        this.bounds.height = bottom - top;
+        return true;
+    }
+
+    /**
+     * Scale a rect within the downscaled frame up to the full-resolution frame
+     * @param rect within the downscaled frame
+     * @return rect within the full-resolution frame
+     */
+    private Rect scaleUp(Rect rect)
+    {
+        rect.x *= this.scaleFactor;
+        rect.y *= this.scaleFactor;
+        rect.width *= this.scaleFactor;
+        rect.height *= this.scaleFactor;
+        return rect;
+    }
+}
@@ -0,0 +1,416 @@
+package org.usfirst.frc.team1318.robot.vision.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.imgproc.Imgproc;
+import org.usfirst.frc.team1318.robot.vision.VisionConstants;
+
+/**
+ * Finds the largest contours within a frame, analyzing each contour only once.
+ * Rather than calling into OpenCV separately for the area, bounding rect and moments of each contour, the points of each
+ * contour are copied out in one call and the area, bounding rect and center of mass are all computed from them in a
+ * single pass (using the same formulas as OpenCV's contourArea, boundingRect and moments).
+ * When there are many contours (e.g. from lights and reflections around the field), the analysis is split across a
+ * fork-join pool so that it can use both of the roboRIO's cores.
+ *
+ * The results for the candidates are kept until the next frame is analyzed.  The analyzer is not thread-safe, so each
+ * vision pipeline should have its own.
+ *
+ */
+public class ContourAnalyzer
+{
+    private static final double FloatEpsilon = 1.1920929e-7;
+    private static final double OneHalf = 1.0 / 2.0;
+    private static final double OneSixth = 1.0 / 6.0;
+
+    private static ForkJoinPool sharedPool;
+
+    private final int maxCandidates;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    private final List<MatOfPoint> contours;
+    private final Mat hierarchy;
+    private final ThreadLocal<int[]> pointBuffers;
+
+    // per-contour analysis results, indexed by contour
+    private double[] areas;
+    private double[] centerXs;
+    private double[] centerYs;
+    private boolean[] hasCenters;
+    private int[] lefts;
+    private int[] tops;
+    private int[] rights;
+    private int[] bottoms;
+
+    // indexes of the candidate contours, largest first
+    private final int[] candidates;
+    private int candidateCount;
+
+    /**
+     * Initializes a new instance of the ContourAnalyzer class, sharing the vision fork-join pool.
+     * @param maxCandidates the number of largest contours to find
+     */
+    public ContourAnalyzer(int maxCandidates)
+    {
+        this(maxCandidates, ContourAnalyzer.getSharedPool(), VisionConstants.CONTOUR_ANALYSIS_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Initializes a new instance of the ContourAnalyzer class.
+     * @param maxCandidates the number of largest contours to find
+     * @param pool to split the analysis across, or null to always analyze contours on the calling thread
+     * @param parallelThreshold the number of contours below which they are analyzed on the calling thread
+     */
+    public ContourAnalyzer(int maxCandidates, ForkJoinPool pool, int parallelThreshold)
+    {
+        this.maxCandidates = maxCandidates;
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+
+        this.contours = new ArrayList<MatOfPoint>();
+        this.hierarchy = new Mat();
+        this.pointBuffers = ThreadLocal.withInitial(() -> new int[0]);
+
+        this.ensureCapacity(64);
+
+        this.candidates = new int[maxCandidates];
+        this.candidateCount = 0;
+    }
+
+    /**
+     * Gets the fork-join pool shared by the vision pipelines for contour analysis
+     * @return shared pool
+     */
+    public static synchronized ForkJoinPool getSharedPool()
+    {
+        if (ContourAnalyzer.sharedPool == null)
+        {
+            ContourAnalyzer.sharedPool = new ForkJoinPool(VisionConstants.CONTOUR_ANALYSIS_THREADS);
+        }
+
+        return ContourAnalyzer.sharedPool;
+    }
+
+    /**
+     * Find the largest contours in the frame
+     * @param frame in which to look for contours
+     * @param offset of the frame within the full image (e.g. for a region of interest), or null
+     * @param minContourArea is the minimum contour area allowable
+     * @return the number of candidate contours found
+     */
+    public int findLargestContours(Mat frame, Point offset, double minContourArea)
+    {
+        return this.findLargestContours(frame, offset, minContourArea, -1.0, 0.0, -1.0);
+    }
+
+    /**
+     * Find the largest contours in the frame
+     * @param frame in which to look for contours
+     * @param offset of the frame within the full image (e.g. for a region of interest), or null
+     * @param minContourArea is the minimum contour area allowable
+     * @param desiredContourHxWRatio is the desired height-to-width ratio for the contours (below 0.0 means ignore this)
+     * @param allowableContourHxWRatioRange is the allowable range for the height-to-width ratio for the contours
+     * @param allowableContourAreaRatio indicates the min allowable ratio between the area of a candidate and the largest contour (below 0.0 means ignore this)
+     * @return the number of candidate contours found
+     */
+    public int findLargestContours(Mat frame, Point offset, double minContourArea, double desiredContourHxWRatio, double allowableContourHxWRatioRange, double allowableContourAreaRatio)
+    {
+        // find the contours using OpenCV API...
+        this.contours.clear();
+        if (offset == null)
+        {
+            Imgproc.findContours(frame, this.contours, this.hierarchy, Imgproc.RETR_EXTERNAL, Imgproc.CHAIN_APPROX_TC89_KCOS);
+        }
+        else
+        {
+            Imgproc.findContours(frame, this.contours, this.hierarchy, Imgproc.RETR_EXTERNAL, Imgproc.CHAIN_APPROX_TC89_KCOS, offset);
+        }
+
+        int contourCount = this.contours.size();
+        this.ensureCapacity(contourCount);
+
+        // analyze each of the contours...
+        if (this.pool != null && contourCount >= this.parallelThreshold)
+        {
+            this.pool.invoke(new AnalyzeContoursTask(0, contourCount, Math.max(1, contourCount / (2 * this.pool.getParallelism()))));
+        }
+        else
+        {
+            this.analyzeContours(0, contourCount);
+        }
+
+        for (MatOfPoint contour : this.contours)
+        {
+            contour.release();
+        }
+
+        this.contours.clear();
+
+        // select the largest contours that pass the checks...
+        this.candidateCount = 0;
+        for (int i = 0; i < contourCount; i++)
+        {
+            double area = this.areas[i];
+            if (area < minContourArea || area <= 0.0)
+            {
+                continue;
+            }
+
+            if (desiredContourHxWRatio >= 0.0)
+            {
+                double ratio = (double)(this.bottoms[i] - this.tops[i]) / (double)(this.rights[i] - this.lefts[i]);
+                if (!(Math.abs(ratio - desiredContourHxWRatio) < allowableContourHxWRatioRange))
+                {
+                    continue;
+                }
+            }
+
+            // insert into the candidates, after any candidates that are at least as large
+            int position = this.candidateCount;
+            while (position > 0 && area > this.areas[this.candidates[position - 1]])
+            {
+                position--;
+            }
+
+            if (position >= this.maxCandidates)
+            {
+                continue;
+            }
+
+            int last = Math.min(this.candidateCount, this.maxCandidates - 1);
+            for (int j = last; j > position; j--)
+            {
+                this.candidates[j] = this.candidates[j - 1];
+            }
+
+            this.candidates[position] = i;
+            this.candidateCount = Math.min(this.candidateCount + 1, this.maxCandidates);
+        }
+
+        if (allowableContourAreaRatio >= 0.0 && this.candidateCount > 0)
+        {
+            double largestArea = this.areas[this.candidates[0]];
+            while (this.candidateCount > 1 && this.areas[this.candidates[this.candidateCount - 1]] / largestArea < allowableContourAreaRatio)
+            {
+                this.candidateCount--;
+            }
+        }
+
+        return this.candidateCount;
+    }
+
+    /**
+     * Gets the number of candidate contours found in the most recent frame
+     * @return number of candidates
+     */
+    public int getCandidateCount()
+    {
+        return this.candidateCount;
+    }
+
+    /**
+     * Gets the area of a candidate contour
+     * @param candidate index of the candidate, where 0 is the largest
+     * @return area of the contour
+     */
+    public double getArea(int candidate)
+    {
+        return this.areas[this.candidates[candidate]];
+    }
+
+    /**
+     * Gets the center of mass of a candidate contour
+     * @param candidate index of the candidate, where 0 is the largest
+     * @return point representing the center of the contour, or null if the contour has no area
+     */
+    public Point getCenterOfMass(int candidate)
+    {
+        int index = this.candidates[candidate];
+        if (!this.hasCenters[index])
+        {
+            return null;
+        }
+
+        return new Point(this.centerXs[index], this.centerYs[index]);
+    }
+
+    /**
+     * Gets the bounding rect of a candidate contour
+     * @param candidate index of the candidate, where 0 is the largest
+     * @return bounding rect of the contour
+     */
+    public Rect getBoundingRect(int candidate)
+    {
+        int index = this.candidates[candidate];
+        return new Rect(this.lefts[index], this.tops[index], this.rights[index] - this.lefts[index], this.bottoms[index] - this.tops[index]);
+    }
+
+    /**
+     * Release the native resources used by the analyzer.  The analyzer should not be used after it has been released.
+     */
+    public void release()
+    {
+        this.hierarchy.release();
+    }
+
+    /**
+     * Make sure the per-contour results can hold the provided number of contours
+     * @param contourCount number of contours
+     */
+    private void ensureCapacity(int contourCount)
+    {
+        if (this.areas != null && this.areas.length >= contourCount)
+        {
+            return;
+        }
+
+        int capacity = this.areas == null ? contourCount : Math.max(contourCount, this.areas.length * 2);
+        this.areas = new double[capacity];
+        this.centerXs = new double[capacity];
+        this.centerYs = new double[capacity];
+        this.hasCenters = new boolean[capacity];
+        this.lefts = new int[capacity];
+        this.tops = new int[capacity];
+        this.rights = new int[capacity];
+        this.bottoms = new int[capacity];
+    }
+
+    /**
+     * Analyze a range of the contours, calculating their area, center of mass and bounding rect
+     * @param start index of the first contour to analyze
+     * @param end index after the last contour to analyze
+     */
+    private void analyzeContours(int start, int end)
+    {
+        int[] points = this.pointBuffers.get();
+        for (int i = start; i < end; i++)
+        {
+            MatOfPoint contour = this.contours.get(i);
+            int pointCount = (int)contour.total();
+            if (points.length < pointCount * 2)
+            {
+                points = new int[pointCount * 2];
+                this.pointBuffers.set(points);
+            }
+
+            if (pointCount > 0)
+            {
+                contour.get(0, 0, points);
+            }
+
+            this.analyzeContour(i, points, pointCount);
+        }
+    }
+
+    /**
+     * Analyze a single contour, using the same calculations as OpenCV's contourArea, moments and boundingRect
+     * @param index of the contour
+     * @param points of the contour, as (x, y) pairs
+     * @param pointCount number of points in the contour
+     */
+    private void analyzeContour(int index, int[] points, int pointCount)
+    {
+        if (pointCount == 0)
+        {
+            this.areas[index] = 0.0;
+            this.hasCenters[index] = false;
+            this.lefts[index] = 0;
+            this.tops[index] = 0;
+            this.rights[index] = 0;
+            this.bottoms[index] = 0;
+            return;
+        }
+
+        int left = Integer.MAX_VALUE;
+        int top = Integer.MAX_VALUE;
+        int right = Integer.MIN_VALUE;
+        int bottom = Integer.MIN_VALUE;
+
+        double a00 = 0.0;
+        double a10 = 0.0;
+        double a01 = 0.0;
+
+        // Green's theorem over each edge, starting with the edge from the last point back to the first
+        double previousX = points[2 * (pointCount - 1)];
+        double previousY = points[2 * (pointCount - 1) + 1];
+        for (int i = 0; i < pointCount; i++)
+        {
+            int x = points[2 * i];
+            int y = points[2 * i + 1];
+            left = Math.min(left, x);
+            top = Math.min(top, y);
+            right = Math.max(right, x);
+            bottom = Math.max(bottom, y);
+
+            double dxy = previousX * y - x * previousY;
+            a00 += dxy;
+            a10 += dxy * (previousX + x);
+            a01 += dxy * (previousY + y);
+
+            previousX = x;
+            previousY = y;
+        }
+
+        this.areas[index] = Math.abs(a00 * ContourAnalyzer.OneHalf);
+        if (Math.abs(a00) > ContourAnalyzer.FloatEpsilon)
+        {
+            // the signs cancel out, so the center doesn't depend on the contour's orientation
+            double m00 = a00 * ContourAnalyzer.OneHalf;
+            this.centerXs[index] = (a10 * ContourAnalyzer.OneSixth) / m00;
+            this.centerYs[index] = (a01 * ContourAnalyzer.OneSixth) / m00;
+            this.hasCenters[index] = true;
+        }
+        else
+        {
+            this.hasCenters[index] = false;
+        }
+
+        this.lefts[index] = left;
+        this.tops[index] = top;
+        this.rights[index] = right + 1;
+        this.bottoms[index] = bottom + 1;
+    }
+
+    /**
+     * Task that analyzes a range of the contours, splitting the range in half until it is small enough.
+     */
+    private class AnalyzeContoursTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+        private final int chunkSize;
+
+        AnalyzeContoursTask(int start, int end, int chunkSize)
+        {
+            this.start = start;
+            this.end = end;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (this.end - this.start <= this.chunkSize)
+            {
+                ContourAnalyzer.this.analyzeContours(this.start, this.end);
+                return;
+            }
+
+            int middle = (this.start + this.end) >>> 1;
+            ForkJoinTask.invokeAll(
+                new AnalyzeContoursTask(this.start, middle, this.chunkSize),
+                new AnalyzeContoursTask(middle, this.end, this.chunkSize));
+        }
+    }
+}
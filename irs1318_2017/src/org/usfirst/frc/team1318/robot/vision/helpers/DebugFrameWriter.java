@@ -0,0 +1,225 @@
+package org.usfirst.frc.team1318.robot.vision.helpers;
+
+import java.util.ArrayDeque;
+
+import org.opencv.core.CvException;
+import org.opencv.core.Mat;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.usfirst.frc.team1318.robot.vision.VisionConstants;
+
+/**
+ * Writes debug frames to disk on a background thread, so that encoding and writing images doesn't slow down the vision pipeline.
+ * Frames are copied into a bounded queue, limited by the total size of the queued frames.  When the queue is full, the
+ * oldest queued frames are dropped to make room for the new one (so that we keep up with what the camera is currently seeing).
+ * The copies are recycled once they have been written, so that no native memory is allocated once the queue has warmed up.
+ *
+ */
+public class DebugFrameWriter
+{
+    private static DebugFrameWriter sharedWriter;
+
+    private final long maxQueuedBytes;
+
+    private final Object lock;
+    private final ArrayDeque<QueuedFrame> queue;
+    private final ArrayDeque<Mat> freeFrames;
+    private long queuedBytes;
+
+    private final Thread thread;
+
+    // counters
+    private long savedCount;
+    private long droppedCount;
+    private long failedCount;
+
+    /**
+     * Initializes a new instance of the DebugFrameWriter class, and starts its background thread.
+     * @param maxQueuedBytes the maximum total size of the frames waiting to be written
+     */
+    public DebugFrameWriter(long maxQueuedBytes)
+    {
+        this.maxQueuedBytes = maxQueuedBytes;
+
+        this.lock = new Object();
+        this.queue = new ArrayDeque<QueuedFrame>();
+        this.freeFrames = new ArrayDeque<Mat>();
+        this.queuedBytes = 0L;
+
+        this.savedCount = 0L;
+        this.droppedCount = 0L;
+        this.failedCount = 0L;
+
+        this.thread = new Thread(() -> this.run(), "debugFrameWriter");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Gets the debug frame writer shared by the vision pipelines
+     * @return shared writer
+     */
+    public static synchronized DebugFrameWriter getShared()
+    {
+        if (DebugFrameWriter.sharedWriter == null)
+        {
+            DebugFrameWriter.sharedWriter = new DebugFrameWriter(VisionConstants.DEBUG_SAVE_FRAMES_MAX_QUEUED_BYTES);
+        }
+
+        return DebugFrameWriter.sharedWriter;
+    }
+
+    /**
+     * Queue a copy of the frame to be written to disk, dropping the oldest queued frames if there isn't room for it
+     * @param frame to write (which can be modified or reused once this returns)
+     * @param path of the file to write the frame to (the format is determined by the extension)
+     */
+    public void save(Mat frame, String path)
+    {
+        long frameBytes = frame.total() * frame.elemSize();
+        synchronized (this.lock)
+        {
+            if (frameBytes > this.maxQueuedBytes)
+            {
+                this.droppedCount++;
+                return;
+            }
+
+            while (this.queuedBytes + frameBytes > this.maxQueuedBytes)
+            {
+                QueuedFrame oldest = this.queue.removeFirst();
+                this.queuedBytes -= oldest.bytes;
+                this.freeFrames.addLast(oldest.frame);
+                this.droppedCount++;
+            }
+
+            Mat copy = this.freeFrames.pollFirst();
+            if (copy == null)
+            {
+                copy = new Mat();
+            }
+
+            frame.copyTo(copy);
+            this.queue.addLast(new QueuedFrame(copy, path, frameBytes));
+            this.queuedBytes += frameBytes;
+            this.lock.notifyAll();
+        }
+    }
+
+    /**
+     * Gets the number of frames that have been written to disk
+     * @return saved count
+     */
+    public long getSavedCount()
+    {
+        synchronized (this.lock)
+        {
+            return this.savedCount;
+        }
+    }
+
+    /**
+     * Gets the number of frames that were dropped because the queue was full
+     * @return dropped count
+     */
+    public long getDroppedCount()
+    {
+        synchronized (this.lock)
+        {
+            return this.droppedCount;
+        }
+    }
+
+    /**
+     * Gets the number of frames that could not be written to disk
+     * @return failed count
+     */
+    public long getFailedCount()
+    {
+        synchronized (this.lock)
+        {
+            return this.failedCount;
+        }
+    }
+
+    /**
+     * Gets the total size of the frames currently waiting to be written
+     * @return queued bytes
+     */
+    public long getQueuedBytes()
+    {
+        synchronized (this.lock)
+        {
+            return this.queuedBytes;
+        }
+    }
+
+    /**
+     * Write queued frames to disk until the thread is interrupted
+     */
+    private void run()
+    {
+        while (!Thread.interrupted())
+        {
+            QueuedFrame next;
+            synchronized (this.lock)
+            {
+                try
+                {
+                    while (this.queue.isEmpty())
+                    {
+                        this.lock.wait();
+                    }
+                }
+                catch (InterruptedException ex)
+                {
+                    return;
+                }
+
+                next = this.queue.removeFirst();
+                this.queuedBytes -= next.bytes;
+            }
+
+            boolean saved;
+            try
+            {
+                saved = Imgcodecs.imwrite(next.path, next.frame);
+            }
+            catch (CvException ex)
+            {
+                // e.g. unsupported file extension - keep going, as it's only debug output
+                saved = false;
+            }
+
+            synchronized (this.lock)
+            {
+                if (saved)
+                {
+                    this.savedCount++;
+                }
+                else
+                {
+                    this.failedCount++;
+                }
+
+                this.freeFrames.addLast(next.frame);
+            }
+        }
+    }
+
+    /**
+     * A frame waiting to be written
+     */
+    private static class QueuedFrame
+    {
+        private final Mat frame;
+        private final String path;
+        private final long bytes;
+
+        QueuedFrame(Mat frame, String path, long bytes)
+        {
+            this.frame = frame;
+            this.path = path;
+            this.bytes = bytes;
+        }
+    }
+}
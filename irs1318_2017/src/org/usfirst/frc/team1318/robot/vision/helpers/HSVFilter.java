@@ -1,41 +1,115 @@
 package org.usfirst.frc.team1318.robot.vision.helpers;
 
 import org.opencv.core.Core;
+import org.opencv.core.CvType;
 import org.opencv.core.Mat;
+import org.opencv.core.Rect;
 import org.opencv.core.Scalar;
 import org.opencv.imgproc.Imgproc;
+import org.usfirst.frc.team1318.robot.vision.VisionConstants;
 
 public class HSVFilter
 {
     private final Scalar lowerBound;
     private final Scalar upperBound;
 
+    private final HSVLookupTable lookupTable;
+    private final Mat hsvFrame;
+    private final Mat filteredFrame;
+    private Mat filteredRegion;
+
+    /**
+     * Initializes a new instance of the HSVFilter class.
+     * @param lowerBound of HSV to filter
+     * @param upperBound of HSV to filter
+     * @param matPool to allocate work buffers from
+     */
+    public HSVFilter(Scalar lowerBound, Scalar upperBound, MatPool matPool)
+    {
+        this(lowerBound, upperBound, matPool, VisionConstants.HSV_FILTER_USE_LOOKUP_TABLE);
+    }
+
     /**
      * Initializes a new instance of the HSVFilter class.
      * @param lowerBound of HSV to filter
      * @param upperBound of HSV to filter
+     * @param matPool to allocate work buffers from
+     * @param useLookupTable whether to filter using a BGR lookup table in a single pass, rather than converting to HSV and then filtering
      */
-    public HSVFilter(Scalar lowerBound, Scalar upperBound)
+    public HSVFilter(Scalar lowerBound, Scalar upperBound, MatPool matPool, boolean useLookupTable)
     {
         this.lowerBound = lowerBound;
         this.upperBound = upperBound;
+
+        this.lookupTable = useLookupTable ? new HSVLookupTable(lowerBound, upperBound) : null;
+
+        this.hsvFrame = matPool.allocate(CvType.CV_8UC3);
+        this.filteredFrame = matPool.allocate(CvType.CV_8UC1);
+        this.filteredRegion = null;
     }
 
     /**
      * Filter the provided frame for HSVs within the provider bounds.
+     * The provided frame is not modified.
      * @param frame to filter
      * @return a matrix of 1s and 0s based on whether the pixel is within the provided HSV range or not, respectively.
+     * The matrix is a work buffer owned by the filter, and will be overwritten when the next frame is filtered.
      */
     public Mat filterHSV(Mat frame)
     {
-        Mat sourceBGR = frame.clone();
-        Imgproc.cvtColor(sourceBGR, frame, Imgproc.COLOR_BGR2HSV);
-        sourceBGR.release();
+        if (this.lookupTable != null && HSVLookupTable.canFilter(frame))
+        {
+            this.lookupTable.filter(frame, null, this.filteredFrame);
+            return this.filteredFrame;
+        }
+
+        Imgproc.cvtColor(frame, this.hsvFrame, Imgproc.COLOR_BGR2HSV);
+        Core.inRange(this.hsvFrame, this.lowerBound, this.upperBound, this.filteredFrame);
+
+        return this.filteredFrame;
+    }
+
+    /**
+     * Filter a region of the provided frame for HSVs within the provider bounds.
+     * The provided frame is not modified.
+     * @param frame to filter
+     * @param region of the frame to filter, or null to filter the whole frame
+     * @return a matrix of 1s and 0s for the region based on whether the pixel is within the provided HSV range or not, respectively.
+     * The matrix is a view into a work buffer owned by the filter, and will be overwritten when the next frame is filtered.
+     */
+    public Mat filterHSV(Mat frame, Rect region)
+    {
+        if (region == null)
+        {
+            return this.filterHSV(frame);
+        }
+
+        if (this.filteredRegion != null)
+        {
+            this.filteredRegion.release();
+        }
+
+        if (this.lookupTable != null && HSVLookupTable.canFilter(frame))
+        {
+            this.lookupTable.filter(frame, region, this.filteredFrame);
+            this.filteredRegion = this.filteredFrame.submat(region);
+            return this.filteredRegion;
+        }
+
+        // make sure the buffers are sized for the full frame, and then only convert and filter the region within them
+        this.hsvFrame.create(frame.rows(), frame.cols(), CvType.CV_8UC3);
+        this.filteredFrame.create(frame.rows(), frame.cols(), CvType.CV_8UC1);
+
+        Mat frameRegion = frame.submat(region);
+        Mat hsvRegion = this.hsvFrame.submat(region);
+        this.filteredRegion = this.filteredFrame.submat(region);
+
+        Imgproc.cvtColor(frameRegion, hsvRegion, Imgproc.COLOR_BGR2HSV);
+        Core.inRange(hsvRegion, this.lowerBound, this.upperBound, this.filteredRegion);
 
-        Mat sourceHSV = frame.clone();
-        Core.inRange(sourceHSV, this.lowerBound, this.upperBound, frame);
-        sourceHSV.release();
+        frameRegion.release();
+        hsvRegion.release();
 
-        return frame;
+        return this.filteredRegion;
     }
 }
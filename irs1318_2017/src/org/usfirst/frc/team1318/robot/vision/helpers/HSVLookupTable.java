@@ -0,0 +1,192 @@
+package org.usfirst.frc.team1318.robot.vision.helpers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.imgproc.Imgproc;
+
+/**
+ * Lookup table from every 24-bit BGR color to whether that color is within a range of HSVs.
+ * The table is built once (using OpenCV's own BGR-to-HSV conversion, so results match cvtColor + inRange exactly),
+ * and then the mask for a frame can be produced in a single pass over the raw BGR frame, without converting it to HSV
+ * or needing an intermediate 3-channel buffer.
+ *
+ * The table is stored as one bit per color (2MB), and is shared between all lookup tables that use the same HSV range.
+ * The buffers used while filtering are not shared, so each vision thread should use its own lookup table.
+ *
+ */
+public class HSVLookupTable
+{
+    private static final int ColorCount = 1 << 24;
+    private static final int ChannelValues = 256;
+
+    private static final Map<String, long[]> tables = new HashMap<String, long[]>();
+
+    // bit per BGR color, indexed by (blue << 16) | (green << 8) | red
+    private final long[] table;
+
+    private byte[] frameBuffer;
+    private byte[] maskBuffer;
+
+    /**
+     * Initializes a new instance of the HSVLookupTable class, building the table if it hasn't been built already.
+     * @param lowerBound of HSV to filter
+     * @param upperBound of HSV to filter
+     */
+    public HSVLookupTable(Scalar lowerBound, Scalar upperBound)
+    {
+        this.table = HSVLookupTable.getTable(lowerBound, upperBound);
+        this.frameBuffer = new byte[0];
+        this.maskBuffer = new byte[0];
+    }
+
+    /**
+     * Gets the table for the provided HSV range, building it if it hasn't been built already
+     * @param lowerBound of HSV to filter
+     * @param upperBound of HSV to filter
+     * @return table with a bit per BGR color
+     */
+    private static long[] getTable(Scalar lowerBound, Scalar upperBound)
+    {
+        String key = lowerBound.toString() + upperBound.toString();
+        synchronized (HSVLookupTable.tables)
+        {
+            long[] table = HSVLookupTable.tables.get(key);
+            if (table == null)
+            {
+                table = HSVLookupTable.buildTable(lowerBound, upperBound);
+                HSVLookupTable.tables.put(key, table);
+            }
+
+            return table;
+        }
+    }
+
+    /**
+     * Build the table for the provided HSV range
+     * @param lowerBound of HSV to filter
+     * @param upperBound of HSV to filter
+     * @return table with a bit per BGR color
+     */
+    private static long[] buildTable(Scalar lowerBound, Scalar upperBound)
+    {
+        long[] table = new long[HSVLookupTable.ColorCount / Long.SIZE];
+
+        // convert the colors one blue value at a time, as a 256x256 image where each pixel is (blue, row, column)
+        int chunkSize = HSVLookupTable.ChannelValues * HSVLookupTable.ChannelValues;
+        byte[] chunkColors = new byte[chunkSize * 3];
+        byte[] chunkMask = new byte[chunkSize];
+        Mat chunk = new Mat(HSVLookupTable.ChannelValues, HSVLookupTable.ChannelValues, CvType.CV_8UC3);
+        Mat chunkHSV = new Mat();
+        Mat chunkFiltered = new Mat();
+        for (int blue = 0; blue < HSVLookupTable.ChannelValues; blue++)
+        {
+            for (int i = 0; i < chunkSize; i++)
+            {
+                chunkColors[i * 3] = (byte)blue;
+                chunkColors[i * 3 + 1] = (byte)(i >> 8);
+                chunkColors[i * 3 + 2] = (byte)i;
+            }
+
+            chunk.put(0, 0, chunkColors);
+            Imgproc.cvtColor(chunk, chunkHSV, Imgproc.COLOR_BGR2HSV);
+            Core.inRange(chunkHSV, lowerBound, upperBound, chunkFiltered);
+            chunkFiltered.get(0, 0, chunkMask);
+
+            int baseIndex = blue << 16;
+            for (int i = 0; i < chunkSize; i++)
+            {
+                if (chunkMask[i] != 0)
+                {
+                    int index = baseIndex | i;
+                    table[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+
+        chunk.release();
+        chunkHSV.release();
+        chunkFiltered.release();
+
+        return table;
+    }
+
+    /**
+     * Gets whether the lookup table can be used to filter the provided frame
+     * @param frame to filter
+     * @return true if the frame is a continuous 8-bit BGR frame
+     */
+    public static boolean canFilter(Mat frame)
+    {
+        return frame.type() == CvType.CV_8UC3 && frame.isContinuous();
+    }
+
+    /**
+     * Whether the provided color is within the HSV range
+     * @param blue value of the color
+     * @param green value of the color
+     * @param red value of the color
+     * @return true if the color is within the range
+     */
+    public boolean contains(int blue, int green, int red)
+    {
+        int index = (blue << 16) | (green << 8) | red;
+        return (this.table[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Filter a region of the provided frame for colors within the HSV range.
+     * Only the pixels within the region are copied out of the frame and into the mask.
+     * Note that a lookup table is not thread-safe, as it uses internal buffers for the frame and mask.
+     * @param frame to filter, which must be a continuous 8-bit BGR frame
+     * @param region of the frame to filter, or null to filter the whole frame
+     * @param destination to write the mask into, which will be sized for the whole frame (pixels outside of the region are undefined)
+     */
+    public void filter(Mat frame, Rect region, Mat destination)
+    {
+        int rows = frame.rows();
+        int cols = frame.cols();
+        if (this.maskBuffer.length != rows * cols)
+        {
+            this.frameBuffer = new byte[rows * cols * 3];
+            this.maskBuffer = new byte[rows * cols];
+        }
+
+        destination.create(rows, cols, CvType.CV_8UC1);
+
+        // copy just the region's pixels, packed together (get and put copy no more than the size of the submat)
+        Mat frameRegion = frame;
+        Mat destinationRegion = destination;
+        int pixelCount = rows * cols;
+        if (region != null)
+        {
+            frameRegion = frame.submat(region);
+            destinationRegion = destination.submat(region);
+            pixelCount = region.width * region.height;
+        }
+
+        frameRegion.get(0, 0, this.frameBuffer);
+
+        byte[] frameBuffer = this.frameBuffer;
+        byte[] maskBuffer = this.maskBuffer;
+        long[] table = this.table;
+        for (int pixel = 0, offset = 0; pixel < pixelCount; pixel++, offset += 3)
+        {
+            int index = ((frameBuffer[offset] & 0xFF) << 16) | ((frameBuffer[offset + 1] & 0xFF) << 8) | (frameBuffer[offset + 2] & 0xFF);
+            maskBuffer[pixel] = (table[index >>> 6] & (1L << index)) != 0 ? (byte)255 : 0;
+        }
+
+        destinationRegion.put(0, 0, maskBuffer);
+
+        if (region != null)
+        {
+            frameRegion.release();
+            destinationRegion.release();
+        }
+    }
+}
@@ -8,15 +8,22 @@ import org.opencv.imgproc.Imgproc;
 
 public class ImageUndistorter
 {
+    private final Scalar borderValue;
+    private final Mat undistortedFrame;
+
     private Mat mapX;
     private Mat mapY;
 
     /**
      * Initializes a new instance of the ImageUndistorter class.
      * For background, see http://docs.opencv.org/3.1.0/d4/d94/tutorial_camera_calibration.html
+     * @param matPool to allocate work buffers from
      */
-    public ImageUndistorter()
+    public ImageUndistorter(MatPool matPool)
     {
+        this.borderValue = new Scalar(0);
+        this.undistortedFrame = matPool.allocate(CvType.CV_8UC3);
+
         Size size;
         Mat intrinsicMatrix;
         intrinsicMatrix = ImageUndistorter.build320x240Intrinsic();
@@ -45,18 +52,17 @@ public class ImageUndistorter
     }
 
     /**
-     * Undistort the frame so that straight lines appear straight in the image
+     * Undistort the frame so that straight lines appear straight in the image.
+     * The provided frame is not modified.
      * @param frame to undirsort
-     * @return an non-distorted version of the provided frame
+     * @return an non-distorted version of the provided frame.
+     * The matrix is a work buffer owned by the undistorter, and will be overwritten when the next frame is undistorted.
      */
     public Mat undistortFrame(Mat frame)
     {
-        Mat source = frame.clone();
-
-        Imgproc.remap(source, frame, this.mapX, this.mapY, Imgproc.INTER_LINEAR, Imgproc.WARP_FILL_OUTLIERS, new Scalar(0));
-        source.release();
+        Imgproc.remap(frame, this.undistortedFrame, this.mapX, this.mapY, Imgproc.INTER_LINEAR, Imgproc.WARP_FILL_OUTLIERS, this.borderValue);
 
-        return frame;
+        return this.undistortedFrame;
     }
 
     /**
@@ -0,0 +1,68 @@
+package org.usfirst.frc.team1318.robot.vision.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opencv.core.Mat;
+
+/**
+ * Pool of preallocated work buffers for a vision pipeline.
+ * Each stage of the pipeline allocates its destination buffers from the pool once (when the pipeline is constructed),
+ * and then writes into the same buffers for every frame so that no native memory is allocated while processing frames.
+ *
+ * Buffers are sized for frames of the pool's width and height.  If a frame of a different size is processed, OpenCV will
+ * reallocate the buffer as a part of writing to it, and the new buffer will then be reused for subsequent frames.
+ *
+ */
+public class MatPool
+{
+    private final int width;
+    private final int height;
+    private final List<Mat> buffers;
+
+    /**
+     * Initializes a new instance of the MatPool class.
+     * @param width of the frames that will be processed, in pixels
+     * @param height of the frames that will be processed, in pixels
+     */
+    public MatPool(int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+        this.buffers = new ArrayList<Mat>();
+    }
+
+    /**
+     * Allocate a new buffer from the pool, sized for a frame
+     * @param type of the buffer (e.g. CvType.CV_8UC3)
+     * @return a buffer which will be owned by the pool
+     */
+    public Mat allocate(int type)
+    {
+        Mat buffer = new Mat(this.height, this.width, type);
+        this.buffers.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Gets the number of buffers that have been allocated from the pool
+     * @return number of buffers
+     */
+    public int getBufferCount()
+    {
+        return this.buffers.size();
+    }
+
+    /**
+     * Release all of the buffers within the pool.  The pool should not be used after it has been released.
+     */
+    public void release()
+    {
+        for (Mat buffer : this.buffers)
+        {
+            buffer.release();
+        }
+
+        this.buffers.clear();
+    }
+}
@@ -0,0 +1,150 @@
+package org.usfirst.frc.team1318.robot.vision.helpers;
+
+import org.opencv.core.Rect;
+
+/**
+ * Tracks the region of interest (ROI) within the frame where the target was most recently found.
+ * After a confident detection, subsequent frames only need to be processed within a padded window around the detected
+ * target.  Each time the target is missed the window grows, and after too many misses we fall back to the full frame.
+ *
+ */
+public class RegionOfInterestTracker
+{
+    private final double paddingRatio;
+    private final int minPadding;
+    private final double growthFactor;
+    private final int maxMisses;
+
+    private final Rect region;
+    private boolean hasRegion;
+    private int misses;
+
+    /**
+     * Initializes a new instance of the RegionOfInterestTracker class.
+     * @param paddingRatio the padding to add on each side of the detected target, as a ratio of the target's size
+     * @param minPadding the minimum padding to add on each side of the detected target, in pixels
+     * @param growthFactor the amount to grow the region by each time the target is missed
+     * @param maxMisses the number of frames in a row the target can be missed before falling back to the full frame
+     */
+    public RegionOfInterestTracker(double paddingRatio, int minPadding, double growthFactor, int maxMisses)
+    {
+        this.paddingRatio = paddingRatio;
+        this.minPadding = minPadding;
+        this.growthFactor = growthFactor;
+        this.maxMisses = maxMisses;
+
+        this.region = new Rect();
+        this.hasRegion = false;
+        this.misses = 0;
+    }
+
+    /**
+     * Gets the region of the frame that should be processed
+     * @return the region to process, or null if the full frame should be processed
+     */
+    public Rect getRegion()
+    {
+        if (!this.hasRegion)
+        {
+            return null;
+        }
+
+        return this.region;
+    }
+
+    /**
+     * Record that the target was confidently found within the frame
+     * @param first bounding rect of the target (or first part of the target)
+     * @param second bounding rect of the second part of the target, or null
+     * @param frameWidth width of the full frame, in pixels
+     * @param frameHeight height of the full frame, in pixels
+     */
+    public void found(Rect first, Rect second, int frameWidth, int frameHeight)
+    {
+        int left = first.x;
+        int top = first.y;
+        int right = first.x + first.width;
+        int bottom = first.y + first.height;
+        if (second != null)
+        {
+            left = Math.min(left, second.x);
+            top = Math.min(top, second.y);
+            right = Math.max(right, second.x + second.width);
+            bottom = Math.max(bottom, second.y + second.height);
+        }
+
+        int paddingX = Math.max(this.minPadding, (int)((right - left) * this.paddingRatio));
+        int paddingY = Math.max(this.minPadding, (int)((bottom - top) * this.paddingRatio));
+        this.setRegion(left - paddingX, top - paddingY, right + paddingX, bottom + paddingY, frameWidth, frameHeight);
+        this.misses = 0;
+    }
+
+    /**
+     * Record that the target was not confidently found within the frame
+     * @param frameWidth width of the full frame, in pixels
+     * @param frameHeight height of the full frame, in pixels
+     */
+    public void lost(int frameWidth, int frameHeight)
+    {
+        if (!this.hasRegion)
+        {
+            return;
+        }
+
+        this.misses++;
+        if (this.misses > this.maxMisses)
+        {
+            this.reset();
+            return;
+        }
+
+        // grow the region around its center
+        int growX = (int)(this.region.width * (this.growthFactor - 1.0) / 2.0);
+        int growY = (int)(this.region.height * (this.growthFactor - 1.0) / 2.0);
+        this.setRegion(
+            this.region.x - growX,
+            this.region.y - growY,
+            this.region.x + this.region.width + growX,
+            this.region.y + this.region.height + growY,
+            frameWidth,
+            frameHeight);
+    }
+
+    /**
+     * Go back to processing the full frame
+     */
+    public void reset()
+    {
+        this.hasRegion = false;
+        this.misses = 0;
+    }
+
+    /**
+     * Set the region, clamping it to the frame
+     * @param left edge of the region
+     * @param top edge of the region
+     * @param right edge of the region
+     * @param bottom edge of the region
+     * @param frameWidth width of the full frame, in pixels
+     * @param frameHeight height of the full frame, in pixels
+     */
+    private void setRegion(int left, int top, int right, int bottom, int frameWidth, int frameHeight)
+    {
+        left = Math.max(0, left);
+        top = Math.max(0, top);
+        right = Math.min(frameWidth, right);
+        bottom = Math.min(frameHeight, bottom);
+        if (right <= left || bottom <= top || (left == 0 && top == 0 && right == frameWidth && bottom == frameHeight))
+        {
+            // nothing left to gain from processing only part of the frame
+            this.hasRegion = false;
+            return;
+        }
+
+        this.region.x = left;
+        this.region.y = top;
+        this.region.width = right - left;
+        this.region.height = bottom - top;
+        this.hasRegion = true;
+    }
+}
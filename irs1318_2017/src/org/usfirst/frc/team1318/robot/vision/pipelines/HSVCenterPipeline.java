@@ -1,14 +1,16 @@
 package org.usfirst.frc.team1318.robot.vision.pipelines;
 
 import org.opencv.core.Mat;
-import org.opencv.core.MatOfPoint;
 import org.opencv.core.Point;
-import org.opencv.imgcodecs.Imgcodecs;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
 import org.usfirst.frc.team1318.robot.vision.VisionConstants;
-import org.usfirst.frc.team1318.robot.vision.helpers.ContourHelper;
+import org.usfirst.frc.team1318.robot.vision.VisionStage;
+import org.usfirst.frc.team1318.robot.vision.VisionStageTimings;
+import org.usfirst.frc.team1318.robot.vision.helpers.ContourAnalyzer;
+import org.usfirst.frc.team1318.robot.vision.helpers.DebugFrameWriter;
 import org.usfirst.frc.team1318.robot.vision.helpers.HSVFilter;
 import org.usfirst.frc.team1318.robot.vision.helpers.ImageUndistorter;
+import org.usfirst.frc.team1318.robot.vision.helpers.MatPool;
 
 import edu.wpi.cscore.CvSource;
 import edu.wpi.first.wpilibj.CameraServer;
@@ -17,8 +19,13 @@ public class HSVCenterPipeline implements ICentroidVisionPipeline
 {
     private final ITimer timer;
     private final boolean shouldUndistort;
+    private final boolean debugOutput;
+    private final DebugFrameWriter frameWriter;
+    private final VisionStageTimings stageTimings;
+    private final MatPool matPool;
     private final ImageUndistorter undistorter;
     private final HSVFilter hsvFilter;
+    private final ContourAnalyzer contourAnalyzer;
 
     private final CvSource frameInput;
     private final CvSource hsvOutput;
@@ -33,6 +40,9 @@ public class HSVCenterPipeline implements ICentroidVisionPipeline
     private double lastMeasuredTime;
     private double lastFpsMeasurement;
 
+    // estimated time at which the current frame was captured
+    private double captureTime;
+
     // active status
     private volatile boolean isActive;
 
@@ -44,11 +54,30 @@ public class HSVCenterPipeline implements ICentroidVisionPipeline
     public HSVCenterPipeline(
         ITimer timer,
         boolean shouldUndistort)
+    {
+        this(timer, shouldUndistort, true);
+    }
+
+    /**
+     * Initializes a new instance of the HSVCenterPipeline class.
+     * @param timer to use for any timing purposes
+     * @param shouldUndistort whether to undistort the image or not
+     * @param enableDebugOutput whether to output debug frames and information (when enabled within VisionConstants)
+     */
+    public HSVCenterPipeline(
+        ITimer timer,
+        boolean shouldUndistort,
+        boolean enableDebugOutput)
     {
         this.shouldUndistort = shouldUndistort;
+        this.debugOutput = VisionConstants.DEBUG && enableDebugOutput;
+        this.frameWriter = this.debugOutput && VisionConstants.DEBUG_SAVE_FRAMES ? DebugFrameWriter.getShared() : null;
 
-        this.undistorter = new ImageUndistorter();
-        this.hsvFilter = new HSVFilter(VisionConstants.LIFECAM_HSV_FILTER_LOW, VisionConstants.LIFECAM_HSV_FILTER_HIGH);
+        this.stageTimings = new VisionStageTimings();
+        this.matPool = new MatPool(VisionConstants.LIFECAM_CAMERA_RESOLUTION_X, VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y);
+        this.undistorter = new ImageUndistorter(this.matPool);
+        this.hsvFilter = new HSVFilter(VisionConstants.LIFECAM_HSV_FILTER_LOW, VisionConstants.LIFECAM_HSV_FILTER_HIGH, this.matPool);
+        this.contourAnalyzer = new ContourAnalyzer(2);
 
         this.largestCenter = null;
         this.secondLargestCenter = null;
@@ -57,10 +86,11 @@ public class HSVCenterPipeline implements ICentroidVisionPipeline
         this.analyzedFrameCount = 0;
         this.timer = timer;
         this.lastMeasuredTime = this.timer.get();
+        this.captureTime = 0.0;
 
         this.isActive = true;
 
-        if (VisionConstants.DEBUG && VisionConstants.DEBUG_OUTPUT_FRAMES)
+        if (this.debugOutput && VisionConstants.DEBUG_OUTPUT_FRAMES)
         {
             this.frameInput = CameraServer.getInstance().putVideo("center.input", VisionConstants.LIFECAM_CAMERA_RESOLUTION_X, VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y);
             this.hsvOutput = CameraServer.getInstance().putVideo("center.hsv", VisionConstants.LIFECAM_CAMERA_RESOLUTION_X, VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y);
@@ -79,11 +109,11 @@ public class HSVCenterPipeline implements ICentroidVisionPipeline
     @Override
     public void process(Mat image)
     {
-        if (VisionConstants.DEBUG)
+        if (this.debugOutput)
         {
             if (VisionConstants.DEBUG_SAVE_FRAMES && this.analyzedFrameCount % VisionConstants.DEBUG_FRAME_OUTPUT_GAP == 0)
             {
-                Imgcodecs.imwrite(String.format("%simage%d-1.undistorted.jpg", VisionConstants.DEBUG_OUTPUT_FOLDER, this.analyzedFrameCount), image);
+                this.frameWriter.save(image, String.format("%simage%d-1.undistorted.jpg", VisionConstants.DEBUG_OUTPUT_FOLDER, this.analyzedFrameCount));
             }
 
             if (VisionConstants.DEBUG_OUTPUT_FRAMES)
@@ -97,8 +127,10 @@ public class HSVCenterPipeline implements ICentroidVisionPipeline
             return;
         }
 
+        // (we start processing as soon as the frame has been grabbed)
+        this.captureTime = this.timer.get() - VisionConstants.LIFECAM_CAPTURE_LATENCY;
         this.analyzedFrameCount++;
-        if (VisionConstants.DEBUG && VisionConstants.DEBUG_PRINT_OUTPUT && this.analyzedFrameCount % VisionConstants.DEBUG_FPS_AVERAGING_INTERVAL == 0)
+        if (this.debugOutput && VisionConstants.DEBUG_PRINT_OUTPUT && this.analyzedFrameCount % VisionConstants.DEBUG_FPS_AVERAGING_INTERVAL == 0)
         {
             double now = this.timer.get();
             double elapsedTime = now - this.lastMeasuredTime;
@@ -107,30 +139,24 @@ public class HSVCenterPipeline implements ICentroidVisionPipeline
             this.lastMeasuredTime = this.timer.get();
         }
 
+        this.stageTimings.startFrame();
+
         // first, undistort the image.
-        Mat undistortedImage;
+        // (the undistorter and HSV filter write into the pipeline's preallocated buffers, so the input frame is left as-is)
         if (this.shouldUndistort)
         {
             image = this.undistorter.undistortFrame(image);
         }
 
-        // save the undistorted image for possible output later...
-        if (this.shouldUndistort)
-        {
-            undistortedImage = image.clone();
-        }
-        else
-        {
-            undistortedImage = image;
-        }
+        this.stageTimings.endStage(VisionStage.Undistort);
 
         // second, filter HSV
         image = this.hsvFilter.filterHSV(image);
-        if (VisionConstants.DEBUG)
+        if (this.debugOutput)
         {
             if (VisionConstants.DEBUG_SAVE_FRAMES && this.analyzedFrameCount % VisionConstants.DEBUG_FRAME_OUTPUT_GAP == 0)
             {
-                Imgcodecs.imwrite(String.format("%simage%d-2.hsvfiltered.jpg", VisionConstants.DEBUG_OUTPUT_FOLDER, this.analyzedFrameCount), image);
+                this.frameWriter.save(image, String.format("%simage%d-2.hsvfiltered.jpg", VisionConstants.DEBUG_OUTPUT_FOLDER, this.analyzedFrameCount));
             }
 
             if (VisionConstants.DEBUG_OUTPUT_FRAMES)
@@ -139,35 +165,34 @@ public class HSVCenterPipeline implements ICentroidVisionPipeline
             }
         }
 
-        // third, find the largest contour.
-        MatOfPoint[] largestContours = ContourHelper.findTwoLargestContours(image, VisionConstants.CONTOUR_MIN_AREA);
-        MatOfPoint largestContour = largestContours[0];
-        MatOfPoint secondLargestContour = largestContours[1];
+        this.stageTimings.endStage(VisionStage.HSVFilter);
 
-        if (largestContour == null)
+        // third, find the largest contour.
+        int contourCount = this.contourAnalyzer.findLargestContours(image, null, VisionConstants.CONTOUR_MIN_AREA);
+        if (contourCount == 0)
         {
-            if (VisionConstants.DEBUG && VisionConstants.DEBUG_PRINT_OUTPUT && VisionConstants.DEBUG_PRINT_ANALYZER_DATA)
+            if (this.debugOutput && VisionConstants.DEBUG_PRINT_OUTPUT && VisionConstants.DEBUG_PRINT_ANALYZER_DATA)
             {
                 System.out.println("could not find any contour");
             }
         }
 
+        this.stageTimings.endStage(VisionStage.Contours);
+
         // fourth, find the center of mass for the largest two contours
         Point largestCenterOfMass = null;
         Point secondLargestCenterOfMass = null;
-        if (largestContour != null)
+        if (contourCount > 0)
         {
-            largestCenterOfMass = ContourHelper.findCenterOfMass(largestContour);
-            largestContour.release();
+            largestCenterOfMass = this.contourAnalyzer.getCenterOfMass(0);
         }
 
-        if (secondLargestContour != null)
+        if (contourCount > 1)
         {
-            secondLargestCenterOfMass = ContourHelper.findCenterOfMass(secondLargestContour);
-            secondLargestContour.release();
+            secondLargestCenterOfMass = this.contourAnalyzer.getCenterOfMass(1);
         }
 
-        if (VisionConstants.DEBUG)
+        if (this.debugOutput)
         {
             if (VisionConstants.DEBUG_PRINT_OUTPUT && VisionConstants.DEBUG_PRINT_ANALYZER_DATA)
             {
@@ -195,8 +220,6 @@ public class HSVCenterPipeline implements ICentroidVisionPipeline
         this.largestCenter = largestCenterOfMass;
         this.secondLargestCenter = secondLargestCenterOfMass;
 
-        undistortedImage.release();
-
         if (this.largestCenter != null)
         {
             double xOffsetMeasured = this.largestCenter.x - VisionConstants.LIFECAM_CAMERA_CENTER_WIDTH;
@@ -206,6 +229,8 @@ public class HSVCenterPipeline implements ICentroidVisionPipeline
         {
             this.measuredAngleX = null;
         }
+
+        this.stageTimings.endStage(VisionStage.Geometry);
     }
 
     public void setActivation(boolean isActive)
@@ -247,4 +272,14 @@ public class HSVCenterPipeline implements ICentroidVisionPipeline
     {
         return this.lastFpsMeasurement;
     }
+
+    public double getCaptureTime()
+    {
+        return this.captureTime;
+    }
+
+    public VisionStageTimings getStageTimings()
+    {
+        return this.stageTimings;
+    }
 }
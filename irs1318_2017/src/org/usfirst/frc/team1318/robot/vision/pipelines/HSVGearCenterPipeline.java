@@ -1,16 +1,19 @@
 package org.usfirst.frc.team1318.robot.vision.pipelines;
 
 import org.opencv.core.Mat;
-import org.opencv.core.MatOfPoint;
 import org.opencv.core.Point;
 import org.opencv.core.Rect;
-import org.opencv.imgcodecs.Imgcodecs;
-import org.opencv.imgproc.Imgproc;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
 import org.usfirst.frc.team1318.robot.vision.VisionConstants;
-import org.usfirst.frc.team1318.robot.vision.helpers.ContourHelper;
+import org.usfirst.frc.team1318.robot.vision.VisionStage;
+import org.usfirst.frc.team1318.robot.vision.VisionStageTimings;
+import org.usfirst.frc.team1318.robot.vision.helpers.CoarseTargetLocator;
+import org.usfirst.frc.team1318.robot.vision.helpers.ContourAnalyzer;
+import org.usfirst.frc.team1318.robot.vision.helpers.DebugFrameWriter;
 import org.usfirst.frc.team1318.robot.vision.helpers.HSVFilter;
 import org.usfirst.frc.team1318.robot.vision.helpers.ImageUndistorter;
+import org.usfirst.frc.team1318.robot.vision.helpers.MatPool;
+import org.usfirst.frc.team1318.robot.vision.helpers.RegionOfInterestTracker;
 
 import edu.wpi.cscore.CvSource;
 import edu.wpi.first.wpilibj.CameraServer;
@@ -19,8 +22,15 @@ public class HSVGearCenterPipeline implements ICentroidVisionPipeline
 {
     private final ITimer timer;
     private final boolean shouldUndistort;
+    private final boolean debugOutput;
+    private final DebugFrameWriter frameWriter;
+    private final VisionStageTimings stageTimings;
+    private final MatPool matPool;
     private final ImageUndistorter undistorter;
     private final HSVFilter hsvFilter;
+    private final ContourAnalyzer contourAnalyzer;
+    private final RegionOfInterestTracker regionTracker;
+    private final CoarseTargetLocator coarseLocator;
 
     private final CvSource frameInput;
     private final CvSource hsvOutput;
@@ -39,21 +49,67 @@ public class HSVGearCenterPipeline implements ICentroidVisionPipeline
     private double lastMeasuredTime;
     private double lastFpsMeasurement;
 
+    // estimated time at which the current frame was captured
+    private double captureTime;
+
     // active status
     private volatile boolean isActive;
+    private volatile boolean shouldResetRegion;
 
     /**
      * Initializes a new instance of the HSVGearCenterPipeline class.
+     * @param timer to use for any timing purposes
      * @param shouldUndistort whether to undistort the image or not
      */
     public HSVGearCenterPipeline(
         ITimer timer,
         boolean shouldUndistort)
     {
-        this.shouldUndistort = shouldUndistort;
+        this(timer, shouldUndistort, true);
+    }
 
-        this.undistorter = new ImageUndistorter();
-        this.hsvFilter = new HSVFilter(VisionConstants.LIFECAM_HSV_FILTER_LOW, VisionConstants.LIFECAM_HSV_FILTER_HIGH);
+    /**
+     * Initializes a new instance of the HSVGearCenterPipeline class.
+     * @param timer to use for any timing purposes
+     * @param shouldUndistort whether to undistort the image or not
+     * @param enableDebugOutput whether to output debug frames and information (when enabled within VisionConstants)
+     */
+    public HSVGearCenterPipeline(
+        ITimer timer,
+        boolean shouldUndistort,
+        boolean enableDebugOutput)
+    {
+        this.shouldUndistort = shouldUndistort;
+        this.debugOutput = VisionConstants.DEBUG && enableDebugOutput;
+        this.frameWriter = this.debugOutput && VisionConstants.DEBUG_SAVE_FRAMES ? DebugFrameWriter.getShared() : null;
+
+        this.stageTimings = new VisionStageTimings();
+        this.matPool = new MatPool(VisionConstants.LIFECAM_CAMERA_RESOLUTION_X, VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y);
+        this.undistorter = new ImageUndistorter(this.matPool);
+        this.hsvFilter = new HSVFilter(VisionConstants.LIFECAM_HSV_FILTER_LOW, VisionConstants.LIFECAM_HSV_FILTER_HIGH, this.matPool);
+        this.contourAnalyzer = new ContourAnalyzer(2);
+        this.regionTracker = new RegionOfInterestTracker(
+            VisionConstants.ROI_PADDING_RATIO,
+            VisionConstants.ROI_MIN_PADDING,
+            VisionConstants.ROI_GROWTH_FACTOR,
+            VisionConstants.ROI_MAX_MISSES);
+
+        if (VisionConstants.COARSE_TO_FINE_DOWNSCALE > 1)
+        {
+            this.coarseLocator = new CoarseTargetLocator(
+                VisionConstants.LIFECAM_CAMERA_RESOLUTION_X,
+                VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y,
+                VisionConstants.COARSE_TO_FINE_DOWNSCALE,
+                VisionConstants.LIFECAM_HSV_FILTER_LOW,
+                VisionConstants.LIFECAM_HSV_FILTER_HIGH,
+                VisionConstants.COARSE_TO_FINE_PADDING_RATIO,
+                VisionConstants.COARSE_TO_FINE_FULL_SEARCH_INTERVAL,
+                VisionConstants.COARSE_TO_FINE_MAX_MISSES);
+        }
+        else
+        {
+            this.coarseLocator = null;
+        }
 
         this.largestCenter = null;
         this.secondLargestCenter = null;
@@ -66,10 +122,11 @@ public class HSVGearCenterPipeline implements ICentroidVisionPipeline
         this.analyzedFrameCount = 0;
         this.timer = timer;
         this.lastMeasuredTime = this.timer.get();
+        this.captureTime = 0.0;
 
         this.isActive = true;
 
-        if (VisionConstants.DEBUG && VisionConstants.DEBUG_OUTPUT_GEAR_FRAMES)
+        if (this.debugOutput && VisionConstants.DEBUG_OUTPUT_GEAR_FRAMES)
         {
             this.frameInput = CameraServer.getInstance().putVideo("g.input", VisionConstants.LIFECAM_CAMERA_RESOLUTION_X, VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y);
             this.hsvOutput = CameraServer.getInstance().putVideo("g.hsv", VisionConstants.LIFECAM_CAMERA_RESOLUTION_X, VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y);
@@ -88,11 +145,11 @@ public class HSVGearCenterPipeline implements ICentroidVisionPipeline
     @Override
     public void process(Mat image)
     {
-        if (VisionConstants.DEBUG)
+        if (this.debugOutput)
         {
             if (VisionConstants.DEBUG_SAVE_FRAMES && this.analyzedFrameCount % VisionConstants.DEBUG_FRAME_OUTPUT_GAP == 0)
             {
-                Imgcodecs.imwrite(String.format("%simage%d-1.undistorted.jpg", VisionConstants.DEBUG_OUTPUT_FOLDER, this.analyzedFrameCount), image);
+                this.frameWriter.save(image, String.format("%simage%d-1.undistorted.jpg", VisionConstants.DEBUG_OUTPUT_FOLDER, this.analyzedFrameCount));
             }
 
             if (VisionConstants.DEBUG_OUTPUT_GEAR_FRAMES)
@@ -106,8 +163,17 @@ public class HSVGearCenterPipeline implements ICentroidVisionPipeline
             return;
         }
 
+        // we need to find the target again within the full frame when we have been re-activated
+        if (this.shouldResetRegion)
+        {
+            this.shouldResetRegion = false;
+            this.regionTracker.reset();
+        }
+
+        // (we start processing as soon as the frame has been grabbed)
+        this.captureTime = this.timer.get() - VisionConstants.LIFECAM_CAPTURE_LATENCY;
         this.analyzedFrameCount++;
-        if (VisionConstants.DEBUG && VisionConstants.DEBUG_PRINT_OUTPUT && this.analyzedFrameCount % VisionConstants.DEBUG_FPS_AVERAGING_INTERVAL == 0)
+        if (this.debugOutput && VisionConstants.DEBUG_PRINT_OUTPUT && this.analyzedFrameCount % VisionConstants.DEBUG_FPS_AVERAGING_INTERVAL == 0)
         {
             double now = this.timer.get();
             double elapsedTime = now - this.lastMeasuredTime;
@@ -116,76 +182,99 @@ public class HSVGearCenterPipeline implements ICentroidVisionPipeline
             this.lastMeasuredTime = this.timer.get();
         }
 
+        this.stageTimings.startFrame();
+
         // first, undistort the image.
-        Mat undistortedImage;
+        // (the undistorter and HSV filter write into the pipeline's preallocated buffers, so the input frame is left as-is)
         if (this.shouldUndistort)
         {
             image = this.undistorter.undistortFrame(image);
         }
 
-        // save the undistorted image for possible output later...
-        if (this.shouldUndistort)
-        {
-            undistortedImage = image.clone();
-        }
-        else
+        this.stageTimings.endStage(VisionStage.Undistort);
+
+        // second, filter HSV (only within the region around the previous detection, if we are tracking the target)
+        int frameWidth = image.cols();
+        int frameHeight = image.rows();
+        Rect region = this.regionTracker.getRegion();
+        boolean shouldSearch = true;
+        if (region == null && this.coarseLocator != null)
         {
-            undistortedImage = image;
+            // we aren't tracking the target, so find roughly where it could be within a downscaled frame and then only
+            // filter and search around there (skipping the full-resolution frame if there's nothing to find, except when
+            // the locator wants the full frame searched in case the target was blurred away)
+            shouldSearch = this.coarseLocator.locate(image);
+            region = this.coarseLocator.getRegion();
         }
 
-        // second, filter HSV
-        image = this.hsvFilter.filterHSV(image);
-        if (VisionConstants.DEBUG)
+        this.stageTimings.endStage(VisionStage.CoarseLocate);
+
+        Point regionOffset = region == null ? null : region.tl();
+        if (shouldSearch)
         {
-            if (VisionConstants.DEBUG_SAVE_FRAMES && this.analyzedFrameCount % VisionConstants.DEBUG_FRAME_OUTPUT_GAP == 0)
+            image = this.hsvFilter.filterHSV(image, region);
+            if (this.debugOutput)
             {
-                Imgcodecs.imwrite(String.format("%simage%d-2.hsvfiltered.jpg", VisionConstants.DEBUG_OUTPUT_FOLDER, this.analyzedFrameCount), image);
-            }
+                if (VisionConstants.DEBUG_SAVE_FRAMES && this.analyzedFrameCount % VisionConstants.DEBUG_FRAME_OUTPUT_GAP == 0)
+                {
+                    this.frameWriter.save(image, String.format("%simage%d-2.hsvfiltered.jpg", VisionConstants.DEBUG_OUTPUT_FOLDER, this.analyzedFrameCount));
+                }
 
-            if (VisionConstants.DEBUG_OUTPUT_GEAR_FRAMES)
-            {
-                this.hsvOutput.putFrame(image);
+                if (VisionConstants.DEBUG_OUTPUT_GEAR_FRAMES)
+                {
+                    this.hsvOutput.putFrame(image);
+                }
             }
         }
 
+        this.stageTimings.endStage(VisionStage.HSVFilter);
+
         // third, find the largest contour.
-        MatOfPoint[] largestContours = ContourHelper.findTwoLargestContours(
+        int contourCount = !shouldSearch ? 0 : this.contourAnalyzer.findLargestContours(
             image,
+            regionOffset,
             VisionConstants.CONTOUR_MIN_AREA,
             VisionConstants.GEAR_RETROREFLECTIVE_TAPE_HxW_RATIO,
             VisionConstants.GEAR_HxW_ALLOWABLE_RATIO_RANGE,
             VisionConstants.GEAR_CONTOUR_ALLOWABLE_RATIO);
-        MatOfPoint largestContour = largestContours[0];
-        MatOfPoint secondLargestContour = largestContours[1];
-
-        if (largestContour == null)
+        if (contourCount == 0)
         {
-            if (VisionConstants.DEBUG && VisionConstants.DEBUG_PRINT_OUTPUT && VisionConstants.DEBUG_PRINT_ANALYZER_DATA)
+            if (this.debugOutput && VisionConstants.DEBUG_PRINT_OUTPUT && VisionConstants.DEBUG_PRINT_ANALYZER_DATA)
             {
                 System.out.println("could not find any contour");
             }
         }
 
+        this.stageTimings.endStage(VisionStage.Contours);
+
         // fourth, find the center of mass for the largest two contours
         Point largestCenterOfMass = null;
         Point secondLargestCenterOfMass = null;
         Rect largestBoundingRect = null;
         Rect secondLargestBoundingRect = null;
-        if (largestContour != null)
+        if (contourCount > 0)
+        {
+            largestCenterOfMass = this.contourAnalyzer.getCenterOfMass(0);
+            largestBoundingRect = this.contourAnalyzer.getBoundingRect(0);
+        }
+
+        if (contourCount > 1)
         {
-            largestCenterOfMass = ContourHelper.findCenterOfMass(largestContour);
-            largestBoundingRect = Imgproc.boundingRect(largestContour);
-            largestContour.release();
+            secondLargestCenterOfMass = this.contourAnalyzer.getCenterOfMass(1);
+            secondLargestBoundingRect = this.contourAnalyzer.getBoundingRect(1);
         }
 
-        if (secondLargestContour != null)
+        // we are confident in the detection when we find both pieces of tape, so only look around them in the next frame
+        if (VisionConstants.ROI_TRACKING_ENABLED && largestBoundingRect != null && secondLargestBoundingRect != null)
         {
-            secondLargestCenterOfMass = ContourHelper.findCenterOfMass(secondLargestContour);
-            secondLargestBoundingRect = Imgproc.boundingRect(secondLargestContour);
-            secondLargestContour.release();
+            this.regionTracker.found(largestBoundingRect, secondLargestBoundingRect, frameWidth, frameHeight);
+        }
+        else
+        {
+            this.regionTracker.lost(frameWidth, frameHeight);
         }
 
-        if (VisionConstants.DEBUG)
+        if (this.debugOutput)
         {
             if (VisionConstants.DEBUG_PRINT_OUTPUT && VisionConstants.DEBUG_PRINT_ANALYZER_DATA)
             {
@@ -213,8 +302,6 @@ public class HSVGearCenterPipeline implements ICentroidVisionPipeline
         this.largestCenter = largestCenterOfMass;
         this.secondLargestCenter = secondLargestCenterOfMass;
 
-        undistortedImage.release();
-
         // GEAR CALCULATIONS
         if (this.largestCenter == null && this.secondLargestCenter == null)
         {
@@ -223,6 +310,7 @@ public class HSVGearCenterPipeline implements ICentroidVisionPipeline
 
             this.measuredAngleX = null;
 
+            this.stageTimings.endStage(VisionStage.Geometry);
             return;
         }
 
@@ -243,6 +331,7 @@ public class HSVGearCenterPipeline implements ICentroidVisionPipeline
         int gearMarkerHeight = boundingRect.height;
         if (gearMarkerHeight == 0)
         {
+            this.stageTimings.endStage(VisionStage.Geometry);
             return;
         }
 
@@ -255,10 +344,16 @@ public class HSVGearCenterPipeline implements ICentroidVisionPipeline
             * ((double)VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y / (double)gearMarkerHeight);
         this.distanceFromRobot = distanceFromCam * Math.cos(this.measuredAngleX * VisionConstants.ANGLE_TO_RADIANS) + VisionConstants.GEAR_CAMERA_MOUNTING_DISTANCE;
         this.desiredAngleX = Math.asin(VisionConstants.GEAR_CAMERA_HORIZONTAL_MOUNTING_OFFSET / distanceFromCam) * VisionConstants.RADIANS_TO_ANGLE;
+        this.stageTimings.endStage(VisionStage.Geometry);
     }
 
     public void setActivation(boolean isActive)
     {
+        if (isActive && !this.isActive)
+        {
+            this.shouldResetRegion = true;
+        }
+
         this.isActive = isActive;
     }
 
@@ -291,4 +386,14 @@ public class HSVGearCenterPipeline implements ICentroidVisionPipeline
     {
         return this.lastFpsMeasurement;
     }
+
+    public double getCaptureTime()
+    {
+        return this.captureTime;
+    }
+
+    public VisionStageTimings getStageTimings()
+    {
+        return this.stageTimings;
+    }
 }
@@ -1,16 +1,19 @@
 package org.usfirst.frc.team1318.robot.vision.pipelines;
 
 import org.opencv.core.Mat;
-import org.opencv.core.MatOfPoint;
 import org.opencv.core.Point;
 import org.opencv.core.Rect;
-import org.opencv.imgcodecs.Imgcodecs;
-import org.opencv.imgproc.Imgproc;
 import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
 import org.usfirst.frc.team1318.robot.vision.VisionConstants;
-import org.usfirst.frc.team1318.robot.vision.helpers.ContourHelper;
+import org.usfirst.frc.team1318.robot.vision.VisionStage;
+import org.usfirst.frc.team1318.robot.vision.VisionStageTimings;
+import org.usfirst.frc.team1318.robot.vision.helpers.CoarseTargetLocator;
+import org.usfirst.frc.team1318.robot.vision.helpers.ContourAnalyzer;
+import org.usfirst.frc.team1318.robot.vision.helpers.DebugFrameWriter;
 import org.usfirst.frc.team1318.robot.vision.helpers.HSVFilter;
 import org.usfirst.frc.team1318.robot.vision.helpers.ImageUndistorter;
+import org.usfirst.frc.team1318.robot.vision.helpers.MatPool;
+import org.usfirst.frc.team1318.robot.vision.helpers.RegionOfInterestTracker;
 
 import edu.wpi.cscore.CvSource;
 import edu.wpi.first.wpilibj.CameraServer;
@@ -19,8 +22,15 @@ public class HSVShooterCenterPipeline implements ICentroidVisionPipeline
 {
     private final ITimer timer;
     private final boolean shouldUndistort;
+    private final boolean debugOutput;
+    private final DebugFrameWriter frameWriter;
+    private final VisionStageTimings stageTimings;
+    private final MatPool matPool;
     private final ImageUndistorter undistorter;
     private final HSVFilter hsvFilter;
+    private final ContourAnalyzer contourAnalyzer;
+    private final RegionOfInterestTracker regionTracker;
+    private final CoarseTargetLocator coarseLocator;
 
     private final CvSource frameInput;
     private final CvSource hsvOutput;
@@ -35,8 +45,12 @@ public class HSVShooterCenterPipeline implements ICentroidVisionPipeline
     private double lastMeasuredTime;
     private double lastFpsMeasurement;
 
+    // estimated time at which the current frame was captured
+    private double captureTime;
+
     // active status
     private volatile boolean isActive;
+    private volatile boolean shouldResetRegion;
 
     /**
      * Initializes a new instance of the HSVShooterCenterPipeline class.
@@ -47,10 +61,51 @@ public class HSVShooterCenterPipeline implements ICentroidVisionPipeline
         ITimer timer,
         boolean shouldUndistort)
     {
-        this.shouldUndistort = shouldUndistort;
+        this(timer, shouldUndistort, true);
+    }
 
-        this.undistorter = new ImageUndistorter();
-        this.hsvFilter = new HSVFilter(VisionConstants.LIFECAM_HSV_FILTER_LOW, VisionConstants.LIFECAM_HSV_FILTER_HIGH);
+    /**
+     * Initializes a new instance of the HSVShooterCenterPipeline class.
+     * @param timer to use for any timing purposes
+     * @param shouldUndistort whether to undistort the image or not
+     * @param enableDebugOutput whether to output debug frames and information (when enabled within VisionConstants)
+     */
+    public HSVShooterCenterPipeline(
+        ITimer timer,
+        boolean shouldUndistort,
+        boolean enableDebugOutput)
+    {
+        this.shouldUndistort = shouldUndistort;
+        this.debugOutput = VisionConstants.DEBUG && enableDebugOutput;
+        this.frameWriter = this.debugOutput && VisionConstants.DEBUG_SAVE_FRAMES ? DebugFrameWriter.getShared() : null;
+
+        this.stageTimings = new VisionStageTimings();
+        this.matPool = new MatPool(VisionConstants.LIFECAM_CAMERA_RESOLUTION_X, VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y);
+        this.undistorter = new ImageUndistorter(this.matPool);
+        this.hsvFilter = new HSVFilter(VisionConstants.LIFECAM_HSV_FILTER_LOW, VisionConstants.LIFECAM_HSV_FILTER_HIGH, this.matPool);
+        this.contourAnalyzer = new ContourAnalyzer(2);
+        this.regionTracker = new RegionOfInterestTracker(
+            VisionConstants.ROI_PADDING_RATIO,
+            VisionConstants.ROI_MIN_PADDING,
+            VisionConstants.ROI_GROWTH_FACTOR,
+            VisionConstants.ROI_MAX_MISSES);
+
+        if (VisionConstants.COARSE_TO_FINE_DOWNSCALE > 1)
+        {
+            this.coarseLocator = new CoarseTargetLocator(
+                VisionConstants.LIFECAM_CAMERA_RESOLUTION_X,
+                VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y,
+                VisionConstants.COARSE_TO_FINE_DOWNSCALE,
+                VisionConstants.LIFECAM_HSV_FILTER_LOW,
+                VisionConstants.LIFECAM_HSV_FILTER_HIGH,
+                VisionConstants.COARSE_TO_FINE_PADDING_RATIO,
+                VisionConstants.COARSE_TO_FINE_FULL_SEARCH_INTERVAL,
+                VisionConstants.COARSE_TO_FINE_MAX_MISSES);
+        }
+        else
+        {
+            this.coarseLocator = null;
+        }
 
         this.center = null;
         this.measuredAngleX = null;
@@ -59,10 +114,11 @@ public class HSVShooterCenterPipeline implements ICentroidVisionPipeline
         this.analyzedFrameCount = 0;
         this.timer = timer;
         this.lastMeasuredTime = this.timer.get();
+        this.captureTime = 0.0;
 
         this.isActive = true;
 
-        if (VisionConstants.DEBUG && VisionConstants.DEBUG_OUTPUT_SHOOTER_FRAMES)
+        if (this.debugOutput && VisionConstants.DEBUG_OUTPUT_SHOOTER_FRAMES)
         {
             this.frameInput = CameraServer.getInstance().putVideo("s.input", VisionConstants.LIFECAM_CAMERA_RESOLUTION_X, VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y);
             this.hsvOutput = CameraServer.getInstance().putVideo("s.hsv", VisionConstants.LIFECAM_CAMERA_RESOLUTION_X, VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y);
@@ -81,11 +137,11 @@ public class HSVShooterCenterPipeline implements ICentroidVisionPipeline
     @Override
     public void process(Mat image)
     {
-        if (VisionConstants.DEBUG)
+        if (this.debugOutput)
         {
             if (VisionConstants.DEBUG_SAVE_FRAMES && this.analyzedFrameCount % VisionConstants.DEBUG_FRAME_OUTPUT_GAP == 0)
             {
-                Imgcodecs.imwrite(String.format("%simage%d-1.undistorted.jpg", VisionConstants.DEBUG_OUTPUT_FOLDER, this.analyzedFrameCount), image);
+                this.frameWriter.save(image, String.format("%simage%d-1.undistorted.jpg", VisionConstants.DEBUG_OUTPUT_FOLDER, this.analyzedFrameCount));
             }
 
             if (VisionConstants.DEBUG_OUTPUT_SHOOTER_FRAMES)
@@ -99,8 +155,17 @@ public class HSVShooterCenterPipeline implements ICentroidVisionPipeline
             return;
         }
 
+        // we need to find the target again within the full frame when we have been re-activated
+        if (this.shouldResetRegion)
+        {
+            this.shouldResetRegion = false;
+            this.regionTracker.reset();
+        }
+
+        // (we start processing as soon as the frame has been grabbed)
+        this.captureTime = this.timer.get() - VisionConstants.LIFECAM_CAPTURE_LATENCY;
         this.analyzedFrameCount++;
-        if (VisionConstants.DEBUG && VisionConstants.DEBUG_PRINT_OUTPUT && this.analyzedFrameCount % VisionConstants.DEBUG_FPS_AVERAGING_INTERVAL == 0)
+        if (this.debugOutput && VisionConstants.DEBUG_PRINT_OUTPUT && this.analyzedFrameCount % VisionConstants.DEBUG_FPS_AVERAGING_INTERVAL == 0)
         {
             double now = this.timer.get();
             double elapsedTime = now - this.lastMeasuredTime;
@@ -109,71 +174,93 @@ public class HSVShooterCenterPipeline implements ICentroidVisionPipeline
             this.lastMeasuredTime = this.timer.get();
         }
 
+        this.stageTimings.startFrame();
+
         // first, undistort the image.
-        Mat undistortedImage;
+        // (the undistorter and HSV filter write into the pipeline's preallocated buffers, so the input frame is left as-is)
         if (this.shouldUndistort)
         {
             image = this.undistorter.undistortFrame(image);
         }
 
-        // save the undistorted image for possible output later...
-        if (this.shouldUndistort)
-        {
-            undistortedImage = image.clone();
-        }
-        else
+        this.stageTimings.endStage(VisionStage.Undistort);
+
+        // second, filter HSV (only within the region around the previous detection, if we are tracking the target)
+        int frameWidth = image.cols();
+        int frameHeight = image.rows();
+        Rect region = this.regionTracker.getRegion();
+        boolean shouldSearch = true;
+        if (region == null && this.coarseLocator != null)
         {
-            undistortedImage = image;
+            // we aren't tracking the target, so find roughly where it could be within a downscaled frame and then only
+            // filter and search around there (skipping the full-resolution frame if there's nothing to find, except when
+            // the locator wants the full frame searched in case the target was blurred away)
+            shouldSearch = this.coarseLocator.locate(image);
+            region = this.coarseLocator.getRegion();
         }
 
-        // second, filter HSV
-        image = this.hsvFilter.filterHSV(image);
-        if (VisionConstants.DEBUG)
+        this.stageTimings.endStage(VisionStage.CoarseLocate);
+
+        Point regionOffset = region == null ? null : region.tl();
+        if (shouldSearch)
         {
-            if (VisionConstants.DEBUG_SAVE_FRAMES && this.analyzedFrameCount % VisionConstants.DEBUG_FRAME_OUTPUT_GAP == 0)
+            image = this.hsvFilter.filterHSV(image, region);
+            if (this.debugOutput)
             {
-                Imgcodecs.imwrite(String.format("%simage%d-2.hsvfiltered.jpg", VisionConstants.DEBUG_OUTPUT_FOLDER, this.analyzedFrameCount), image);
-            }
+                if (VisionConstants.DEBUG_SAVE_FRAMES && this.analyzedFrameCount % VisionConstants.DEBUG_FRAME_OUTPUT_GAP == 0)
+                {
+                    this.frameWriter.save(image, String.format("%simage%d-2.hsvfiltered.jpg", VisionConstants.DEBUG_OUTPUT_FOLDER, this.analyzedFrameCount));
+                }
 
-            if (VisionConstants.DEBUG_OUTPUT_SHOOTER_FRAMES)
-            {
-                this.hsvOutput.putFrame(image);
+                if (VisionConstants.DEBUG_OUTPUT_SHOOTER_FRAMES)
+                {
+                    this.hsvOutput.putFrame(image);
+                }
             }
         }
 
-        // third, find the largest contour.
-        MatOfPoint[] largestContours = ContourHelper.findTwoLargestContours(image, VisionConstants.CONTOUR_MIN_AREA);
-        MatOfPoint largestContour = largestContours[0];
-        MatOfPoint secondLargestContour = largestContours[1];
+        this.stageTimings.endStage(VisionStage.HSVFilter);
 
-        if (largestContour == null)
+        // third, find the largest contour.
+        int contourCount = !shouldSearch ? 0 : this.contourAnalyzer.findLargestContours(image, regionOffset, VisionConstants.CONTOUR_MIN_AREA);
+        if (contourCount == 0)
         {
-            if (VisionConstants.DEBUG && VisionConstants.DEBUG_PRINT_OUTPUT && VisionConstants.DEBUG_PRINT_ANALYZER_DATA)
+            if (this.debugOutput && VisionConstants.DEBUG_PRINT_OUTPUT && VisionConstants.DEBUG_PRINT_ANALYZER_DATA)
             {
                 System.out.println("could not find any contour");
             }
         }
 
+        this.stageTimings.endStage(VisionStage.Contours);
+
         // fourth, find the center of mass for the largest two contours
         Point largestCenterOfMass = null;
         Point secondLargestCenterOfMass = null;
         Rect largestBoundingRectangle = null;
         Rect secondLargestBoundingRectangle = null;
-        if (largestContour != null)
+        if (contourCount > 0)
         {
-            largestCenterOfMass = ContourHelper.findCenterOfMass(largestContour);
-            largestBoundingRectangle = Imgproc.boundingRect(largestContour);
-            largestContour.release();
+            largestCenterOfMass = this.contourAnalyzer.getCenterOfMass(0);
+            largestBoundingRectangle = this.contourAnalyzer.getBoundingRect(0);
         }
 
-        if (secondLargestContour != null)
+        if (contourCount > 1)
         {
-            secondLargestCenterOfMass = ContourHelper.findCenterOfMass(secondLargestContour);
-            secondLargestBoundingRectangle = Imgproc.boundingRect(secondLargestContour);
-            secondLargestContour.release();
+            secondLargestCenterOfMass = this.contourAnalyzer.getCenterOfMass(1);
+            secondLargestBoundingRectangle = this.contourAnalyzer.getBoundingRect(1);
         }
 
-        if (VisionConstants.DEBUG)
+        // we are confident in the detection when we find both pieces of tape, so only look around them in the next frame
+        if (VisionConstants.ROI_TRACKING_ENABLED && largestBoundingRectangle != null && secondLargestBoundingRectangle != null)
+        {
+            this.regionTracker.found(largestBoundingRectangle, secondLargestBoundingRectangle, frameWidth, frameHeight);
+        }
+        else
+        {
+            this.regionTracker.lost(frameWidth, frameHeight);
+        }
+
+        if (this.debugOutput)
         {
             if (VisionConstants.DEBUG_PRINT_OUTPUT && VisionConstants.DEBUG_PRINT_ANALYZER_DATA)
             {
@@ -197,8 +284,6 @@ public class HSVShooterCenterPipeline implements ICentroidVisionPipeline
             }
         }
 
-        undistortedImage.release();
-
         Point upperCenterOfMass;
         Rect upperBoundingRectangle;
         if (largestCenterOfMass != null && secondLargestCenterOfMass != null && secondLargestCenterOfMass.y < largestCenterOfMass.y)
@@ -217,6 +302,7 @@ public class HSVShooterCenterPipeline implements ICentroidVisionPipeline
             this.center = null;
             this.measuredAngleX = null;
             this.distanceFromRobot = null;
+            this.stageTimings.endStage(VisionStage.Geometry);
             return;
         }
 
@@ -230,10 +316,16 @@ public class HSVShooterCenterPipeline implements ICentroidVisionPipeline
 
         double angleY = measuredAngleY + VisionConstants.SHOOTER_CAMERA_VERTICAL_MOUNTING_ANGLE;
         this.distanceFromRobot = VisionConstants.SHOOTER_CAMERA_TO_RETROREFLECTIVE_TAPE_HEIGHT / Math.tan(angleY * VisionConstants.ANGLE_TO_RADIANS);
+        this.stageTimings.endStage(VisionStage.Geometry);
     }
 
     public void setActivation(boolean isActive)
     {
+        if (isActive && !this.isActive)
+        {
+            this.shouldResetRegion = true;
+        }
+
         this.isActive = isActive;
     }
 
@@ -266,4 +358,14 @@ public class HSVShooterCenterPipeline implements ICentroidVisionPipeline
     {
         return this.lastFpsMeasurement;
     }
+
+    public double getCaptureTime()
+    {
+        return this.captureTime;
+    }
+
+    public VisionStageTimings getStageTimings()
+    {
+        return this.stageTimings;
+    }
 }
@@ -1,6 +1,7 @@
 package org.usfirst.frc.team1318.robot.vision.pipelines;
 
 import org.opencv.core.Point;
+import org.usfirst.frc.team1318.robot.vision.VisionStageTimings;
 
 import edu.wpi.first.wpilibj.vision.VisionPipeline;
 
@@ -13,4 +14,6 @@ public interface ICentroidVisionPipeline extends VisionPipeline
     Double getMeasuredAngleX();
     Double getRobotDistance();
     double getFps();
+    double getCaptureTime();
+    VisionStageTimings getStageTimings();
 }
@@ -0,0 +1,90 @@
+package org.usfirst.frc.team1318.robot;
+
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.usfirst.frc.team1318.robot.common.IController;
+import org.usfirst.frc.team1318.robot.common.IDashboardLogger;
+
+public class ControllerManagerTest
+{
+    @Test
+    public void testControllersUpdatedAtTheirOwnRate()
+    {
+        IController slow = ControllerManagerTest.createController(TuningConstants.EFFECTIVE_CONTROL_LOOP_PERIOD * 5);
+        IController fast = ControllerManagerTest.createController(TuningConstants.CONTROLLER_UPDATE_EVERY_LOOP);
+        ControllerManager manager = ControllerManagerTest.createManager(slow, fast);
+
+        for (int i = 0; i < 20; i++)
+        {
+            manager.update();
+        }
+
+        verify(fast, times(20)).update();
+        verify(slow, times(4)).update();
+    }
+
+    @Test
+    public void testFasterControllersUpdatedFirst()
+    {
+        IController slow = ControllerManagerTest.createController(TuningConstants.EFFECTIVE_CONTROL_LOOP_PERIOD * 5);
+        IController fast = ControllerManagerTest.createController(TuningConstants.CONTROLLER_UPDATE_EVERY_LOOP);
+        ControllerManager manager = ControllerManagerTest.createManager(slow, fast);
+
+        manager.update();
+
+        InOrder order = inOrder(fast, slow);
+        order.verify(fast).update();
+        order.verify(slow).update();
+    }
+
+    @Test
+    public void testSlowerControllersDeferredWhenOverBudget()
+    {
+        IController slow = ControllerManagerTest.createController(TuningConstants.EFFECTIVE_CONTROL_LOOP_PERIOD * 5);
+        IController fast = ControllerManagerTest.createController(TuningConstants.CONTROLLER_UPDATE_EVERY_LOOP);
+        ControllerManager manager = ControllerManagerTest.createManager(slow, fast);
+
+        // the fast controller uses up the whole loop the first time
+        long sleepMillis = (long)(TuningConstants.EFFECTIVE_CONTROL_LOOP_PERIOD * 1000.0);
+        doAnswer(invocation ->
+        {
+            Thread.sleep(sleepMillis);
+            return null;
+        }).doNothing().when(fast).update();
+
+        manager.update();
+        verify(slow, never()).update();
+
+        manager.update();
+        verify(slow).update();
+    }
+
+    private static IController createController(double updatePeriod)
+    {
+        IController controller = mock(IController.class);
+        when(controller.getUpdatePeriod()).thenReturn(updatePeriod);
+        return controller;
+    }
+
+    private static ControllerManager createManager(IController... controllers)
+    {
+        List<IController> controllerList = new ArrayList<IController>();
+        for (IController controller : controllers)
+        {
+            controllerList.add(controller);
+        }
+
+        return new ControllerManager(mock(IDashboardLogger.class), controllerList);
+    }
+}
@@ -0,0 +1,94 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.CANTalonControlMode;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.DoubleSolenoidValue;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ICANTalon;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IDoubleSolenoid;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IMotor;
+
+public class ActuatorOutputsTest
+{
+    @Test
+    public void testMotorWritesCoalesced()
+    {
+        IMotor motor = mock(IMotor.class);
+        ActuatorOutputs outputs = new ActuatorOutputs(100);
+        IMotor bufferedMotor = outputs.registerMotor(motor);
+
+        // nothing is written until there is a command and the outputs are flushed
+        outputs.flush();
+        bufferedMotor.set(0.25);
+        bufferedMotor.set(0.5);
+        verifyZeroInteractions(motor);
+
+        outputs.flush();
+        verify(motor).set(0.5);
+
+        // unchanged values are not written again
+        for (int i = 0; i < 10; i++)
+        {
+            bufferedMotor.set(0.5);
+            outputs.flush();
+        }
+
+        verify(motor, times(1)).set(0.5);
+        verify(motor, never()).set(0.25);
+
+        bufferedMotor.set(0.0);
+        outputs.flush();
+        verify(motor).set(0.0);
+    }
+
+    @Test
+    public void testUnchangedWritesRefreshed()
+    {
+        IDoubleSolenoid solenoid = mock(IDoubleSolenoid.class);
+        ActuatorOutputs outputs = new ActuatorOutputs(3);
+        IDoubleSolenoid bufferedSolenoid = outputs.registerDoubleSolenoid(solenoid);
+
+        for (int i = 0; i < 7; i++)
+        {
+            bufferedSolenoid.set(DoubleSolenoidValue.kForward);
+            outputs.flush();
+        }
+
+        // written on the first flush, and then refreshed every 3 flushes
+        verify(solenoid, times(3)).set(DoubleSolenoidValue.kForward);
+    }
+
+    @Test
+    public void testCANTalonModeChangeRewritesValue()
+    {
+        ICANTalon talon = mock(ICANTalon.class);
+        ActuatorOutputs outputs = new ActuatorOutputs(100);
+        ICANTalon bufferedTalon = outputs.registerTalon(talon);
+
+        bufferedTalon.changeControlMode(CANTalonControlMode.PercentVbus);
+        bufferedTalon.set(0.0);
+        outputs.flush();
+
+        bufferedTalon.changeControlMode(CANTalonControlMode.PercentVbus);
+        bufferedTalon.set(0.0);
+        outputs.flush();
+
+        bufferedTalon.changeControlMode(CANTalonControlMode.Speed);
+        bufferedTalon.set(0.0);
+        outputs.flush();
+
+        InOrder inOrder = inOrder(talon);
+        inOrder.verify(talon).changeControlMode(CANTalonControlMode.PercentVbus);
+        inOrder.verify(talon).set(0.0);
+        inOrder.verify(talon).changeControlMode(CANTalonControlMode.Speed);
+        inOrder.verify(talon).set(0.0);
+        inOrder.verifyNoMoreInteractions();
+    }
+}
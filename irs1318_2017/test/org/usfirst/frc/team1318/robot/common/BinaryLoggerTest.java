@@ -0,0 +1,96 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.StringWriter;
+
+import org.junit.Test;
+import org.opencv.core.Point;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
+
+public class BinaryLoggerTest
+{
+    @Test
+    public void testRoundTrip() throws Exception
+    {
+        File file = File.createTempFile("binarylogger", ".bin");
+        file.deleteOnExit();
+
+        ITimer timer = mock(ITimer.class);
+        when(timer.get()).thenReturn(1.5, 1.52);
+
+        String[] schema = new String[] { "r.state", "dt.leftPower", "auto.routine", "intake.gearIndicator", "vision.center" };
+        BinaryLogger logger = new BinaryLogger(file.getPath(), schema, timer);
+        LoggingKey leftPowerKey = logger.registerKey("dt", "leftPower");
+
+        logger.logString("r", "state", "Teleop");
+        logger.logNumber(leftPowerKey, 0.25);
+        logger.logInteger("auto", "routine", 3);
+        logger.logBoolean("intake", "gearIndicator", true);
+        logger.logPoint("vision", "center", new Point(160.0, 120.5));
+        logger.logNumber("notin", "schema", 5.0);
+        logger.flush();
+
+        logger.logString("r", "state", "Teleop");
+        logger.logNumber(leftPowerKey, -1.0);
+        logger.logNumber("vision", "center", (Double)null);
+        logger.flush();
+
+        logger.close();
+        assertEquals(0, logger.getDroppedRowCount());
+
+        try (BinaryLogReader reader = new BinaryLogReader(new FileInputStream(file)))
+        {
+            assertArrayEquals(schema, reader.getSchema());
+
+            assertTrue(reader.readRow());
+            assertEquals(1.5, reader.getTimestamp(), 0.0);
+            assertEquals("Teleop", reader.getValue(0));
+            assertEquals(0.25, reader.getNumber(1), 0.0);
+            assertEquals("3", reader.getValue(2));
+            assertEquals("true", reader.getValue(3));
+            assertEquals("160.0 120.5", reader.getValue(4));
+
+            assertTrue(reader.readRow());
+            assertEquals(1.52, reader.getTimestamp(), 0.0);
+            assertEquals("Teleop", reader.getValue(0));
+            assertEquals(-1.0, reader.getNumber(1), 0.0);
+            assertFalse(reader.hasValue(2));
+            assertNull(reader.getValue(3));
+            assertFalse(reader.hasValue(4));
+
+            assertFalse(reader.readRow());
+        }
+    }
+
+    @Test
+    public void testWriteCSV() throws Exception
+    {
+        File file = File.createTempFile("binarylogger", ".bin");
+        file.deleteOnExit();
+
+        ITimer timer = mock(ITimer.class);
+        when(timer.get()).thenReturn(0.5);
+
+        BinaryLogger logger = new BinaryLogger(file.getPath(), new String[] { "a.x", "a.y" }, timer);
+        logger.logNumber("a", "y", 2.0);
+        logger.flush();
+        logger.close();
+
+        StringWriter writer = new StringWriter();
+        try (BinaryLogReader reader = new BinaryLogReader(new FileInputStream(file)))
+        {
+            reader.writeCSV(writer);
+        }
+
+        assertEquals("timestamp,a.x,a.y\r\n0.5,,2.0\r\n", writer.toString());
+    }
+}
@@ -0,0 +1,168 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Test;
+import org.opencv.core.Point;
+
+public class CSVLoggerTest
+{
+    @Test
+    public void testWritesRowsInOrder() throws Exception
+    {
+        File file = File.createTempFile("csvlogger", ".csv");
+        file.deleteOnExit();
+
+        CSVLogger logger = new CSVLogger(file.getPath(), new String[] { "r.row", "r.state" });
+        LoggingKey rowKey = logger.registerKey("r", "row");
+        for (int i = 0; i < 100; i++)
+        {
+            logger.logNumber(rowKey, i);
+            if (i % 2 == 0)
+            {
+                logger.logString("r", "state", "even");
+            }
+
+            logger.logNumber("not", "inSchema", 5.0);
+            logger.flush();
+        }
+
+        // closing waits for the writer to write every row flushed before it
+        logger.close();
+        assertEquals(0, logger.getDroppedRowCount());
+
+        List<String> lines = CSVLoggerTest.readLines(file);
+        assertEquals(101, lines.size());
+        assertEquals("r.row,r.state", lines.get(0));
+        for (int i = 0; i < 100; i++)
+        {
+            assertEquals(i + ".0," + (i % 2 == 0 ? "even" : ""), lines.get(i + 1));
+        }
+    }
+
+    @Test
+    public void testDropsRowsWhenWriterFallsBehind() throws Exception
+    {
+        File file = File.createTempFile("csvlogger", ".csv");
+        file.deleteOnExit();
+
+        int rowCount = AsyncRowWriter.RowBufferCapacity + 10;
+        CSVLogger logger = new CSVLogger(file.getPath(), new String[] { "r.row", "logger.droppedRows" }, false);
+        for (int i = 0; i < rowCount; i++)
+        {
+            logger.logNumber("r", "row", i);
+            logger.flush();
+        }
+
+        // the ring buffer filled up, so the last rows were dropped instead of blocking
+        assertEquals(10, logger.getDroppedRowCount());
+
+        // once the writer catches up, rows are accepted again and report how many were dropped
+        logger.writePendingRows();
+        logger.logNumber("r", "row", rowCount);
+        logger.flush();
+        logger.close();
+
+        // rows flushed after closing are dropped too
+        logger.logNumber("r", "row", rowCount + 1);
+        logger.flush();
+        assertEquals(11, logger.getDroppedRowCount());
+
+        List<String> lines = CSVLoggerTest.readLines(file);
+        assertEquals(AsyncRowWriter.RowBufferCapacity + 2, lines.size());
+        assertEquals("r.row,logger.droppedRows", lines.get(0));
+        for (int i = 0; i < AsyncRowWriter.RowBufferCapacity; i++)
+        {
+            assertEquals(i + ".0,0.0", lines.get(i + 1));
+        }
+
+        assertEquals(rowCount + ".0,10.0", lines.get(AsyncRowWriter.RowBufferCapacity + 1));
+    }
+
+    @Test
+    public void testWritesTypedValues() throws Exception
+    {
+        File file = File.createTempFile("csvlogger", ".csv");
+        file.deleteOnExit();
+
+        CSVLogger logger = new CSVLogger(
+            file.getPath(),
+            new String[] { "v.int", "v.format", "v.bool", "v.number", "v.point" },
+            false);
+
+        LoggingKey intKey = logger.registerKey("v", "int");
+        LoggingKey boolKey = logger.registerKey("v", "bool");
+        LoggingKey numberKey = logger.registerKey("v", "number");
+        LoggingKey pointKey = logger.registerKey("v", "point");
+        LoggingKey missingKey = logger.registerKey("not", "inSchema");
+
+        logger.logInteger(intKey, 7);
+        logger.logInteger("v", "format", 5, "%03d");
+        logger.logBoolean(boolKey, true);
+        logger.logNumber(numberKey, Double.valueOf(1.5));
+        logger.logPoint(pointKey, new Point(1.0, 2.5));
+        logger.logInteger(missingKey, 3);
+        logger.logBoolean(missingKey, false);
+        logger.logPoint(missingKey, new Point(3.0, 4.0));
+        logger.logInteger("not", "inSchema", 3, "%d");
+        logger.flush();
+
+        // nullable values are logged as N/A, and columns not logged in a row are left empty
+        logger.logInteger("v", "int", -2);
+        logger.logBoolean("v", "bool", false);
+        logger.logNumber("v", "number", (Double)null);
+        logger.logPoint("v", "point", null);
+        logger.flush();
+
+        logger.writePendingRows();
+        logger.close();
+
+        List<String> lines = CSVLoggerTest.readLines(file);
+        assertEquals(3, lines.size());
+        assertEquals("7,005,true,1.5,\"1.0,2.5\"", lines.get(1));
+        assertEquals("-2,,false,N/A,N/A", lines.get(2));
+    }
+
+    @Test
+    public void testKeysRegisteredThroughMultiLogger() throws Exception
+    {
+        File firstFile = File.createTempFile("csvlogger", ".csv");
+        firstFile.deleteOnExit();
+        File secondFile = File.createTempFile("csvlogger", ".csv");
+        secondFile.deleteOnExit();
+
+        // the same key is in a different column for each logger
+        CSVLogger first = new CSVLogger(firstFile.getPath(), new String[] { "dt.left", "dt.right" });
+        CSVLogger second = new CSVLogger(secondFile.getPath(), new String[] { "dt.right" });
+        MultiLogger logger = new MultiLogger(first, second);
+
+        LoggingKey rightKey = logger.registerKey("dt", "right");
+        logger.logNumber(rightKey, 0.5);
+        logger.logString(logger.registerKey("dt", "left"), "fast");
+        logger.flush();
+
+        first.close();
+        second.close();
+
+        List<String> firstLines = CSVLoggerTest.readLines(firstFile);
+        assertEquals(2, firstLines.size());
+        assertEquals("fast,0.5", firstLines.get(1));
+
+        List<String> secondLines = CSVLoggerTest.readLines(secondFile);
+        assertEquals(2, secondLines.size());
+        assertEquals("0.5", secondLines.get(1));
+    }
+
+    /**
+     * Read the lines of a CSV file
+     */
+    private static List<String> readLines(File file) throws Exception
+    {
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,205 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.usfirst.frc.team1318.robot.TuningConstants;
+
+public class FixedRateSchedulerTest
+{
+    private static final double Period = 0.02;
+    private static final long PeriodNanos = 20000000L;
+
+    @Test
+    public void testRunsAtFixedRate() throws Exception
+    {
+        List<Long> startTimes = new ArrayList<Long>();
+        FixedRateScheduler scheduler = new FixedRateScheduler(
+            mock(IDashboardLogger.class),
+            "test",
+            FixedRateSchedulerTest.Period,
+            Thread.NORM_PRIORITY,
+            () -> FixedRateSchedulerTest.record(startTimes),
+            () -> {});
+
+        scheduler.start();
+        Thread.sleep(210);
+        scheduler.stop();
+
+        List<Long> times = FixedRateSchedulerTest.copy(startTimes);
+        assertTrue(times.size() >= 8 && times.size() <= 12);
+
+        // each cycle starts a period after the first one started, rather than a period after the previous one finished
+        long firstStartTime = times.get(0);
+        for (int i = 1; i < times.size(); i++)
+        {
+            assertTrue(times.get(i) - firstStartTime >= i * FixedRateSchedulerTest.PeriodNanos);
+        }
+    }
+
+    @Test
+    public void testSkipsMissedCycles() throws Exception
+    {
+        IDashboardLogger logger = mock(IDashboardLogger.class);
+        List<Long> startTimes = new ArrayList<Long>();
+        FixedRateScheduler[] scheduler = new FixedRateScheduler[1];
+        scheduler[0] = new FixedRateScheduler(
+            logger,
+            "test",
+            FixedRateSchedulerTest.Period,
+            Thread.NORM_PRIORITY,
+            () ->
+            {
+                int cycle = FixedRateSchedulerTest.record(startTimes);
+                if (cycle == 0)
+                {
+                    // run long enough to miss the second cycle, and part of the third
+                    FixedRateSchedulerTest.sleep(45);
+                }
+                else if (cycle == 2)
+                {
+                    scheduler[0].reportTiming();
+                }
+            },
+            () -> {});
+
+        scheduler[0].start();
+        Thread.sleep(150);
+        scheduler[0].stop();
+
+        List<Long> times = FixedRateSchedulerTest.copy(startTimes);
+        assertTrue(times.size() >= 4);
+
+        // the late third cycle starts right away, but the missed second cycle isn't run back-to-back to catch up,
+        // so the next cycle is back on the original schedule
+        assertTrue(times.get(1) - times.get(0) >= 2 * FixedRateSchedulerTest.PeriodNanos);
+        assertTrue(times.get(2) - times.get(0) >= 3 * FixedRateSchedulerTest.PeriodNanos);
+
+        // the jitter overruns are reported first, and then the missed cycles
+        ArgumentCaptor<Integer> reported = ArgumentCaptor.forClass(Integer.class);
+        verify(logger, times(2)).logInteger((LoggingKey)any(), reported.capture());
+        assertEquals(1, reported.getAllValues().get(1).intValue());
+    }
+
+    @Test
+    public void testStopAndRestart() throws Exception
+    {
+        AtomicInteger cycles = new AtomicInteger();
+        FixedRateScheduler scheduler = new FixedRateScheduler(
+            mock(IDashboardLogger.class),
+            "test",
+            FixedRateSchedulerTest.Period,
+            Thread.NORM_PRIORITY,
+            () -> cycles.incrementAndGet(),
+            () -> {});
+
+        assertFalse(scheduler.isRunning());
+        scheduler.start();
+        assertTrue(scheduler.isRunning());
+        Thread.sleep(50);
+        scheduler.stop();
+        assertFalse(scheduler.isRunning());
+
+        // no cycles run once stop has returned
+        int stoppedCycles = cycles.get();
+        assertTrue(stoppedCycles > 0);
+        Thread.sleep(50);
+        assertEquals(stoppedCycles, cycles.get());
+
+        scheduler.start();
+        Thread.sleep(50);
+        scheduler.stop();
+        assertTrue(cycles.get() > stoppedCycles);
+    }
+
+    @Test
+    public void testTaskException() throws Exception
+    {
+        IDashboardLogger logger = mock(IDashboardLogger.class);
+        AtomicInteger cycles = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        FixedRateScheduler scheduler = new FixedRateScheduler(
+            logger,
+            "test",
+            FixedRateSchedulerTest.Period,
+            Thread.NORM_PRIORITY,
+            () ->
+            {
+                if (cycles.incrementAndGet() == 1)
+                {
+                    throw new IllegalStateException("test failure");
+                }
+            },
+            () -> failures.incrementAndGet());
+
+        scheduler.start();
+        Thread.sleep(100);
+        boolean wasRunning = scheduler.isRunning();
+        scheduler.stop();
+
+        // the failure is logged and handled, and then the scheduler either stops or carries on
+        assertEquals(1, failures.get());
+        verify(logger).logString((LoggingKey)any(), anyString());
+        if (TuningConstants.THROW_EXCEPTIONS)
+        {
+            assertFalse(wasRunning);
+            assertEquals(1, cycles.get());
+        }
+        else
+        {
+            assertTrue(wasRunning);
+            assertTrue(cycles.get() > 1);
+        }
+    }
+
+    /**
+     * Record the start time of a cycle
+     * @return the index of the cycle
+     */
+    private static int record(List<Long> startTimes)
+    {
+        synchronized (startTimes)
+        {
+            startTimes.add(System.nanoTime());
+            return startTimes.size() - 1;
+        }
+    }
+
+    /**
+     * Copy the start times recorded by the scheduler's thread
+     */
+    private static List<Long> copy(List<Long> startTimes)
+    {
+        synchronized (startTimes)
+        {
+            return new ArrayList<Long>(startTimes);
+        }
+    }
+
+    /**
+     * Sleep within a task
+     */
+    private static void sleep(long millis)
+    {
+        try
+        {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
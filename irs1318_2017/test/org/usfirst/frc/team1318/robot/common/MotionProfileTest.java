@@ -0,0 +1,122 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.usfirst.frc.team1318.robot.TuningConstants;
+
+public class MotionProfileTest
+{
+    private static final double Interval = TuningConstants.MOTION_PROFILE_SAMPLE_INTERVAL;
+
+    @Test
+    public void testTrapezoidalProfile()
+    {
+        // 0.5s to speed up to 100 (covering 25), then 1.5s cruising (covering 150), then 0.5s to slow down (covering 25)
+        MotionProfile profile = MotionProfile.create(200.0, 100.0, 200.0, Double.POSITIVE_INFINITY);
+        assertEquals(2.5, profile.getDuration(), 0.0001);
+        assertEquals(200.0, profile.getDistance(), 0.0);
+
+        assertEquals(0.0, profile.getPosition(0.0), 0.0001);
+        assertEquals(50.0, profile.getVelocity(0.25), 0.0001);
+        assertEquals(200.0, profile.getAcceleration(0.25), 0.0001);
+        assertEquals(25.0, profile.getPosition(0.5), 0.0001);
+        assertEquals(100.0, profile.getVelocity(1.25), 0.0001);
+        assertEquals(0.0, profile.getAcceleration(1.25), 0.0001);
+        assertEquals(175.0, profile.getPosition(2.0), 0.0001);
+        assertEquals(-200.0, profile.getAcceleration(2.25), 0.0001);
+
+        // past the end, the profile holds at rest at the final position
+        assertEquals(200.0, profile.getPosition(5.0), 0.0);
+        assertEquals(0.0, profile.getVelocity(5.0), 0.0);
+    }
+
+    @Test
+    public void testSCurveProfileWithinLimits()
+    {
+        MotionProfileTest.assertWithinLimits(MotionProfile.create(200.0, 100.0, 200.0, 1000.0), 200.0, 100.0, 200.0, 1000.0);
+
+        // too short to reach the max velocity, and then too short to reach the max acceleration
+        MotionProfileTest.assertWithinLimits(MotionProfile.create(30.0, 100.0, 200.0, 1000.0), 30.0, 100.0, 200.0, 1000.0);
+        MotionProfileTest.assertWithinLimits(MotionProfile.create(2.0, 100.0, 200.0, 1000.0), 2.0, 100.0, 200.0, 1000.0);
+
+        // backwards
+        MotionProfileTest.assertWithinLimits(MotionProfile.create(-50.0, 100.0, 200.0, 1000.0), -50.0, 100.0, 200.0, 1000.0);
+    }
+
+    @Test
+    public void testInterpolatesBetweenSamples()
+    {
+        MotionProfile profile = MotionProfile.create(200.0, 100.0, 200.0, Double.POSITIVE_INFINITY);
+
+        // the velocity is linear while speeding up, so interpolating between samples gives the exact value
+        double time = 3.5 * MotionProfileTest.Interval;
+        assertEquals(200.0 * time, profile.getVelocity(time), 0.0001);
+
+        double before = profile.getPosition(3.0 * MotionProfileTest.Interval);
+        double after = profile.getPosition(4.0 * MotionProfileTest.Interval);
+        assertEquals((before + after) / 2.0, profile.getPosition(time), 0.0001);
+    }
+
+    @Test
+    public void testCreateWithinDuration()
+    {
+        // slower than the limits require, so the cruise velocity is lowered to take the whole duration
+        MotionProfile profile = MotionProfile.createWithinDuration(24.0, 1.0, 100.0, 200.0, 2000.0);
+        assertEquals(1.0, profile.getDuration(), 0.001);
+        assertEquals(24.0, profile.getDistance(), 0.0);
+        MotionProfileTest.assertWithinLimits(profile, 24.0, 100.0, 200.0, 2000.0);
+
+        // faster than the limits allow, so it is as fast as possible instead
+        MotionProfile fastest = MotionProfile.create(24.0, 100.0, 200.0, 2000.0);
+        MotionProfile tooFast = MotionProfile.createWithinDuration(24.0, 0.2, 100.0, 200.0, 2000.0);
+        assertEquals(fastest.getDuration(), tooFast.getDuration(), 0.0);
+        assertTrue(tooFast.getDuration() > 0.2);
+    }
+
+    @Test
+    public void testFromFunction()
+    {
+        MotionProfile profile = MotionProfile.fromFunction(ratio -> ratio * 10.0, 2.0);
+        assertEquals(2.0, profile.getDuration(), 0.0);
+        assertEquals(10.0, profile.getDistance(), 0.0001);
+        assertEquals(5.0, profile.getPosition(1.0), 0.0001);
+        assertEquals(5.0, profile.getVelocity(1.0), 0.0001);
+        assertEquals(0.0, profile.getAcceleration(1.0), 0.0001);
+    }
+
+    /**
+     * Check that the profile starts and ends at rest, reaches the distance, and stays within the limits throughout
+     */
+    private static void assertWithinLimits(
+        MotionProfile profile,
+        double distance,
+        double maxVelocity,
+        double maxAcceleration,
+        double maxJerk)
+    {
+        double tolerance = 0.000001;
+        assertEquals(0.0, profile.getPosition(0.0), 0.0);
+        assertEquals(0.0, profile.getVelocity(0.0), 0.0);
+        assertEquals(distance, profile.getDistance(), 0.0);
+
+        double prevAcceleration = 0.0;
+        int sampleCount = (int)Math.ceil(profile.getDuration() / MotionProfileTest.Interval) + 1;
+        for (int i = 0; i < sampleCount; i++)
+        {
+            double time = i * MotionProfileTest.Interval;
+            double velocity = profile.getVelocity(time);
+            double acceleration = profile.getAcceleration(time);
+            assertTrue(Math.abs(velocity) <= maxVelocity + tolerance);
+            assertTrue(Math.abs(acceleration) <= maxAcceleration + tolerance);
+            assertTrue(Math.abs(acceleration - prevAcceleration) <= maxJerk * MotionProfileTest.Interval + tolerance);
+            assertTrue(velocity * Math.signum(distance) >= -tolerance);
+            prevAcceleration = acceleration;
+        }
+
+        // the last sample before the end should be within a sample's worth of travel of the distance
+        double lastTime = (sampleCount - 2) * MotionProfileTest.Interval;
+        assertEquals(distance, profile.getPosition(lastTime), maxVelocity * MotionProfileTest.Interval);
+    }
+}
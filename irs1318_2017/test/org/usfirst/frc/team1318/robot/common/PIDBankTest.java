@@ -0,0 +1,248 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.usfirst.frc.team1318.robot.TuningConstants;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
+
+public class PIDBankTest
+{
+    // timestamps with jitter, including one update that comes too soon after the previous one to be calculated
+    private static final double[] Times = new double[] { 0.02, 0.041, 0.059, 0.08, 0.085, 0.1, 0.123, 0.14, 0.16, 0.18 };
+
+    @Test
+    public void testHandlerMatchesReference()
+    {
+        double[] time = new double[] { 0.0 };
+        ITimer timer = PIDBankTest.createTimer(time);
+
+        PIDHandler position = new PIDHandler(0.3, 0.05, 0.1, 0.01, 1.0, 0.2, 0.8, 0.4, 0.6, -1.0, 1.0, null, null, timer);
+        PIDHandler velocity = new PIDHandler(0.02, 0.4, 0.001, 0.4, 100.0, 0.1, 0.9, 0.0, 1.0, -1.0, 1.0, null, null, timer);
+        ReferencePID positionReference = new ReferencePID(0.3, 0.05, 0.1, 0.01, 1.0, 0.2, 0.8, 0.4, 0.6, -1.0, 1.0);
+        ReferencePID velocityReference = new ReferencePID(0.02, 0.4, 0.001, 0.4, 100.0, 0.1, 0.9, 0.0, 1.0, -1.0, 1.0);
+
+        for (int i = 0; i < PIDBankTest.Times.length; i++)
+        {
+            time[0] = PIDBankTest.Times[i];
+            assertEquals(
+                positionReference.calculatePosition(10.0, i * 0.75, time[0]),
+                position.calculatePosition(10.0, i * 0.75),
+                0.0);
+
+            assertEquals(
+                velocityReference.calculateVelocity(0.5, i * 42.0, time[0]),
+                velocity.calculateVelocity(0.5, i * 42.0),
+                0.0);
+        }
+    }
+
+    @Test
+    public void testBankUpdateMatchesReference()
+    {
+        double[] time = new double[] { 0.0 };
+        ITimer timer = PIDBankTest.createTimer(time);
+
+        // more loops than the bank starts with room for, so that it has to grow
+        PIDBank bank = new PIDBank(timer, 1);
+        PIDHandler left = new PIDHandler(bank, 0.02, 0.4, 0.001, 0.4, 100.0, -1.0, 1.0, null, null);
+        PIDHandler right = new PIDHandler(bank, 0.025, 0.3, 0.0, 0.4, 100.0, -1.0, 1.0, null, null);
+        PIDHandler turn = new PIDHandler(bank, 0.05, 0.01, 0.02, 0.0, 1.0, 0.3, 0.7, 1.0, 0.0, -0.4, 0.4, null, null);
+        assertEquals(3, bank.getCount());
+
+        ReferencePID leftReference = new ReferencePID(0.02, 0.4, 0.001, 0.4, 100.0, 0.0, 1.0, 0.0, 1.0, -1.0, 1.0);
+        ReferencePID rightReference = new ReferencePID(0.025, 0.3, 0.0, 0.4, 100.0, 0.0, 1.0, 0.0, 1.0, -1.0, 1.0);
+        ReferencePID turnReference = new ReferencePID(0.05, 0.01, 0.02, 0.0, 1.0, 0.3, 0.7, 1.0, 0.0, -0.4, 0.4);
+
+        for (int i = 0; i < PIDBankTest.Times.length; i++)
+        {
+            time[0] = PIDBankTest.Times[i];
+            left.setVelocityInput(0.5, i * 40.0);
+            right.setVelocityInput(0.6, i * 45.0);
+            turn.setPositionInput(0.0, 15.0 - i);
+            bank.update();
+
+            assertEquals(leftReference.calculateVelocity(0.5, i * 40.0, time[0]), left.getCurrentOutput(), 0.0);
+            assertEquals(rightReference.calculateVelocity(0.6, i * 45.0, time[0]), right.getCurrentOutput(), 0.0);
+            assertEquals(turnReference.calculatePosition(0.0, 15.0 - i, time[0]), turn.getCurrentOutput(), 0.0);
+        }
+
+        // once for each handler's reset when it was configured, then once for each update
+        verify(timer, times(3 + PIDBankTest.Times.length)).get();
+    }
+
+    @Test
+    public void testLoopWithoutInputKeepsOutput()
+    {
+        double[] time = new double[] { 0.0 };
+        ITimer timer = PIDBankTest.createTimer(time);
+
+        PIDBank bank = new PIDBank(timer);
+        PIDHandler first = new PIDHandler(bank, 0.5, 0.0, 0.0, 0.0, 1.0, -1.0, 1.0, null, null);
+        PIDHandler second = new PIDHandler(bank, 0.5, 0.0, 0.0, 0.0, 1.0, -1.0, 1.0, null, null);
+
+        time[0] = 0.02;
+        first.setPositionInput(1.0, 0.0);
+        second.setPositionInput(0.5, 0.0);
+        bank.update();
+        assertEquals(0.5, first.getCurrentOutput(), 0.0001);
+        assertEquals(0.25, second.getCurrentOutput(), 0.0001);
+
+        // only the first loop has a new input
+        time[0] = 0.04;
+        first.setPositionInput(0.0, 0.0);
+        bank.update();
+        assertEquals(0.0, first.getCurrentOutput(), 0.0001);
+        assertEquals(0.25, second.getCurrentOutput(), 0.0001);
+
+        // inputs are cleared by a reset
+        time[0] = 0.06;
+        second.setPositionInput(2.0, 0.0);
+        second.reset();
+        bank.update();
+        assertEquals(0.0, second.getCurrentOutput(), 0.0001);
+    }
+
+    private static ITimer createTimer(double[] time)
+    {
+        ITimer timer = mock(ITimer.class);
+        when(timer.get()).thenAnswer(invocation -> time[0]);
+        return timer;
+    }
+
+    /**
+     * The per-object PID calculation from before the PID bank, with the timestamp passed in
+     */
+    private static class ReferencePID
+    {
+        private final double kp;
+        private final double ki;
+        private final double kd;
+        private final double kf;
+        private final double ks;
+        private final double minOutput;
+        private final double maxOutput;
+
+        private final ComplementaryFilter errorFilter;
+        private final ComplementaryFilter outputFilter;
+
+        private double integral = 0.0;
+        private double prevMeasuredValue = 0.0;
+        private double prevTime = 0.0;
+        private double prevError = 0.0;
+        private double output = 0.0;
+
+        ReferencePID(
+            double kp,
+            double ki,
+            double kd,
+            double kf,
+            double ks,
+            double kO,
+            double kN,
+            double kEO,
+            double kEN,
+            double minOutput,
+            double maxOutput)
+        {
+            this.kp = kp;
+            this.ki = ki;
+            this.kd = kd;
+            this.kf = kf;
+            this.ks = ks;
+            this.minOutput = minOutput;
+            this.maxOutput = maxOutput;
+            this.errorFilter = new ComplementaryFilter(kEO, kEN);
+            this.outputFilter = new ComplementaryFilter(kO, kN);
+        }
+
+        double calculatePosition(double setpoint, double measuredValue, double curTime)
+        {
+            double dt = curTime - this.prevTime;
+            if (dt >= TuningConstants.EFFECTIVE_CONTROL_LOOP_PERIOD / 2.0)
+            {
+                this.prevTime = curTime;
+
+                this.errorFilter.update(setpoint - measuredValue);
+                double error = this.errorFilter.getValue();
+
+                double potentialI = this.ki * (this.integral + error * dt);
+                if (potentialI > this.maxOutput)
+                {
+                    this.integral = this.maxOutput / this.ki;
+                }
+                else if (potentialI < this.minOutput)
+                {
+                    this.integral = this.minOutput / this.ki;
+                }
+                else
+                {
+                    this.integral += error;
+                }
+
+                double derivative = (error - this.prevError);
+                this.prevError = error;
+
+                this.setOutput(this.kp * error + this.ki * this.integral + this.kd * derivative + this.kf * setpoint);
+                this.prevMeasuredValue = measuredValue;
+            }
+
+            return this.output;
+        }
+
+        double calculateVelocity(double setpoint, double measuredValue, double curTime)
+        {
+            double dt = curTime - this.prevTime;
+            if (dt >= TuningConstants.EFFECTIVE_CONTROL_LOOP_PERIOD / 2.0)
+            {
+                this.prevTime = curTime;
+
+                double deltaX = measuredValue - this.prevMeasuredValue;
+                double timeRatio = 0.02 / dt;
+                this.errorFilter.update(this.ks * setpoint - deltaX * timeRatio);
+                double error = this.errorFilter.getValue();
+
+                double potentialI = this.ki * (this.integral + error * dt);
+                if (potentialI > this.maxOutput)
+                {
+                    this.integral = this.maxOutput / this.ki;
+                }
+                else if (potentialI < this.minOutput)
+                {
+                    this.integral = this.minOutput / this.ki;
+                }
+                else
+                {
+                    this.integral += error * dt;
+                }
+
+                double derivative = (error - this.prevError) / dt;
+                this.prevError = error;
+
+                this.setOutput(this.kp * error + this.ki * this.integral + this.kd * derivative + this.kf * setpoint);
+                this.prevMeasuredValue = measuredValue;
+            }
+
+            return this.output;
+        }
+
+        private void setOutput(double result)
+        {
+            if (result > this.maxOutput)
+            {
+                result = this.maxOutput;
+            }
+            else if (result < this.minOutput)
+            {
+                result = this.minOutput;
+            }
+
+            this.outputFilter.update(result);
+            this.output = this.outputFilter.getValue();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ITimer;
+
+public class PIDHandlerTest
+{
+    @Test
+    public void testOutputBounds()
+    {
+        ITimer timer = mock(ITimer.class);
+        when(timer.get()).thenReturn(0.0, 0.02, 0.04);
+
+        PIDHandler bounded = new PIDHandler(1.0, 0.0, 0.0, 0.0, 1.0, -0.5, 0.5, timer);
+        assertEquals(0.5, bounded.calculatePosition(10.0, 0.0), 0.0001);
+        assertEquals(-0.5, bounded.calculatePosition(-10.0, 0.0), 0.0001);
+    }
+
+    @Test
+    public void testNaNMeansUnbounded()
+    {
+        ITimer timer = mock(ITimer.class);
+        when(timer.get()).thenReturn(0.0, 0.02, 0.04);
+
+        PIDHandler unbounded = new PIDHandler(1.0, 0.0, 0.0, 0.0, 1.0, Double.NaN, Double.NaN, timer);
+        assertEquals(10.0, unbounded.calculatePosition(10.0, 0.0), 0.0001);
+        assertEquals(-10.0, unbounded.calculatePosition(-10.0, 0.0), 0.0001);
+    }
+
+    @Test
+    public void testIntegralLimitedByBounds()
+    {
+        ITimer timer = mock(ITimer.class);
+        when(timer.get()).thenReturn(0.0, 0.02, 0.04, 0.06);
+
+        // integral of 10 per update with ki of 0.1 hits the bound of 1.0 after the first update
+        PIDHandler handler = new PIDHandler(0.0, 0.1, 0.0, 0.0, 1.0, -1.0, 1.0, timer);
+        assertEquals(1.0, handler.calculatePosition(10.0, 0.0), 0.0001);
+        assertEquals(1.0, handler.calculatePosition(10.0, 0.0), 0.0001);
+
+        // the integral was held at the bound, so it comes back down as soon as the error changes sign
+        assertEquals(0.9, handler.calculatePosition(-1.0, 0.0), 0.0001);
+    }
+
+    @Test
+    public void testConfigureResets()
+    {
+        ITimer timer = mock(ITimer.class);
+        when(timer.get()).thenReturn(0.0, 0.02, 0.04, 0.06);
+
+        PIDHandler handler = new PIDHandler(0.0, 0.1, 0.0, 0.0, 1.0, -1.0, 1.0, timer);
+        assertEquals(0.5, handler.calculatePosition(5.0, 0.0), 0.0001);
+
+        // new gains and bounds, with the integral from before cleared
+        handler.configure(2.0, 0.0, 0.0, 0.0, 1.0, -3.0, 3.0);
+        assertEquals(0.0, handler.getCurrentOutput(), 0.0001);
+        assertEquals(3.0, handler.calculatePosition(5.0, 0.0), 0.0001);
+    }
+}
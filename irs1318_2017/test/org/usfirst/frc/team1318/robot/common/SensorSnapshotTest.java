@@ -0,0 +1,92 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.ICANTalon;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IEncoder;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IPowerDistributionPanel;
+
+public class SensorSnapshotTest
+{
+    @Test
+    public void testEncoderReadOncePerSnapshot()
+    {
+        IEncoder encoder = mock(IEncoder.class);
+        when(encoder.getDistance()).thenReturn(1.5);
+        when(encoder.getRate()).thenReturn(3.0);
+        when(encoder.get()).thenReturn(12);
+
+        SensorSnapshot snapshot = new SensorSnapshot();
+        IEncoder cachedEncoder = snapshot.register(encoder);
+        assertEquals(1.5, cachedEncoder.getDistance(), 0.0001);
+
+        when(encoder.getDistance()).thenReturn(2.5);
+        when(encoder.get()).thenReturn(20);
+
+        // values don't change until the next snapshot, no matter how often they are read
+        for (int i = 0; i < 3; i++)
+        {
+            assertEquals(1.5, cachedEncoder.getDistance(), 0.0001);
+            assertEquals(3.0, cachedEncoder.getRate(), 0.0001);
+            assertEquals(12, cachedEncoder.get());
+        }
+
+        snapshot.read();
+        assertEquals(2.5, cachedEncoder.getDistance(), 0.0001);
+        assertEquals(20, cachedEncoder.get());
+
+        verify(encoder, times(2)).getDistance();
+        verify(encoder, times(2)).getRate();
+        verify(encoder, times(2)).get();
+
+        // reset is applied to the hardware and reflected immediately
+        cachedEncoder.reset();
+        verify(encoder).reset();
+        assertEquals(0.0, cachedEncoder.getDistance(), 0.0001);
+        assertEquals(0, cachedEncoder.get());
+    }
+
+    @Test
+    public void testCANTalonPassesThroughOutput()
+    {
+        ICANTalon talon = mock(ICANTalon.class);
+        when(talon.getSpeed()).thenReturn(100.0);
+
+        SensorSnapshot snapshot = new SensorSnapshot();
+        ICANTalon cachedTalon = snapshot.register(talon);
+        cachedTalon.set(0.5);
+        snapshot.read();
+
+        assertEquals(100.0, cachedTalon.getSpeed(), 0.0001);
+        assertEquals(100.0, cachedTalon.getSpeed(), 0.0001);
+        verify(talon).set(0.5);
+        verify(talon, times(2)).getSpeed();
+    }
+
+    @Test
+    public void testPdpCachesRegisteredChannels()
+    {
+        IPowerDistributionPanel pdp = mock(IPowerDistributionPanel.class);
+        when(pdp.getBatteryVoltage()).thenReturn(12.5);
+        when(pdp.getCurrent(3)).thenReturn(10.0);
+        when(pdp.getCurrent(4)).thenReturn(20.0);
+
+        SensorSnapshot snapshot = new SensorSnapshot();
+        IPowerDistributionPanel cachedPdp = snapshot.register(pdp, 3);
+
+        assertEquals(12.5, cachedPdp.getBatteryVoltage(), 0.0001);
+        assertEquals(10.0, cachedPdp.getCurrent(3), 0.0001);
+        assertEquals(10.0, cachedPdp.getCurrent(3), 0.0001);
+        assertEquals(20.0, cachedPdp.getCurrent(4), 0.0001);
+        assertEquals(20.0, cachedPdp.getCurrent(4), 0.0001);
+
+        verify(pdp, times(1)).getBatteryVoltage();
+        verify(pdp, times(1)).getCurrent(3);
+        verify(pdp, times(2)).getCurrent(4);
+    }
+}
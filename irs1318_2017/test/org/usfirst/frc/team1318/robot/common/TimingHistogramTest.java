@@ -0,0 +1,60 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+
+public class TimingHistogramTest
+{
+    @Test
+    public void testStatistics()
+    {
+        IDashboardLogger logger = mock(IDashboardLogger.class);
+        TimingHistogram histogram = new TimingHistogram(logger, "timing", "test", 0.02);
+
+        // 99 runs of 1ms and one overrun of 25ms
+        for (int i = 0; i < 99; i++)
+        {
+            histogram.record(1000000L);
+        }
+
+        histogram.record(25000000L);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1, histogram.getOverruns());
+        assertEquals(1.0, histogram.getMin(), 0.0001);
+        assertEquals(1.24, histogram.getMean(), 0.0001);
+        assertEquals(25.0, histogram.getMax(), 0.0001);
+        assertEquals(1.1, histogram.getP99(), 0.0001);
+    }
+
+    @Test
+    public void testP99BeyondLastBucket()
+    {
+        IDashboardLogger logger = mock(IDashboardLogger.class);
+        TimingHistogram histogram = new TimingHistogram(logger, "timing", "test", 0.02);
+
+        histogram.record(50000000L);
+
+        assertEquals(50.0, histogram.getP99(), 0.0001);
+        assertEquals(1, histogram.getOverruns());
+    }
+
+    @Test
+    public void testReportResets()
+    {
+        IDashboardLogger logger = mock(IDashboardLogger.class);
+        TimingHistogram histogram = new TimingHistogram(logger, "timing", "test", 0.02);
+
+        histogram.record(3000000L);
+        histogram.report();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getOverruns());
+        assertEquals(0.0, histogram.getMin(), 0.0);
+        assertEquals(0.0, histogram.getMean(), 0.0);
+        assertEquals(0.0, histogram.getMax(), 0.0);
+        assertEquals(0.0, histogram.getP99(), 0.0);
+    }
+}
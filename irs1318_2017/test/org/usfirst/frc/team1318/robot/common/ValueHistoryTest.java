@@ -0,0 +1,55 @@
+package org.usfirst.frc.team1318.robot.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ValueHistoryTest
+{
+    @Test
+    public void testEmpty()
+    {
+        ValueHistory history = new ValueHistory(4);
+        assertEquals(0, history.getCount());
+        assertTrue(Double.isNaN(history.getValueAt(1.0)));
+    }
+
+    @Test
+    public void testInterpolatesAndClamps()
+    {
+        ValueHistory history = new ValueHistory(4);
+        history.add(1.0, 10.0);
+        history.add(1.1, 20.0);
+        history.add(1.2, 40.0);
+
+        assertEquals(3, history.getCount());
+        assertEquals(10.0, history.getValueAt(1.0), 0.0001);
+        assertEquals(15.0, history.getValueAt(1.05), 0.0001);
+        assertEquals(30.0, history.getValueAt(1.15), 0.0001);
+        assertEquals(40.0, history.getValueAt(1.2), 0.0001);
+
+        // older than the history gets the oldest value, newer gets the newest
+        assertEquals(10.0, history.getValueAt(0.5), 0.0001);
+        assertEquals(40.0, history.getValueAt(2.0), 0.0001);
+    }
+
+    @Test
+    public void testWrapsAround()
+    {
+        ValueHistory history = new ValueHistory(3);
+        for (int i = 0; i < 10; i++)
+        {
+            history.add(i, i * 2.0);
+        }
+
+        // only times 7, 8 and 9 are kept
+        assertEquals(3, history.getCount());
+        assertEquals(14.0, history.getValueAt(3.0), 0.0001);
+        assertEquals(15.0, history.getValueAt(7.5), 0.0001);
+        assertEquals(17.0, history.getValueAt(8.5), 0.0001);
+
+        history.clear();
+        assertEquals(0, history.getCount());
+    }
+}
@@ -0,0 +1,63 @@
+package org.usfirst.frc.team1318.robot.driver.controltasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.usfirst.frc.team1318.robot.HardwareConstants;
+import org.usfirst.frc.team1318.robot.TuningConstants;
+import org.usfirst.frc.team1318.robot.common.MotionProfile;
+
+public class DriveRouteTaskTest
+{
+    @Test
+    public void testTimedProfilesFitRoutines()
+    {
+        // the timed drives and turns used by the autonomous routines and macros, as distance and duration
+        double[][] drives = new double[][]
+        {
+            { 85.0, 3.0 },
+            { 24.0, 0.75 },
+            { 24.0, 1.5 },
+            { -12.0, 0.5 },
+            { -12.0, 1.0 },
+            { -24.0, 0.6 },
+            { TuningConstants.SHOOTER_LONG_SHOT_BACKWARDS_DISTANCE, 2.5 },
+            { DriveRouteTaskTest.getArcLength(77.5), 1.0 },
+            { DriveRouteTaskTest.getArcLength(60.0), 1.0 },
+            { DriveRouteTaskTest.getArcLength(10.0), 0.75 },
+        };
+
+        // each profile finishes in time to leave part of the duration for settling
+        for (double[] drive : drives)
+        {
+            MotionProfile profile = DriveRouteTask.createTimedProfile(drive[0], drive[1]);
+            assertEquals(drive[1] * TuningConstants.DRIVETRAIN_PROFILE_DURATION_RATIO, profile.getDuration(), 0.001);
+            assertEquals(drive[0], profile.getDistance(), 0.0);
+        }
+    }
+
+    @Test
+    public void testInfeasibleDurationUsesFastestProfile()
+    {
+        // too fast for the limits, so the fastest profile is used instead (and the task's timeout cuts it off)
+        MotionProfile profile = DriveRouteTask.createTimedProfile(-24.0, 0.3);
+        MotionProfile fastest = MotionProfile.create(
+            -24.0,
+            TuningConstants.DRIVETRAIN_PROFILE_MAX_VELOCITY,
+            TuningConstants.DRIVETRAIN_PROFILE_MAX_ACCELERATION,
+            TuningConstants.DRIVETRAIN_PROFILE_MAX_JERK);
+
+        assertEquals(fastest.getDuration(), profile.getDuration(), 0.0);
+        assertTrue(profile.getDuration() > 0.3);
+        assertEquals(-24.0, profile.getDistance(), 0.0);
+    }
+
+    /**
+     * Gets the distance that each side of the robot travels when turning in-place (as in TurnTimedTask)
+     */
+    private static double getArcLength(double degrees)
+    {
+        return Math.PI * HardwareConstants.DRIVETRAIN_WHEEL_SEPARATION_DISTANCE * (degrees / 360.0);
+    }
+}
@@ -0,0 +1,144 @@
+package org.usfirst.frc.team1318.robot.driver.user;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IJoystick;
+import org.usfirst.frc.team1318.robot.driver.IButtonMap;
+import org.usfirst.frc.team1318.robot.driver.IControlTask;
+import org.usfirst.frc.team1318.robot.driver.MacroOperation;
+import org.usfirst.frc.team1318.robot.driver.Operation;
+import org.usfirst.frc.team1318.robot.driver.UserInputDeviceButton;
+import org.usfirst.frc.team1318.robot.driver.buttons.ButtonType;
+import org.usfirst.frc.team1318.robot.driver.descriptions.DigitalOperationDescription;
+import org.usfirst.frc.team1318.robot.driver.descriptions.MacroOperationDescription;
+import org.usfirst.frc.team1318.robot.driver.descriptions.OperationDescription;
+import org.usfirst.frc.team1318.robot.driver.descriptions.UserInputDevice;
+
+import com.google.inject.Injector;
+
+public class UserDriverTest
+{
+    private static final MacroOperation MacroA = MacroOperation.values()[0];
+    private static final MacroOperation MacroB = MacroOperation.values()[1];
+
+    @Test
+    public void testMacroUsurpedByUserInput()
+    {
+        IControlTask taskA = mock(IControlTask.class);
+        IControlTask taskB = mock(IControlTask.class);
+        IJoystick joystick = mock(IJoystick.class);
+        UserDriver driver = UserDriverTest.createDriver(joystick, taskA, taskB);
+
+        // start macro A
+        UserDriverTest.setButtons(joystick, UserInputDeviceButton.JOYSTICK_STICK_TRIGGER_BUTTON);
+        driver.sampleInputs();
+        driver.update();
+        verify(taskA).begin();
+
+        // user presses the button for an operation affected by macro A
+        UserDriverTest.setButtons(
+            joystick,
+            UserInputDeviceButton.JOYSTICK_STICK_TRIGGER_BUTTON,
+            UserInputDeviceButton.JOYSTICK_STICK_BOTTOM_LEFT_BUTTON);
+        driver.sampleInputs();
+        driver.update();
+        verify(taskA).stop();
+        verify(taskB, never()).begin();
+    }
+
+    @Test
+    public void testOverlappingNewMacrosCancelled()
+    {
+        IControlTask taskA = mock(IControlTask.class);
+        IControlTask taskB = mock(IControlTask.class);
+        IJoystick joystick = mock(IJoystick.class);
+        UserDriver driver = UserDriverTest.createDriver(joystick, taskA, taskB);
+
+        // start both macros at the same time
+        UserDriverTest.setButtons(
+            joystick,
+            UserInputDeviceButton.JOYSTICK_STICK_TRIGGER_BUTTON,
+            UserInputDeviceButton.JOYSTICK_STICK_THUMB_BUTTON);
+        driver.sampleInputs();
+        driver.update();
+        verify(taskA, never()).begin();
+        verify(taskB, never()).begin();
+    }
+
+    @Test
+    public void testNewMacroUsurpsPreviousMacro()
+    {
+        IControlTask taskA = mock(IControlTask.class);
+        IControlTask taskB = mock(IControlTask.class);
+        IJoystick joystick = mock(IJoystick.class);
+        UserDriver driver = UserDriverTest.createDriver(joystick, taskA, taskB);
+
+        // start macro A
+        UserDriverTest.setButtons(joystick, UserInputDeviceButton.JOYSTICK_STICK_TRIGGER_BUTTON);
+        driver.sampleInputs();
+        driver.update();
+        verify(taskA).begin();
+
+        // start macro B while macro A is still active
+        UserDriverTest.setButtons(
+            joystick,
+            UserInputDeviceButton.JOYSTICK_STICK_TRIGGER_BUTTON,
+            UserInputDeviceButton.JOYSTICK_STICK_THUMB_BUTTON);
+        driver.sampleInputs();
+        driver.update();
+        verify(taskA).stop();
+        verify(taskB).begin();
+    }
+
+    private static UserDriver createDriver(IJoystick joystick, IControlTask taskA, IControlTask taskB)
+    {
+        Map<Operation, OperationDescription> operationSchema = new HashMap<Operation, OperationDescription>();
+        operationSchema.put(
+            Operation.IntakeIn,
+            new DigitalOperationDescription(
+                UserInputDevice.Driver,
+                UserInputDeviceButton.JOYSTICK_STICK_BOTTOM_LEFT_BUTTON,
+                ButtonType.Simple));
+
+        Map<MacroOperation, MacroOperationDescription> macroSchema = new HashMap<MacroOperation, MacroOperationDescription>();
+        macroSchema.put(
+            UserDriverTest.MacroA,
+            new MacroOperationDescription(
+                UserInputDevice.Driver,
+                UserInputDeviceButton.JOYSTICK_STICK_TRIGGER_BUTTON,
+                ButtonType.Toggle,
+                () -> taskA,
+                Operation.IntakeIn));
+        macroSchema.put(
+            UserDriverTest.MacroB,
+            new MacroOperationDescription(
+                UserInputDevice.Driver,
+                UserInputDeviceButton.JOYSTICK_STICK_THUMB_BUTTON,
+                ButtonType.Toggle,
+                () -> taskB,
+                Operation.IntakeIn));
+
+        IButtonMap buttonMap = mock(IButtonMap.class);
+        when(buttonMap.getOperationSchema()).thenReturn(operationSchema);
+        when(buttonMap.getMacroOperationSchema()).thenReturn(macroSchema);
+
+        return new UserDriver(mock(Injector.class), buttonMap, joystick, mock(IJoystick.class));
+    }
+
+    private static void setButtons(IJoystick joystick, UserInputDeviceButton... pressedButtons)
+    {
+        when(joystick.getRawButton(anyInt())).thenReturn(false);
+        for (UserInputDeviceButton button : pressedButtons)
+        {
+            when(joystick.getRawButton(button.Value)).thenReturn(true);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.usfirst.frc.team1318.robot.driver.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IJoystick;
+import org.usfirst.frc.team1318.robot.driver.UserInputDeviceButton;
+import org.usfirst.frc.team1318.robot.driver.buttons.AnalogAxis;
+import org.usfirst.frc.team1318.robot.driver.descriptions.UserInputDevice;
+
+import edu.wpi.first.wpilibj.Joystick.AxisType;
+
+public class UserInputPlanTest
+{
+    @Test
+    public void testSharedInputsReadOncePerCycle()
+    {
+        IJoystick driver = mock(IJoystick.class);
+        IJoystick coDriver = mock(IJoystick.class);
+        UserInputPlan plan = new UserInputPlan(driver, coDriver);
+
+        int buttonSlot = plan.registerButton(UserInputDevice.Driver, UserInputDeviceButton.JOYSTICK_STICK_TRIGGER_BUTTON);
+        assertEquals(buttonSlot, plan.registerButton(UserInputDevice.Driver, UserInputDeviceButton.JOYSTICK_STICK_TRIGGER_BUTTON));
+        assertNotEquals(buttonSlot, plan.registerButton(UserInputDevice.CoDriver, UserInputDeviceButton.JOYSTICK_STICK_TRIGGER_BUTTON));
+
+        int axisSlot = plan.registerAxis(UserInputDevice.Driver, AnalogAxis.Y);
+        assertEquals(axisSlot, plan.registerAxis(UserInputDevice.Driver, AnalogAxis.Y));
+        assertEquals(3, plan.getInputCount());
+
+        when(driver.getRawButton(UserInputDeviceButton.JOYSTICK_STICK_TRIGGER_BUTTON.Value)).thenReturn(true);
+        when(driver.getAxis(AxisType.kY)).thenReturn(-0.5);
+
+        plan.sample();
+        plan.sample();
+        assertTrue(plan.read());
+
+        assertTrue(plan.getButton(buttonSlot, 0));
+        assertEquals(-0.5, plan.getAxis(axisSlot), 0.0001);
+        verify(driver, times(2)).getRawButton(UserInputDeviceButton.JOYSTICK_STICK_TRIGGER_BUTTON.Value);
+        verify(driver, times(2)).getAxis(AxisType.kY);
+        verify(coDriver, times(2)).getRawButton(UserInputDeviceButton.JOYSTICK_STICK_TRIGGER_BUTTON.Value);
+    }
+
+    @Test
+    public void testReadPicksUpLatestSample()
+    {
+        IJoystick driver = mock(IJoystick.class);
+        IJoystick coDriver = mock(IJoystick.class);
+        UserInputPlan plan = new UserInputPlan(driver, coDriver);
+
+        int axisSlot = plan.registerAxis(UserInputDevice.Driver, AnalogAxis.Y);
+
+        when(driver.getAxis(AxisType.kY)).thenReturn(0.25);
+        plan.sample();
+        assertTrue(plan.read());
+        assertEquals(0.25, plan.getAxis(axisSlot), 0.0001);
+
+        // nothing new has been sampled, so the reader keeps the previous snapshot
+        when(driver.getAxis(AxisType.kY)).thenReturn(0.5);
+        assertFalse(plan.read());
+        assertEquals(0.25, plan.getAxis(axisSlot), 0.0001);
+
+        // only the latest of several samples is picked up
+        plan.sample();
+        when(driver.getAxis(AxisType.kY)).thenReturn(0.75);
+        plan.sample();
+        assertTrue(plan.read());
+        assertEquals(0.75, plan.getAxis(axisSlot), 0.0001);
+    }
+
+    @Test
+    public void testPovComparedPerOperation()
+    {
+        IJoystick driver = mock(IJoystick.class);
+        IJoystick coDriver = mock(IJoystick.class);
+        UserInputPlan plan = new UserInputPlan(driver, coDriver);
+
+        int povSlot = plan.registerButton(UserInputDevice.CoDriver, UserInputDeviceButton.JOYSTICK_POV);
+        assertEquals(1, plan.getInputCount());
+
+        when(coDriver.getPOV()).thenReturn(90);
+        plan.sample();
+        plan.read();
+
+        assertTrue(plan.getButton(povSlot, 90));
+        assertFalse(plan.getButton(povSlot, 270));
+        verify(coDriver, times(1)).getPOV();
+        verifyZeroInteractions(driver);
+    }
+
+    @Test
+    public void testNoInput()
+    {
+        IJoystick driver = mock(IJoystick.class);
+        IJoystick coDriver = mock(IJoystick.class);
+        UserInputPlan plan = new UserInputPlan(driver, coDriver);
+
+        assertEquals(UserInputPlan.NoInput, plan.registerButton(UserInputDevice.None, UserInputDeviceButton.NONE));
+        assertEquals(UserInputPlan.NoInput, plan.registerAxis(UserInputDevice.Driver, AnalogAxis.None));
+
+        int noButtonSlot = plan.registerButton(UserInputDevice.Driver, UserInputDeviceButton.NONE);
+        plan.sample();
+        plan.read();
+
+        assertFalse(plan.getButton(noButtonSlot, 0));
+        verifyZeroInteractions(driver, coDriver);
+    }
+}
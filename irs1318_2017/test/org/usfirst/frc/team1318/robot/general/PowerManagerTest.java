@@ -0,0 +1,46 @@
+package org.usfirst.frc.team1318.robot.general;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.usfirst.frc.team1318.robot.ElectronicsConstants;
+import org.usfirst.frc.team1318.robot.common.SensorSnapshot;
+import org.usfirst.frc.team1318.robot.common.wpilibmocks.IPowerDistributionPanel;
+
+public class PowerManagerTest
+{
+    @Test
+    public void testClimberCurrentServedFromSnapshot()
+    {
+        IPowerDistributionPanel pdp = mock(IPowerDistributionPanel.class);
+        when(pdp.getBatteryVoltage()).thenReturn(12.5);
+        when(pdp.getCurrent(ElectronicsConstants.CLIMBER_PDP_CHANNEL_A)).thenReturn(30.0);
+        when(pdp.getCurrent(ElectronicsConstants.CLIMBER_PDP_CHANNEL_B)).thenReturn(35.0);
+
+        // registered the same way as in the RobotModule
+        SensorSnapshot snapshot = new SensorSnapshot();
+        PowerManager powerManager = new PowerManager(
+            snapshot.register(pdp, ElectronicsConstants.CLIMBER_PDP_CHANNEL_A, ElectronicsConstants.CLIMBER_PDP_CHANNEL_B));
+
+        for (int i = 0; i < 3; i++)
+        {
+            snapshot.read();
+            powerManager.update();
+
+            // the climber controller reads both channels each loop
+            assertEquals(30.0, powerManager.getCurrent(ElectronicsConstants.CLIMBER_PDP_CHANNEL_A), 0.0001);
+            assertEquals(35.0, powerManager.getCurrent(ElectronicsConstants.CLIMBER_PDP_CHANNEL_B), 0.0001);
+            assertEquals(30.0, powerManager.getCurrent(ElectronicsConstants.CLIMBER_PDP_CHANNEL_A), 0.0001);
+            assertEquals(35.0, powerManager.getCurrent(ElectronicsConstants.CLIMBER_PDP_CHANNEL_B), 0.0001);
+        }
+
+        // each channel is only read from the PDP when registered and then once per snapshot, never by the power manager directly
+        verify(pdp, times(4)).getBatteryVoltage();
+        verify(pdp, times(4)).getCurrent(ElectronicsConstants.CLIMBER_PDP_CHANNEL_A);
+        verify(pdp, times(4)).getCurrent(ElectronicsConstants.CLIMBER_PDP_CHANNEL_B);
+    }
+}
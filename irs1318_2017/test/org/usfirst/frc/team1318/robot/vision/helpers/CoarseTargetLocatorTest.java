@@ -0,0 +1,210 @@
+package org.usfirst.frc.team1318.robot.vision.helpers;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.usfirst.frc.team1318.robot.vision.VisionConstants;
+
+/**
+ * Tests for the CoarseTargetLocator, which require the desktop OpenCV native library to be on java.library.path
+ * (as for the vision benchmarks).  The tests are skipped if it can't be loaded.
+ *
+ */
+public class CoarseTargetLocatorTest
+{
+    private static final int Width = VisionConstants.LIFECAM_CAMERA_RESOLUTION_X;
+    private static final int Height = VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y;
+    private static final Scalar TapeColor = new Scalar(40, 255, 40);
+
+    private static boolean loadedOpenCV;
+
+    @BeforeClass
+    public static void loadOpenCV()
+    {
+        try
+        {
+            System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
+            CoarseTargetLocatorTest.loadedOpenCV = true;
+        }
+        catch (UnsatisfiedLinkError e)
+        {
+            CoarseTargetLocatorTest.loadedOpenCV = false;
+        }
+    }
+
+    @Test
+    public void testCoarseAcceptsEverythingFullResolutionAccepts()
+    {
+        assumeTrue(CoarseTargetLocatorTest.loadedOpenCV);
+
+        HSVFilter hsvFilter = new HSVFilter(
+            VisionConstants.LIFECAM_HSV_FILTER_LOW,
+            VisionConstants.LIFECAM_HSV_FILTER_HIGH,
+            new MatPool(CoarseTargetLocatorTest.Width, CoarseTargetLocatorTest.Height));
+        ContourAnalyzer contourAnalyzer = new ContourAnalyzer(8, null, Integer.MAX_VALUE);
+
+        // no forced full-frame searches, so the locator has to find everything from the downscaled frame alone
+        CoarseTargetLocator locator = CoarseTargetLocatorTest.createLocator(0, Integer.MAX_VALUE);
+
+        // tape from the smallest that passes the full-resolution checks up to close range, at every alignment with the
+        // downscaled pixels, alone and in pairs, over a dark noisy background
+        int acceptedFrames = 0;
+        int[][] sizes = new int[][] { { 4, 10 }, { 5, 9 }, { 6, 14 }, { 7, 17 }, { 12, 30 }, { 25, 60 } };
+        for (int[] size : sizes)
+        {
+            for (int offset = 0; offset < 4; offset++)
+            {
+                for (int pieces = 1; pieces <= 2; pieces++)
+                {
+                    Mat frame = CoarseTargetLocatorTest.createBackground(offset);
+                    for (int piece = 0; piece < pieces; piece++)
+                    {
+                        int x = 101 + piece * 4 * size[0] + (offset & 1);
+                        int y = 61 + ((offset >> 1) & 1);
+                        frame.submat(y, y + size[1], x, x + size[0]).setTo(CoarseTargetLocatorTest.TapeColor);
+                    }
+
+                    int contourCount = contourAnalyzer.findLargestContours(
+                        hsvFilter.filterHSV(frame),
+                        null,
+                        VisionConstants.CONTOUR_MIN_AREA,
+                        VisionConstants.GEAR_RETROREFLECTIVE_TAPE_HxW_RATIO,
+                        VisionConstants.GEAR_HxW_ALLOWABLE_RATIO_RANGE,
+                        -1.0);
+
+                    boolean located = locator.locate(frame);
+                    if (contourCount == 0)
+                    {
+                        continue;
+                    }
+
+                    acceptedFrames++;
+                    assertTrue(located);
+
+                    Rect region = locator.getRegion();
+                    for (int i = 0; i < contourCount; i++)
+                    {
+                        assertTrue(region == null || CoarseTargetLocatorTest.contains(region, contourAnalyzer.getBoundingRect(i)));
+                    }
+                }
+            }
+        }
+
+        // make sure that the test actually covers the full-resolution checks passing
+        assertTrue(acceptedFrames >= sizes.length * 4);
+    }
+
+    @Test
+    public void testEmptyFrameSkipsFullResolutionSearch()
+    {
+        assumeTrue(CoarseTargetLocatorTest.loadedOpenCV);
+
+        CoarseTargetLocator locator = CoarseTargetLocatorTest.createLocator(0, Integer.MAX_VALUE);
+        Mat frame = CoarseTargetLocatorTest.createBackground(0);
+        for (int i = 0; i < 10; i++)
+        {
+            assertFalse(locator.locate(frame));
+        }
+
+        // a small target is searched for within a region around it
+        frame.submat(100, 110, 200, 204).setTo(CoarseTargetLocatorTest.TapeColor);
+        assertTrue(locator.locate(frame));
+        Rect region = locator.getRegion();
+        assertNotNull(region);
+        assertTrue(CoarseTargetLocatorTest.contains(region, new Rect(200, 100, 4, 10)));
+        assertTrue(region.width < CoarseTargetLocatorTest.Width / 4);
+    }
+
+    @Test
+    public void testForcesFullFrameSearchAfterMisses()
+    {
+        assumeTrue(CoarseTargetLocatorTest.loadedOpenCV);
+
+        CoarseTargetLocator locator = CoarseTargetLocatorTest.createLocator(0, 2);
+        Mat frame = CoarseTargetLocatorTest.createBackground(0);
+        for (int i = 0; i < 3; i++)
+        {
+            assertFalse(locator.locate(frame));
+            assertFalse(locator.locate(frame));
+
+            assertTrue(locator.locate(frame));
+            assertNull(locator.getRegion());
+        }
+    }
+
+    @Test
+    public void testForcesFullFrameSearchPeriodically()
+    {
+        assumeTrue(CoarseTargetLocatorTest.loadedOpenCV);
+
+        CoarseTargetLocator locator = CoarseTargetLocatorTest.createLocator(3, Integer.MAX_VALUE);
+        Mat frame = CoarseTargetLocatorTest.createBackground(0);
+        frame.submat(100, 110, 200, 204).setTo(CoarseTargetLocatorTest.TapeColor);
+        for (int i = 0; i < 3; i++)
+        {
+            assertTrue(locator.locate(frame));
+            assertNotNull(locator.getRegion());
+            assertTrue(locator.locate(frame));
+            assertNotNull(locator.getRegion());
+
+            assertTrue(locator.locate(frame));
+            assertNull(locator.getRegion());
+        }
+    }
+
+    /**
+     * Create a locator for the lifecam's frames
+     */
+    private static CoarseTargetLocator createLocator(int fullSearchInterval, int maxMisses)
+    {
+        return new CoarseTargetLocator(
+            CoarseTargetLocatorTest.Width,
+            CoarseTargetLocatorTest.Height,
+            2,
+            VisionConstants.LIFECAM_HSV_FILTER_LOW,
+            VisionConstants.LIFECAM_HSV_FILTER_HIGH,
+            VisionConstants.COARSE_TO_FINE_PADDING_RATIO,
+            fullSearchInterval,
+            maxMisses);
+    }
+
+    /**
+     * Create a dark, noisy frame without any target
+     */
+    private static Mat createBackground(int seed)
+    {
+        byte[] pixels = new byte[CoarseTargetLocatorTest.Width * CoarseTargetLocatorTest.Height * 3];
+        Random random = new Random(1318 + seed);
+        for (int i = 0; i < pixels.length; i++)
+        {
+            pixels[i] = (byte)random.nextInt(64);
+        }
+
+        Mat frame = new Mat(CoarseTargetLocatorTest.Height, CoarseTargetLocatorTest.Width, CvType.CV_8UC3);
+        frame.put(0, 0, pixels);
+        return frame;
+    }
+
+    /**
+     * Check whether a region contains a rect
+     */
+    private static boolean contains(Rect region, Rect rect)
+    {
+        return region.x <= rect.x
+            && region.y <= rect.y
+            && rect.x + rect.width <= region.x + region.width
+            && rect.y + rect.height <= region.y + region.height;
+    }
+}
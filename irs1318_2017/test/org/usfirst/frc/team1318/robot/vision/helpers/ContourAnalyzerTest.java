@@ -0,0 +1,219 @@
+package org.usfirst.frc.team1318.robot.vision.helpers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.imgproc.Imgproc;
+import org.opencv.imgproc.Moments;
+
+/**
+ * Tests that the ContourAnalyzer matches OpenCV's contourArea, moments and boundingRect, which require the desktop
+ * OpenCV native library to be on java.library.path (as for the vision benchmarks).  The tests are skipped if it can't
+ * be loaded.
+ *
+ */
+public class ContourAnalyzerTest
+{
+    private static final int Width = 320;
+    private static final int Height = 240;
+    private static final Scalar White = new Scalar(255);
+
+    private static boolean loadedOpenCV;
+
+    @BeforeClass
+    public static void loadOpenCV()
+    {
+        try
+        {
+            System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
+            ContourAnalyzerTest.loadedOpenCV = true;
+        }
+        catch (UnsatisfiedLinkError e)
+        {
+            ContourAnalyzerTest.loadedOpenCV = false;
+        }
+    }
+
+    @Test
+    public void testConvexContoursMatchOpenCV()
+    {
+        assumeTrue(ContourAnalyzerTest.loadedOpenCV);
+
+        Mat mask = ContourAnalyzerTest.createMask();
+        Imgproc.rectangle(mask, new Point(10, 10), new Point(29, 49), ContourAnalyzerTest.White, -1);
+        ContourAnalyzerTest.fillPolygon(mask, new Point(60, 10), new Point(100, 25), new Point(75, 70));
+        ContourAnalyzerTest.fillPolygon(mask, new Point(150, 20), new Point(170, 10), new Point(190, 20), new Point(190, 40), new Point(170, 50), new Point(150, 40));
+        Imgproc.circle(mask, new Point(250, 60), 25, ContourAnalyzerTest.White, -1);
+
+        ContourAnalyzerTest.assertMatchesOpenCV(mask, 4);
+    }
+
+    @Test
+    public void testConcaveContoursMatchOpenCV()
+    {
+        assumeTrue(ContourAnalyzerTest.loadedOpenCV);
+
+        Mat mask = ContourAnalyzerTest.createMask();
+
+        // L shape
+        Imgproc.rectangle(mask, new Point(10, 100), new Point(19, 159), ContourAnalyzerTest.White, -1);
+        Imgproc.rectangle(mask, new Point(10, 150), new Point(49, 159), ContourAnalyzerTest.White, -1);
+
+        // U shape
+        Imgproc.rectangle(mask, new Point(80, 100), new Point(89, 159), ContourAnalyzerTest.White, -1);
+        Imgproc.rectangle(mask, new Point(120, 100), new Point(129, 159), ContourAnalyzerTest.White, -1);
+        Imgproc.rectangle(mask, new Point(80, 150), new Point(129, 159), ContourAnalyzerTest.White, -1);
+
+        // arrow head
+        ContourAnalyzerTest.fillPolygon(mask, new Point(170, 100), new Point(230, 130), new Point(170, 160), new Point(190, 130));
+
+        // frame with a hole, where only the outer contour is analyzed
+        Imgproc.rectangle(mask, new Point(250, 100), new Point(299, 149), ContourAnalyzerTest.White, -1);
+        Imgproc.rectangle(mask, new Point(260, 110), new Point(289, 139), new Scalar(0), -1);
+
+        ContourAnalyzerTest.assertMatchesOpenCV(mask, 4);
+    }
+
+    @Test
+    public void testDegenerateContoursAreExcluded()
+    {
+        assumeTrue(ContourAnalyzerTest.loadedOpenCV);
+
+        Mat mask = ContourAnalyzerTest.createMask();
+
+        // a single pixel, and horizontal, vertical and diagonal lines one pixel wide all have no area
+        mask.put(200, 20, new byte[] { (byte)255 });
+        Imgproc.rectangle(mask, new Point(40, 200), new Point(79, 200), ContourAnalyzerTest.White, -1);
+        Imgproc.rectangle(mask, new Point(100, 180), new Point(100, 219), ContourAnalyzerTest.White, -1);
+        Imgproc.line(mask, new Point(130, 180), new Point(160, 210), ContourAnalyzerTest.White, 1, Imgproc.LINE_8, 0);
+
+        // alongside a contour with area
+        Imgproc.rectangle(mask, new Point(200, 180), new Point(239, 219), ContourAnalyzerTest.White, -1);
+
+        // OpenCV agrees that they have no area, and the analyzer never selects them as candidates
+        List<MatOfPoint> contours = ContourAnalyzerTest.findContours(mask);
+        assertEquals(5, contours.size());
+        int zeroAreaCount = 0;
+        for (MatOfPoint contour : contours)
+        {
+            if (Imgproc.contourArea(contour) == 0.0)
+            {
+                assertEquals(0.0, Imgproc.moments(contour).get_m00(), 0.0);
+                zeroAreaCount++;
+            }
+        }
+
+        assertEquals(4, zeroAreaCount);
+        ContourAnalyzerTest.assertMatchesOpenCV(mask, 1);
+    }
+
+    /**
+     * Check that the analyzer finds the expected number of candidates in the mask, on the calling thread and split
+     * across a pool, and that each has the same area, center of mass and bounding rect as calculated by OpenCV
+     */
+    private static void assertMatchesOpenCV(Mat mask, int expectedCandidates)
+    {
+        List<MatOfPoint> contours = ContourAnalyzerTest.findContours(mask);
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try
+        {
+            ContourAnalyzer[] analyzers = new ContourAnalyzer[]
+            {
+                new ContourAnalyzer(8, null, Integer.MAX_VALUE),
+                new ContourAnalyzer(8, pool, 1),
+            };
+
+            for (ContourAnalyzer analyzer : analyzers)
+            {
+                // findContours modifies the frame, so give each analyzer its own copy
+                Mat frame = mask.clone();
+                assertEquals(expectedCandidates, analyzer.findLargestContours(frame, null, 0.0));
+                frame.release();
+
+                double previousArea = Double.MAX_VALUE;
+                boolean[] matched = new boolean[contours.size()];
+                for (int i = 0; i < expectedCandidates; i++)
+                {
+                    Rect rect = analyzer.getBoundingRect(i);
+                    int match = -1;
+                    for (int j = 0; j < contours.size(); j++)
+                    {
+                        if (!matched[j] && Imgproc.boundingRect(contours.get(j)).equals(rect))
+                        {
+                            match = j;
+                        }
+                    }
+
+                    assertTrue("no contour with bounding rect " + rect, match >= 0);
+                    matched[match] = true;
+
+                    MatOfPoint contour = contours.get(match);
+                    Moments moments = Imgproc.moments(contour);
+                    double area = analyzer.getArea(i);
+                    assertEquals(Imgproc.contourArea(contour), area, 1e-9);
+                    assertEquals(Math.abs(moments.get_m00()), area, 1e-9);
+
+                    Point center = analyzer.getCenterOfMass(i);
+                    assertNotNull(center);
+                    assertEquals(moments.get_m10() / moments.get_m00(), center.x, 1e-6);
+                    assertEquals(moments.get_m01() / moments.get_m00(), center.y, 1e-6);
+
+                    // largest first
+                    assertTrue(area <= previousArea);
+                    previousArea = area;
+                }
+
+                analyzer.release();
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Find the outer contours in a mask, the same way as the analyzer
+     */
+    private static List<MatOfPoint> findContours(Mat mask)
+    {
+        List<MatOfPoint> contours = new ArrayList<MatOfPoint>();
+        Mat hierarchy = new Mat();
+        Imgproc.findContours(mask.clone(), contours, hierarchy, Imgproc.RETR_EXTERNAL, Imgproc.CHAIN_APPROX_TC89_KCOS);
+        hierarchy.release();
+        return contours;
+    }
+
+    /**
+     * Create an empty mask
+     */
+    private static Mat createMask()
+    {
+        return Mat.zeros(ContourAnalyzerTest.Height, ContourAnalyzerTest.Width, CvType.CV_8UC1);
+    }
+
+    /**
+     * Fill a polygon within a mask
+     */
+    private static void fillPolygon(Mat mask, Point... points)
+    {
+        Imgproc.fillPoly(mask, Arrays.asList(new MatOfPoint(points)), ContourAnalyzerTest.White);
+    }
+}
@@ -0,0 +1,112 @@
+package org.usfirst.frc.team1318.robot.vision.helpers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.imgproc.Imgproc;
+import org.usfirst.frc.team1318.robot.vision.VisionConstants;
+
+/**
+ * Tests for the HSVLookupTable, which require the desktop OpenCV native library to be on java.library.path
+ * (as for the vision benchmarks).  The tests are skipped if it can't be loaded.
+ *
+ */
+public class HSVLookupTableTest
+{
+    private static boolean loadedOpenCV;
+
+    @BeforeClass
+    public static void loadOpenCV()
+    {
+        try
+        {
+            System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
+            HSVLookupTableTest.loadedOpenCV = true;
+        }
+        catch (UnsatisfiedLinkError e)
+        {
+            HSVLookupTableTest.loadedOpenCV = false;
+        }
+    }
+
+    @Test
+    public void testFrameMatchesCvtColorInRange()
+    {
+        assumeTrue(HSVLookupTableTest.loadedOpenCV);
+
+        Mat frame = HSVLookupTableTest.createFrame();
+        Mat expected = HSVLookupTableTest.filterHSV(frame);
+
+        Mat actual = new Mat();
+        new HSVLookupTable(VisionConstants.LIFECAM_HSV_FILTER_LOW, VisionConstants.LIFECAM_HSV_FILTER_HIGH).filter(frame, null, actual);
+
+        assertArrayEquals(HSVLookupTableTest.getBytes(expected), HSVLookupTableTest.getBytes(actual));
+    }
+
+    @Test
+    public void testRegionMatchesCvtColorInRange()
+    {
+        assumeTrue(HSVLookupTableTest.loadedOpenCV);
+
+        Mat frame = HSVLookupTableTest.createFrame();
+        Mat expected = HSVLookupTableTest.filterHSV(frame);
+
+        // filter two different regions in a row with the same lookup table, so its buffers are reused
+        HSVLookupTable lookupTable = new HSVLookupTable(VisionConstants.LIFECAM_HSV_FILTER_LOW, VisionConstants.LIFECAM_HSV_FILTER_HIGH);
+        Mat actual = new Mat();
+        for (Rect region : new Rect[] { new Rect(80, 0, 80, 240), new Rect(93, 41, 57, 101) })
+        {
+            lookupTable.filter(frame, region, actual);
+
+            assertArrayEquals(
+                HSVLookupTableTest.getBytes(expected.submat(region)),
+                HSVLookupTableTest.getBytes(actual.submat(region)));
+        }
+    }
+
+    /**
+     * Create a noisy frame with a bright green target, roughly like what the lifecam sees with the ring light on
+     */
+    private static Mat createFrame()
+    {
+        byte[] pixels = new byte[VisionConstants.LIFECAM_CAMERA_RESOLUTION_X * VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y * 3];
+        new Random(1318).nextBytes(pixels);
+
+        Mat frame = new Mat(VisionConstants.LIFECAM_CAMERA_RESOLUTION_Y, VisionConstants.LIFECAM_CAMERA_RESOLUTION_X, CvType.CV_8UC3);
+        frame.put(0, 0, pixels);
+        frame.submat(60, 180, 100, 140).setTo(new Scalar(40, 255, 40));
+        return frame;
+    }
+
+    /**
+     * Filter the frame using cvtColor + inRange
+     */
+    private static Mat filterHSV(Mat frame)
+    {
+        Mat hsv = new Mat();
+        Imgproc.cvtColor(frame, hsv, Imgproc.COLOR_BGR2HSV);
+
+        Mat filtered = new Mat();
+        Core.inRange(hsv, VisionConstants.LIFECAM_HSV_FILTER_LOW, VisionConstants.LIFECAM_HSV_FILTER_HIGH, filtered);
+        return filtered;
+    }
+
+    /**
+     * Get the values of a single-channel matrix (or submatrix)
+     */
+    private static byte[] getBytes(Mat mat)
+    {
+        byte[] bytes = new byte[mat.rows() * mat.cols()];
+        mat.get(0, 0, bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,65 @@
+package org.usfirst.frc.team1318.robot.vision.helpers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.opencv.core.Rect;
+
+public class RegionOfInterestTrackerTest
+{
+    @Test
+    public void testFoundPadsAndClamps()
+    {
+        RegionOfInterestTracker tracker = new RegionOfInterestTracker(0.5, 16, 1.5, 3);
+        assertNull(tracker.getRegion());
+
+        tracker.found(new Rect(100, 60, 20, 50), new Rect(180, 60, 20, 50), 320, 240);
+        Rect region = tracker.getRegion();
+        assertNotNull(region);
+
+        // union is (100, 60) to (200, 110), padded by 50 in x and 25 in y
+        assertEquals(50, region.x);
+        assertEquals(35, region.y);
+        assertEquals(200, region.width);
+        assertEquals(100, region.height);
+
+        // clamped to the frame
+        tracker.found(new Rect(0, 0, 20, 20), null, 320, 240);
+        region = tracker.getRegion();
+        assertEquals(0, region.x);
+        assertEquals(0, region.y);
+        assertEquals(36, region.width);
+        assertEquals(36, region.height);
+    }
+
+    @Test
+    public void testLostGrowsThenFallsBackToFullFrame()
+    {
+        RegionOfInterestTracker tracker = new RegionOfInterestTracker(0.0, 0, 2.0, 2);
+        tracker.found(new Rect(140, 100, 40, 40), null, 320, 240);
+        assertEquals(40, tracker.getRegion().width);
+
+        tracker.lost(320, 240);
+        Rect region = tracker.getRegion();
+        assertEquals(120, region.x);
+        assertEquals(80, region.y);
+        assertEquals(80, region.width);
+        assertEquals(80, region.height);
+
+        tracker.lost(320, 240);
+        assertEquals(160, tracker.getRegion().width);
+
+        tracker.lost(320, 240);
+        assertNull(tracker.getRegion());
+    }
+
+    @Test
+    public void testRegionCoveringFrameIsFullFrame()
+    {
+        RegionOfInterestTracker tracker = new RegionOfInterestTracker(1.0, 16, 1.5, 3);
+        tracker.found(new Rect(0, 0, 320, 240), null, 320, 240);
+        assertNull(tracker.getRegion());
+    }
+}